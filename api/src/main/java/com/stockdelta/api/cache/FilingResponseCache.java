@@ -0,0 +1,346 @@
+package com.stockdelta.api.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.stockdelta.api.config.ResponseCacheConfig;
+import com.stockdelta.common.event.FilingEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of serialized JSON responses for filing-level read endpoints
+ * Entries are grouped by scope (a filing or an issuer) and hold the response bytes
+ * with their ETag, so a hit costs no repository queries and no serialization, and a
+ * matching If-None-Match costs no body at all. A Caffeine near-cache sits in front of
+ * a Redis hash per scope. FilingEvents drop both tiers after the writing transaction
+ * commits, and a Redis pub/sub message drops the near-cache on the other replicas.
+ * Each scope has a version in Redis that every invalidation bumps; a response is stored
+ * only if its scope's version is still the one read before it was built, so a replica
+ * that loaded stale rows cannot write them back after another replica's invalidation.
+ * While Redis is unavailable responses are served from the near-cache or built uncached.
+ */
+@Component
+public class FilingResponseCache implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(FilingResponseCache.class);
+
+    private static final String KEY_PREFIX = "respcache:";
+    private static final String VERSION_PREFIX = "respcache:version:";
+    private static final String NO_VERSION = "";
+    private static final String SCOPE_SEPARATOR = "|";
+    private static final String REQUESTS_METRIC = "stockdelta.response-cache.requests";
+
+    // KEYS: version, hash; ARGV: version read before the load, variant, stored response, ttl
+    private static final DefaultRedisScript<Long> STORE_SCRIPT = new DefaultRedisScript<>(
+            "if (redis.call('get', KEYS[1]) or '') ~= ARGV[1] then return 0 end " +
+            "redis.call('hset', KEYS[2], ARGV[2], ARGV[3]) " +
+            "redis.call('expire', KEYS[2], ARGV[4]) " +
+            "return 1",
+            Long.class);
+
+    // KEYS: version and hash of each scope in turn; ARGV: version ttl
+    private static final DefaultRedisScript<Long> INVALIDATE_SCRIPT = new DefaultRedisScript<>(
+            "for i = 1, #KEYS, 2 do " +
+            "redis.call('incr', KEYS[i]) " +
+            "redis.call('expire', KEYS[i], ARGV[1]) " +
+            "redis.call('del', KEYS[i + 1]) " +
+            "end " +
+            "return #KEYS / 2",
+            Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final ResponseCacheConfig config;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, CachedResponse> localCache;
+
+    @Autowired
+    public FilingResponseCache(RedisTemplate<String, Object> redisTemplate,
+                               ObjectMapper objectMapper,
+                               ResponseCacheConfig config,
+                               MeterRegistry meterRegistry,
+                               RedisMessageListenerContainer listenerContainer) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(config.getLocalMaxEntries())
+                .expireAfterWrite(Duration.ofSeconds(config.getLocalTtlSeconds()))
+                .build();
+
+        listenerContainer.addMessageListener(this, new ChannelTopic(config.getInvalidationChannel()));
+    }
+
+    public static String filingScope(Long filingId) {
+        return "filing:" + filingId;
+    }
+
+    public static String issuerScope(String cik) {
+        return "cik:" + cik;
+    }
+
+    /**
+     * Serve a response from the cache, or build it with the loader and cache it
+     * Only 200 responses with a body are cached; anything else is returned as built.
+     *
+     * @param scope       Invalidation scope, from filingScope or issuerScope
+     * @param variant     Endpoint and parameters within the scope
+     * @param ifNoneMatch The request's If-None-Match header, may be null
+     * @param loader      Builds the uncached response
+     */
+    public ResponseEntity<?> serve(String scope, String variant, String ifNoneMatch,
+                                   Supplier<ResponseEntity<?>> loader) {
+        if (!config.isEnabled()) {
+            return loader.get();
+        }
+
+        String key = scope + SCOPE_SEPARATOR + variant;
+        CachedResponse cached = lookup(scope, variant, key);
+        if (cached == null) {
+            String version = version(scope);
+            ResponseEntity<?> response = loader.get();
+            if (version == null || response.getStatusCode() != HttpStatus.OK || response.getBody() == null) {
+                return response;
+            }
+
+            cached = store(scope, variant, key, response.getBody(), version);
+            if (cached == null) {
+                return response;
+            }
+        }
+
+        return render(cached, ifNoneMatch);
+    }
+
+    /**
+     * Drop every cached response in the given scopes on all replicas
+     */
+    public void invalidate(String... scopes) {
+        evictLocal(scopes);
+
+        List<String> keys = new ArrayList<>(scopes.length * 2);
+        for (String scope : scopes) {
+            keys.add(VERSION_PREFIX + scope);
+            keys.add(KEY_PREFIX + scope);
+        }
+
+        try {
+            redisTemplate.execute(INVALIDATE_SCRIPT, keys, String.valueOf(config.getSharedTtlSeconds()));
+            redisTemplate.convertAndSend(config.getInvalidationChannel(), String.join(",", scopes));
+        } catch (Exception e) {
+            logger.warn("Failed to invalidate shared response cache for {}: {}", keys, e.getMessage());
+        }
+    }
+
+    /**
+     * Runs after other listeners so rows they rebuild are visible to the next read
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFilingEvent(FilingEvent event) {
+        logger.debug("Invalidating cached responses for {}", event);
+        List<String> scopes = new ArrayList<>(event.getFilingIds().size() + 1);
+        for (Long filingId : event.getFilingIds()) {
+            scopes.add(filingScope(filingId));
+        }
+        if (event.getCik() != null) {
+            scopes.add(issuerScope(event.getCik()));
+        }
+        if (!scopes.isEmpty()) {
+            invalidate(scopes.toArray(String[]::new));
+        }
+    }
+
+    /**
+     * Invalidation published by another replica (or echoed back from this one)
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        evictLocal(body.split(","));
+    }
+
+    private CachedResponse lookup(String scope, String variant, String key) {
+        CachedResponse cached = localCache.getIfPresent(key);
+        if (cached != null) {
+            recordRequest("local");
+            return cached;
+        }
+
+        try {
+            Object stored = redisTemplate.opsForHash().get(KEY_PREFIX + scope, variant);
+            if (stored != null) {
+                cached = CachedResponse.fromStored(stored.toString());
+                if (cached != null) {
+                    localCache.put(key, cached);
+                    recordRequest("shared");
+                    return cached;
+                }
+            }
+        } catch (Exception e) {
+            logger.debug("Shared response cache unavailable for {}: {}", key, e.getMessage());
+        }
+
+        recordRequest("miss");
+        return null;
+    }
+
+    /**
+     * The scope's current version, empty before its first invalidation
+     *
+     * @return The version, or null when Redis is unavailable
+     */
+    private String version(String scope) {
+        try {
+            Object version = redisTemplate.opsForValue().get(VERSION_PREFIX + scope);
+            return version != null ? version.toString() : NO_VERSION;
+        } catch (Exception e) {
+            logger.debug("Shared response cache unavailable for {}: {}", scope, e.getMessage());
+            return null;
+        }
+    }
+
+    private CachedResponse store(String scope, String variant, String key, Object body, String version) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            logger.warn("Failed to serialize response for {}: {}", key, e.getMessage());
+            return null;
+        }
+
+        CachedResponse cached = new CachedResponse(etagOf(json), json);
+        try {
+            Long stored = redisTemplate.execute(STORE_SCRIPT,
+                    List.of(VERSION_PREFIX + scope, KEY_PREFIX + scope),
+                    version, variant, cached.toStored(), String.valueOf(config.getSharedTtlSeconds()));
+            if (stored == null || stored == 0) {
+                // The scope was invalidated while this response was being built
+                return cached;
+            }
+
+            // An invalidation after the re-read evicts the entry through pub/sub; one before it is caught here
+            localCache.put(key, cached);
+            if (!version.equals(version(scope))) {
+                localCache.asMap().remove(key, cached);
+            }
+        } catch (Exception e) {
+            logger.debug("Failed to store {} in shared response cache: {}", key, e.getMessage());
+        }
+        return cached;
+    }
+
+    private ResponseEntity<?> render(CachedResponse cached, String ifNoneMatch) {
+        if (matches(ifNoneMatch, cached.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(cached.getEtag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(cached.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(cached.getBody());
+    }
+
+    private void evictLocal(String[] scopes) {
+        for (String scope : scopes) {
+            String prefix = scope + SCOPE_SEPARATOR;
+            localCache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                // Proxies that compress the body weaken the tag; the content is still the same
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String etagOf(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void recordRequest(String tier) {
+        meterRegistry.counter(REQUESTS_METRIC, "tier", tier).increment();
+    }
+
+    /**
+     * Serialized response body with its ETag
+     */
+    static class CachedResponse {
+        private final String etag;
+        private final byte[] body;
+
+        CachedResponse(String etag, byte[] body) {
+            this.etag = etag;
+            this.body = body;
+        }
+
+        /**
+         * Redis form: the ETag, a newline, then the JSON
+         */
+        String toStored() {
+            return etag + "\n" + new String(body, StandardCharsets.UTF_8);
+        }
+
+        static CachedResponse fromStored(String stored) {
+            int newline = stored.indexOf('\n');
+            if (newline <= 0) {
+                return null;
+            }
+            return new CachedResponse(stored.substring(0, newline),
+                    stored.substring(newline + 1).getBytes(StandardCharsets.UTF_8));
+        }
+
+        String getEtag() { return etag; }
+
+        byte[] getBody() { return body; }
+    }
+}
@@ -0,0 +1,53 @@
+package com.stockdelta.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for the serialized response cache in front of DeltaMap read endpoints
+ * Entries live in a per-replica Caffeine cache backed by a shared Redis tier.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "stockdelta.response-cache")
+public class ResponseCacheConfig {
+
+    /**
+     * Serve cached responses; when off every request rebuilds its DTO
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of responses held in each replica's memory
+     */
+    private long localMaxEntries = 5000;
+
+    /**
+     * Expiry of in-memory entries (seconds); bounds staleness if an invalidation message is lost
+     */
+    private long localTtlSeconds = 600;
+
+    /**
+     * Expiry of Redis entries (seconds)
+     */
+    private long sharedTtlSeconds = 3600;
+
+    /**
+     * Redis pub/sub channel used to invalidate other replicas' in-memory entries
+     */
+    private String invalidationChannel = "stockdelta:response-cache:invalidate";
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public long getLocalMaxEntries() { return localMaxEntries; }
+    public void setLocalMaxEntries(long localMaxEntries) { this.localMaxEntries = localMaxEntries; }
+
+    public long getLocalTtlSeconds() { return localTtlSeconds; }
+    public void setLocalTtlSeconds(long localTtlSeconds) { this.localTtlSeconds = localTtlSeconds; }
+
+    public long getSharedTtlSeconds() { return sharedTtlSeconds; }
+    public void setSharedTtlSeconds(long sharedTtlSeconds) { this.sharedTtlSeconds = sharedTtlSeconds; }
+
+    public String getInvalidationChannel() { return invalidationChannel; }
+    public void setInvalidationChannel(String invalidationChannel) { this.invalidationChannel = invalidationChannel; }
+}
@@ -0,0 +1,44 @@
+package com.stockdelta.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for the live filing event stream
+ */
+@Configuration
+@ConfigurationProperties(prefix = "stockdelta.stream")
+public class StreamConfig {
+
+    /**
+     * Events buffered per subscriber; the oldest are dropped when a client falls behind
+     */
+    private int subscriberBuffer = 256;
+
+    /**
+     * Interval of keep-alive comments on idle streams (seconds)
+     */
+    private long heartbeatSeconds = 15;
+
+    /**
+     * Maximum number of symbols one subscriber can filter on
+     */
+    private int maxSymbols = 500;
+
+    /**
+     * Redis pub/sub channel that relays filing events between API replicas
+     */
+    private String channel = "stockdelta:filing-events";
+
+    public int getSubscriberBuffer() { return subscriberBuffer; }
+    public void setSubscriberBuffer(int subscriberBuffer) { this.subscriberBuffer = subscriberBuffer; }
+
+    public long getHeartbeatSeconds() { return heartbeatSeconds; }
+    public void setHeartbeatSeconds(long heartbeatSeconds) { this.heartbeatSeconds = heartbeatSeconds; }
+
+    public int getMaxSymbols() { return maxSymbols; }
+    public void setMaxSymbols(int maxSymbols) { this.maxSymbols = maxSymbols; }
+
+    public String getChannel() { return channel; }
+    public void setChannel(String channel) { this.channel = channel; }
+}
@@ -1,25 +1,48 @@
 package com.stockdelta.api.controller;
 
+import com.stockdelta.api.cache.FilingResponseCache;
+import com.stockdelta.common.config.ExecutorConfig;
 import com.stockdelta.common.entity.Filing;
 import com.stockdelta.common.entity.FilingDelta;
 import com.stockdelta.common.entity.FilingSection;
+import com.stockdelta.common.entity.Issuer;
+import com.stockdelta.common.entity.TickerSummary;
 import com.stockdelta.common.repository.FilingRepository;
+import com.stockdelta.common.repository.FilingSectionRepository;
 import com.stockdelta.common.repository.IssuerRepository;
+import com.stockdelta.common.service.AnalysisJobService;
+import com.stockdelta.common.service.BatchDeltaService;
+import com.stockdelta.common.service.BatchJobService;
+import com.stockdelta.common.service.BatchMetricsService;
+import com.stockdelta.common.service.DiffArtifactService;
+import com.stockdelta.common.service.FilingChainIndex;
 import com.stockdelta.common.service.FilingDiffService;
 import com.stockdelta.common.service.FilingSectionExtractor;
+import com.stockdelta.common.service.MetricDistributionService;
 import com.stockdelta.common.service.XbrlMetricsService;
 import com.stockdelta.common.service.NormalizedMetricsService;
 import com.stockdelta.common.service.NormalizationPipelineService;
+import com.stockdelta.common.service.ParagraphIndexService;
+import com.stockdelta.common.service.TickerSummaryService;
 import com.stockdelta.common.entity.DataQualityValidation;
 import com.stockdelta.common.repository.DataQualityValidationRepository;
 import com.stockdelta.api.dto.DeltaMapDto;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
+import java.io.IOException;
+import java.net.URI;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,32 +59,70 @@ public class DeltaMapController {
 
     private static final Logger logger = LoggerFactory.getLogger(DeltaMapController.class);
 
+    private static final int MAX_BULK_SYMBOLS = 1000;
+
     private final FilingRepository filingRepository;
     private final IssuerRepository issuerRepository;
     private final FilingSectionExtractor sectionExtractor;
     private final FilingDiffService diffService;
+    private final FilingChainIndex chainIndex;
     private final XbrlMetricsService metricsService;
     private final NormalizedMetricsService normalizedMetricsService;
     private final NormalizationPipelineService normalizationPipelineService;
     private final DataQualityValidationRepository validationRepository;
+    private final ParagraphIndexService paragraphIndexService;
+    private final BatchDeltaService batchDeltaService;
+    private final BatchMetricsService batchMetricsService;
+    private final MetricDistributionService distributionService;
+    private final DiffArtifactService diffArtifactService;
+    private final AnalysisJobService analysisJobService;
+    private final BatchJobService batchJobService;
+    private final FilingSectionRepository sectionRepository;
+    private final TickerSummaryService tickerSummaryService;
+    private final FilingResponseCache responseCache;
+    private final Scheduler blockingScheduler;
 
     @Autowired
     public DeltaMapController(FilingRepository filingRepository,
                                IssuerRepository issuerRepository,
                                FilingSectionExtractor sectionExtractor,
                                FilingDiffService diffService,
+                               FilingChainIndex chainIndex,
                                XbrlMetricsService metricsService,
                                NormalizedMetricsService normalizedMetricsService,
                                NormalizationPipelineService normalizationPipelineService,
-                               DataQualityValidationRepository validationRepository) {
+                               DataQualityValidationRepository validationRepository,
+                               ParagraphIndexService paragraphIndexService,
+                               BatchDeltaService batchDeltaService,
+                               BatchMetricsService batchMetricsService,
+                               MetricDistributionService distributionService,
+                               DiffArtifactService diffArtifactService,
+                               AnalysisJobService analysisJobService,
+                               BatchJobService batchJobService,
+                               FilingSectionRepository sectionRepository,
+                               TickerSummaryService tickerSummaryService,
+                               FilingResponseCache responseCache,
+                               @Qualifier(ExecutorConfig.BLOCKING_SCHEDULER) Scheduler blockingScheduler) {
         this.filingRepository = filingRepository;
         this.issuerRepository = issuerRepository;
         this.sectionExtractor = sectionExtractor;
         this.diffService = diffService;
+        this.chainIndex = chainIndex;
         this.metricsService = metricsService;
         this.normalizedMetricsService = normalizedMetricsService;
         this.normalizationPipelineService = normalizationPipelineService;
         this.validationRepository = validationRepository;
+        this.paragraphIndexService = paragraphIndexService;
+        this.batchDeltaService = batchDeltaService;
+        this.batchMetricsService = batchMetricsService;
+        this.distributionService = distributionService;
+        this.diffArtifactService = diffArtifactService;
+        this.analysisJobService = analysisJobService;
+        this.batchJobService = batchJobService;
+        this.sectionRepository = sectionRepository;
+        this.tickerSummaryService = tickerSummaryService;
+        this.responseCache = responseCache;
+        this.blockingScheduler = blockingScheduler;
     }
 
     /**
@@ -73,6 +134,8 @@ public class DeltaMapController {
             @PathVariable Long filingId,
             @RequestParam(required = false, defaultValue = "false") boolean forceReextract) {
         return sectionExtractor.extractSections(filingId, forceReextract)
+                // Delta and metric computation block on JPA; keep it off reactor threads
+                .publishOn(blockingScheduler)
                 .map(sections -> {
                     // Compute deltas
                     List<FilingDelta> deltas = diffService.computeDeltas(filingId);
@@ -97,31 +160,119 @@ public class DeltaMapController {
                 });
     }
 
+    /**
+     * Recompute deltas for a set of tickers (all tracked tickers when none are given)
+     * POST /api/deltamap/batch/deltas
+     * Runs in the background; answers 202 with a job handle to poll
+     */
+    @PostMapping("/batch/deltas")
+    public ResponseEntity<BatchJobService.BatchJob> recomputeDeltas(
+            @RequestBody(required = false) BatchDeltaService.BatchRequest request) {
+
+        BatchDeltaService.BatchRequest batchRequest = request != null ? request : new BatchDeltaService.BatchRequest();
+        logger.info("Received batch delta request: symbols={}, forms={}",
+                batchRequest.getSymbols(), batchRequest.getForms());
+
+        return accepted(batchJobService.submit("deltas", () -> batchDeltaService.recomputeDeltas(batchRequest)));
+    }
+
+    /**
+     * Recompute normalized metrics for a set of tickers (all tracked tickers when none are given)
+     * POST /api/deltamap/batch/metrics
+     * Runs in the background; answers 202 with a job handle to poll
+     */
+    @PostMapping("/batch/metrics")
+    public ResponseEntity<BatchJobService.BatchJob> recomputeMetrics(
+            @RequestBody(required = false) BatchMetricsService.BatchRequest request) {
+
+        BatchMetricsService.BatchRequest batchRequest =
+                request != null ? request : new BatchMetricsService.BatchRequest();
+        logger.info("Received batch metrics request: symbols={}, forms={}",
+                batchRequest.getSymbols(), batchRequest.getForms());
+
+        return accepted(batchJobService.submit("metrics", () -> batchMetricsService.recomputeMetrics(batchRequest)));
+    }
+
+    /**
+     * Get the status, and once finished the result, of a batch job
+     * GET /api/deltamap/batch/jobs/{jobId}
+     */
+    @GetMapping("/batch/jobs/{jobId}")
+    public ResponseEntity<BatchJobService.BatchJob> getBatchJob(@PathVariable String jobId) {
+        return batchJobService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Normalize many filings, several at a time against the normalization service
+     * POST /api/deltamap/batch/normalize
+     */
+    @PostMapping("/batch/normalize")
+    public Mono<ResponseEntity<NormalizationPipelineService.BatchResult>> normalizeFilings(
+            @RequestBody NormalizationPipelineService.BatchRequest request) {
+
+        logger.info("Received batch normalization request for {} filings",
+                request.getFilingIds() != null ? request.getFilingIds().size() : 0);
+
+        return normalizationPipelineService.processFilings(request)
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Recompute the z-score distributions of a metric source from its stored metrics
+     * POST /api/deltamap/distributions/rebuild?source=xbrl
+     * Runs in the background; answers 202 with a job handle to poll
+     */
+    @PostMapping("/distributions/rebuild")
+    public ResponseEntity<BatchJobService.BatchJob> rebuildDistributions(
+            @RequestParam(defaultValue = "xbrl") String source) {
+
+        MetricDistributionService.Source target = Arrays.stream(MetricDistributionService.Source.values())
+                .filter(s -> s.getKey().equalsIgnoreCase(source))
+                .findFirst()
+                .orElse(null);
+        if (target == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        logger.info("Received distribution rebuild request: source={}", target.getKey());
+
+        return accepted(batchJobService.submit("distributions", () -> {
+            distributionService.rebuild(target);
+            return Map.of("source", target.getKey());
+        }));
+    }
+
     /**
      * Get sections for a filing
      * GET /api/deltamap/filings/{filingId}/sections
+     * Returns 202 with an analysis job handle when the sections have not been extracted yet
      */
     @GetMapping("/filings/{filingId}/sections")
-    public ResponseEntity<Map<String, Object>> getFilingSections(
+    public ResponseEntity<?> getFilingSections(
             @PathVariable Long filingId,
             @RequestParam(required = false) String section) {
 
-        return sectionExtractor.extractSections(filingId)
-                .map(sections -> {
-                    Map<String, Object> response = new HashMap<>();
-                    response.put("filingId", filingId);
+        if (!filingRepository.existsById(filingId)) {
+            return ResponseEntity.notFound().build();
+        }
 
-                    if (section != null) {
-                        sections = sections.stream()
-                                .filter(s -> s.getSection().equalsIgnoreCase(section))
-                                .toList();
-                    }
+        List<FilingSection> sections = sectionRepository.findByFilingId(filingId);
+        if (sections.isEmpty() && !analysisJobService.hasCompleted(filingId)) {
+            return accepted(analysisJobService.submit(filingId));
+        }
 
-                    response.put("sections", sections);
-                    return ResponseEntity.ok(response);
-                })
-                .defaultIfEmpty(ResponseEntity.notFound().build())
-                .block();
+        if (section != null) {
+            sections = sections.stream()
+                    .filter(s -> s.getSection().equalsIgnoreCase(section))
+                    .toList();
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("filingId", filingId);
+        response.put("sections", sections);
+        return ResponseEntity.ok(response);
     }
 
     /**
@@ -129,10 +280,17 @@ public class DeltaMapController {
      * GET /api/deltamap/filings/{filingId}/deltas
      */
     @GetMapping("/filings/{filingId}/deltas")
-    public ResponseEntity<DeltaMapDto> getFilingDeltas(
+    public ResponseEntity<?> getFilingDeltas(
             @PathVariable Long filingId,
-            @RequestParam(required = false) String section) {
+            @RequestParam(required = false) String section,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
+        String variant = "deltas:" + (section != null ? section.toLowerCase() : "");
+        return responseCache.serve(FilingResponseCache.filingScope(filingId), variant, ifNoneMatch,
+                () -> buildFilingDeltas(filingId, section));
+    }
+
+    private ResponseEntity<?> buildFilingDeltas(Long filingId, String section) {
         Optional<Filing> filingOpt = filingRepository.findById(filingId);
         if (filingOpt.isEmpty()) {
             return ResponseEntity.notFound().build();
@@ -143,27 +301,18 @@ public class DeltaMapController {
         // Check if analysis has been done
         FilingDiffService.DeltaSummary summary = diffService.getDeltaSummary(filingId);
 
-        // If no deltas exist, trigger analysis automatically
-        if (summary.getTotalChanges() == 0) {
+        // If no deltas exist, run the analysis in the background and hand back a job
+        if (summary.getTotalChanges() == 0 && !analysisJobService.hasCompleted(filingId)) {
             logger.info("No deltas found for filing {}, triggering automatic analysis", filingId);
-
-            // Extract sections and compute deltas
-            try {
-                sectionExtractor.extractSections(filingId).block();
-                diffService.computeDeltas(filingId);
-                // Refresh summary after analysis
-                summary = diffService.getDeltaSummary(filingId);
-            } catch (Exception e) {
-                logger.error("Failed to auto-analyze filing {}: {}", filingId, e.getMessage());
-            }
+            return accepted(analysisJobService.submit(filingId));
         }
 
         // Build response
         DeltaMapDto dto = new DeltaMapDto();
         dto.setCurrent(buildFilingInfo(currentFiling));
 
-        // Find previous filing
-        findPreviousFiling(currentFiling).ifPresent(previous -> {
+        // The filing the deltas were computed against
+        chainIndex.previous(currentFiling).ifPresent(previous -> {
             dto.setPrevious(buildFilingInfo(previous));
         });
 
@@ -171,6 +320,7 @@ public class DeltaMapController {
         dto.setInsertCount(summary.getInsertCount());
         dto.setDeleteCount(summary.getDeleteCount());
         dto.setModifyCount(summary.getModifyCount());
+        dto.setDegradedSections(summary.getDegradedSections());
 
         List<FilingDelta> deltas = summary.getTopChanges();
         if (section != null) {
@@ -183,12 +333,96 @@ public class DeltaMapController {
         return ResponseEntity.ok(dto);
     }
 
+    /**
+     * Get the status of an analysis job
+     * GET /api/deltamap/jobs/{jobId}
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<AnalysisJobService.AnalysisJob> getJob(@PathVariable String jobId) {
+        return analysisJobService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Subscribe to an analysis job; emits the current state and then the final state
+     * GET /api/deltamap/jobs/{jobId}/events
+     */
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamJob(@PathVariable String jobId) {
+        Optional<AnalysisJobService.AnalysisJob> jobOpt = analysisJobService.getJob(jobId);
+        if (jobOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        AnalysisJobService.AnalysisJob job = jobOpt.get();
+        SseEmitter emitter = new SseEmitter(0L);
+        try {
+            emitter.send(SseEmitter.event().name("status").data(job));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return ResponseEntity.ok(emitter);
+        }
+
+        analysisJobService.awaitCompletion(job).whenComplete((finished, error) -> {
+            try {
+                emitter.send(SseEmitter.event().name("status").data(finished));
+                emitter.complete();
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            }
+        });
+
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Get the full stored diff of one section, paginated by edit operation
+     * GET /api/deltamap/filings/{filingId}/sections/{section}/diff?offset=0&limit=200
+     * An unchanged section answers with an empty diff; 404 means there is nothing to render
+     */
+    @GetMapping("/filings/{filingId}/sections/{section}/diff")
+    public ResponseEntity<DiffArtifactService.DiffPage> getSectionDiff(
+            @PathVariable Long filingId,
+            @PathVariable String section,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "200") int limit) {
+
+        return diffArtifactService.renderDiff(filingId, section, offset, limit)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Get paragraphs of a section not seen in earlier filings of the same industry
+     * GET /api/deltamap/filings/{filingId}/novel-paragraphs?section=
+     */
+    @GetMapping("/filings/{filingId}/novel-paragraphs")
+    public ResponseEntity<List<ParagraphIndexService.ParagraphMatch>> getNovelParagraphs(
+            @PathVariable Long filingId,
+            @RequestParam String section) {
+
+        if (!filingRepository.existsById(filingId)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(paragraphIndexService.findNovelParagraphs(filingId, section));
+    }
+
     /**
      * Get normalized heatmap data for a filing (New - uses NormalizedMetricsService)
      * GET /api/deltamap/filings/{filingId}/normalized-heatmap
      */
     @GetMapping("/filings/{filingId}/normalized-heatmap")
-    public ResponseEntity<NormalizedMetricsService.HeatmapData> getNormalizedHeatmap(@PathVariable Long filingId) {
+    public ResponseEntity<?> getNormalizedHeatmap(
+            @PathVariable Long filingId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        return responseCache.serve(FilingResponseCache.filingScope(filingId), "normalized-heatmap", ifNoneMatch,
+                () -> buildNormalizedHeatmap(filingId));
+    }
+
+    private ResponseEntity<?> buildNormalizedHeatmap(Long filingId) {
         NormalizedMetricsService.HeatmapData heatmap = normalizedMetricsService.getHeatmapData(filingId);
 
         if (heatmap.getRows() == null || heatmap.getRows().isEmpty()) {
@@ -201,6 +435,8 @@ public class DeltaMapController {
     /**
      * Trigger normalization for a filing using Arelle + FAC
      * POST /api/deltamap/filings/{filingId}/normalize
+     * Answers 202 with status "deferred" when the service is unavailable; the filing is
+     * then retried in the background.
      */
     @PostMapping("/filings/{filingId}/normalize")
     public Mono<ResponseEntity<NormalizationPipelineService.NormalizationResult>> normalizeFiling(
@@ -209,8 +445,9 @@ public class DeltaMapController {
 
         return normalizationPipelineService.processFiling(filingId)
                 .map(result -> {
-                    // Optionally calculate metrics after normalization
-                    if (calculateMetrics && "completed".equals(result.getStatus())) {
+                    // Optionally calculate metrics after normalization; unchanged data needs none
+                    if (calculateMetrics && "completed".equals(result.getStatus())
+                            && !"unchanged".equals(result.getCacheStatus())) {
                         try {
                             normalizedMetricsService.calculateMetrics(filingId);
                         } catch (Exception e) {
@@ -218,6 +455,9 @@ public class DeltaMapController {
                                     filingId, e.getMessage());
                         }
                     }
+                    if ("deferred".equals(result.getStatus())) {
+                        return ResponseEntity.accepted().body(result);
+                    }
                     return ResponseEntity.ok(result);
                 })
                 .onErrorResume(error -> {
@@ -278,7 +518,15 @@ public class DeltaMapController {
      * GET /api/deltamap/filings/{filingId}/data-quality
      */
     @GetMapping("/filings/{filingId}/data-quality")
-    public ResponseEntity<DataQualityResponse> getDataQuality(@PathVariable Long filingId) {
+    public ResponseEntity<?> getDataQuality(
+            @PathVariable Long filingId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        return responseCache.serve(FilingResponseCache.filingScope(filingId), "data-quality", ifNoneMatch,
+                () -> buildDataQuality(filingId));
+    }
+
+    private ResponseEntity<?> buildDataQuality(Long filingId) {
         List<DataQualityValidation> validations = validationRepository.findByFilingId(filingId);
 
         DataQualityResponse response = new DataQualityResponse();
@@ -311,43 +559,70 @@ public class DeltaMapController {
      * GET /api/deltamap/tickers/{symbol}/summary
      */
     @GetMapping("/tickers/{symbol}/summary")
-    public ResponseEntity<TickerDeltaSummary> getTickerDeltaSummary(@PathVariable String symbol) {
+    public ResponseEntity<?> getTickerDeltaSummary(
+            @PathVariable String symbol,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
         var issuer = issuerRepository.findByTicker(symbol.toUpperCase());
         if (issuer.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
 
-        String cik = issuer.get().getCik();
-
-        // Get latest 10-K or 10-Q
-        List<Filing> recentFilings = filingRepository.findByCikOrderByFiledAtDesc(cik);
-        Optional<Filing> latestFiling = recentFilings.stream()
-                .filter(f -> f.getForm().matches("10-[KQ]"))
-                .findFirst();
+        // Keyed by issuer so any filing event for the CIK drops it
+        String variant = "ticker-summary:" + symbol.toUpperCase();
+        return responseCache.serve(FilingResponseCache.issuerScope(issuer.get().getCik()), variant, ifNoneMatch,
+                () -> buildTickerDeltaSummary(symbol, issuer.get()));
+    }
 
-        if (latestFiling.isEmpty()) {
+    private ResponseEntity<?> buildTickerDeltaSummary(String symbol, Issuer issuer) {
+        Optional<TickerSummary> stored = tickerSummaryService.getOrBuild(issuer);
+        if (stored.isEmpty()) {
             return ResponseEntity.noContent().build();
         }
 
-        Filing filing = latestFiling.get();
-        FilingDiffService.DeltaSummary deltaSummary = diffService.getDeltaSummary(filing.getId());
-        XbrlMetricsService.HeatmapData heatmap = metricsService.getHeatmapData(filing.getId());
-
-        TickerDeltaSummary summary = new TickerDeltaSummary();
+        TickerDeltaSummary summary = toTickerDeltaSummary(stored.get());
         summary.setSymbol(symbol.toUpperCase());
-        summary.setCompanyName(issuer.get().getName());
-        summary.setLatestFiling(buildFilingInfo(filing));
-        summary.setTotalChanges(deltaSummary.getTotalChanges());
+        return ResponseEntity.ok(summary);
+    }
 
-        // Create change badges
-        summary.addBadge(createDeltaBadge(deltaSummary));
-        summary.addBadge(createXbrlBadge(heatmap));
+    /**
+     * Get delta summaries for many tickers in one request
+     * GET /api/deltamap/tickers/summaries?symbols=AAPL,MSFT
+     * Symbols that are unknown or have no 10-K/10-Q are left out.
+     */
+    @GetMapping("/tickers/summaries")
+    public ResponseEntity<List<TickerDeltaSummary>> getTickerDeltaSummaries(@RequestParam List<String> symbols) {
+        List<String> tickers = symbols.stream()
+                .map(s -> s.trim().toUpperCase())
+                .filter(s -> !s.isEmpty())
+                .distinct()
+                .toList();
 
-        return ResponseEntity.ok(summary);
+        if (tickers.size() > MAX_BULK_SYMBOLS) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<TickerDeltaSummary> summaries = tickerSummaryService.findByTickers(tickers).stream()
+                .map(this::toTickerDeltaSummary)
+                .toList();
+
+        return ResponseEntity.ok(summaries);
     }
 
     // Helper methods
 
+    private ResponseEntity<AnalysisJobService.AnalysisJob> accepted(AnalysisJobService.AnalysisJob job) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/deltamap/jobs/" + job.getJobId()))
+                .body(job);
+    }
+
+    private ResponseEntity<BatchJobService.BatchJob> accepted(BatchJobService.BatchJob job) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/deltamap/batch/jobs/" + job.getJobId()))
+                .body(job);
+    }
+
     private DeltaMapDto.FilingInfo buildFilingInfo(Filing filing) {
         DeltaMapDto.FilingInfo info = new DeltaMapDto.FilingInfo();
         info.setFilingId(filing.getId());
@@ -359,22 +634,34 @@ public class DeltaMapController {
         return info;
     }
 
-    private Optional<Filing> findPreviousFiling(Filing current) {
-        List<Filing> filings = filingRepository.findByCikAndFormOrderByFiledAtDesc(
-                current.getCik(), current.getForm());
+    private TickerDeltaSummary toTickerDeltaSummary(TickerSummary stored) {
+        DeltaMapDto.FilingInfo filingInfo = new DeltaMapDto.FilingInfo();
+        filingInfo.setFilingId(stored.getFilingId());
+        filingInfo.setForm(stored.getForm());
+        filingInfo.setPeriodEnd(stored.getPeriodEnd());
+        filingInfo.setFiledAt(stored.getFiledAt());
+        filingInfo.setAccessionNo(stored.getAccessionNo());
+        filingInfo.setPrimaryDocUrl(stored.getPrimaryDocUrl());
+
+        TickerDeltaSummary summary = new TickerDeltaSummary();
+        summary.setSymbol(stored.getTicker());
+        summary.setCompanyName(stored.getCompanyName());
+        summary.setLatestFiling(filingInfo);
+        summary.setTotalChanges(stored.getTotalChanges());
 
-        return filings.stream()
-                .filter(f -> f.getFiledAt().isBefore(current.getFiledAt()))
-                .findFirst();
+        // Create change badges
+        summary.addBadge(createDeltaBadge(stored.getTotalChanges()));
+        summary.addBadge(createXbrlBadge(stored.getMaxZScore()));
+        return summary;
     }
 
-    private TickerDeltaSummary.ChangeBadge createDeltaBadge(FilingDiffService.DeltaSummary summary) {
-        if (summary.getTotalChanges() == 0) {
+    private TickerDeltaSummary.ChangeBadge createDeltaBadge(int totalChanges) {
+        if (totalChanges == 0) {
             return null;
         }
 
-        String label = String.format("MD&A %d건 변경", summary.getTotalChanges());
-        String severity = summary.getTotalChanges() > 10 ? "high" : "medium";
+        String label = String.format("MD&A %d건 변경", totalChanges);
+        String severity = totalChanges > 10 ? "high" : "medium";
 
         TickerDeltaSummary.ChangeBadge badge = new TickerDeltaSummary.ChangeBadge();
         badge.setType("section");
@@ -383,18 +670,9 @@ public class DeltaMapController {
         return badge;
     }
 
-    private TickerDeltaSummary.ChangeBadge createXbrlBadge(XbrlMetricsService.HeatmapData heatmap) {
-        if (heatmap.getRows() == null || heatmap.getRows().isEmpty()) {
-            return null;
-        }
-
-        // Find highest Z-score
-        double maxZScore = heatmap.getRows().stream()
-                .mapToDouble(XbrlMetricsService.HeatmapRow::getZScore)
-                .max()
-                .orElse(0.0);
-
-        if (maxZScore < 2.0) {
+    private TickerDeltaSummary.ChangeBadge createXbrlBadge(Double maxZScore) {
+        // Null when the filing has no XBRL metrics
+        if (maxZScore == null || maxZScore < 2.0) {
             return null;
         }
 
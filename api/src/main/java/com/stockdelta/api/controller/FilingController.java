@@ -1,8 +1,10 @@
 package com.stockdelta.api.controller;
 
 import com.stockdelta.common.entity.Filing;
+import com.stockdelta.common.repository.FilingListing;
 import com.stockdelta.common.repository.FilingRepository;
 import com.stockdelta.common.repository.IssuerRepository;
+import com.stockdelta.api.dto.FilingCursor;
 import com.stockdelta.api.dto.FilingDto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -17,6 +19,10 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class FilingController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final FilingRepository filingRepository;
     private final IssuerRepository issuerRepository;
 
@@ -26,11 +32,22 @@ public class FilingController {
         this.issuerRepository = issuerRepository;
     }
 
+    /**
+     * An issuer's filings, newest first, one keyset page at a time
+     */
     @GetMapping("/{symbol}/latest")
     public ResponseEntity<List<FilingDto>> getLatestFilings(
             @PathVariable String symbol,
             @RequestParam(required = false) String form,
-            @RequestParam(defaultValue = "10") int limit) {
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String cursor) {
+
+        FilingCursor after;
+        try {
+            after = FilingCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
 
         // Resolve ticker to CIK
         Optional<com.stockdelta.common.entity.Issuer> issuer =
@@ -40,32 +57,27 @@ public class FilingController {
             return ResponseEntity.notFound().build();
         }
 
-        String cik = issuer.get().getCik();
-        List<Filing> filings;
-
-        if (form != null && !form.isEmpty()) {
-            filings = filingRepository.findByCikAndFormOrderByFiledAtDesc(cik, form);
-        } else {
-            filings = filingRepository.findByCikOrderByFiledAtDesc(cik);
-        }
-
-        // Limit results and convert to DTOs
-        String ticker = issuer.get().getTicker();
-        String companyName = issuer.get().getName();
-
-        List<FilingDto> filingDtos = filings.stream()
-                .limit(limit)
-                .map(filing -> new FilingDto(filing, ticker, companyName))
-                .toList();
-
-        return ResponseEntity.ok(filingDtos);
+        int pageSize = pageSize(limit);
+        return page(findIssuerPage(issuer.get(), form, null, after, pageSize), pageSize);
     }
 
+    /**
+     * An issuer's filings of the last few days, newest first, one keyset page at a time
+     */
     @GetMapping("/{symbol}/recent")
     public ResponseEntity<List<FilingDto>> getRecentFilings(
             @PathVariable String symbol,
             @RequestParam(required = false) String form,
-            @RequestParam(defaultValue = "7") int days) {
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String cursor) {
+
+        FilingCursor after;
+        try {
+            after = FilingCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
 
         // Resolve ticker to CIK
         Optional<com.stockdelta.common.entity.Issuer> issuer =
@@ -75,66 +87,56 @@ public class FilingController {
             return ResponseEntity.notFound().build();
         }
 
-        String cik = issuer.get().getCik();
         LocalDateTime since = LocalDateTime.now().minusDays(days);
-
-        List<Filing> filings;
-        if (form != null && !form.isEmpty()) {
-            filings = filingRepository.findByCikAndFormSince(cik, form, since);
-        } else {
-            filings = filingRepository.findByCiksAndFiledAtAfter(List.of(cik), since);
-        }
-
-        String ticker = issuer.get().getTicker();
-        String companyName = issuer.get().getName();
-
-        List<FilingDto> filingDtos = filings.stream()
-                .map(filing -> new FilingDto(filing, ticker, companyName))
-                .toList();
-
-        return ResponseEntity.ok(filingDtos);
+        int pageSize = pageSize(limit);
+        return page(findIssuerPage(issuer.get(), form, since, after, pageSize), pageSize);
     }
 
+    /**
+     * Recent filings across issuers, newest first, one keyset page at a time
+     * The next page's cursor is returned in the X-Next-Cursor header; it is absent on the last page.
+     */
     @GetMapping("/recent")
     public ResponseEntity<List<FilingDto>> getAllRecentFilings(
             @RequestParam(required = false) String[] forms,
             @RequestParam(defaultValue = "1") int days,
-            @RequestParam(defaultValue = "50") int limit) {
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String cursor) {
+
+        FilingCursor after;
+        try {
+            after = FilingCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
 
         LocalDateTime since = LocalDateTime.now().minusDays(days);
-        List<Filing> filings;
+        int pageSize = pageSize(limit);
 
+        // One extra row tells whether another page follows
+        List<FilingListing> listings;
         if (forms != null && forms.length > 0) {
-            filings = filingRepository.findByFormsAndFiledAtAfter(List.of(forms), since);
+            listings = filingRepository.findFormListingsSince(
+                    List.of(forms), since, after.getFiledAt(), after.getId(), pageSize + 1);
         } else {
-            // Get all recent filings
-            List<String> allCiks = issuerRepository.findAllWithTicker()
-                    .stream()
-                    .map(com.stockdelta.common.entity.Issuer::getCik)
-                    .toList();
-            filings = filingRepository.findByCiksAndFiledAtAfter(allCiks, since);
+            listings = filingRepository.findTickerListingsSince(
+                    since, after.getFiledAt(), after.getId(), pageSize + 1);
         }
 
-        // Convert to DTOs with issuer info
-        List<FilingDto> filingDtos = filings.stream()
-                .sorted((f1, f2) -> f2.getFiledAt().compareTo(f1.getFiledAt()))
-                .limit(limit)
-                .map(filing -> {
-                    var issuer = issuerRepository.findByCik(filing.getCik());
-                    String ticker = issuer.map(com.stockdelta.common.entity.Issuer::getTicker).orElse(null);
-                    String companyName = issuer.map(com.stockdelta.common.entity.Issuer::getName).orElse(null);
-                    return new FilingDto(filing, ticker, companyName);
-                })
+        List<FilingDto> filingDtos = listings.stream()
+                .map(FilingDto::new)
                 .toList();
 
-        return ResponseEntity.ok(filingDtos);
+        return page(filingDtos, pageSize);
     }
 
     @GetMapping("/search")
     public ResponseEntity<List<FilingDto>> searchFilings(
             @RequestParam(required = false) String symbol,
             @RequestParam(required = false) String form,
-            @RequestParam(required = false) String accessionNo) {
+            @RequestParam(required = false) String accessionNo,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String cursor) {
 
         if (accessionNo != null && !accessionNo.isEmpty()) {
             Optional<Filing> filing = filingRepository.findByAccessionNo(accessionNo);
@@ -148,6 +150,13 @@ public class FilingController {
         }
 
         if (symbol != null && !symbol.isEmpty()) {
+            FilingCursor after;
+            try {
+                after = FilingCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+
             Optional<com.stockdelta.common.entity.Issuer> issuer =
                     issuerRepository.findByTicker(symbol.toUpperCase());
 
@@ -155,24 +164,8 @@ public class FilingController {
                 return ResponseEntity.notFound().build();
             }
 
-            String cik = issuer.get().getCik();
-            List<Filing> filings;
-
-            if (form != null && !form.isEmpty()) {
-                filings = filingRepository.findByCikAndFormOrderByFiledAtDesc(cik, form);
-            } else {
-                filings = filingRepository.findByCikOrderByFiledAtDesc(cik);
-            }
-
-            // Convert to DTOs
-            String ticker = issuer.get().getTicker();
-            String companyName = issuer.get().getName();
-
-            List<FilingDto> filingDtos = filings.stream()
-                    .map(filing -> new FilingDto(filing, ticker, companyName))
-                    .toList();
-
-            return ResponseEntity.ok(filingDtos);
+            int pageSize = pageSize(limit);
+            return page(findIssuerPage(issuer.get(), form, null, after, pageSize), pageSize);
         }
 
         return ResponseEntity.badRequest().build();
@@ -198,6 +191,54 @@ public class FilingController {
         return ResponseEntity.ok(stats);
     }
 
+    /**
+     * Fetch one page (plus one look-ahead row) of an issuer's filings, optionally of one form
+     * or filed since a date
+     */
+    private List<FilingDto> findIssuerPage(com.stockdelta.common.entity.Issuer issuer, String form,
+                                           LocalDateTime since, FilingCursor after, int pageSize) {
+        boolean byForm = form != null && !form.isEmpty();
+        List<Filing> filings;
+        if (since != null) {
+            filings = byForm
+                    ? filingRepository.findPageByCikAndFormSince(
+                            issuer.getCik(), form, since, after.getFiledAt(), after.getId(), pageSize + 1)
+                    : filingRepository.findPageByCikSince(
+                            issuer.getCik(), since, after.getFiledAt(), after.getId(), pageSize + 1);
+        } else if (byForm) {
+            filings = filingRepository.findPageByCikAndForm(
+                    issuer.getCik(), form, after.getFiledAt(), after.getId(), pageSize + 1);
+        } else {
+            filings = filingRepository.findPageByCik(
+                    issuer.getCik(), after.getFiledAt(), after.getId(), pageSize + 1);
+        }
+
+        String ticker = issuer.getTicker();
+        String companyName = issuer.getName();
+        return filings.stream()
+                .map(filing -> new FilingDto(filing, ticker, companyName))
+                .toList();
+    }
+
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Trim a result fetched with one extra row to the page size and set the next-page cursor
+     */
+    private static ResponseEntity<List<FilingDto>> page(List<FilingDto> filings, int pageSize) {
+        if (filings.size() <= pageSize) {
+            return ResponseEntity.ok(filings);
+        }
+
+        List<FilingDto> page = filings.subList(0, pageSize);
+        FilingDto last = page.get(pageSize - 1);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, new FilingCursor(last.getFiledAt(), last.getId()).encode())
+                .body(page);
+    }
+
     public static class FilingStats {
         private String symbol;
         private String cik;
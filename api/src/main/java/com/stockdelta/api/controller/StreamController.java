@@ -0,0 +1,93 @@
+package com.stockdelta.api.controller;
+
+import com.stockdelta.api.config.StreamConfig;
+import com.stockdelta.api.stream.FilingEventBus;
+import com.stockdelta.api.stream.FilingStreamEvent;
+import com.stockdelta.common.config.ExecutorConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Server-Sent Events streams of live filing activity
+ * Replaces polling of the filing listing and ingestion status endpoints.
+ */
+@RestController
+@RequestMapping("/api/stream")
+@CrossOrigin(origins = "*")
+public class StreamController {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamController.class);
+
+    private final FilingEventBus eventBus;
+    private final StreamConfig streamConfig;
+    private final Scheduler blockingScheduler;
+
+    @Autowired
+    public StreamController(FilingEventBus eventBus,
+                            StreamConfig streamConfig,
+                            @Qualifier(ExecutorConfig.BLOCKING_SCHEDULER) Scheduler blockingScheduler) {
+        this.eventBus = eventBus;
+        this.streamConfig = streamConfig;
+        this.blockingScheduler = blockingScheduler;
+    }
+
+    /**
+     * Stream filing events (ingested, sections extracted, deltas computed, metrics, normalized)
+     * GET /api/stream/filings?symbols=AAPL,NVDA
+     * Without symbols every event is streamed. Each SSE event is named after the event type.
+     */
+    @GetMapping(value = "/filings", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamFilings(@RequestParam(required = false) List<String> symbols) {
+        Set<String> tickers = symbols == null ? Collections.emptySet() : symbols.stream()
+                .map(s -> s.trim().toUpperCase())
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toSet());
+
+        if (tickers.size() > streamConfig.getMaxSymbols()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        SseEmitter emitter = new SseEmitter(0L);
+        Flux<SseEmitter.SseEventBuilder> events = eventBus.subscribe(tickers)
+                .map(event -> SseEmitter.event().name(event.getType()).data(event));
+        Flux<SseEmitter.SseEventBuilder> heartbeats = Flux.interval(Duration.ofSeconds(streamConfig.getHeartbeatSeconds()))
+                .onBackpressureDrop()
+                .map(tick -> SseEmitter.event().comment("heartbeat"));
+
+        // Sends block on the client socket, so they run off the publishing thread, one at a time
+        Disposable subscription = Flux.merge(events, heartbeats)
+                .publishOn(blockingScheduler, 1)
+                .subscribe(event -> {
+                    try {
+                        emitter.send(event);
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Stream client disconnected", e);
+                    }
+                }, error -> {
+                    logger.debug("Filing stream closed: {}", error.getMessage());
+                    emitter.complete();
+                });
+
+        emitter.onCompletion(subscription::dispose);
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(error -> subscription.dispose());
+
+        return ResponseEntity.ok(emitter);
+    }
+}
@@ -1,14 +1,17 @@
 package com.stockdelta.api.controller;
 
+import com.stockdelta.common.config.ExecutorConfig;
 import com.stockdelta.common.entity.Issuer;
 import com.stockdelta.common.repository.IssuerRepository;
 import com.stockdelta.common.sec.TickerResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import java.util.List;
 import java.util.Optional;
@@ -22,11 +25,14 @@ public class TickerController {
 
     private final TickerResolver tickerResolver;
     private final IssuerRepository issuerRepository;
+    private final Scheduler blockingScheduler;
 
     @Autowired
-    public TickerController(TickerResolver tickerResolver, IssuerRepository issuerRepository) {
+    public TickerController(TickerResolver tickerResolver, IssuerRepository issuerRepository,
+                            @Qualifier(ExecutorConfig.BLOCKING_SCHEDULER) Scheduler blockingScheduler) {
         this.tickerResolver = tickerResolver;
         this.issuerRepository = issuerRepository;
+        this.blockingScheduler = blockingScheduler;
     }
 
     public static class TickerResolution {
@@ -59,23 +65,20 @@ public class TickerController {
     }
 
     @GetMapping("/resolve")
-    public ResponseEntity<TickerResolution> resolveTicker(@RequestParam String symbol) {
+    public Mono<ResponseEntity<TickerResolution>> resolveTicker(@RequestParam String symbol) {
         logger.info("Resolving ticker: {}", symbol);
 
-        try {
-            String cik = tickerResolver.resolveTicker(symbol.toUpperCase()).block();
-            if (cik != null) {
-                Optional<Issuer> issuer = issuerRepository.findById(cik);
-                if (issuer.isPresent()) {
-                    TickerResolution resolution = new TickerResolution(symbol.toUpperCase(), issuer.get());
-                    return ResponseEntity.ok(resolution);
-                }
-            }
-            return ResponseEntity.notFound().build();
-        } catch (Exception e) {
-            logger.error("Failed to resolve ticker {}: {}", symbol, e.getMessage());
-            return ResponseEntity.notFound().build();
-        }
+        String upperSymbol = symbol.toUpperCase();
+        return tickerResolver.resolveTicker(upperSymbol)
+                .flatMap(cik -> Mono.fromCallable(() -> issuerRepository.findById(cik))
+                        .subscribeOn(blockingScheduler))
+                .flatMap(issuerOpt -> Mono.justOrEmpty(issuerOpt))
+                .map(issuer -> ResponseEntity.ok(new TickerResolution(upperSymbol, issuer)))
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorResume(e -> {
+                    logger.error("Failed to resolve ticker {}: {}", symbol, e.getMessage());
+                    return Mono.just(ResponseEntity.notFound().build());
+                });
     }
 
     @GetMapping("/list")
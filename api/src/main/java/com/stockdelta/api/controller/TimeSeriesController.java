@@ -0,0 +1,108 @@
+package com.stockdelta.api.controller;
+
+import com.stockdelta.common.entity.Issuer;
+import com.stockdelta.common.repository.IssuerRepository;
+import com.stockdelta.common.service.BatchJobService;
+import com.stockdelta.common.service.CalendarFrames;
+import com.stockdelta.common.service.FinancialTimeSeriesService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Time-series and frame queries over normalized financials
+ */
+@RestController
+@RequestMapping("/api/timeseries")
+@CrossOrigin(origins = "*")
+public class TimeSeriesController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimeSeriesController.class);
+
+    private static final int MAX_PERIODS = 200;
+    private static final Set<String> PERIOD_KINDS = Set.of(
+            CalendarFrames.QUARTER, CalendarFrames.YEAR, CalendarFrames.INSTANT);
+
+    private final FinancialTimeSeriesService timeSeriesService;
+    private final IssuerRepository issuerRepository;
+    private final BatchJobService batchJobService;
+
+    @Autowired
+    public TimeSeriesController(FinancialTimeSeriesService timeSeriesService,
+                                IssuerRepository issuerRepository,
+                                BatchJobService batchJobService) {
+        this.timeSeriesService = timeSeriesService;
+        this.issuerRepository = issuerRepository;
+        this.batchJobService = batchJobService;
+    }
+
+    /**
+     * Last N periods of a concept for a ticker, oldest first
+     * GET /api/timeseries/tickers/AAPL/OperatingIncome?periods=20&kind=quarter
+     */
+    @GetMapping("/tickers/{symbol}/{concept}")
+    public ResponseEntity<List<FinancialTimeSeriesService.SeriesPoint>> getHistory(
+            @PathVariable String symbol,
+            @PathVariable String concept,
+            @RequestParam(defaultValue = "20") int periods,
+            @RequestParam(defaultValue = CalendarFrames.QUARTER) String kind) {
+
+        if (periods < 1 || periods > MAX_PERIODS || !PERIOD_KINDS.contains(kind)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Optional<Issuer> issuer = issuerRepository.findByTicker(symbol.toUpperCase());
+        if (issuer.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(timeSeriesService.getHistory(issuer.get().getCik(), concept, kind, periods));
+    }
+
+    /**
+     * A concept across issuers for one calendar frame, largest value first
+     * GET /api/timeseries/frames/Revenue/CY2024Q3?sic=3674&basis=QoQ
+     * Frames follow the SEC convention: CY2024Q3 (quarter), CY2024 (year), CY2024Q3I (instant).
+     */
+    @GetMapping("/frames/{concept}/{frame}")
+    public ResponseEntity<List<FinancialTimeSeriesService.FrameValue>> getFrame(
+            @PathVariable String concept,
+            @PathVariable String frame,
+            @RequestParam(required = false) String sic,
+            @RequestParam(required = false) String basis) {
+
+        String normalizedFrame = frame.toUpperCase();
+        if (!CalendarFrames.isValid(normalizedFrame)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            return ResponseEntity.ok(timeSeriesService.getFrame(concept, normalizedFrame, sic, basis));
+        } catch (IllegalArgumentException e) {
+            logger.debug("Rejected frame query {}/{}: {}", concept, frame, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Rebuild the time-series store from all normalized filings
+     * POST /api/timeseries/backfill
+     * Runs in the background; answers 202 with a job handle whose result is the filing count
+     */
+    @PostMapping("/backfill")
+    public ResponseEntity<BatchJobService.BatchJob> backfill() {
+        logger.info("Backfilling financial time-series store");
+        BatchJobService.BatchJob job = batchJobService.submit("timeseries-backfill", timeSeriesService::backfill);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/deltamap/batch/jobs/" + job.getJobId()))
+                .body(job);
+    }
+}
@@ -17,6 +17,7 @@ public class DeltaMapDto {
     private int insertCount;
     private int deleteCount;
     private int modifyCount;
+    private List<String> degradedSections;
     private List<FilingDelta> deltas;
 
     public static class FilingInfo {
@@ -66,6 +67,9 @@ public class DeltaMapDto {
     public int getModifyCount() { return modifyCount; }
     public void setModifyCount(int modifyCount) { this.modifyCount = modifyCount; }
 
+    public List<String> getDegradedSections() { return degradedSections; }
+    public void setDegradedSections(List<String> degradedSections) { this.degradedSections = degradedSections; }
+
     public List<FilingDelta> getDeltas() { return deltas; }
     public void setDeltas(List<FilingDelta> deltas) { this.deltas = deltas; }
 }
@@ -0,0 +1,56 @@
+package com.stockdelta.api.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor over filings ordered by (filedAt DESC, id DESC)
+ * The token encodes the last row of the previous page; the next page starts strictly after it.
+ */
+public final class FilingCursor {
+
+    // Sorts after every real row; kept within PostgreSQL's timestamp range
+    public static final FilingCursor FIRST = new FilingCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    private final LocalDateTime filedAt;
+    private final Long id;
+
+    public FilingCursor(LocalDateTime filedAt, Long id) {
+        this.filedAt = filedAt;
+        this.id = id;
+    }
+
+    /**
+     * Parse a token from the API; a missing token means the first page
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static FilingCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new FilingCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+
+    public String encode() {
+        String raw = filedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getFiledAt() { return filedAt; }
+
+    public Long getId() { return id; }
+}
@@ -1,6 +1,7 @@
 package com.stockdelta.api.dto;
 
 import com.stockdelta.common.entity.Filing;
+import com.stockdelta.common.repository.FilingListing;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -34,6 +35,20 @@ public class FilingDto {
         this.companyName = companyName;
     }
 
+    public FilingDto(FilingListing listing) {
+        this.id = listing.getId();
+        this.cik = listing.getCik();
+        this.accessionNo = listing.getAccessionNo();
+        this.form = listing.getForm();
+        this.filedAt = listing.getFiledAt();
+        this.periodEnd = listing.getPeriodEnd();
+        this.primaryDocUrl = listing.getPrimaryDocUrl();
+        this.source = listing.getSource();
+        this.createdAt = listing.getCreatedAt();
+        this.ticker = listing.getTicker();
+        this.companyName = listing.getCompanyName();
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
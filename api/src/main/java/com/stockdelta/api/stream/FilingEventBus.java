@@ -0,0 +1,117 @@
+package com.stockdelta.api.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.stockdelta.api.config.StreamConfig;
+import com.stockdelta.common.entity.Issuer;
+import com.stockdelta.common.event.FilingEvent;
+import com.stockdelta.common.repository.IssuerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Fans committed filing events out to live stream subscribers
+ * Events are relayed through Redis pub/sub so every replica's subscribers see events
+ * raised on any replica; if Redis is unavailable they are delivered locally only.
+ * Each subscriber has its own bounded buffer, and a subscriber that falls behind loses
+ * its oldest events instead of slowing the publisher or other subscribers.
+ */
+@Component
+public class FilingEventBus implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(FilingEventBus.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final IssuerRepository issuerRepository;
+    private final StreamConfig config;
+
+    private final Sinks.Many<FilingStreamEvent> sink = Sinks.many().multicast().directBestEffort();
+
+    // CIK -> ticker, empty string for issuers without one
+    private final Cache<String, String> tickers = Caffeine.newBuilder()
+            .maximumSize(50_000)
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+
+    @Autowired
+    public FilingEventBus(RedisTemplate<String, Object> redisTemplate,
+                          ObjectMapper objectMapper,
+                          IssuerRepository issuerRepository,
+                          StreamConfig config,
+                          RedisMessageListenerContainer listenerContainer) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.issuerRepository = issuerRepository;
+        this.config = config;
+
+        listenerContainer.addMessageListener(this, new ChannelTopic(config.getChannel()));
+    }
+
+    /**
+     * Live events, optionally limited to a set of tickers (empty means all)
+     */
+    public Flux<FilingStreamEvent> subscribe(Set<String> symbols) {
+        return sink.asFlux()
+                .filter(event -> symbols.isEmpty() || (event.getTicker() != null && symbols.contains(event.getTicker())))
+                .onBackpressureBuffer(config.getSubscriberBuffer(),
+                        dropped -> logger.debug("Dropped {} event for slow stream subscriber", dropped.getType()),
+                        BufferOverflowStrategy.DROP_OLDEST);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFilingEvent(FilingEvent event) {
+        FilingStreamEvent streamEvent = new FilingStreamEvent(
+                event.getType().name(), event.getFilingId(), event.getFilingIds(), event.getCik(),
+                resolveTicker(event.getCik()));
+
+        try {
+            redisTemplate.convertAndSend(config.getChannel(), objectMapper.writeValueAsString(streamEvent));
+        } catch (Exception e) {
+            logger.debug("Redis relay unavailable, delivering {} locally: {}", event, e.getMessage());
+            emit(streamEvent);
+        }
+    }
+
+    /**
+     * Event relayed from any replica, including this one
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            emit(objectMapper.readValue(message.getBody(), FilingStreamEvent.class));
+        } catch (Exception e) {
+            logger.warn("Ignoring malformed filing event: {}", e.getMessage());
+        }
+    }
+
+    private void emit(FilingStreamEvent event) {
+        // Several threads publish; spin briefly instead of failing on concurrent emission
+        sink.emitNext(event, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+    }
+
+    private String resolveTicker(String cik) {
+        if (cik == null) {
+            return null;
+        }
+        String ticker = tickers.get(cik, key -> issuerRepository.findByCik(key)
+                .map(Issuer::getTicker)
+                .orElse(""));
+        return ticker == null || ticker.isEmpty() ? null : ticker;
+    }
+}
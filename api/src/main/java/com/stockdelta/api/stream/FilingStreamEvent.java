@@ -0,0 +1,47 @@
+package com.stockdelta.api.stream;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Filing event as delivered to stream subscribers
+ */
+public class FilingStreamEvent {
+
+    private String type;
+    private Long filingId;
+    private List<Long> filingIds;
+    private String cik;
+    private String ticker;
+    private LocalDateTime occurredAt;
+
+    public FilingStreamEvent() {}
+
+    public FilingStreamEvent(String type, Long filingId, List<Long> filingIds, String cik, String ticker) {
+        this.type = type;
+        this.filingId = filingId;
+        this.filingIds = filingIds;
+        this.cik = cik;
+        this.ticker = ticker;
+        this.occurredAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public Long getFilingId() { return filingId; }
+    public void setFilingId(Long filingId) { this.filingId = filingId; }
+
+    public List<Long> getFilingIds() { return filingIds; }
+    public void setFilingIds(List<Long> filingIds) { this.filingIds = filingIds; }
+
+    public String getCik() { return cik; }
+    public void setCik(String cik) { this.cik = cik; }
+
+    public String getTicker() { return ticker; }
+    public void setTicker(String ticker) { this.ticker = ticker; }
+
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(LocalDateTime occurredAt) { this.occurredAt = occurredAt; }
+}
@@ -0,0 +1,63 @@
+package com.stockdelta.common.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of the blocking scheduler on platform threads against virtual threads
+ * Each invocation is a burst of concurrent requests, each bridging one blocking call of
+ * fixed latency (a JDBC or Redis round trip) into a reactive pipeline, as the services
+ * do. Sample mode reports the burst latency percentiles, p99 included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BlockingSchedulerBenchmark {
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    // Requests in flight at once
+    @Param({"100", "1000"})
+    private int concurrency;
+
+    // Latency of the simulated blocking call (milliseconds)
+    @Param({"20"})
+    private long callMillis;
+
+    private Scheduler scheduler;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        scheduler = new ExecutorConfig(virtualThreads).blockingScheduler();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        scheduler.dispose();
+    }
+
+    @Benchmark
+    public Long burst() {
+        return Flux.range(0, concurrency)
+                .flatMap(i -> Mono.fromCallable(() -> {
+                    Thread.sleep(callMillis);
+                    return 1L;
+                }).subscribeOn(scheduler), concurrency)
+                .count()
+                .block();
+    }
+}
@@ -0,0 +1,118 @@
+package com.stockdelta.common.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Resolution throughput of a tag list: the FacTagResolver snapshot against the regex
+ * map FacMappingService walked before it
+ * The snapshot holds the core mappings, and tags without one fall through to the name
+ * rules, as in FacMappingService.resolve. Runs over us-gaap-tags.txt, one element name
+ * per line, or over the full taxonomy element list passed as
+ * ./gradlew :common:jmh -Ptags=us-gaap-elements.txt
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FacTagResolverBenchmark {
+
+    private static final String TAXONOMY = "us-gaap";
+
+    // The pattern map FacMappingService walked before the snapshot; its HashMap order was unspecified
+    private static final Map<String, List<Pattern>> CONCEPT_PATTERNS = new LinkedHashMap<>();
+
+    static {
+        CONCEPT_PATTERNS.put("Revenue", List.of(
+                Pattern.compile(".*Revenue.*", Pattern.CASE_INSENSITIVE),
+                Pattern.compile(".*Sales.*", Pattern.CASE_INSENSITIVE)));
+        CONCEPT_PATTERNS.put("Assets", List.of(
+                Pattern.compile("^Assets$", Pattern.CASE_INSENSITIVE),
+                Pattern.compile(".*TotalAssets.*", Pattern.CASE_INSENSITIVE)));
+        CONCEPT_PATTERNS.put("Liabilities", List.of(
+                Pattern.compile("^Liabilities$", Pattern.CASE_INSENSITIVE),
+                Pattern.compile(".*TotalLiabilities.*", Pattern.CASE_INSENSITIVE)));
+        CONCEPT_PATTERNS.put("Equity", List.of(
+                Pattern.compile(".*Equity$", Pattern.CASE_INSENSITIVE),
+                Pattern.compile(".*StockholdersEquity.*", Pattern.CASE_INSENSITIVE)));
+        CONCEPT_PATTERNS.put("Cash", List.of(
+                Pattern.compile("^Cash$", Pattern.CASE_INSENSITIVE),
+                Pattern.compile(".*CashAndCashEquivalents.*", Pattern.CASE_INSENSITIVE)));
+        CONCEPT_PATTERNS.put("OperatingIncome", List.of(
+                Pattern.compile(".*OperatingIncome.*", Pattern.CASE_INSENSITIVE)));
+        CONCEPT_PATTERNS.put("NetIncome", List.of(
+                Pattern.compile(".*NetIncome.*", Pattern.CASE_INSENSITIVE),
+                Pattern.compile("^ProfitLoss$", Pattern.CASE_INSENSITIVE)));
+    }
+
+    private List<String> tags;
+    private FacTagResolver resolver;
+    private Map<String, String> storedConcepts;
+
+    @Setup
+    public void setUp() throws IOException {
+        String list = System.getProperty("stockdelta.bench.tags");
+        if (list != null) {
+            tags = Files.readAllLines(Path.of(list), StandardCharsets.UTF_8);
+        } else {
+            try (InputStream in = FacTagResolverBenchmark.class.getResourceAsStream("/us-gaap-tags.txt")) {
+                tags = new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+            }
+        }
+        tags = tags.stream().map(String::trim).filter(tag -> !tag.isEmpty()).toList();
+
+        resolver = FacTagResolver.of(FacMappingService.coreMappings());
+        storedConcepts = new LinkedHashMap<>();
+        FacMappingService.coreMappings().forEach(mapping ->
+                storedConcepts.put(mapping.getSourceTag(), mapping.getFundamentalConcept()));
+    }
+
+    /**
+     * One pass over the tag list; throughput is in passes, multiply by the list size for tags
+     */
+    @Benchmark
+    public void snapshot(Blackhole blackhole) {
+        for (String tag : tags) {
+            FacTagResolver.Mapping mapping = resolver.lookup(tag, TAXONOMY);
+            blackhole.consume(mapping != null ? mapping.getConcept() : FacTagResolver.infer(tag));
+        }
+    }
+
+    /**
+     * The same pass with the regex map; the database lookup it also made per tag is left out
+     */
+    @Benchmark
+    public void regexMap(Blackhole blackhole) {
+        for (String tag : tags) {
+            String concept = storedConcepts.get(tag);
+            blackhole.consume(concept != null ? concept : inferFromPatterns(tag));
+        }
+    }
+
+    private static String inferFromPatterns(String tag) {
+        for (Map.Entry<String, List<Pattern>> entry : CONCEPT_PATTERNS.entrySet()) {
+            for (Pattern pattern : entry.getValue()) {
+                if (pattern.matcher(tag).matches()) {
+                    return entry.getKey();
+                }
+            }
+        }
+        return null;
+    }
+}
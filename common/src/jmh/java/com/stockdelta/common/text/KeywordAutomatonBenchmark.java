@@ -0,0 +1,83 @@
+package com.stockdelta.common.text;
+
+import com.stockdelta.common.config.ScoringConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keyword scoring of delta snippets: the automaton against the indexOf loop it replaced
+ * Runs over deltas.txt, one snippet per line, or over real deltas exported with
+ * psql -At -c "SELECT replace(snippet, E'\n', ' ') FROM filing_deltas" > deltas.txt
+ * and passed as ./gradlew :common:jmh -Pdeltas=deltas.txt
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class KeywordAutomatonBenchmark {
+
+    private List<String> deltas;
+    private KeywordAutomaton automaton;
+    private Map<String, Double> keywords;
+
+    @Setup
+    public void setUp() throws IOException {
+        String corpus = System.getProperty("stockdelta.bench.deltas");
+        if (corpus != null) {
+            deltas = Files.readAllLines(Path.of(corpus), StandardCharsets.UTF_8);
+        } else {
+            try (InputStream in = KeywordAutomatonBenchmark.class.getResourceAsStream("/deltas.txt")) {
+                deltas = new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+            }
+        }
+        deltas = deltas.stream().filter(line -> !line.isBlank()).toList();
+
+        keywords = new ScoringConfig().getKeywords();
+        automaton = KeywordAutomaton.compile(keywords);
+    }
+
+    @Benchmark
+    public double automaton() {
+        double total = 0.0;
+        for (String delta : deltas) {
+            total += automaton.score(delta);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double indexOfLoop() {
+        double total = 0.0;
+        for (String delta : deltas) {
+            String lowerText = delta.toLowerCase();
+            for (Map.Entry<String, Double> keyword : keywords.entrySet()) {
+                total += countOccurrences(lowerText, keyword.getKey()) * keyword.getValue();
+            }
+        }
+        return total;
+    }
+
+    // The loop KeywordScoringEngine replaced
+    private static int countOccurrences(String text, String keyword) {
+        int count = 0;
+        int index = 0;
+        while ((index = text.indexOf(keyword, index)) != -1) {
+            count++;
+            index += keyword.length();
+        }
+        return count;
+    }
+}
@@ -1,13 +1,19 @@
 package com.stockdelta.common.client;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.stockdelta.common.config.NormalizationConfig;
+import io.netty.channel.ChannelOption;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import java.math.BigDecimal;
 import java.time.Duration;
@@ -16,7 +22,11 @@ import java.util.Map;
 
 /**
  * Client for communicating with the Arelle XBRL Normalization Service
- * Handles normalization and DQC validation requests
+ * Handles normalization and DQC validation requests. Calls share a bounded pool of
+ * keep-alive connections sized for batch concurrency. Normalize, validate and process
+ * calls run through a ServiceGuard: a bulkhead sized to the service's workers with a
+ * bounded wait queue, and a circuit breaker that fails calls fast while the service is
+ * down. Every endpoint has its own timeout.
  */
 @Component
 public class ArelleNormalizationClient {
@@ -24,13 +34,43 @@ public class ArelleNormalizationClient {
     private static final Logger logger = LoggerFactory.getLogger(ArelleNormalizationClient.class);
 
     private final WebClient webClient;
+    private final NormalizationConfig config;
+    private final ServiceGuard guard;
+    private final Mono<String> rulesVersion;
 
     public ArelleNormalizationClient(
             @Value("${normalization.service.url:http://localhost:5000}") String serviceUrl,
-            WebClient.Builder webClientBuilder) {
+            WebClient.Builder webClientBuilder,
+            NormalizationConfig config) {
+        this.config = config;
+
+        ConnectionProvider connections = ConnectionProvider.builder("normalization-service")
+                .maxConnections(Math.max(config.getMaxConnections(), config.getBatchConcurrency()))
+                .maxIdleTime(Duration.ofSeconds(config.getMaxIdleSeconds()))
+                .pendingAcquireMaxCount(Math.max(1, config.getMaxQueuedCalls()))
+                .pendingAcquireTimeout(Duration.ofSeconds(config.getMaxQueueWaitSeconds()))
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connections)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, config.getConnectTimeoutMs());
+
         this.webClient = webClientBuilder
                 .baseUrl(serviceUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .build();
+
+        this.guard = new ServiceGuard("normalization-service",
+                config.getMaxConcurrentCalls(),
+                config.getMaxQueuedCalls(),
+                Duration.ofSeconds(config.getMaxQueueWaitSeconds()),
+                config.getFailureThreshold(),
+                Duration.ofSeconds(config.getOpenSeconds()));
+
+        // Successful answers are shared for the TTL; failures and missing versions are retried next call
+        this.rulesVersion = fetchRulesVersion().cache(
+                version -> Duration.ofSeconds(config.getRulesVersionTtlSeconds()),
+                error -> Duration.ZERO,
+                () -> Duration.ZERO);
         logger.info("Arelle Normalization Client initialized with URL: {}", serviceUrl);
     }
 
@@ -47,12 +87,12 @@ public class ArelleNormalizationClient {
 
         NormalizationRequest request = new NormalizationRequest(filingUrl, cik, accessionNo);
 
-        return webClient.post()
-                .uri("/normalize")
-                .bodyValue(request)
-                .retrieve()
-                .bodyToMono(NormalizedXbrlResponse.class)
-                .timeout(Duration.ofMinutes(5))
+        return guard.execute(() -> webClient.post()
+                        .uri("/normalize")
+                        .bodyValue(request)
+                        .retrieve()
+                        .bodyToMono(NormalizedXbrlResponse.class)
+                        .timeout(Duration.ofSeconds(config.getNormalizeTimeoutSeconds())))
                 .doOnSuccess(response -> logger.info("Normalization completed: {} concepts extracted",
                         response.getConceptCount()))
                 .doOnError(error -> logger.error("Normalization failed for {}: {}",
@@ -70,29 +110,112 @@ public class ArelleNormalizationClient {
 
         ValidationRequest request = new ValidationRequest(filingUrl);
 
-        return webClient.post()
-                .uri("/validate")
-                .bodyValue(request)
-                .retrieve()
-                .bodyToMono(DqcValidationResult.class)
-                .timeout(Duration.ofMinutes(5))
+        return guard.execute(() -> webClient.post()
+                        .uri("/validate")
+                        .bodyValue(request)
+                        .retrieve()
+                        .bodyToMono(DqcValidationResult.class)
+                        .timeout(Duration.ofSeconds(config.getValidateTimeoutSeconds())))
                 .doOnSuccess(result -> logger.info("Validation completed: {} errors, {} warnings",
                         result.getErrorCount(), result.getWarningCount()))
                 .doOnError(error -> logger.error("Validation failed for {}: {}",
                         filingUrl, error.getMessage()));
     }
 
+    /**
+     * Normalize and validate an XBRL filing in one call, so the service loads the instance once
+     *
+     * @param filingUrl    URL to the XBRL instance document
+     * @param cik          Company CIK
+     * @param accessionNo  Filing accession number (optional)
+     * @return Normalized concepts and DQC validation result
+     */
+    public Mono<ProcessResponse> process(String filingUrl, String cik, String accessionNo) {
+        logger.info("Requesting normalization and validation for filing: {} (CIK: {})", filingUrl, cik);
+
+        NormalizationRequest request = new NormalizationRequest(filingUrl, cik, accessionNo);
+
+        return guard.execute(() -> webClient.post()
+                        .uri("/process")
+                        .bodyValue(request)
+                        .retrieve()
+                        .bodyToMono(ProcessResponse.class)
+                        .timeout(Duration.ofSeconds(config.getProcessTimeoutSeconds())))
+                .doOnSuccess(response -> logger.info("Processing completed for {} in {}ms",
+                        filingUrl, response.getProcessingTimeMs()))
+                .doOnError(error -> logger.error("Processing failed for {}: {}",
+                        filingUrl, error.getMessage()));
+    }
+
+    /**
+     * Normalize and validate many filings, keeping at most the configured number in flight
+     * A failed filing is reported in its item and does not stop the others. Items are
+     * emitted as filings complete, not in request order. Concurrency beyond the guard's
+     * bulkhead only queues.
+     *
+     * @param requests Filings to process
+     * @return One item per request
+     */
+    public Flux<BatchItem> processBatch(List<NormalizationRequest> requests) {
+        int concurrency = Math.max(1, config.getBatchConcurrency());
+        logger.info("Submitting {} filings for normalization ({} at a time)", requests.size(), concurrency);
+
+        return Flux.fromIterable(requests)
+                .flatMap(request -> process(request.getFilingUrl(), request.getCik(), request.getAccessionNo())
+                        .map(response -> new BatchItem(request, response, null))
+                        .onErrorResume(error -> Mono.just(new BatchItem(request, null, error))),
+                        concurrency);
+    }
+
+    /**
+     * Version of the service's mapping rules; results for the same instance differ across versions
+     *
+     * @return Rules version, empty when the service does not report one
+     */
+    public Mono<String> getRulesVersion() {
+        return rulesVersion;
+    }
+
+    private Mono<String> fetchRulesVersion() {
+        return checkHealth()
+                .flatMap(health -> Mono.justOrEmpty(health.get("rules_version")))
+                .map(Object::toString);
+    }
+
+    /**
+     * Whether calls are currently being let through to the service
+     * False while the circuit is open; a deferred retry is pointless until this turns true.
+     */
+    public boolean isAvailable() {
+        return guard.isCallPermitted();
+    }
+
+    /**
+     * Circuit and bulkhead state of the client
+     */
+    public Map<String, Object> getGuardStatus() {
+        return Map.of(
+                "circuit", guard.getState().name(),
+                "running", guard.getRunning(),
+                "queued", guard.getQueued());
+    }
+
     /**
      * Check health of the normalization service
+     * Not held back by the bulkhead, so it answers while the workers are busy, but
+     * rejected while the circuit is open.
      *
      * @return Health status
      */
     public Mono<Map<String, Object>> checkHealth() {
-        return webClient.get()
-                .uri("/health")
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
-                .timeout(Duration.ofSeconds(10))
+        return Mono.defer(() -> !guard.isCallPermitted()
+                        ? Mono.<Map<String, Object>>error(new ServiceGuard.RejectedException(
+                                "normalization-service circuit is open"))
+                        : webClient.get()
+                                .uri("/health")
+                                .retrieve()
+                                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
+                                .timeout(Duration.ofSeconds(config.getHealthTimeoutSeconds())))
                 .doOnError(error -> logger.error("Health check failed: {}", error.getMessage()));
     }
 
@@ -106,7 +229,7 @@ public class ArelleNormalizationClient {
                 .uri("/concepts")
                 .retrieve()
                 .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
-                .timeout(Duration.ofSeconds(30));
+                .timeout(Duration.ofSeconds(config.getHealthTimeoutSeconds()));
     }
 
     // DTO Classes
@@ -207,6 +330,8 @@ public class ArelleNormalizationClient {
         @JsonProperty("end_date")
         private String endDate;
 
+        private Boolean dimensional;
+
         @JsonProperty("quality_score")
         private BigDecimal qualityScore;
 
@@ -234,6 +359,9 @@ public class ArelleNormalizationClient {
         public String getEndDate() { return endDate; }
         public void setEndDate(String endDate) { this.endDate = endDate; }
 
+        public Boolean getDimensional() { return dimensional; }
+        public void setDimensional(Boolean dimensional) { this.dimensional = dimensional; }
+
         public BigDecimal getQualityScore() { return qualityScore; }
         public void setQualityScore(BigDecimal qualityScore) { this.qualityScore = qualityScore; }
 
@@ -289,6 +417,64 @@ public class ArelleNormalizationClient {
         public void setProcessingTimeMs(Integer processingTimeMs) { this.processingTimeMs = processingTimeMs; }
     }
 
+    public static class ProcessResponse {
+        @JsonProperty("filing_url")
+        private String filingUrl;
+
+        private String cik;
+
+        private NormalizedXbrlResponse normalization;
+
+        private DqcValidationResult validation;
+
+        @JsonProperty("rules_version")
+        private String rulesVersion;
+
+        @JsonProperty("processing_time_ms")
+        private Integer processingTimeMs;
+
+        // Getters and Setters
+        public String getFilingUrl() { return filingUrl; }
+        public void setFilingUrl(String filingUrl) { this.filingUrl = filingUrl; }
+
+        public String getCik() { return cik; }
+        public void setCik(String cik) { this.cik = cik; }
+
+        public NormalizedXbrlResponse getNormalization() { return normalization; }
+        public void setNormalization(NormalizedXbrlResponse normalization) { this.normalization = normalization; }
+
+        public DqcValidationResult getValidation() { return validation; }
+        public void setValidation(DqcValidationResult validation) { this.validation = validation; }
+
+        public String getRulesVersion() { return rulesVersion; }
+        public void setRulesVersion(String rulesVersion) { this.rulesVersion = rulesVersion; }
+
+        public Integer getProcessingTimeMs() { return processingTimeMs; }
+        public void setProcessingTimeMs(Integer processingTimeMs) { this.processingTimeMs = processingTimeMs; }
+    }
+
+    /**
+     * Outcome of one filing in a batch: the response, or the error that replaced it
+     */
+    public static class BatchItem {
+        private final NormalizationRequest request;
+        private final ProcessResponse response;
+        private final Throwable error;
+
+        public BatchItem(NormalizationRequest request, ProcessResponse response, Throwable error) {
+            this.request = request;
+            this.response = response;
+            this.error = error;
+        }
+
+        public NormalizationRequest getRequest() { return request; }
+        public ProcessResponse getResponse() { return response; }
+        public Throwable getError() { return error; }
+        public String getErrorMessage() { return error != null ? error.getMessage() : null; }
+
+        public boolean isSuccess() { return response != null; }
+    }
+
     public static class ValidationIssue {
         @JsonProperty("rule_id")
         private String ruleId;
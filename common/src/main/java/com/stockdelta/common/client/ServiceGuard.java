@@ -0,0 +1,290 @@
+package com.stockdelta.common.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead and circuit breaker for the calls of one client to a remote service
+ * At most maxConcurrent calls run at once and up to maxQueued more wait their turn in
+ * arrival order for at most maxQueueWait; anything beyond is rejected immediately.
+ * After failureThreshold consecutive service failures (timeouts, I/O errors, 5xx) the
+ * circuit opens and calls are rejected without being attempted. Once openDuration has
+ * passed a single probe call is let through, and its outcome closes or re-opens the
+ * circuit. 4xx answers mean the service is up and count as successes.
+ */
+public class ServiceGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServiceGuard.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private enum Admission { REJECT, NORMAL, PROBE }
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final Duration maxQueueWait;
+    private final int failureThreshold;
+    private final Duration openDuration;
+
+    // Bulkhead
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Queue<Waiter> waiting = new ConcurrentLinkedQueue<>();
+
+    // Circuit breaker
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAtNanos;
+
+    public ServiceGuard(String name, int maxConcurrent, int maxQueued, Duration maxQueueWait,
+                        int failureThreshold, Duration openDuration) {
+        this.name = name;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxQueued = Math.max(0, maxQueued);
+        this.maxQueueWait = maxQueueWait;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDuration = openDuration;
+    }
+
+    /**
+     * Run a call inside the bulkhead and record its outcome with the circuit breaker
+     * Fails with RejectedException, without subscribing to the call, when the circuit is
+     * open or the bulkhead queue is full or too slow. Timeouts belong inside the call so
+     * time spent queued is not counted against the service.
+     */
+    public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            Admission admission = admit();
+            if (admission == Admission.REJECT) {
+                return Mono.error(new RejectedException(name + " circuit is open"));
+            }
+
+            boolean probe = admission == Admission.PROBE;
+            Permit permit = new Permit();
+            return acquire(permit)
+                    .then(Mono.defer(call))
+                    .doOnSuccess(value -> onSuccess())
+                    .doOnError(error -> {
+                        if (error instanceof RejectedException) {
+                            onAbandoned(probe);
+                        } else if (isServiceFailure(error)) {
+                            onFailure(probe);
+                        } else {
+                            onSuccess();
+                        }
+                    })
+                    .doOnCancel(() -> onAbandoned(probe))
+                    .doFinally(signal -> permit.finish());
+        });
+    }
+
+    /**
+     * Whether a call made now would be attempted rather than rejected by the circuit
+     */
+    public boolean isCallPermitted() {
+        State current = state.get();
+        return current == State.CLOSED
+                || (current == State.OPEN && System.nanoTime() - openedAtNanos >= openDuration.toNanos());
+    }
+
+    public State getState() { return state.get(); }
+    public int getRunning() { return running.get(); }
+    public int getQueued() { return queued.get(); }
+
+    /**
+     * Errors that say the service is unavailable rather than that the request was bad
+     */
+    public static boolean isServiceFailure(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError();
+        }
+        return error instanceof TimeoutException || error instanceof WebClientRequestException;
+    }
+
+    /**
+     * Errors after which the same call is worth retrying later
+     */
+    public static boolean isUnavailable(Throwable error) {
+        return error instanceof RejectedException || isServiceFailure(error);
+    }
+
+    private Admission admit() {
+        while (true) {
+            State current = state.get();
+            if (current == State.CLOSED) {
+                return Admission.NORMAL;
+            }
+            if (current == State.HALF_OPEN
+                    || System.nanoTime() - openedAtNanos < openDuration.toNanos()) {
+                return Admission.REJECT;
+            }
+            if (state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+                logger.info("{} circuit half-open, probing", name);
+                return Admission.PROBE;
+            }
+        }
+    }
+
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        State previous = state.getAndSet(State.CLOSED);
+        if (previous != State.CLOSED) {
+            logger.info("{} circuit closed", name);
+        }
+    }
+
+    private void onFailure(boolean probe) {
+        if (probe || state.get() == State.HALF_OPEN) {
+            open("probe failed");
+            return;
+        }
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold && state.get() == State.CLOSED) {
+            open(consecutiveFailures.get() + " consecutive failures");
+        }
+    }
+
+    /**
+     * A probe that never reached the service decides nothing; the next call probes again
+     */
+    private void onAbandoned(boolean probe) {
+        if (probe) {
+            state.compareAndSet(State.HALF_OPEN, State.OPEN);
+        }
+    }
+
+    private void open(String reason) {
+        openedAtNanos = System.nanoTime();
+        if (state.getAndSet(State.OPEN) != State.OPEN) {
+            logger.warn("{} circuit opened ({}), rejecting calls for {}s", name, reason, openDuration.toSeconds());
+        }
+    }
+
+    private Mono<Void> acquire(Permit permit) {
+        return Mono.<Void>create(sink -> {
+            if (tryAcquire()) {
+                grant(permit, sink);
+                return;
+            }
+            if (queued.incrementAndGet() > maxQueued) {
+                queued.decrementAndGet();
+                sink.error(new RejectedException(name + " queue is full (" + maxQueued + " waiting)"));
+                return;
+            }
+
+            Waiter waiter = new Waiter(sink, permit);
+            sink.onCancel(waiter::cancel);
+            waiting.add(waiter);
+            // A permit may have been returned between tryAcquire and add
+            drain();
+        }).timeout(maxQueueWait, Mono.error(() -> new RejectedException(
+                name + " queue wait exceeded " + maxQueueWait.toSeconds() + "s")));
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            int current = running.get();
+            if (current >= maxConcurrent) {
+                return false;
+            }
+            if (running.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void grant(Permit permit, MonoSink<Void> sink) {
+        if (permit.hold()) {
+            sink.success();
+        } else {
+            // The caller went away while the permit was on its way
+            releasePermit();
+        }
+    }
+
+    private void releasePermit() {
+        running.decrementAndGet();
+        drain();
+    }
+
+    private void drain() {
+        while (!waiting.isEmpty() && tryAcquire()) {
+            Waiter waiter = waiting.poll();
+            if (waiter == null || !waiter.claim()) {
+                // Cancelled, or taken by a concurrent drain; hand the permit back and look again
+                running.decrementAndGet();
+                continue;
+            }
+            queued.decrementAndGet();
+            grant(waiter.permit, waiter.sink);
+        }
+    }
+
+    /**
+     * A concurrency slot owned by one call, returned exactly once
+     */
+    private final class Permit {
+        private static final int PENDING = 0;
+        private static final int HELD = 1;
+        private static final int FINISHED = 2;
+
+        private final AtomicInteger status = new AtomicInteger(PENDING);
+
+        boolean hold() {
+            return status.compareAndSet(PENDING, HELD);
+        }
+
+        void finish() {
+            if (status.getAndSet(FINISHED) == HELD) {
+                releasePermit();
+            }
+        }
+    }
+
+    /**
+     * A queued call; claimed once, either by the drain that grants it or by its cancellation
+     */
+    private final class Waiter {
+        private final MonoSink<Void> sink;
+        private final Permit permit;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        Waiter(MonoSink<Void> sink, Permit permit) {
+            this.sink = sink;
+            this.permit = permit;
+        }
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        void cancel() {
+            if (claim()) {
+                waiting.remove(this);
+                queued.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * The call was not attempted: the circuit is open or the bulkhead is saturated
+     */
+    public static class RejectedException extends RuntimeException {
+        public RejectedException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.stockdelta.common.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for background filing analysis jobs
+ */
+@Configuration
+@ConfigurationProperties(prefix = "stockdelta.analysis")
+public class AnalysisConfig {
+
+    /**
+     * Number of filings analyzed concurrently
+     */
+    private int poolSize = 2;
+
+    /**
+     * Jobs waiting for a worker beyond this are rejected and reported as failed
+     */
+    private int queueCapacity = 100;
+
+    /**
+     * How long finished jobs stay queryable (minutes)
+     */
+    private long jobRetentionMinutes = 30;
+
+    /**
+     * How often a replica re-reads a job running on another replica for its event stream (milliseconds)
+     */
+    private long remotePollMillis = 1000;
+
+    public int getPoolSize() { return poolSize; }
+    public void setPoolSize(int poolSize) { this.poolSize = poolSize; }
+
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+    public long getJobRetentionMinutes() { return jobRetentionMinutes; }
+    public void setJobRetentionMinutes(long jobRetentionMinutes) { this.jobRetentionMinutes = jobRetentionMinutes; }
+
+    public long getRemotePollMillis() { return remotePollMillis; }
+    public void setRemotePollMillis(long remotePollMillis) { this.remotePollMillis = remotePollMillis; }
+}
@@ -0,0 +1,50 @@
+package com.stockdelta.common.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for section diff time budgets
+ * Bounds how long a single section and a whole filing may spend inside diff-match-patch
+ */
+@Configuration
+@ConfigurationProperties(prefix = "stockdelta.diff")
+public class DiffConfig {
+
+    /**
+     * Maximum time for a character-level diff of one section (milliseconds)
+     * When exceeded, the section falls back to a sentence-level diff
+     */
+    private long sectionTimeoutMs = 1000;
+
+    /**
+     * Total diff budget for all sections of one filing (milliseconds)
+     * Sections reached after the budget is spent are reported as whole-section replacements
+     */
+    private long filingBudgetMs = 5000;
+
+    /**
+     * Semantic cleanup is quadratic in the number of edits, so it only runs
+     * when the raw diff has at most this many operations
+     */
+    private int semanticCleanupMaxDiffs = 2000;
+
+    /**
+     * Number of CIKs whose filing chains are diffed concurrently by batch recomputation
+     */
+    private int batchParallelism = 4;
+
+    public long getSectionTimeoutMs() { return sectionTimeoutMs; }
+    public void setSectionTimeoutMs(long sectionTimeoutMs) { this.sectionTimeoutMs = sectionTimeoutMs; }
+
+    public long getFilingBudgetMs() { return filingBudgetMs; }
+    public void setFilingBudgetMs(long filingBudgetMs) { this.filingBudgetMs = filingBudgetMs; }
+
+    public int getSemanticCleanupMaxDiffs() { return semanticCleanupMaxDiffs; }
+    public void setSemanticCleanupMaxDiffs(int semanticCleanupMaxDiffs) {
+        this.semanticCleanupMaxDiffs = semanticCleanupMaxDiffs;
+    }
+
+    public int getBatchParallelism() { return batchParallelism; }
+    public void setBatchParallelism(int batchParallelism) { this.batchParallelism = batchParallelism; }
+}
@@ -0,0 +1,100 @@
+package com.stockdelta.common.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Dedicated executors for long-running work that must stay off request threads
+ * With spring.threads.virtual.enabled=true every executor here runs its tasks on
+ * virtual threads, matching the virtual-thread Tomcat connector Spring Boot sets up
+ * for the same property.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    public static final String ANALYSIS_EXECUTOR = "analysisExecutor";
+    public static final String BLOCKING_SCHEDULER = "blockingScheduler";
+    public static final String SCORING_EXECUTOR = "scoringExecutor";
+
+    private final boolean virtualThreads;
+
+    public ExecutorConfig(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    @Bean(name = ANALYSIS_EXECUTOR)
+    public ThreadPoolTaskExecutor analysisExecutor(AnalysisConfig analysisConfig) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(analysisConfig.getPoolSize());
+        executor.setMaxPoolSize(analysisConfig.getPoolSize());
+        executor.setQueueCapacity(analysisConfig.getQueueCapacity());
+        executor.setThreadNamePrefix("analysis-");
+        if (virtualThreads) {
+            // Keep the pool size and queue bound; only the carrier of each worker changes
+            executor.setThreadFactory(Thread.ofVirtual().name("analysis-", 0).factory());
+        }
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    /**
+     * Pool running delta scorers in parallel
+     * Scoring is CPU-bound, so it stays on platform threads sized to the cores; when
+     * the queue is full the submitting thread scores the fragments itself.
+     */
+    @Bean(name = SCORING_EXECUTOR)
+    public ThreadPoolTaskExecutor scoringExecutor(ScoringConfig scoringConfig) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(scoringConfig.getPoolSize());
+        executor.setMaxPoolSize(scoringConfig.getPoolSize());
+        executor.setQueueCapacity(scoringConfig.getPoolSize() * 16);
+        executor.setThreadNamePrefix("scoring-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        // Let queued scorers finish so sections being scored at shutdown are not left waiting on them
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationMillis(scoringConfig.getScorerTimeoutMs());
+        return executor;
+    }
+
+    /**
+     * Default executor for @Async and MVC async handling
+     * Declared here because the analysis executor above would otherwise make
+     * Spring Boot back off from creating it.
+     */
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("task-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setThreadNamePrefix("task-");
+        return executor;
+    }
+
+    /**
+     * Scheduler for bridging blocking JPA and Redis calls into reactive pipelines
+     */
+    @Bean(name = BLOCKING_SCHEDULER, destroyMethod = "dispose")
+    public Scheduler blockingScheduler() {
+        if (virtualThreads) {
+            return Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "blocking-vt");
+        }
+        return Schedulers.newBoundedElastic(
+                Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+                Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE,
+                "blocking");
+    }
+}
@@ -0,0 +1,47 @@
+package com.stockdelta.common.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for the in-memory XBRL tag to FAC concept resolver
+ */
+@Configuration
+@ConfigurationProperties(prefix = "stockdelta.fac-mapping")
+public class FacMappingConfig {
+
+    /**
+     * The resolver is reloaded from xbrl_tag_mapping after this long (seconds), which
+     * picks up mappings added on another replica or by hand
+     */
+    private long refreshSeconds = 300;
+
+    /**
+     * How often newly inferred mappings are written back (seconds)
+     */
+    private long writeBackIntervalSeconds = 10;
+
+    /**
+     * Rows per JDBC batch when writing back inferred mappings
+     */
+    private int writeBackBatchSize = 500;
+
+    /**
+     * Inferred mappings held for write-back; further ones are skipped until the next flush
+     */
+    private int maxPendingWrites = 10_000;
+
+    public long getRefreshSeconds() { return refreshSeconds; }
+    public void setRefreshSeconds(long refreshSeconds) { this.refreshSeconds = refreshSeconds; }
+
+    public long getWriteBackIntervalSeconds() { return writeBackIntervalSeconds; }
+    public void setWriteBackIntervalSeconds(long writeBackIntervalSeconds) {
+        this.writeBackIntervalSeconds = writeBackIntervalSeconds;
+    }
+
+    public int getWriteBackBatchSize() { return writeBackBatchSize; }
+    public void setWriteBackBatchSize(int writeBackBatchSize) { this.writeBackBatchSize = writeBackBatchSize; }
+
+    public int getMaxPendingWrites() { return maxPendingWrites; }
+    public void setMaxPendingWrites(int maxPendingWrites) { this.maxPendingWrites = maxPendingWrites; }
+}
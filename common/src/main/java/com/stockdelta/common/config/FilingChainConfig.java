@@ -0,0 +1,29 @@
+package com.stockdelta.common.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for the in-memory index of per-issuer filing chains
+ */
+@Configuration
+@ConfigurationProperties(prefix = "stockdelta.filing-chain")
+public class FilingChainConfig {
+
+    /**
+     * Maximum number of (CIK, form) chains held
+     */
+    private long maxChains = 20_000;
+
+    /**
+     * Chains are reloaded after this long even without an ingest event (minutes),
+     * which bounds staleness for filings ingested on another replica
+     */
+    private long expireMinutes = 10;
+
+    public long getMaxChains() { return maxChains; }
+    public void setMaxChains(long maxChains) { this.maxChains = maxChains; }
+
+    public long getExpireMinutes() { return expireMinutes; }
+    public void setExpireMinutes(long expireMinutes) { this.expireMinutes = expireMinutes; }
+}
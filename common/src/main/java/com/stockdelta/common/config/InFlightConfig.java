@@ -0,0 +1,45 @@
+package com.stockdelta.common.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for coalescing concurrent work on the same filing
+ * The Redis lease extends coalescing across API replicas
+ */
+@Configuration
+@ConfigurationProperties(prefix = "stockdelta.inflight")
+public class InFlightConfig {
+
+    /**
+     * Use a Redis lease so only one replica runs a given computation at a time
+     */
+    private boolean distributed = true;
+
+    /**
+     * Lease expiry; bounds how long a crashed replica can block others (milliseconds)
+     */
+    private long leaseTtlMs = 300000;
+
+    /**
+     * Longest time to wait for another replica's lease before running anyway (milliseconds)
+     */
+    private long remoteWaitMs = 300000;
+
+    /**
+     * Pub/sub channel on which a released lease is announced to waiting replicas
+     */
+    private String releaseChannel = "stockdelta:inflight:released";
+
+    public boolean isDistributed() { return distributed; }
+    public void setDistributed(boolean distributed) { this.distributed = distributed; }
+
+    public long getLeaseTtlMs() { return leaseTtlMs; }
+    public void setLeaseTtlMs(long leaseTtlMs) { this.leaseTtlMs = leaseTtlMs; }
+
+    public long getRemoteWaitMs() { return remoteWaitMs; }
+    public void setRemoteWaitMs(long remoteWaitMs) { this.remoteWaitMs = remoteWaitMs; }
+
+    public String getReleaseChannel() { return releaseChannel; }
+    public void setReleaseChannel(String releaseChannel) { this.releaseChannel = releaseChannel; }
+}
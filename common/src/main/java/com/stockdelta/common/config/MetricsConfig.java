@@ -0,0 +1,56 @@
+package com.stockdelta.common.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for normalized metric calculation
+ */
+@Configuration
+@ConfigurationProperties(prefix = "stockdelta.metrics")
+public class MetricsConfig {
+
+    /**
+     * Number of CIKs whose filings and financials are loaded together by batch recomputation
+     */
+    private int cohortSize = 250;
+
+    /**
+     * Rows per JDBC batch when upserting metrics
+     */
+    private int writeBatchSize = 1000;
+
+    /**
+     * Samples a distribution needs before its z-scores are used instead of the fixed thresholds
+     */
+    private long distributionMinSamples = 30;
+
+    /**
+     * Percentage changes are clamped to +/- this before entering or being scored against a distribution
+     */
+    private double changeClampPercent = 500.0;
+
+    /**
+     * How long the in-memory copy of the distributions is used before it is reloaded (seconds)
+     */
+    private long distributionRefreshSeconds = 60;
+
+    public int getCohortSize() { return cohortSize; }
+    public void setCohortSize(int cohortSize) { this.cohortSize = cohortSize; }
+
+    public int getWriteBatchSize() { return writeBatchSize; }
+    public void setWriteBatchSize(int writeBatchSize) { this.writeBatchSize = writeBatchSize; }
+
+    public long getDistributionMinSamples() { return distributionMinSamples; }
+    public void setDistributionMinSamples(long distributionMinSamples) {
+        this.distributionMinSamples = distributionMinSamples;
+    }
+
+    public double getChangeClampPercent() { return changeClampPercent; }
+    public void setChangeClampPercent(double changeClampPercent) { this.changeClampPercent = changeClampPercent; }
+
+    public long getDistributionRefreshSeconds() { return distributionRefreshSeconds; }
+    public void setDistributionRefreshSeconds(long distributionRefreshSeconds) {
+        this.distributionRefreshSeconds = distributionRefreshSeconds;
+    }
+}
@@ -0,0 +1,192 @@
+package com.stockdelta.common.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration for calls to the Arelle normalization service and storing their results
+ */
+@Configuration
+@ConfigurationProperties(prefix = "stockdelta.normalization")
+public class NormalizationConfig {
+
+    /**
+     * Normalization engine: "arelle" calls the Python service; "native" parses the instance
+     * in-process for the forms in nativeForms and uses Arelle only for DQC validation
+     */
+    private String engine = "arelle";
+
+    /**
+     * Forms normalized in-process when the engine is "native"
+     */
+    private List<String> nativeForms = new ArrayList<>(List.of("10-K", "10-Q"));
+
+    /**
+     * Filings a batch keeps in flight against the normalization service at once
+     */
+    private int batchConcurrency = 4;
+
+    /**
+     * Pooled HTTP connections to the normalization service; kept at or above the batch concurrency
+     */
+    private int maxConnections = 8;
+
+    /**
+     * How long an idle pooled connection is kept before it is closed (seconds)
+     */
+    private long maxIdleSeconds = 60;
+
+    /**
+     * Calls running against the normalization service at once; match its worker count
+     */
+    private int maxConcurrentCalls = 4;
+
+    /**
+     * Calls waiting for a free slot before further calls are rejected
+     */
+    private int maxQueuedCalls = 50;
+
+    /**
+     * Longest a call waits for a free slot before it is rejected (seconds)
+     */
+    private long maxQueueWaitSeconds = 30;
+
+    /**
+     * TCP connect timeout to the normalization service (milliseconds)
+     */
+    private int connectTimeoutMs = 5000;
+
+    /**
+     * Timeout of a normalize call once it is running (seconds)
+     */
+    private long normalizeTimeoutSeconds = 180;
+
+    /**
+     * Timeout of a DQC validate call once it is running (seconds)
+     */
+    private long validateTimeoutSeconds = 180;
+
+    /**
+     * Timeout of a combined normalize-and-validate process call once it is running (seconds)
+     */
+    private long processTimeoutSeconds = 300;
+
+    /**
+     * Timeout of health and concept list calls (seconds)
+     */
+    private long healthTimeoutSeconds = 10;
+
+    /**
+     * Consecutive service failures that open the circuit
+     */
+    private int failureThreshold = 5;
+
+    /**
+     * How long an open circuit rejects calls before a probe is let through (seconds)
+     */
+    private long openSeconds = 30;
+
+    /**
+     * How often deferred filings are retried (seconds)
+     */
+    private long retryIntervalSeconds = 60;
+
+    /**
+     * Filings held for retry; filings turned away beyond this fail instead of being deferred
+     */
+    private int maxDeferred = 1000;
+
+    /**
+     * Retries of a deferred filing before it is dropped
+     */
+    private int maxRetryAttempts = 10;
+
+    /**
+     * Rows per JDBC batch when storing normalized financials and validations
+     */
+    private int writeBatchSize = 1000;
+
+    /**
+     * Reuse stored results when a filing's XBRL instance and the service's rules are unchanged
+     */
+    private boolean cacheEnabled = true;
+
+    /**
+     * How long the service's reported rules version is trusted before it is asked again (seconds)
+     */
+    private long rulesVersionTtlSeconds = 300;
+
+    public String getEngine() { return engine; }
+    public void setEngine(String engine) { this.engine = engine; }
+
+    public List<String> getNativeForms() { return nativeForms; }
+    public void setNativeForms(List<String> nativeForms) { this.nativeForms = nativeForms; }
+
+    public int getBatchConcurrency() { return batchConcurrency; }
+    public void setBatchConcurrency(int batchConcurrency) { this.batchConcurrency = batchConcurrency; }
+
+    public int getMaxConnections() { return maxConnections; }
+    public void setMaxConnections(int maxConnections) { this.maxConnections = maxConnections; }
+
+    public long getMaxIdleSeconds() { return maxIdleSeconds; }
+    public void setMaxIdleSeconds(long maxIdleSeconds) { this.maxIdleSeconds = maxIdleSeconds; }
+
+    public int getMaxConcurrentCalls() { return maxConcurrentCalls; }
+    public void setMaxConcurrentCalls(int maxConcurrentCalls) { this.maxConcurrentCalls = maxConcurrentCalls; }
+
+    public int getMaxQueuedCalls() { return maxQueuedCalls; }
+    public void setMaxQueuedCalls(int maxQueuedCalls) { this.maxQueuedCalls = maxQueuedCalls; }
+
+    public long getMaxQueueWaitSeconds() { return maxQueueWaitSeconds; }
+    public void setMaxQueueWaitSeconds(long maxQueueWaitSeconds) { this.maxQueueWaitSeconds = maxQueueWaitSeconds; }
+
+    public int getConnectTimeoutMs() { return connectTimeoutMs; }
+    public void setConnectTimeoutMs(int connectTimeoutMs) { this.connectTimeoutMs = connectTimeoutMs; }
+
+    public long getNormalizeTimeoutSeconds() { return normalizeTimeoutSeconds; }
+    public void setNormalizeTimeoutSeconds(long normalizeTimeoutSeconds) {
+        this.normalizeTimeoutSeconds = normalizeTimeoutSeconds;
+    }
+
+    public long getValidateTimeoutSeconds() { return validateTimeoutSeconds; }
+    public void setValidateTimeoutSeconds(long validateTimeoutSeconds) {
+        this.validateTimeoutSeconds = validateTimeoutSeconds;
+    }
+
+    public long getProcessTimeoutSeconds() { return processTimeoutSeconds; }
+    public void setProcessTimeoutSeconds(long processTimeoutSeconds) {
+        this.processTimeoutSeconds = processTimeoutSeconds;
+    }
+
+    public long getHealthTimeoutSeconds() { return healthTimeoutSeconds; }
+    public void setHealthTimeoutSeconds(long healthTimeoutSeconds) { this.healthTimeoutSeconds = healthTimeoutSeconds; }
+
+    public int getFailureThreshold() { return failureThreshold; }
+    public void setFailureThreshold(int failureThreshold) { this.failureThreshold = failureThreshold; }
+
+    public long getOpenSeconds() { return openSeconds; }
+    public void setOpenSeconds(long openSeconds) { this.openSeconds = openSeconds; }
+
+    public long getRetryIntervalSeconds() { return retryIntervalSeconds; }
+    public void setRetryIntervalSeconds(long retryIntervalSeconds) { this.retryIntervalSeconds = retryIntervalSeconds; }
+
+    public int getMaxDeferred() { return maxDeferred; }
+    public void setMaxDeferred(int maxDeferred) { this.maxDeferred = maxDeferred; }
+
+    public int getMaxRetryAttempts() { return maxRetryAttempts; }
+    public void setMaxRetryAttempts(int maxRetryAttempts) { this.maxRetryAttempts = maxRetryAttempts; }
+
+    public int getWriteBatchSize() { return writeBatchSize; }
+    public void setWriteBatchSize(int writeBatchSize) { this.writeBatchSize = writeBatchSize; }
+
+    public boolean isCacheEnabled() { return cacheEnabled; }
+    public void setCacheEnabled(boolean cacheEnabled) { this.cacheEnabled = cacheEnabled; }
+
+    public long getRulesVersionTtlSeconds() { return rulesVersionTtlSeconds; }
+    public void setRulesVersionTtlSeconds(long rulesVersionTtlSeconds) {
+        this.rulesVersionTtlSeconds = rulesVersionTtlSeconds;
+    }
+}
@@ -0,0 +1,133 @@
+package com.stockdelta.common.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuration for delta importance scoring
+ * Keyword weights are matched case-insensitively; keys containing spaces must be
+ * bracketed in property files, e.g. stockdelta.scoring.keywords.[material adverse]=0.3
+ */
+@Configuration
+@ConfigurationProperties(prefix = "stockdelta.scoring")
+public class ScoringConfig {
+
+    /**
+     * Default keyword dictionary
+     * Key: Keyword or phrase
+     * Value: Score added per occurrence
+     */
+    private Map<String, Double> keywords = new LinkedHashMap<>();
+
+    /**
+     * Per-section dictionaries that replace the default one
+     * Key: Section type (e.g., "Item1A", "Item7")
+     */
+    private Map<String, Map<String, Double>> sectionKeywords = new HashMap<>();
+
+    /**
+     * Weight of the log10(length) factor
+     */
+    private double lengthWeight = 0.05;
+
+    /**
+     * Upper bound of the final score
+     */
+    private double maxScore = 1.0;
+
+    /**
+     * Multiplier applied to each delta scorer's contribution before they are summed
+     * Key: Scorer name (keyword, length, sentiment, numeric-change); missing names use 1.0, 0 disables
+     */
+    private Map<String, Double> scorerWeights = new HashMap<>();
+
+    /**
+     * Negative and uncertainty words of the sentiment scorer, after the Loughran-McDonald lists
+     * Key: Word or stem, matched case-insensitively
+     * Value: Score added per occurrence
+     */
+    private Map<String, Double> sentimentLexicon = new LinkedHashMap<>();
+
+    /**
+     * Score of a fragment whose figures moved by 100% or more against the text it replaces
+     */
+    private double numericChangeWeight = 0.2;
+
+    /**
+     * Threads running delta scorers in parallel
+     */
+    private int poolSize = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Sections with fewer scored fragments than this are scored on the calling thread
+     */
+    private int parallelMinFragments = 8;
+
+    /**
+     * A scorer still running on the pool after this long contributes nothing to its section (milliseconds)
+     */
+    private long scorerTimeoutMs = 30000;
+
+    public ScoringConfig() {
+        // High-importance keywords
+        for (String keyword : new String[]{"risk", "uncertainty", "lawsuit", "litigation", "material adverse",
+                "investigation", "bankruptcy", "default", "breach", "violation"}) {
+            keywords.put(keyword, 0.3);
+        }
+
+        // Medium-importance keywords
+        for (String keyword : new String[]{"challenge", "competition", "regulatory", "compliance",
+                "depend", "may not", "could adversely", "potential"}) {
+            keywords.put(keyword, 0.1);
+        }
+
+        // Loughran-McDonald negative words; none may occur inside a keyword, or one phrase scores twice
+        for (String word : new String[]{"impairment", "decline", "deteriorat", "loss", "restructuring",
+                "termination", "failure", "weakness", "deficienc", "delinquen", "downgrade", "unfavorable",
+                "shortfall", "disruption", "penalt", "fraud", "writedown", "write-down", "going concern"}) {
+            sentimentLexicon.put(word, 0.05);
+        }
+
+        // Loughran-McDonald uncertainty words; "uncertainties" because the keyword "uncertainty" misses it
+        for (String word : new String[]{"uncertainties", "unpredictab", "fluctuat", "volatil", "contingen",
+                "doubt", "unknown", "indefinite"}) {
+            sentimentLexicon.put(word, 0.03);
+        }
+    }
+
+    public Map<String, Double> getKeywords() { return keywords; }
+    public void setKeywords(Map<String, Double> keywords) { this.keywords = keywords; }
+
+    public Map<String, Map<String, Double>> getSectionKeywords() { return sectionKeywords; }
+    public void setSectionKeywords(Map<String, Map<String, Double>> sectionKeywords) {
+        this.sectionKeywords = sectionKeywords;
+    }
+
+    public double getLengthWeight() { return lengthWeight; }
+    public void setLengthWeight(double lengthWeight) { this.lengthWeight = lengthWeight; }
+
+    public double getMaxScore() { return maxScore; }
+    public void setMaxScore(double maxScore) { this.maxScore = maxScore; }
+
+    public Map<String, Double> getScorerWeights() { return scorerWeights; }
+    public void setScorerWeights(Map<String, Double> scorerWeights) { this.scorerWeights = scorerWeights; }
+
+    public Map<String, Double> getSentimentLexicon() { return sentimentLexicon; }
+    public void setSentimentLexicon(Map<String, Double> sentimentLexicon) { this.sentimentLexicon = sentimentLexicon; }
+
+    public double getNumericChangeWeight() { return numericChangeWeight; }
+    public void setNumericChangeWeight(double numericChangeWeight) { this.numericChangeWeight = numericChangeWeight; }
+
+    public int getPoolSize() { return poolSize; }
+    public void setPoolSize(int poolSize) { this.poolSize = poolSize; }
+
+    public int getParallelMinFragments() { return parallelMinFragments; }
+    public void setParallelMinFragments(int parallelMinFragments) { this.parallelMinFragments = parallelMinFragments; }
+
+    public long getScorerTimeoutMs() { return scorerTimeoutMs; }
+    public void setScorerTimeoutMs(long scorerTimeoutMs) { this.scorerTimeoutMs = scorerTimeoutMs; }
+}
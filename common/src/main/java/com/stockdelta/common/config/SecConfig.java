@@ -10,6 +10,8 @@ public class SecConfig {
     private String userAgent = "StockDeltaSystem/1.0; admin@stockdelta.com";
     private int rateLimitRps = 8;
     private String baseUrl = "https://data.sec.gov";
+    private int filingIndexCacheSize = 5000;
+    private int filingIndexExpireMinutes = 1440;
 
     // Getters and Setters
     public String getUserAgent() { return userAgent; }
@@ -20,4 +22,10 @@ public class SecConfig {
 
     public String getBaseUrl() { return baseUrl; }
     public void setBaseUrl(String baseUrl) { this.baseUrl = baseUrl; }
+
+    public int getFilingIndexCacheSize() { return filingIndexCacheSize; }
+    public void setFilingIndexCacheSize(int filingIndexCacheSize) { this.filingIndexCacheSize = filingIndexCacheSize; }
+
+    public int getFilingIndexExpireMinutes() { return filingIndexExpireMinutes; }
+    public void setFilingIndexExpireMinutes(int filingIndexExpireMinutes) { this.filingIndexExpireMinutes = filingIndexExpireMinutes; }
 }
\ No newline at end of file
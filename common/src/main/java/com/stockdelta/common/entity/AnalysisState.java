@@ -0,0 +1,57 @@
+package com.stockdelta.common.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Marks a filing whose sections and deltas have been computed
+ * One row per analyzed filing, so a filing that legitimately has no deltas is not
+ * analyzed again on every read once the job that produced it has expired.
+ */
+@Entity
+@Table(name = "analysis_state")
+public class AnalysisState {
+
+    @Id
+    @Column(name = "filing_id")
+    private Long filingId;
+
+    @Column(name = "section_count")
+    private int sectionCount;
+
+    @Column(name = "delta_count")
+    private int deltaCount;
+
+    @Column(name = "analyzed_at")
+    private LocalDateTime analyzedAt;
+
+    public AnalysisState() {
+        this.analyzedAt = LocalDateTime.now();
+    }
+
+    public AnalysisState(Long filingId, int sectionCount, int deltaCount) {
+        this();
+        this.filingId = filingId;
+        this.sectionCount = sectionCount;
+        this.deltaCount = deltaCount;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void updateTimestamp() {
+        this.analyzedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getFilingId() { return filingId; }
+    public void setFilingId(Long filingId) { this.filingId = filingId; }
+
+    public int getSectionCount() { return sectionCount; }
+    public void setSectionCount(int sectionCount) { this.sectionCount = sectionCount; }
+
+    public int getDeltaCount() { return deltaCount; }
+    public void setDeltaCount(int deltaCount) { this.deltaCount = deltaCount; }
+
+    public LocalDateTime getAnalyzedAt() { return analyzedAt; }
+    public void setAnalyzedAt(LocalDateTime analyzedAt) { this.analyzedAt = analyzedAt; }
+}
@@ -0,0 +1,93 @@
+package com.stockdelta.common.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.time.LocalDateTime;
+
+/**
+ * Full edit script between two versions of a section
+ * The script is stored in the compressed binary form of EditScriptCodec and is
+ * rendered against the two section texts it was computed from.
+ */
+@Entity
+@Table(name = "diff_artifacts",
+       indexes = {
+           @Index(name = "idx_diff_artifacts_filing_id_section", columnList = "filing_id, section", unique = true)
+       })
+public class DiffArtifact {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(name = "filing_id")
+    private Long filingId;
+
+    @NotNull
+    @Size(max = 20)
+    private String section;
+
+    @NotNull
+    @Column(name = "previous_section_id")
+    private Long previousSectionId;
+
+    @NotNull
+    @Column(name = "current_section_id")
+    private Long currentSectionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "diff_mode", length = 10)
+    private FilingDelta.DiffMode diffMode;
+
+    @Column(name = "edit_count")
+    private Integer editCount;
+
+    @JsonIgnore
+    @Column(name = "edit_script", columnDefinition = "BYTEA")
+    private byte[] editScript;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public DiffArtifact() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getFilingId() { return filingId; }
+    public void setFilingId(Long filingId) { this.filingId = filingId; }
+
+    public String getSection() { return section; }
+    public void setSection(String section) { this.section = section; }
+
+    public Long getPreviousSectionId() { return previousSectionId; }
+    public void setPreviousSectionId(Long previousSectionId) { this.previousSectionId = previousSectionId; }
+
+    public Long getCurrentSectionId() { return currentSectionId; }
+    public void setCurrentSectionId(Long currentSectionId) { this.currentSectionId = currentSectionId; }
+
+    public FilingDelta.DiffMode getDiffMode() { return diffMode; }
+    public void setDiffMode(FilingDelta.DiffMode diffMode) { this.diffMode = diffMode; }
+
+    public Integer getEditCount() { return editCount; }
+    public void setEditCount(Integer editCount) { this.editCount = editCount; }
+
+    public byte[] getEditScript() { return editScript; }
+    public void setEditScript(byte[] editScript) { this.editScript = editScript; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -13,7 +13,8 @@ import java.util.List;
 @Table(name = "filings",
        indexes = {
            @Index(name = "idx_filings_cik_filed_at", columnList = "cik, filed_at"),
-           @Index(name = "idx_filings_form_filed_at", columnList = "form, filed_at")
+           @Index(name = "idx_filings_form_filed_at", columnList = "form, filed_at"),
+           @Index(name = "idx_filings_filed_at_id", columnList = "filed_at, id")
        })
 public class Filing {
 
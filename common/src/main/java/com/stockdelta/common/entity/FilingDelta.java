@@ -33,6 +33,10 @@ public class FilingDelta {
     @Column(precision = 5, scale = 3)
     private BigDecimal score;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "diff_mode", length = 10)
+    private DiffMode diffMode;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -45,6 +49,14 @@ public class FilingDelta {
         INSERT, DELETE, MODIFY
     }
 
+    /**
+     * Granularity of the diff that produced this delta
+     * Anything other than CHAR means the section exceeded its diff budget
+     */
+    public enum DiffMode {
+        CHAR, SENTENCE, SECTION
+    }
+
     public FilingDelta() {
         this.createdAt = LocalDateTime.now();
     }
@@ -75,6 +87,9 @@ public class FilingDelta {
     public BigDecimal getScore() { return score; }
     public void setScore(BigDecimal score) { this.score = score; }
 
+    public DiffMode getDiffMode() { return diffMode; }
+    public void setDiffMode(DiffMode diffMode) { this.diffMode = diffMode; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
@@ -0,0 +1,139 @@
+package com.stockdelta.common.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One normalized value of a concept for an issuer and calendar frame
+ * The store holds a single value per (concept, cik, frame), taken from the most recently
+ * filed filing that reported it, so restatements replace earlier values. Issuer history
+ * and cross-issuer frame comparisons are each a single index range scan.
+ */
+@Entity
+@Table(name = "financial_time_series",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_financial_time_series_concept_cik_frame",
+                             columnNames = {"concept", "cik", "frame"})
+       },
+       indexes = {
+           @Index(name = "idx_financial_time_series_history", columnList = "concept, cik, period_kind, period_end"),
+           @Index(name = "idx_financial_time_series_frame_sic", columnList = "concept, frame, sic")
+       })
+public class FinancialTimeSeriesPoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Size(max = 100)
+    private String concept;  // FAC fundamental concept (Revenue, Assets, etc.)
+
+    @NotNull
+    @Column(name = "cik", length = 10, columnDefinition = "CHAR(10)")
+    @Size(min = 10, max = 10)
+    private String cik;
+
+    @NotNull
+    @Size(max = 12)
+    private String frame;  // CY2024Q3, CY2024 or CY2024Q3I
+
+    @NotNull
+    @Size(max = 10)
+    @Column(name = "period_kind")
+    private String periodKind;  // 'quarter', 'year' or 'instant'
+
+    @Column(name = "period_start")
+    private LocalDate periodStart;
+
+    @NotNull
+    @Column(name = "period_end")
+    private LocalDate periodEnd;
+
+    @Column(precision = 20, scale = 2)
+    private BigDecimal value;
+
+    @Size(max = 20)
+    private String unit;
+
+    // Issuer SIC code copied at write time so frame queries need no join
+    @Size(max = 10)
+    private String sic;
+
+    @NotNull
+    @Column(name = "filing_id")
+    private Long filingId;
+
+    @Column(name = "filed_at")
+    private LocalDateTime filedAt;
+
+    @Column(name = "quality_score", precision = 3, scale = 2)
+    private BigDecimal qualityScore;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public FinancialTimeSeriesPoint() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public FinancialTimeSeriesPoint(String concept, String cik, String frame) {
+        this();
+        this.concept = concept;
+        this.cik = cik;
+        this.frame = frame;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void updateTimestamp() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getConcept() { return concept; }
+    public void setConcept(String concept) { this.concept = concept; }
+
+    public String getCik() { return cik; }
+    public void setCik(String cik) { this.cik = cik; }
+
+    public String getFrame() { return frame; }
+    public void setFrame(String frame) { this.frame = frame; }
+
+    public String getPeriodKind() { return periodKind; }
+    public void setPeriodKind(String periodKind) { this.periodKind = periodKind; }
+
+    public LocalDate getPeriodStart() { return periodStart; }
+    public void setPeriodStart(LocalDate periodStart) { this.periodStart = periodStart; }
+
+    public LocalDate getPeriodEnd() { return periodEnd; }
+    public void setPeriodEnd(LocalDate periodEnd) { this.periodEnd = periodEnd; }
+
+    public BigDecimal getValue() { return value; }
+    public void setValue(BigDecimal value) { this.value = value; }
+
+    public String getUnit() { return unit; }
+    public void setUnit(String unit) { this.unit = unit; }
+
+    public String getSic() { return sic; }
+    public void setSic(String sic) { this.sic = sic; }
+
+    public Long getFilingId() { return filingId; }
+    public void setFilingId(Long filingId) { this.filingId = filingId; }
+
+    public LocalDateTime getFiledAt() { return filedAt; }
+    public void setFiledAt(LocalDateTime filedAt) { this.filedAt = filedAt; }
+
+    public BigDecimal getQualityScore() { return qualityScore; }
+    public void setQualityScore(BigDecimal qualityScore) { this.qualityScore = qualityScore; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,124 @@
+package com.stockdelta.common.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Running distribution of one metric's QoQ/YoY changes, overall or within a SIC code
+ * Stored as Welford aggregates (count, mean, sum of squared deviations) so samples can be
+ * added or removed one at a time without rescanning the metric tables.
+ */
+@Entity
+@Table(name = "metric_distributions")
+public class MetricDistribution {
+
+    // SIC value of the distribution across all issuers
+    public static final String ALL_SIC = "*";
+
+    @EmbeddedId
+    private MetricDistributionId id;
+
+    @Column(name = "sample_count")
+    private long sampleCount;
+
+    private double mean;
+
+    // Sum of squared deviations from the mean
+    private double m2;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Embeddable
+    public static class MetricDistributionId implements java.io.Serializable {
+        @NotNull
+        @Size(max = 20)
+        private String source;  // xbrl or normalized
+
+        @NotNull
+        @Size(max = 100)
+        private String metric;
+
+        @NotNull
+        @Size(max = 10)
+        private String basis;  // QoQ, YoY
+
+        @NotNull
+        @Size(max = 10)
+        private String sic;  // SIC code, or * for all issuers
+
+        public MetricDistributionId() {}
+
+        public MetricDistributionId(String source, String metric, String basis, String sic) {
+            this.source = source;
+            this.metric = metric;
+            this.basis = basis;
+            this.sic = sic;
+        }
+
+        // Getters and Setters
+        public String getSource() { return source; }
+        public void setSource(String source) { this.source = source; }
+
+        public String getMetric() { return metric; }
+        public void setMetric(String metric) { this.metric = metric; }
+
+        public String getBasis() { return basis; }
+        public void setBasis(String basis) { this.basis = basis; }
+
+        public String getSic() { return sic; }
+        public void setSic(String sic) { this.sic = sic; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            MetricDistributionId that = (MetricDistributionId) o;
+            return Objects.equals(source, that.source) &&
+                   Objects.equals(metric, that.metric) &&
+                   Objects.equals(basis, that.basis) &&
+                   Objects.equals(sic, that.sic);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(source, metric, basis, sic);
+        }
+    }
+
+    public MetricDistribution() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void updateTimestamp() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Population standard deviation, 0 with fewer than two samples
+     */
+    public double getStandardDeviation() {
+        return sampleCount < 2 ? 0.0 : Math.sqrt(Math.max(0.0, m2) / sampleCount);
+    }
+
+    // Getters and Setters
+    public MetricDistributionId getId() { return id; }
+    public void setId(MetricDistributionId id) { this.id = id; }
+
+    public long getSampleCount() { return sampleCount; }
+    public void setSampleCount(long sampleCount) { this.sampleCount = sampleCount; }
+
+    public double getMean() { return mean; }
+    public void setMean(double mean) { this.mean = mean; }
+
+    public double getM2() { return m2; }
+    public void setM2(double m2) { this.m2 = m2; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,95 @@
+package com.stockdelta.common.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Normalization service response for one XBRL instance under one version of the rules
+ * Keyed by content rather than filing, so any filing whose instance hashes the same
+ * can be normalized without another Arelle run.
+ */
+@Entity
+@Table(name = "normalization_cache")
+public class NormalizationCacheEntry {
+
+    @EmbeddedId
+    private NormalizationCacheKey id;
+
+    // The service's /process response as JSON
+    @Column(columnDefinition = "TEXT")
+    private String response;
+
+    @Column(name = "processing_time_ms")
+    private Integer processingTimeMs;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Embeddable
+    public static class NormalizationCacheKey implements java.io.Serializable {
+        @NotNull
+        @Size(max = 64)
+        @Column(name = "instance_sha256", length = 64)
+        private String instanceSha256;
+
+        @NotNull
+        @Size(max = 32)
+        @Column(name = "rules_version", length = 32)
+        private String rulesVersion;
+
+        public NormalizationCacheKey() {}
+
+        public NormalizationCacheKey(String instanceSha256, String rulesVersion) {
+            this.instanceSha256 = instanceSha256;
+            this.rulesVersion = rulesVersion;
+        }
+
+        // Getters and Setters
+        public String getInstanceSha256() { return instanceSha256; }
+        public void setInstanceSha256(String instanceSha256) { this.instanceSha256 = instanceSha256; }
+
+        public String getRulesVersion() { return rulesVersion; }
+        public void setRulesVersion(String rulesVersion) { this.rulesVersion = rulesVersion; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            NormalizationCacheKey that = (NormalizationCacheKey) o;
+            return Objects.equals(instanceSha256, that.instanceSha256) &&
+                   Objects.equals(rulesVersion, that.rulesVersion);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(instanceSha256, rulesVersion);
+        }
+    }
+
+    public NormalizationCacheEntry() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
+    // Getters and Setters
+    public NormalizationCacheKey getId() { return id; }
+    public void setId(NormalizationCacheKey id) { this.id = id; }
+
+    public String getResponse() { return response; }
+    public void setResponse(String response) { this.response = response; }
+
+    public Integer getProcessingTimeMs() { return processingTimeMs; }
+    public void setProcessingTimeMs(Integer processingTimeMs) { this.processingTimeMs = processingTimeMs; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
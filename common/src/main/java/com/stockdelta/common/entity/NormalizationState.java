@@ -0,0 +1,87 @@
+package com.stockdelta.common.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDateTime;
+
+/**
+ * What a filing's stored normalization was produced from
+ * One row per normalized filing, written with its financials and validations, so a
+ * re-normalization of the same instance under the same rules can be skipped.
+ */
+@Entity
+@Table(name = "normalization_state")
+public class NormalizationState {
+
+    @Id
+    @Column(name = "filing_id")
+    private Long filingId;
+
+    // SHA-256 of the XBRL instance document; null when it could not be fetched
+    @Size(max = 64)
+    @Column(name = "instance_sha256", length = 64)
+    private String instanceSha256;
+
+    @Size(max = 32)
+    @Column(name = "rules_version", length = 32)
+    private String rulesVersion;
+
+    @Column(name = "concept_count")
+    private int conceptCount;
+
+    @Column(name = "error_count")
+    private int errorCount;
+
+    @Column(name = "warning_count")
+    private int warningCount;
+
+    // Service time of the run that produced the stored data
+    @Column(name = "processing_time_ms")
+    private Integer processingTimeMs;
+
+    @Column(name = "normalized_at")
+    private LocalDateTime normalizedAt;
+
+    public NormalizationState() {
+        this.normalizedAt = LocalDateTime.now();
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void updateTimestamp() {
+        this.normalizedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Whether the stored data came from this instance under these rules
+     */
+    public boolean matches(String instanceSha256, String rulesVersion) {
+        return this.instanceSha256 != null && this.instanceSha256.equals(instanceSha256)
+                && this.rulesVersion != null && this.rulesVersion.equals(rulesVersion);
+    }
+
+    // Getters and Setters
+    public Long getFilingId() { return filingId; }
+    public void setFilingId(Long filingId) { this.filingId = filingId; }
+
+    public String getInstanceSha256() { return instanceSha256; }
+    public void setInstanceSha256(String instanceSha256) { this.instanceSha256 = instanceSha256; }
+
+    public String getRulesVersion() { return rulesVersion; }
+    public void setRulesVersion(String rulesVersion) { this.rulesVersion = rulesVersion; }
+
+    public int getConceptCount() { return conceptCount; }
+    public void setConceptCount(int conceptCount) { this.conceptCount = conceptCount; }
+
+    public int getErrorCount() { return errorCount; }
+    public void setErrorCount(int errorCount) { this.errorCount = errorCount; }
+
+    public int getWarningCount() { return warningCount; }
+    public void setWarningCount(int warningCount) { this.warningCount = warningCount; }
+
+    public Integer getProcessingTimeMs() { return processingTimeMs; }
+    public void setProcessingTimeMs(Integer processingTimeMs) { this.processingTimeMs = processingTimeMs; }
+
+    public LocalDateTime getNormalizedAt() { return normalizedAt; }
+    public void setNormalizedAt(LocalDateTime normalizedAt) { this.normalizedAt = normalizedAt; }
+}
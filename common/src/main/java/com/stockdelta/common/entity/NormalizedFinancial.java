@@ -53,6 +53,9 @@ public class NormalizedFinancial {
     @Column(name = "end_date")
     private LocalDate endDate;
 
+    @Column(name = "dimensional")
+    private Boolean dimensional;  // Context qualified by axis members (a segment, not the consolidated entity)
+
     @Column(name = "quality_score", precision = 3, scale = 2)
     private BigDecimal qualityScore;  // Data quality score (0.0 to 1.0)
 
@@ -156,6 +159,14 @@ public class NormalizedFinancial {
         this.endDate = endDate;
     }
 
+    public Boolean getDimensional() {
+        return dimensional;
+    }
+
+    public void setDimensional(Boolean dimensional) {
+        this.dimensional = dimensional;
+    }
+
     public BigDecimal getQualityScore() {
         return qualityScore;
     }
@@ -0,0 +1,107 @@
+package com.stockdelta.common.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.time.LocalDateTime;
+
+/**
+ * MinHash fingerprint of one paragraph of a filing section
+ * The signature is stored as packed 32-bit ints in a bytea column
+ */
+@Entity
+@Table(name = "paragraph_fingerprints",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_paragraph_fingerprints_filing_section_ordinal",
+                             columnNames = {"filing_id", "section", "ordinal"})
+       },
+       indexes = {
+           @Index(name = "idx_paragraph_fingerprints_content_hash", columnList = "content_hash")
+       })
+public class ParagraphFingerprint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(name = "filing_id")
+    private Long filingId;
+
+    @NotNull
+    @Column(name = "cik", length = 10, columnDefinition = "CHAR(10)")
+    private String cik;
+
+    @Size(max = 10)
+    private String sic;
+
+    @NotNull
+    @Size(max = 20)
+    private String section;
+
+    @NotNull
+    private Integer ordinal;
+
+    @NotNull
+    @Column(name = "content_hash")
+    private Long contentHash;
+
+    @JsonIgnore
+    @Column(name = "minhash", columnDefinition = "BYTEA")
+    private byte[] minhash;
+
+    @Column(name = "char_count")
+    private Integer charCount;
+
+    @Column(name = "filed_at")
+    private LocalDateTime filedAt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public ParagraphFingerprint() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getFilingId() { return filingId; }
+    public void setFilingId(Long filingId) { this.filingId = filingId; }
+
+    public String getCik() { return cik; }
+    public void setCik(String cik) { this.cik = cik; }
+
+    public String getSic() { return sic; }
+    public void setSic(String sic) { this.sic = sic; }
+
+    public String getSection() { return section; }
+    public void setSection(String section) { this.section = section; }
+
+    public Integer getOrdinal() { return ordinal; }
+    public void setOrdinal(Integer ordinal) { this.ordinal = ordinal; }
+
+    public Long getContentHash() { return contentHash; }
+    public void setContentHash(Long contentHash) { this.contentHash = contentHash; }
+
+    public byte[] getMinhash() { return minhash; }
+    public void setMinhash(byte[] minhash) { this.minhash = minhash; }
+
+    public Integer getCharCount() { return charCount; }
+    public void setCharCount(Integer charCount) { this.charCount = charCount; }
+
+    public LocalDateTime getFiledAt() { return filedAt; }
+    public void setFiledAt(LocalDateTime filedAt) { this.filedAt = filedAt; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
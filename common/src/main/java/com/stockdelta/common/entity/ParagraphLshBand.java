@@ -0,0 +1,71 @@
+package com.stockdelta.common.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDateTime;
+
+/**
+ * LSH bucket membership of a paragraph fingerprint, one row per band
+ * Denormalizes sic and filed_at so candidate lookups are a single index range scan
+ */
+@Entity
+@Table(name = "paragraph_lsh_bands",
+       indexes = {
+           @Index(name = "idx_paragraph_lsh_bands_key_sic_filed_at", columnList = "band_key, sic, filed_at"),
+           @Index(name = "idx_paragraph_lsh_bands_filing_id", columnList = "filing_id")
+       })
+public class ParagraphLshBand {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(name = "fingerprint_id")
+    private Long fingerprintId;
+
+    @NotNull
+    @Column(name = "filing_id")
+    private Long filingId;
+
+    @NotNull
+    @Column(name = "band_key")
+    private Long bandKey;
+
+    @Size(max = 10)
+    private String sic;
+
+    @Column(name = "filed_at")
+    private LocalDateTime filedAt;
+
+    public ParagraphLshBand() {
+    }
+
+    public ParagraphLshBand(ParagraphFingerprint fingerprint, long bandKey) {
+        this.fingerprintId = fingerprint.getId();
+        this.filingId = fingerprint.getFilingId();
+        this.sic = fingerprint.getSic();
+        this.filedAt = fingerprint.getFiledAt();
+        this.bandKey = bandKey;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getFingerprintId() { return fingerprintId; }
+    public void setFingerprintId(Long fingerprintId) { this.fingerprintId = fingerprintId; }
+
+    public Long getFilingId() { return filingId; }
+    public void setFilingId(Long filingId) { this.filingId = filingId; }
+
+    public Long getBandKey() { return bandKey; }
+    public void setBandKey(Long bandKey) { this.bandKey = bandKey; }
+
+    public String getSic() { return sic; }
+    public void setSic(String sic) { this.sic = sic; }
+
+    public LocalDateTime getFiledAt() { return filedAt; }
+    public void setFiledAt(LocalDateTime filedAt) { this.filedAt = filedAt; }
+}
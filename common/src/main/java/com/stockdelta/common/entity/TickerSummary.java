@@ -0,0 +1,134 @@
+package com.stockdelta.common.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Materialized delta summary of an issuer's latest 10-K/10-Q
+ * One row per issuer, rewritten whenever that filing's deltas or metrics are recomputed,
+ * so dashboards can read many tickers with a single query. An issuer without a 10-K/10-Q
+ * keeps a row with no filing, so reading it does not rebuild it every time.
+ */
+@Entity
+@Table(name = "ticker_summaries",
+       indexes = {
+           @Index(name = "idx_ticker_summaries_ticker", columnList = "ticker")
+       })
+public class TickerSummary {
+
+    @Id
+    @Column(name = "cik", length = 10, columnDefinition = "CHAR(10)")
+    @Size(min = 10, max = 10)
+    private String cik;
+
+    @Size(max = 10)
+    private String ticker;
+
+    @Column(name = "company_name")
+    private String companyName;
+
+    @Column(name = "filing_id")
+    private Long filingId;
+
+    @Size(max = 20)
+    private String form;
+
+    @Column(name = "accession_no")
+    private String accessionNo;
+
+    @Column(name = "period_end")
+    private LocalDate periodEnd;
+
+    @Column(name = "filed_at")
+    private LocalDateTime filedAt;
+
+    @Column(name = "primary_doc_url")
+    private String primaryDocUrl;
+
+    @Column(name = "total_changes")
+    private int totalChanges;
+
+    @Column(name = "insert_count")
+    private int insertCount;
+
+    @Column(name = "delete_count")
+    private int deleteCount;
+
+    @Column(name = "modify_count")
+    private int modifyCount;
+
+    // Highest z-score among the filing's XBRL metrics; null when none were calculated
+    @Column(name = "max_z_score")
+    private Double maxZScore;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public TickerSummary() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public TickerSummary(String cik) {
+        this();
+        this.cik = cik;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void updateTimestamp() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getCik() { return cik; }
+    public void setCik(String cik) { this.cik = cik; }
+
+    public String getTicker() { return ticker; }
+    public void setTicker(String ticker) { this.ticker = ticker; }
+
+    public String getCompanyName() { return companyName; }
+    public void setCompanyName(String companyName) { this.companyName = companyName; }
+
+    /**
+     * Whether the issuer had a 10-K/10-Q when the row was built
+     */
+    public boolean hasFiling() { return filingId != null; }
+
+    public Long getFilingId() { return filingId; }
+    public void setFilingId(Long filingId) { this.filingId = filingId; }
+
+    public String getForm() { return form; }
+    public void setForm(String form) { this.form = form; }
+
+    public String getAccessionNo() { return accessionNo; }
+    public void setAccessionNo(String accessionNo) { this.accessionNo = accessionNo; }
+
+    public LocalDate getPeriodEnd() { return periodEnd; }
+    public void setPeriodEnd(LocalDate periodEnd) { this.periodEnd = periodEnd; }
+
+    public LocalDateTime getFiledAt() { return filedAt; }
+    public void setFiledAt(LocalDateTime filedAt) { this.filedAt = filedAt; }
+
+    public String getPrimaryDocUrl() { return primaryDocUrl; }
+    public void setPrimaryDocUrl(String primaryDocUrl) { this.primaryDocUrl = primaryDocUrl; }
+
+    public int getTotalChanges() { return totalChanges; }
+    public void setTotalChanges(int totalChanges) { this.totalChanges = totalChanges; }
+
+    public int getInsertCount() { return insertCount; }
+    public void setInsertCount(int insertCount) { this.insertCount = insertCount; }
+
+    public int getDeleteCount() { return deleteCount; }
+    public void setDeleteCount(int deleteCount) { this.deleteCount = deleteCount; }
+
+    public int getModifyCount() { return modifyCount; }
+    public void setModifyCount(int modifyCount) { this.modifyCount = modifyCount; }
+
+    public Double getMaxZScore() { return maxZScore; }
+    public void setMaxZScore(Double maxZScore) { this.maxZScore = maxZScore; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,61 @@
+package com.stockdelta.common.event;
+
+import java.util.List;
+
+/**
+ * Domain event raised when stored data derived from a filing changes
+ * Published through Spring's ApplicationEventPublisher; listeners that cache
+ * filing-level reads should use it to drop their entries. Bulk writers raise one
+ * issuer-level event carrying every filing they touched instead of one per filing.
+ */
+public class FilingEvent {
+
+    public enum Type {
+        FILING_INGESTED,
+        SECTIONS_EXTRACTED,
+        DELTAS_COMPUTED,
+        METRICS_CALCULATED,
+        NORMALIZED
+    }
+
+    private final Type type;
+    private final Long filingId;
+    private final String cik;
+    private final List<Long> filingIds;
+
+    public FilingEvent(Type type, Long filingId, String cik) {
+        this.type = type;
+        this.filingId = filingId;
+        this.cik = cik;
+        this.filingIds = filingId != null ? List.of(filingId) : List.of();
+    }
+
+    /**
+     * Issuer-level event for several filings of one CIK
+     *
+     * @param filingIds Filings touched, the most recently filed last
+     */
+    public FilingEvent(Type type, String cik, List<Long> filingIds) {
+        this.type = type;
+        this.filingId = filingIds.isEmpty() ? null : filingIds.get(filingIds.size() - 1);
+        this.cik = cik;
+        this.filingIds = List.copyOf(filingIds);
+    }
+
+    public Type getType() { return type; }
+
+    /**
+     * The filing, or the most recently filed one of an issuer-level event
+     */
+    public Long getFilingId() { return filingId; }
+
+    public String getCik() { return cik; }
+
+    public List<Long> getFilingIds() { return filingIds; }
+
+    @Override
+    public String toString() {
+        return "FilingEvent{" + type + ", filingId=" + filingId + ", cik=" + cik
+                + (filingIds.size() > 1 ? ", filings=" + filingIds.size() : "") + "}";
+    }
+}
@@ -0,0 +1,169 @@
+package com.stockdelta.common.parser;
+
+import org.jsoup.nodes.Attribute;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads inline XBRL facts from an HTML document already parsed with Jsoup
+ * Contexts, units and ix:nonFraction facts are collected in one walk over the
+ * document's elements, with ix:format, scale and sign applied as in
+ * XbrlInstanceParser. The HTML parser lower-cases tag and attribute names and does
+ * not resolve namespaces, so prefixes are matched literally and resolved against the
+ * root element's xmlns declarations.
+ */
+@Component
+public class InlineXbrlExtractor {
+
+    private static final Logger logger = LoggerFactory.getLogger(InlineXbrlExtractor.class);
+
+    /**
+     * Extract the numeric inline facts of a document
+     *
+     * @return The facts, empty when the document is not inline XBRL
+     */
+    public XbrlInstance extract(Document doc) {
+        XbrlInstance instance = new XbrlInstance();
+        Map<String, String> namespaces = namespaces(doc);
+
+        XbrlInstance.Context context = null;
+        Element contextElement = null;
+        String unitId = null;
+        Element unitElement = null;
+
+        for (Element element : doc.getAllElements()) {
+            // Elements come in document order; leaving a context or unit ends its scope
+            if (contextElement != null && !isWithin(element, contextElement)) {
+                context = null;
+                contextElement = null;
+            }
+            if (unitElement != null && !isWithin(element, unitElement)) {
+                unitId = null;
+                unitElement = null;
+            }
+
+            switch (element.normalName()) {
+                case "xbrli:context" -> {
+                    context = new XbrlInstance.Context(element.attr("id"));
+                    contextElement = element;
+                    instance.getContexts().put(context.getId(), context);
+                }
+                case "xbrli:startdate" -> {
+                    if (context != null) context.setStartDate(date(element.text()));
+                }
+                case "xbrli:enddate" -> {
+                    if (context != null) context.setEndDate(date(element.text()));
+                }
+                case "xbrli:instant" -> {
+                    if (context != null) context.setInstant(date(element.text()));
+                }
+                case "xbrldi:explicitmember", "xbrldi:typedmember" -> {
+                    if (context != null) context.setDimensional(true);
+                }
+                case "xbrli:unit" -> {
+                    unitId = element.attr("id");
+                    unitElement = element;
+                }
+                case "xbrli:measure" -> {
+                    if (unitId != null) {
+                        instance.getUnits().putIfAbsent(unitId, localPart(element.text().trim()));
+                    }
+                }
+                case "ix:nonfraction" -> addFact(instance, element, namespaces);
+                default -> { }
+            }
+        }
+
+        if (!instance.getFacts().isEmpty()) {
+            logger.debug("Extracted {} inline XBRL facts ({} contexts, {} units)",
+                    instance.getFacts().size(), instance.getContexts().size(), instance.getUnits().size());
+        }
+        return instance;
+    }
+
+    private static void addFact(XbrlInstance instance, Element element, Map<String, String> namespaces) {
+        String qname = element.attr("name");
+        String contextRef = element.attr("contextref");
+        int colon = qname.indexOf(':');
+        if (colon <= 0 || contextRef.isEmpty() || "true".equals(element.attr("xsi:nil"))) {
+            return;
+        }
+
+        BigDecimal value = XbrlInstanceParser.inlineValue(element.text(), element.attr("format"));
+        if (value == null) {
+            return;
+        }
+
+        String scale = element.attr("scale");
+        if (!scale.isEmpty()) {
+            try {
+                value = value.scaleByPowerOfTen(Integer.parseInt(scale.trim()));
+            } catch (NumberFormatException e) {
+                logger.debug("Ignoring invalid scale {} on {}", scale, qname);
+            }
+        }
+        if ("-".equals(element.attr("sign"))) {
+            value = value.negate();
+        }
+
+        String prefix = qname.substring(0, colon);
+        instance.getFacts().add(new XbrlInstance.Fact(
+                namespaces.getOrDefault(prefix, prefix),
+                qname.substring(colon + 1),
+                contextRef,
+                emptyToNull(element.attr("unitref")),
+                emptyToNull(element.attr("decimals")),
+                value));
+    }
+
+    /**
+     * Prefix to namespace URI, from the xmlns declarations of the root element
+     */
+    private static Map<String, String> namespaces(Document doc) {
+        Map<String, String> namespaces = new HashMap<>();
+        Element root = doc.firstElementChild();
+        if (root != null) {
+            for (Attribute attribute : root.attributes()) {
+                if (attribute.getKey().startsWith("xmlns:")) {
+                    namespaces.put(attribute.getKey().substring(6), attribute.getValue());
+                }
+            }
+        }
+        return namespaces;
+    }
+
+    private static boolean isWithin(Element element, Element ancestor) {
+        for (Element current = element.parent(); current != null; current = current.parent()) {
+            if (current == ancestor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static LocalDate date(String text) {
+        String trimmed = text.trim();
+        try {
+            return LocalDate.parse(trimmed.length() > 10 ? trimmed.substring(0, 10) : trimmed);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static String localPart(String qname) {
+        int colon = qname.indexOf(':');
+        return colon >= 0 ? qname.substring(colon + 1) : qname;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
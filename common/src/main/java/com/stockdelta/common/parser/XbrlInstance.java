@@ -0,0 +1,105 @@
+package com.stockdelta.common.parser;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contexts, units and numeric facts read from an XBRL instance or inline XBRL document
+ */
+public class XbrlInstance {
+
+    private final Map<String, Context> contexts = new HashMap<>();
+    private final Map<String, String> units = new HashMap<>();
+    private final List<Fact> facts = new ArrayList<>();
+
+    public Context getContext(String id) {
+        return id != null ? contexts.get(id) : null;
+    }
+
+    /**
+     * The unit's measure without its prefix (USD, shares); the numerator of a divide
+     */
+    public String getUnit(String id) {
+        return id != null ? units.get(id) : null;
+    }
+
+    public Map<String, Context> getContexts() { return contexts; }
+    public Map<String, String> getUnits() { return units; }
+    public List<Fact> getFacts() { return facts; }
+
+    /**
+     * Reporting period of a context, and whether it is qualified by dimensions
+     */
+    public static class Context {
+        private final String id;
+        private LocalDate startDate;
+        private LocalDate endDate;
+        private LocalDate instant;
+        private boolean dimensional;
+
+        public Context(String id) {
+            this.id = id;
+        }
+
+        public String getPeriodType() {
+            if (instant != null) {
+                return "instant";
+            }
+            return startDate != null || endDate != null ? "duration" : "unknown";
+        }
+
+        /**
+         * End of a duration, or the date of an instant
+         */
+        public LocalDate getPeriodEnd() {
+            return instant != null ? instant : endDate;
+        }
+
+        public String getId() { return id; }
+
+        public LocalDate getStartDate() { return startDate; }
+        public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+        public LocalDate getEndDate() { return endDate; }
+        public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+
+        public LocalDate getInstant() { return instant; }
+        public void setInstant(LocalDate instant) { this.instant = instant; }
+
+        public boolean isDimensional() { return dimensional; }
+        public void setDimensional(boolean dimensional) { this.dimensional = dimensional; }
+    }
+
+    /**
+     * A numeric fact with scale and sign already applied
+     */
+    public static class Fact {
+        private final String namespace;
+        private final String name;
+        private final String contextRef;
+        private final String unitRef;
+        private final String decimals;
+        private final BigDecimal value;
+
+        public Fact(String namespace, String name, String contextRef, String unitRef,
+                    String decimals, BigDecimal value) {
+            this.namespace = namespace;
+            this.name = name;
+            this.contextRef = contextRef;
+            this.unitRef = unitRef;
+            this.decimals = decimals;
+            this.value = value;
+        }
+
+        public String getNamespace() { return namespace; }
+        public String getName() { return name; }
+        public String getContextRef() { return contextRef; }
+        public String getUnitRef() { return unitRef; }
+        public String getDecimals() { return decimals; }
+        public BigDecimal getValue() { return value; }
+    }
+}
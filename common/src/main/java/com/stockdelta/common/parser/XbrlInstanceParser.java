@@ -0,0 +1,287 @@
+package com.stockdelta.common.parser;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+
+/**
+ * Streaming (StAX) reader of XBRL instance documents and inline XBRL (XHTML) documents
+ * Reads contexts, units and numeric facts in one pass without building a tree.
+ * Inline facts get their ix:format, scale and sign applied. DTDs and external
+ * entities are not processed.
+ */
+@Component
+public class XbrlInstanceParser {
+
+    private static final Logger logger = LoggerFactory.getLogger(XbrlInstanceParser.class);
+
+    private static final String XBRLI_NS = "http://www.xbrl.org/2003/instance";
+    private static final String LINK_NS = "http://www.xbrl.org/2003/linkbase";
+    private static final String IX_NS = "http://www.xbrl.org/2013/inlineXBRL";
+    private static final String XBRLDI_NS = "http://xbrl.org/2006/xbrldi";
+    private static final String XSI_NS = "http://www.w3.org/2001/XMLSchema-instance";
+
+    private final XMLInputFactory inputFactory;
+
+    public XbrlInstanceParser() {
+        inputFactory = XMLInputFactory.newFactory();
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        inputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    /**
+     * Parse an instance or inline XBRL document
+     *
+     * @throws XMLStreamException when the document is not well-formed XML
+     */
+    public XbrlInstance parse(String document) throws XMLStreamException {
+        XbrlInstance instance = new XbrlInstance();
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(new StringReader(document));
+        try {
+            read(reader, instance);
+        } finally {
+            reader.close();
+        }
+
+        logger.debug("Parsed XBRL document: {} contexts, {} units, {} numeric facts",
+                instance.getContexts().size(), instance.getUnits().size(), instance.getFacts().size());
+        return instance;
+    }
+
+    private void read(XMLStreamReader reader, XbrlInstance instance) throws XMLStreamException {
+        int depth = 0;
+        boolean instanceRoot = false;
+        XbrlInstance.Context context = null;
+        String unitId = null;
+
+        // Open ix:nonFraction elements; text is appended to each, as they may nest
+        Deque<InlineFact> inline = new ArrayDeque<>();
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+
+            if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                if (!inline.isEmpty()) {
+                    String text = reader.getText();
+                    for (InlineFact fact : inline) {
+                        fact.text.append(text);
+                    }
+                }
+                continue;
+            }
+
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+                String ns = reader.getNamespaceURI();
+                String local = reader.getLocalName();
+                if (IX_NS.equals(ns) && "nonFraction".equals(local) && !inline.isEmpty()) {
+                    addInlineFact(instance, inline.pop());
+                } else if (XBRLI_NS.equals(ns) && "context".equals(local)) {
+                    context = null;
+                } else if (XBRLI_NS.equals(ns) && "unit".equals(local)) {
+                    unitId = null;
+                }
+                continue;
+            }
+
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+
+            depth++;
+            String ns = reader.getNamespaceURI();
+            String local = reader.getLocalName();
+
+            if (depth == 1) {
+                instanceRoot = XBRLI_NS.equals(ns) && "xbrl".equals(local);
+                continue;
+            }
+
+            if (XBRLI_NS.equals(ns)) {
+                switch (local) {
+                    case "context" -> {
+                        context = new XbrlInstance.Context(reader.getAttributeValue(null, "id"));
+                        instance.getContexts().put(context.getId(), context);
+                    }
+                    case "startDate" -> {
+                        if (context != null) context.setStartDate(date(reader.getElementText()));
+                        depth--;
+                    }
+                    case "endDate" -> {
+                        if (context != null) context.setEndDate(date(reader.getElementText()));
+                        depth--;
+                    }
+                    case "instant" -> {
+                        if (context != null) context.setInstant(date(reader.getElementText()));
+                        depth--;
+                    }
+                    case "unit" -> unitId = reader.getAttributeValue(null, "id");
+                    case "measure" -> {
+                        String measure = reader.getElementText().trim();
+                        if (unitId != null) {
+                            instance.getUnits().putIfAbsent(unitId, localPart(measure));
+                        }
+                        depth--;
+                    }
+                    default -> { }
+                }
+                continue;
+            }
+
+            if (XBRLDI_NS.equals(ns)) {
+                if (context != null) {
+                    context.setDimensional(true);
+                }
+                continue;
+            }
+
+            if (IX_NS.equals(ns)) {
+                if ("nonFraction".equals(local)) {
+                    inline.push(new InlineFact(reader));
+                }
+                continue;
+            }
+
+            // A fact of a plain instance is a child of the root with a context
+            if (instanceRoot && depth == 2 && !LINK_NS.equals(ns)) {
+                String contextRef = reader.getAttributeValue(null, "contextRef");
+                String unitRef = reader.getAttributeValue(null, "unitRef");
+                if (contextRef == null || unitRef == null || isNil(reader)) {
+                    continue;
+                }
+
+                String decimals = reader.getAttributeValue(null, "decimals");
+                String text = reader.getElementText();
+                depth--;
+                BigDecimal value = number(text);
+                if (value != null) {
+                    instance.getFacts().add(new XbrlInstance.Fact(ns, local, contextRef, unitRef, decimals, value));
+                }
+            }
+        }
+    }
+
+    private static void addInlineFact(XbrlInstance instance, InlineFact fact) {
+        if (fact.nil || fact.namespace == null || fact.contextRef == null) {
+            return;
+        }
+
+        BigDecimal value = inlineValue(fact.text.toString(), fact.format);
+        if (value == null) {
+            return;
+        }
+        if (fact.scale != 0) {
+            value = value.scaleByPowerOfTen(fact.scale);
+        }
+        if (fact.negative) {
+            value = value.negate();
+        }
+        instance.getFacts().add(new XbrlInstance.Fact(fact.namespace, fact.name, fact.contextRef,
+                fact.unitRef, fact.decimals, value));
+    }
+
+    /**
+     * Apply an ix:format transform to displayed text
+     * Covers the number and zero-dash transforms of the registries EDGAR accepts.
+     */
+    public static BigDecimal inlineValue(String text, String format) {
+        String display = text.trim();
+        String transform = format != null ? localPart(format).toLowerCase(Locale.ROOT).replace("-", "") : "";
+
+        if (transform.contains("zerodash") || transform.equals("fixedzero")) {
+            return BigDecimal.ZERO;
+        }
+        if (transform.contains("numcommadecimal")) {
+            display = display.replace(".", "").replace(" ", "").replace(",", ".");
+        }
+
+        StringBuilder digits = new StringBuilder(display.length());
+        for (int i = 0; i < display.length(); i++) {
+            char c = display.charAt(i);
+            if ((c >= '0' && c <= '9') || c == '.') {
+                digits.append(c);
+            }
+        }
+        return number(digits.toString());
+    }
+
+    private static BigDecimal number(String text) {
+        String trimmed = text != null ? text.trim() : "";
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+        try {
+            return new BigDecimal(trimmed);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static LocalDate date(String text) {
+        String trimmed = text.trim();
+        // Dates may carry a time part (2024-06-30T00:00:00)
+        return LocalDate.parse(trimmed.length() > 10 ? trimmed.substring(0, 10) : trimmed);
+    }
+
+    private static boolean isNil(XMLStreamReader reader) {
+        return "true".equals(reader.getAttributeValue(XSI_NS, "nil"));
+    }
+
+    private static String localPart(String qname) {
+        int colon = qname.indexOf(':');
+        return colon >= 0 ? qname.substring(colon + 1) : qname;
+    }
+
+    /**
+     * Attributes of an open ix:nonFraction and the text read so far
+     */
+    private static final class InlineFact {
+        private final String namespace;
+        private final String name;
+        private final String contextRef;
+        private final String unitRef;
+        private final String decimals;
+        private final String format;
+        private final int scale;
+        private final boolean negative;
+        private final boolean nil;
+        private final StringBuilder text = new StringBuilder();
+
+        InlineFact(XMLStreamReader reader) {
+            String qname = reader.getAttributeValue(null, "name");
+            int colon = qname != null ? qname.indexOf(':') : -1;
+            this.namespace = colon > 0 ? reader.getNamespaceContext().getNamespaceURI(qname.substring(0, colon)) : null;
+            this.name = qname != null ? localPart(qname) : null;
+            this.contextRef = reader.getAttributeValue(null, "contextRef");
+            this.unitRef = reader.getAttributeValue(null, "unitRef");
+            this.decimals = reader.getAttributeValue(null, "decimals");
+            this.format = reader.getAttributeValue(null, "format");
+            this.negative = "-".equals(reader.getAttributeValue(null, "sign"));
+            this.nil = isNil(reader);
+
+            String scaleAttr = reader.getAttributeValue(null, "scale");
+            int parsedScale = 0;
+            if (scaleAttr != null) {
+                try {
+                    parsedScale = Integer.parseInt(scaleAttr.trim());
+                } catch (NumberFormatException e) {
+                    logger.debug("Ignoring invalid scale {} on {}", scaleAttr, qname);
+                }
+            }
+            this.scale = parsedScale;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.stockdelta.common.repository;
+
+import com.stockdelta.common.entity.DiffArtifact;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface DiffArtifactRepository extends JpaRepository<DiffArtifact, Long> {
+
+    Optional<DiffArtifact> findByFilingIdAndSection(Long filingId, String section);
+
+    void deleteByFilingId(Long filingId);
+}
@@ -0,0 +1,61 @@
+package com.stockdelta.common.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a filing joined with its issuer, for listing endpoints
+ * Built directly by JPQL constructor expressions, so no entities are loaded or tracked.
+ */
+public class FilingListing {
+
+    private final Long id;
+    private final String cik;
+    private final String accessionNo;
+    private final String form;
+    private final LocalDateTime filedAt;
+    private final LocalDate periodEnd;
+    private final String primaryDocUrl;
+    private final String source;
+    private final LocalDateTime createdAt;
+    private final String ticker;
+    private final String companyName;
+
+    public FilingListing(Long id, String cik, String accessionNo, String form,
+                         LocalDateTime filedAt, LocalDate periodEnd, String primaryDocUrl,
+                         String source, LocalDateTime createdAt, String ticker, String companyName) {
+        this.id = id;
+        this.cik = cik;
+        this.accessionNo = accessionNo;
+        this.form = form;
+        this.filedAt = filedAt;
+        this.periodEnd = periodEnd;
+        this.primaryDocUrl = primaryDocUrl;
+        this.source = source;
+        this.createdAt = createdAt;
+        this.ticker = ticker;
+        this.companyName = companyName;
+    }
+
+    public Long getId() { return id; }
+
+    public String getCik() { return cik; }
+
+    public String getAccessionNo() { return accessionNo; }
+
+    public String getForm() { return form; }
+
+    public LocalDateTime getFiledAt() { return filedAt; }
+
+    public LocalDate getPeriodEnd() { return periodEnd; }
+
+    public String getPrimaryDocUrl() { return primaryDocUrl; }
+
+    public String getSource() { return source; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public String getTicker() { return ticker; }
+
+    public String getCompanyName() { return companyName; }
+}
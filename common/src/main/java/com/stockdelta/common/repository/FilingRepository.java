@@ -6,7 +6,6 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -14,40 +13,100 @@ import java.util.Optional;
 @Repository
 public interface FilingRepository extends JpaRepository<Filing, Long> {
 
+    String LISTING_SELECT = "SELECT new com.stockdelta.common.repository.FilingListing(" +
+            "f.id, f.cik, f.accessionNo, f.form, f.filedAt, f.periodEnd, f.primaryDocUrl, " +
+            "f.source, f.createdAt, i.ticker, i.name) ";
+
+    // Keyset predicate: rows strictly after the cursor in (filedAt DESC, id DESC) order
+    String AFTER_CURSOR = "(f.filedAt < :cursorFiledAt OR (f.filedAt = :cursorFiledAt AND f.id < :cursorId)) ";
+
     Optional<Filing> findByAccessionNo(String accessionNo);
 
     List<Filing> findByCikOrderByFiledAtDesc(String cik);
 
     List<Filing> findByCikAndFormOrderByFiledAtDesc(String cik, String form);
 
-    @Query("SELECT f FROM Filing f WHERE f.cik = :cik AND f.form = :form AND f.filedAt >= :since ORDER BY f.filedAt DESC")
-    List<Filing> findByCikAndFormSince(@Param("cik") String cik,
-                                       @Param("form") String form,
-                                       @Param("since") LocalDateTime since);
-
-    @Query("SELECT f FROM Filing f WHERE f.cik IN :ciks AND f.filedAt >= :since ORDER BY f.filedAt DESC")
-    List<Filing> findByCiksAndFiledAtAfter(@Param("ciks") List<String> ciks,
-                                           @Param("since") LocalDateTime since);
-
     @Query("SELECT f FROM Filing f WHERE f.form IN :forms AND f.filedAt >= :since ORDER BY f.filedAt DESC")
     List<Filing> findByFormsAndFiledAtAfter(@Param("forms") List<String> forms,
                                             @Param("since") LocalDateTime since);
 
-    boolean existsByAccessionNo(String accessionNo);
+    @Query("SELECT f FROM Filing f WHERE f.cik = :cik AND f.form IN :forms ORDER BY f.filedAt DESC LIMIT 1")
+    Optional<Filing> findLatestByCikAndForms(@Param("cik") String cik,
+                                             @Param("forms") List<String> forms);
 
-    @Query("SELECT COUNT(f) FROM Filing f WHERE f.cik = :cik")
-    long countByCik(@Param("cik") String cik);
+    /**
+     * One page of an issuer's filings, newest first; served by idx_filings_cik_filed_at
+     */
+    @Query("SELECT f FROM Filing f WHERE f.cik = :cik AND " + AFTER_CURSOR +
+           "ORDER BY f.filedAt DESC, f.id DESC LIMIT :limit")
+    List<Filing> findPageByCik(@Param("cik") String cik,
+                               @Param("cursorFiledAt") LocalDateTime cursorFiledAt,
+                               @Param("cursorId") Long cursorId,
+                               @Param("limit") int limit);
 
     /**
-     * Find the most recent filing before the given period end date
-     * Used for finding previous quarter/year filing for comparison
+     * One page of an issuer's filings of one form, newest first
      */
-    @Query("SELECT f FROM Filing f WHERE f.cik = :cik AND f.form = :form " +
-           "AND f.periodEnd < :currentPeriodEnd " +
-           "ORDER BY f.periodEnd DESC LIMIT 1")
-    Optional<Filing> findPreviousByPeriodEnd(@Param("cik") String cik,
-                                             @Param("form") String form,
-                                             @Param("currentPeriodEnd") LocalDate currentPeriodEnd);
+    @Query("SELECT f FROM Filing f WHERE f.cik = :cik AND f.form = :form AND " + AFTER_CURSOR +
+           "ORDER BY f.filedAt DESC, f.id DESC LIMIT :limit")
+    List<Filing> findPageByCikAndForm(@Param("cik") String cik,
+                                      @Param("form") String form,
+                                      @Param("cursorFiledAt") LocalDateTime cursorFiledAt,
+                                      @Param("cursorId") Long cursorId,
+                                      @Param("limit") int limit);
+
+    /**
+     * One page of an issuer's filings since a date, newest first
+     */
+    @Query("SELECT f FROM Filing f WHERE f.cik = :cik AND f.filedAt >= :since AND " + AFTER_CURSOR +
+           "ORDER BY f.filedAt DESC, f.id DESC LIMIT :limit")
+    List<Filing> findPageByCikSince(@Param("cik") String cik,
+                                    @Param("since") LocalDateTime since,
+                                    @Param("cursorFiledAt") LocalDateTime cursorFiledAt,
+                                    @Param("cursorId") Long cursorId,
+                                    @Param("limit") int limit);
+
+    /**
+     * One page of an issuer's filings of one form since a date, newest first
+     */
+    @Query("SELECT f FROM Filing f WHERE f.cik = :cik AND f.form = :form AND f.filedAt >= :since AND " +
+           AFTER_CURSOR + "ORDER BY f.filedAt DESC, f.id DESC LIMIT :limit")
+    List<Filing> findPageByCikAndFormSince(@Param("cik") String cik,
+                                           @Param("form") String form,
+                                           @Param("since") LocalDateTime since,
+                                           @Param("cursorFiledAt") LocalDateTime cursorFiledAt,
+                                           @Param("cursorId") Long cursorId,
+                                           @Param("limit") int limit);
+
+    /**
+     * One page of recent filings from issuers with a ticker, newest first
+     */
+    @Query(LISTING_SELECT +
+           "FROM Filing f JOIN f.issuer i " +
+           "WHERE i.ticker IS NOT NULL AND f.filedAt >= :since AND " + AFTER_CURSOR +
+           "ORDER BY f.filedAt DESC, f.id DESC LIMIT :limit")
+    List<FilingListing> findTickerListingsSince(@Param("since") LocalDateTime since,
+                                                @Param("cursorFiledAt") LocalDateTime cursorFiledAt,
+                                                @Param("cursorId") Long cursorId,
+                                                @Param("limit") int limit);
+
+    /**
+     * One page of recent filings of the given forms, newest first
+     */
+    @Query(LISTING_SELECT +
+           "FROM Filing f LEFT JOIN f.issuer i " +
+           "WHERE f.form IN :forms AND f.filedAt >= :since AND " + AFTER_CURSOR +
+           "ORDER BY f.filedAt DESC, f.id DESC LIMIT :limit")
+    List<FilingListing> findFormListingsSince(@Param("forms") List<String> forms,
+                                              @Param("since") LocalDateTime since,
+                                              @Param("cursorFiledAt") LocalDateTime cursorFiledAt,
+                                              @Param("cursorId") Long cursorId,
+                                              @Param("limit") int limit);
+
+    boolean existsByAccessionNo(String accessionNo);
+
+    @Query("SELECT COUNT(f) FROM Filing f WHERE f.cik = :cik")
+    long countByCik(@Param("cik") String cik);
 
     /**
      * Find top N filings for a given CIK and form type
@@ -0,0 +1,46 @@
+package com.stockdelta.common.repository;
+
+import com.stockdelta.common.entity.FinancialTimeSeriesPoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface FinancialTimeSeriesRepository extends JpaRepository<FinancialTimeSeriesPoint, Long> {
+
+    /**
+     * Most recent points of one concept for an issuer, newest first
+     */
+    @Query("SELECT p FROM FinancialTimeSeriesPoint p " +
+           "WHERE p.concept = :concept AND p.cik = :cik AND p.periodKind = :periodKind " +
+           "ORDER BY p.periodEnd DESC LIMIT :limit")
+    List<FinancialTimeSeriesPoint> findHistory(@Param("concept") String concept,
+                                               @Param("cik") String cik,
+                                               @Param("periodKind") String periodKind,
+                                               @Param("limit") int limit);
+
+    /**
+     * Every issuer's value of a concept in the given frames
+     */
+    @Query("SELECT p FROM FinancialTimeSeriesPoint p WHERE p.concept = :concept AND p.frame IN :frames")
+    List<FinancialTimeSeriesPoint> findByFrames(@Param("concept") String concept,
+                                                @Param("frames") Collection<String> frames);
+
+    /**
+     * Values of a concept in the given frames for issuers in one SIC code
+     */
+    @Query("SELECT p FROM FinancialTimeSeriesPoint p " +
+           "WHERE p.concept = :concept AND p.frame IN :frames AND p.sic = :sic")
+    List<FinancialTimeSeriesPoint> findByFramesAndSic(@Param("concept") String concept,
+                                                      @Param("frames") Collection<String> frames,
+                                                      @Param("sic") String sic);
+
+    /**
+     * Stored points of an issuer that a filing's facts may replace
+     */
+    List<FinancialTimeSeriesPoint> findByCikAndFrameIn(String cik, Collection<String> frames);
+}
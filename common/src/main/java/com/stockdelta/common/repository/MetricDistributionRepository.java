@@ -0,0 +1,10 @@
+package com.stockdelta.common.repository;
+
+import com.stockdelta.common.entity.MetricDistribution;
+import com.stockdelta.common.entity.MetricDistribution.MetricDistributionId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MetricDistributionRepository extends JpaRepository<MetricDistribution, MetricDistributionId> {
+}
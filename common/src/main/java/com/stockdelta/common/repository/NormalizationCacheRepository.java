@@ -0,0 +1,10 @@
+package com.stockdelta.common.repository;
+
+import com.stockdelta.common.entity.NormalizationCacheEntry;
+import com.stockdelta.common.entity.NormalizationCacheEntry.NormalizationCacheKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NormalizationCacheRepository extends JpaRepository<NormalizationCacheEntry, NormalizationCacheKey> {
+}
@@ -0,0 +1,9 @@
+package com.stockdelta.common.repository;
+
+import com.stockdelta.common.entity.NormalizationState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NormalizationStateRepository extends JpaRepository<NormalizationState, Long> {
+}
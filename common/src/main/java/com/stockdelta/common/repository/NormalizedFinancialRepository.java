@@ -62,4 +62,11 @@ public interface NormalizedFinancialRepository extends JpaRepository<NormalizedF
      * Check if normalized financials exist for a filing
      */
     boolean existsByFilingId(Long filingId);
+
+    /**
+     * IDs of filings that have normalized financials, oldest filing first
+     */
+    @Query("SELECT f.id FROM Filing f WHERE EXISTS " +
+           "(SELECT 1 FROM NormalizedFinancial nf WHERE nf.filingId = f.id) ORDER BY f.filedAt")
+    List<Long> findNormalizedFilingIdsOrderByFiledAt();
 }
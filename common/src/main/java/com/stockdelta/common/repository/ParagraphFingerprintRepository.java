@@ -0,0 +1,37 @@
+package com.stockdelta.common.repository;
+
+import com.stockdelta.common.entity.ParagraphFingerprint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ParagraphFingerprintRepository extends JpaRepository<ParagraphFingerprint, Long> {
+
+    List<ParagraphFingerprint> findByFilingIdAndSectionOrderByOrdinal(Long filingId, String section);
+
+    boolean existsByFilingId(Long filingId);
+
+    /**
+     * Fingerprints from earlier filings in the same industry sharing at least one LSH band,
+     * filed within [since, filedAt), latest first
+     */
+    @Query("SELECT DISTINCT pf FROM ParagraphFingerprint pf, ParagraphLshBand b " +
+           "WHERE b.fingerprintId = pf.id AND b.bandKey IN :bandKeys AND b.sic = :sic " +
+           "AND b.filedAt >= :since AND b.filedAt < :filedAt AND b.filingId <> :filingId " +
+           "ORDER BY pf.filedAt DESC")
+    List<ParagraphFingerprint> findEarlierCandidates(@Param("bandKeys") Collection<Long> bandKeys,
+                                                     @Param("sic") String sic,
+                                                     @Param("since") LocalDateTime since,
+                                                     @Param("filedAt") LocalDateTime filedAt,
+                                                     @Param("filingId") Long filingId,
+                                                     Pageable pageable);
+
+    void deleteByFilingId(Long filingId);
+}
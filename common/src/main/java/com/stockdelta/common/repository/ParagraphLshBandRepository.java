@@ -0,0 +1,11 @@
+package com.stockdelta.common.repository;
+
+import com.stockdelta.common.entity.ParagraphLshBand;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ParagraphLshBandRepository extends JpaRepository<ParagraphLshBand, Long> {
+
+    void deleteByFilingId(Long filingId);
+}
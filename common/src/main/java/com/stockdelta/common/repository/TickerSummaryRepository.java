@@ -0,0 +1,14 @@
+package com.stockdelta.common.repository;
+
+import com.stockdelta.common.entity.TickerSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TickerSummaryRepository extends JpaRepository<TickerSummary, String> {
+
+    List<TickerSummary> findByTickerIn(Collection<String> tickers);
+}
@@ -13,6 +13,8 @@ public interface XbrlFactRepository extends JpaRepository<XbrlFact, Long> {
 
     List<XbrlFact> findByFilingId(Long filingId);
 
+    boolean existsByFilingId(Long filingId);
+
     List<XbrlFact> findByFilingIdAndTag(Long filingId, String tag);
 
     @Query("SELECT xf FROM XbrlFact xf WHERE xf.filingId = :filingId AND xf.tag IN :tags")
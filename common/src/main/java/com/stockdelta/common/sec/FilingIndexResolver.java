@@ -0,0 +1,218 @@
+package com.stockdelta.common.sec;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.stockdelta.common.config.SecConfig;
+import com.stockdelta.common.entity.Filing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the XBRL document of a filing from its EDGAR directory listing
+ * The filing's index.json is fetched once through the rate-limited SEC client and the
+ * listing is kept per accession, since an accepted filing's files never change. The
+ * instance document is preferred (the one EDGAR extracts from inline XBRL first),
+ * then the inline XBRL primary document. Callers that parse the document themselves can
+ * ask for the inline primary document instead, which section extraction has already
+ * downloaded into the SEC client's document cache.
+ */
+@Component
+public class FilingIndexResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(FilingIndexResolver.class);
+
+    private static final String ARCHIVES_URL = "https://www.sec.gov/Archives/edgar/data/%d/%s/";
+
+    // Linkbases, rendered R pages and non-XBRL XML forms sit next to the instance
+    private static final Pattern NOT_INSTANCE = Pattern.compile(
+            "filingsummary\\.xml|primary_doc\\.xml|r\\d+\\.xml|.*_(cal|def|lab|pre|ref)\\.xml");
+
+    private final SecApiClient secApiClient;
+    private final Cache<String, List<Item>> listings;
+
+    @Autowired
+    public FilingIndexResolver(SecApiClient secApiClient, SecConfig secConfig) {
+        this.secApiClient = secApiClient;
+        this.listings = Caffeine.newBuilder()
+                .maximumSize(secConfig.getFilingIndexCacheSize())
+                .expireAfterWrite(Duration.ofMinutes(secConfig.getFilingIndexExpireMinutes()))
+                .build();
+    }
+
+    /**
+     * URL of the document to normalize a filing from
+     * Falls back to the primary document when the listing cannot be read, and fails
+     * when the listing shows the filing has no XBRL at all.
+     */
+    public Mono<String> resolveXbrlUrl(Filing filing) {
+        return resolveXbrlUrl(filing, false);
+    }
+
+    /**
+     * URL of the document to normalize a filing from
+     *
+     * @param preferInline Use the primary document when it is inline XBRL rather than the
+     *                     instance EDGAR extracted from it
+     */
+    public Mono<String> resolveXbrlUrl(Filing filing, boolean preferInline) {
+        String primaryUrl = filing.getPrimaryDocUrl();
+
+        return listing(filing)
+                .map(items -> {
+                    String url = pick(filing, items, preferInline);
+                    if (url == null) {
+                        throw new NoXbrlException("Filing has no XBRL document: " + filing.getAccessionNo());
+                    }
+                    logger.debug("Resolved XBRL document of filing {}: {}", filing.getId(), url);
+                    return url;
+                })
+                .onErrorResume(error -> !(error instanceof NoXbrlException) && primaryUrl != null,
+                        error -> {
+                            logger.warn("Could not read the directory of filing {}, using its primary document: {}",
+                                    filing.getId(), error.getMessage());
+                            return Mono.just(primaryUrl);
+                        });
+    }
+
+    /**
+     * The files of a filing's directory, from the cache or index.json
+     */
+    public Mono<List<Item>> listing(Filing filing) {
+        String key = filing.getAccessionNo();
+        List<Item> cached = key != null ? listings.getIfPresent(key) : null;
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+
+        return Mono.fromCallable(() -> directoryUrl(filing))
+                .flatMap(directory -> secApiClient.fetchDocument(directory + "index.json")
+                        .map(response -> parse(directory, response)))
+                .doOnNext(items -> listings.put(key, items));
+    }
+
+    /**
+     * The instance document, else the inline XBRL primary document, else null
+     */
+    private static String pick(Filing filing, List<Item> items, boolean preferInline) {
+        Item extracted = null;
+        Item largest = null;
+        boolean schema = false;
+        // EDGAR names the instance it extracts from an inline primary document after it
+        String inlineInstance = extractedInstanceName(filing.getPrimaryDocUrl());
+        boolean primaryIsInline = false;
+
+        for (Item item : items) {
+            String name = item.getName().toLowerCase(Locale.ROOT);
+            if (name.endsWith(".xsd")) {
+                schema = true;
+            }
+            if (!name.endsWith(".xml") || NOT_INSTANCE.matcher(name).matches()) {
+                continue;
+            }
+            if (name.equals(inlineInstance)) {
+                primaryIsInline = true;
+            }
+            if (name.endsWith("_htm.xml") && extracted == null) {
+                extracted = item;
+            }
+            if (largest == null || item.getSize() > largest.getSize()) {
+                largest = item;
+            }
+        }
+
+        if (preferInline && primaryIsInline) {
+            return filing.getPrimaryDocUrl();
+        }
+        if (extracted != null) {
+            return extracted.getUrl();
+        }
+        if (largest != null) {
+            return largest.getUrl();
+        }
+        // Inline XBRL without an extracted instance still ships its schema
+        return schema ? filing.getPrimaryDocUrl() : null;
+    }
+
+    /**
+     * "aapl-20240928.htm" -> "aapl-20240928_htm.xml", or null without an HTML primary document
+     */
+    private static String extractedInstanceName(String primaryUrl) {
+        if (primaryUrl == null) {
+            return null;
+        }
+        String name = primaryUrl.substring(primaryUrl.lastIndexOf('/') + 1).toLowerCase(Locale.ROOT);
+        int dot = name.lastIndexOf('.');
+        if (dot < 0 || !name.substring(dot + 1).startsWith("htm")) {
+            return null;
+        }
+        return name.substring(0, dot) + "_" + name.substring(dot + 1) + ".xml";
+    }
+
+    private static String directoryUrl(Filing filing) {
+        if (filing.getCik() == null || filing.getAccessionNo() == null) {
+            throw new IllegalStateException("Filing " + filing.getId() + " has no CIK or accession number");
+        }
+        return String.format(ARCHIVES_URL, Long.parseLong(filing.getCik()), filing.getAccessionNo().replace("-", ""));
+    }
+
+    private List<Item> parse(String directory, String response) {
+        JsonNode root;
+        try {
+            root = secApiClient.parseJsonResponse(response);
+        } catch (Exception e) {
+            throw new IllegalStateException("Unreadable index.json under " + directory + ": " + e.getMessage(), e);
+        }
+
+        List<Item> items = new ArrayList<>();
+        for (JsonNode node : root.path("directory").path("item")) {
+            String name = node.path("name").asText("");
+            if (!name.isEmpty()) {
+                items.add(new Item(name, directory + name, node.path("size").asLong(0),
+                        node.path("last-modified").asText(null)));
+            }
+        }
+        return Collections.unmodifiableList(items);
+    }
+
+    /**
+     * Raised when a filing's directory has no instance, schema or inline document
+     */
+    public static class NoXbrlException extends IllegalArgumentException {
+        public NoXbrlException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * A file in a filing's directory
+     */
+    public static class Item {
+        private final String name;
+        private final String url;
+        private final long size;
+        private final String lastModified;
+
+        public Item(String name, String url, long size, String lastModified) {
+            this.name = name;
+            this.url = url;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        public String getName() { return name; }
+        public String getUrl() { return url; }
+        public long getSize() { return size; }
+        public String getLastModified() { return lastModified; }
+    }
+}
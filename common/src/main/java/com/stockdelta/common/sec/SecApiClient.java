@@ -17,6 +17,7 @@ import java.io.IOException;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
 public class SecApiClient {
@@ -96,11 +97,8 @@ public class SecApiClient {
             return Mono.just(cached);
         }
 
-        // Apply rate limiting
-        return Mono.fromCallable(() -> {
-            rateLimiter.acquire();
-            return true;
-        })
+        // Apply rate limiting without parking the calling thread
+        return Mono.defer(() -> Mono.delay(rateLimiter.reserve()))
         .flatMap(ignored -> {
             logger.debug("Fetching document: {}", url);
 
@@ -132,11 +130,8 @@ public class SecApiClient {
             return Mono.just(cached);
         }
 
-        // Apply rate limiting
-        return Mono.fromCallable(() -> {
-            rateLimiter.acquire();
-            return true;
-        })
+        // Apply rate limiting without parking the calling thread
+        return Mono.defer(() -> Mono.delay(rateLimiter.reserve()))
         .flatMap(ignored -> {
             logger.debug("Making SEC API call: {}", endpoint);
             return webClient.get()
@@ -194,28 +189,27 @@ public class SecApiClient {
         return objectMapper.readTree(response);
     }
 
-    // Simple token bucket rate limiter
+    // Lock-free rate limiter: callers reserve evenly spaced slots and wait without holding a monitor
     private static class RateLimiter {
-        private final long intervalMillis;
-        private long lastCallTime = 0;
+        private final long intervalNanos;
+        private final AtomicLong nextSlot = new AtomicLong(System.nanoTime());
 
         public RateLimiter(int requestsPerSecond) {
-            this.intervalMillis = 1000L / requestsPerSecond;
+            this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / requestsPerSecond;
         }
 
-        public synchronized void acquire() {
-            long now = System.currentTimeMillis();
-            long timeSinceLastCall = now - lastCallTime;
-
-            if (timeSinceLastCall < intervalMillis) {
-                try {
-                    Thread.sleep(intervalMillis - timeSinceLastCall);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
+        /**
+         * Reserve the next call slot and return how long to wait until it starts
+         */
+        public Duration reserve() {
+            while (true) {
+                long now = System.nanoTime();
+                long slot = nextSlot.get();
+                long start = Math.max(now, slot);
+                if (nextSlot.compareAndSet(slot, start + intervalNanos)) {
+                    return Duration.ofNanos(start - now);
                 }
             }
-
-            lastCallTime = System.currentTimeMillis();
         }
     }
-}
\ No newline at end of file
+}
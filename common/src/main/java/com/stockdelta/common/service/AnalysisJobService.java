@@ -0,0 +1,272 @@
+package com.stockdelta.common.service;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.stockdelta.common.config.AnalysisConfig;
+import com.stockdelta.common.config.ExecutorConfig;
+import com.stockdelta.common.entity.AnalysisState;
+import com.stockdelta.common.entity.FilingDelta;
+import com.stockdelta.common.entity.FilingSection;
+import com.stockdelta.common.repository.AnalysisStateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs filing analysis (section extraction + delta computation) off the request thread
+ * Concurrent requests for the same filing share one job (single-flight), so a burst of
+ * cold requests costs one analysis. Job state is shared through Redis so any replica can
+ * report it, and expires after the configured retention; a finished analysis is recorded
+ * per filing so it is not repeated once its job has expired.
+ */
+@Service
+public class AnalysisJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisJobService.class);
+
+    private final FilingSectionExtractor sectionExtractor;
+    private final FilingDiffService diffService;
+    private final TaskExecutor executor;
+    private final AnalysisConfig analysisConfig;
+    private final JobStateStore jobStateStore;
+    private final AnalysisStateRepository analysisStateRepository;
+    private final Scheduler blockingScheduler;
+
+    private final Map<String, AnalysisJob> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, AnalysisJob> latestByFiling = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AnalysisJobService(FilingSectionExtractor sectionExtractor,
+                              FilingDiffService diffService,
+                              @Qualifier(ExecutorConfig.ANALYSIS_EXECUTOR) TaskExecutor executor,
+                              AnalysisConfig analysisConfig,
+                              JobStateStore jobStateStore,
+                              AnalysisStateRepository analysisStateRepository,
+                              @Qualifier(ExecutorConfig.BLOCKING_SCHEDULER) Scheduler blockingScheduler) {
+        this.sectionExtractor = sectionExtractor;
+        this.diffService = diffService;
+        this.executor = executor;
+        this.analysisConfig = analysisConfig;
+        this.jobStateStore = jobStateStore;
+        this.analysisStateRepository = analysisStateRepository;
+        this.blockingScheduler = blockingScheduler;
+    }
+
+    /**
+     * Submit analysis for a filing, or join the job already queued or running for it
+     */
+    public AnalysisJob submit(Long filingId) {
+        evictExpiredJobs();
+
+        AnalysisJob[] created = new AnalysisJob[1];
+        AnalysisJob job = latestByFiling.compute(filingId, (id, existing) -> {
+            if (existing != null && !existing.isFinished()) {
+                return existing;
+            }
+            created[0] = new AnalysisJob(id);
+            return created[0];
+        });
+
+        if (created[0] == null) {
+            logger.debug("Joining in-flight analysis job {} for filing {}", job.getJobId(), filingId);
+            return job;
+        }
+
+        jobs.put(job.getJobId(), job);
+        jobStateStore.put(job.getJobId(), job);
+        try {
+            executor.execute(() -> run(job));
+            logger.info("Queued analysis job {} for filing {}", job.getJobId(), filingId);
+        } catch (TaskRejectedException e) {
+            logger.warn("Analysis queue full, rejecting job for filing {}", filingId);
+            job.fail("Analysis queue is full, retry later");
+            jobStateStore.put(job.getJobId(), job);
+        }
+
+        return job;
+    }
+
+    /**
+     * A job run by this replica, or the last state another replica shared for it
+     */
+    public Optional<AnalysisJob> getJob(String jobId) {
+        AnalysisJob job = jobs.get(jobId);
+        return job != null ? Optional.of(job) : jobStateStore.get(jobId, AnalysisJob.class);
+    }
+
+    /**
+     * Completes with the job's final state
+     * A job running on another replica is re-read until it finishes, disappears or
+     * outlives the retention, in which case the last state seen is reported.
+     */
+    public CompletableFuture<AnalysisJob> awaitCompletion(AnalysisJob job) {
+        if (job.isFinished() || jobs.get(job.getJobId()) == job) {
+            return job.getCompletion();
+        }
+
+        CompletableFuture<AnalysisJob> completion = new CompletableFuture<>();
+        Flux.interval(Duration.ofMillis(analysisConfig.getRemotePollMillis()), blockingScheduler)
+                .map(tick -> jobStateStore.get(job.getJobId(), AnalysisJob.class))
+                .filter(latest -> latest.map(AnalysisJob::isFinished).orElse(true))
+                .next()
+                .timeout(Duration.ofMinutes(analysisConfig.getJobRetentionMinutes()))
+                .subscribe(latest -> completion.complete(latest.orElse(job)),
+                        error -> completion.complete(job));
+        return completion;
+    }
+
+    /**
+     * Whether an analysis for this filing has finished successfully, on any replica
+     */
+    public boolean hasCompleted(Long filingId) {
+        AnalysisJob job = latestByFiling.get(filingId);
+        if (job != null && job.getStatus() == JobStatus.COMPLETED) {
+            return true;
+        }
+        return analysisStateRepository.existsById(filingId);
+    }
+
+    private void run(AnalysisJob job) {
+        job.setStatus(JobStatus.RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        jobStateStore.put(job.getJobId(), job);
+        try {
+            List<FilingSection> sections = sectionExtractor.extractSections(job.getFilingId()).block();
+            job.setSectionsExtracted(sections != null ? sections.size() : 0);
+
+            List<FilingDelta> deltas = diffService.computeDeltas(job.getFilingId());
+            job.setDeltasComputed(deltas.size());
+
+            analysisStateRepository.save(new AnalysisState(job.getFilingId(),
+                    job.getSectionsExtracted(), job.getDeltasComputed()));
+            job.complete();
+            logger.info("Analysis job {} for filing {} completed: {} sections, {} deltas",
+                    job.getJobId(), job.getFilingId(), job.getSectionsExtracted(), job.getDeltasComputed());
+        } catch (Exception e) {
+            logger.error("Analysis job {} for filing {} failed: {}", job.getJobId(), job.getFilingId(), e.getMessage());
+            job.fail(e.getMessage());
+        }
+        jobStateStore.put(job.getJobId(), job);
+    }
+
+    private void evictExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(analysisConfig.getJobRetentionMinutes());
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+        latestByFiling.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    public enum JobStatus {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    public static class AnalysisJob {
+        private final String jobId;
+        private final Long filingId;
+        private volatile JobStatus status = JobStatus.QUEUED;
+        private volatile int sectionsExtracted;
+        private volatile int deltasComputed;
+        private volatile String error;
+        private final LocalDateTime submittedAt;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+
+        @JsonIgnore
+        private final CompletableFuture<AnalysisJob> completion = new CompletableFuture<>();
+
+        public AnalysisJob(Long filingId) {
+            this.jobId = UUID.randomUUID().toString();
+            this.filingId = filingId;
+            this.submittedAt = LocalDateTime.now();
+        }
+
+        /**
+         * A job as shared by the replica running it
+         */
+        @JsonCreator
+        AnalysisJob(@JsonProperty("jobId") String jobId,
+                    @JsonProperty("filingId") Long filingId,
+                    @JsonProperty("status") JobStatus status,
+                    @JsonProperty("sectionsExtracted") int sectionsExtracted,
+                    @JsonProperty("deltasComputed") int deltasComputed,
+                    @JsonProperty("error") String error,
+                    @JsonProperty("submittedAt") LocalDateTime submittedAt,
+                    @JsonProperty("startedAt") LocalDateTime startedAt,
+                    @JsonProperty("finishedAt") LocalDateTime finishedAt) {
+            this.jobId = jobId;
+            this.filingId = filingId;
+            this.status = status;
+            this.sectionsExtracted = sectionsExtracted;
+            this.deltasComputed = deltasComputed;
+            this.error = error;
+            this.submittedAt = submittedAt;
+            this.startedAt = startedAt;
+            this.finishedAt = finishedAt;
+            if (isFinished()) {
+                completion.complete(this);
+            }
+        }
+
+        void complete() {
+            this.finishedAt = LocalDateTime.now();
+            this.status = JobStatus.COMPLETED;
+            completion.complete(this);
+        }
+
+        void fail(String error) {
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+            this.status = JobStatus.FAILED;
+            completion.complete(this);
+        }
+
+        @JsonIgnore
+        public boolean isFinished() {
+            return status == JobStatus.COMPLETED || status == JobStatus.FAILED;
+        }
+
+        /**
+         * Completes when the job reaches COMPLETED or FAILED
+         */
+        @JsonIgnore
+        public CompletableFuture<AnalysisJob> getCompletion() { return completion; }
+
+        // Getters and Setters
+        public String getJobId() { return jobId; }
+
+        public Long getFilingId() { return filingId; }
+
+        public JobStatus getStatus() { return status; }
+        void setStatus(JobStatus status) { this.status = status; }
+
+        public int getSectionsExtracted() { return sectionsExtracted; }
+        void setSectionsExtracted(int sectionsExtracted) { this.sectionsExtracted = sectionsExtracted; }
+
+        public int getDeltasComputed() { return deltasComputed; }
+        void setDeltasComputed(int deltasComputed) { this.deltasComputed = deltasComputed; }
+
+        public String getError() { return error; }
+
+        public LocalDateTime getSubmittedAt() { return submittedAt; }
+
+        public LocalDateTime getStartedAt() { return startedAt; }
+        void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+        public LocalDateTime getFinishedAt() { return finishedAt; }
+    }
+}
@@ -0,0 +1,248 @@
+package com.stockdelta.common.service;
+
+import com.stockdelta.common.config.DiffConfig;
+import com.stockdelta.common.config.ExecutorConfig;
+import com.stockdelta.common.entity.Filing;
+import com.stockdelta.common.entity.FilingDelta;
+import com.stockdelta.common.entity.FilingSection;
+import com.stockdelta.common.entity.Issuer;
+import com.stockdelta.common.repository.FilingRepository;
+import com.stockdelta.common.repository.IssuerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recomputes filing deltas for a whole ticker universe
+ * Each CIK's filing chain is walked in period order so every filing's sections are
+ * loaded once and, for the latest filing of a period, reused as the base of the next
+ * period's comparisons. Chains of different CIKs are diffed concurrently on the blocking scheduler. Each filing's deltas are written as soon as
+ * they are computed, and one issuer-level event announces the CIK once its chains are done.
+ *
+ * Deliberately not transactional: section extraction waits on HTTP calls, so only
+ * the write of each filing runs inside a transaction.
+ */
+@Service
+public class BatchDeltaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchDeltaService.class);
+
+    private static final List<String> DEFAULT_FORMS = List.of("10-K", "10-Q");
+
+    private final IssuerRepository issuerRepository;
+    private final FilingRepository filingRepository;
+    private final FilingSectionExtractor sectionExtractor;
+    private final FilingDiffService diffService;
+    private final ParagraphIndexService paragraphIndexService;
+    private final DiffConfig diffConfig;
+    private final Scheduler blockingScheduler;
+
+    @Autowired
+    public BatchDeltaService(IssuerRepository issuerRepository,
+                             FilingRepository filingRepository,
+                             FilingSectionExtractor sectionExtractor,
+                             FilingDiffService diffService,
+                             ParagraphIndexService paragraphIndexService,
+                             DiffConfig diffConfig,
+                             @Qualifier(ExecutorConfig.BLOCKING_SCHEDULER) Scheduler blockingScheduler) {
+        this.issuerRepository = issuerRepository;
+        this.filingRepository = filingRepository;
+        this.sectionExtractor = sectionExtractor;
+        this.diffService = diffService;
+        this.paragraphIndexService = paragraphIndexService;
+        this.diffConfig = diffConfig;
+        this.blockingScheduler = blockingScheduler;
+    }
+
+    /**
+     * Recompute deltas for every filing of the requested tickers
+     * Blocks the calling (batch job) thread until every chain is done.
+     */
+    public BatchResult recomputeDeltas(BatchRequest request) {
+        long start = System.nanoTime();
+
+        List<Issuer> issuers = request.getSymbols() == null || request.getSymbols().length == 0
+                ? issuerRepository.findAllWithTicker()
+                : issuerRepository.findByTickerIn(Arrays.stream(request.getSymbols())
+                        .map(String::toUpperCase)
+                        .toList());
+        List<String> forms = request.getForms() == null || request.getForms().length == 0
+                ? DEFAULT_FORMS
+                : Arrays.asList(request.getForms());
+
+        BatchResult result = new BatchResult();
+        result.setCikCount(issuers.size());
+
+        int parallelism = Math.max(1, diffConfig.getBatchParallelism());
+        List<ChainResult> chains = Flux.fromIterable(issuers)
+                .flatMap(issuer -> processChains(issuer.getCik(), forms)
+                        .onErrorResume(e -> {
+                            logger.error("Batch delta recomputation failed for CIK {}: {}",
+                                    issuer.getCik(), e.getMessage());
+                            return Mono.just(ChainResult.failed(issuer.getCik()));
+                        }), parallelism)
+                .collectList()
+                .block();
+
+        for (ChainResult chain : chains != null ? chains : List.<ChainResult>of()) {
+            if (chain.failedCik != null) {
+                result.getFailedCiks().add(chain.failedCik);
+            } else {
+                result.setFilingsProcessed(result.getFilingsProcessed() + chain.filings);
+                result.setDeltasWritten(result.getDeltasWritten() + chain.deltas);
+            }
+        }
+
+        result.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        logger.info("Batch delta recomputation: {} CIKs, {} filings, {} deltas in {}ms ({} failed)",
+                result.getCikCount(), result.getFilingsProcessed(), result.getDeltasWritten(),
+                result.getElapsedMillis(), result.getFailedCiks().size());
+
+        return result;
+    }
+
+    private Mono<ChainResult> processChains(String cik, List<String> forms) {
+        ChainResult result = new ChainResult();
+        List<Filing> written = new ArrayList<>();
+
+        return Flux.fromIterable(forms)
+                .concatMap(form -> Mono.fromCallable(() -> sortedChain(cik, form))
+                        .subscribeOn(blockingScheduler)
+                        .flatMap(chain -> walkChain(chain, result, written)))
+                .then(Mono.fromCallable(() -> {
+                    written.sort(Comparator.comparing(Filing::getFiledAt));
+                    diffService.publishDeltasComputed(cik, written.stream().map(Filing::getId).toList());
+                    logger.debug("CIK {}: recomputed deltas for {} filings", cik, result.filings);
+                    return result;
+                }).subscribeOn(blockingScheduler));
+    }
+
+    /**
+     * Diff each filing of one chain against its base, writing as it goes
+     * Only the base's sections and the current filing's are held. A filing becomes the
+     * base when the next one starts a new period, so as in FilingChainIndex the latest
+     * filing of a period is the next period's base, and every filing of a period,
+     * amendments included, is diffed against the same one.
+     */
+    private Mono<Void> walkChain(List<Filing> chain, ChainResult result, List<Filing> written) {
+        ChainWalk walk = new ChainWalk();
+        return Flux.range(0, chain.size())
+                .concatMap(i -> {
+                    Filing current = chain.get(i);
+                    return loadSections(current.getId())
+                            .publishOn(blockingScheduler)
+                            .doOnNext(currentSections -> {
+                                paragraphIndexService.indexFiling(current, currentSections);
+
+                                if (walk.baseSections != null) {
+                                    FilingDiffService.FilingComparison comparison =
+                                            diffService.diffSections(current.getId(), currentSections, walk.baseSections);
+                                    List<FilingDelta> deltas = diffService.replaceDeltas(current.getId(), comparison);
+                                    written.add(current);
+                                    result.filings++;
+                                    result.deltas += deltas.size();
+                                }
+
+                                boolean periodEnds = i + 1 == chain.size()
+                                        || !periodKey(chain.get(i + 1)).equals(periodKey(current));
+                                if (periodEnds) {
+                                    walk.baseSections = currentSections;
+                                }
+                            });
+                })
+                .then();
+    }
+
+    private List<Filing> sortedChain(String cik, String form) {
+        List<Filing> chain = new ArrayList<>(filingRepository.findByCikAndFormOrderByFiledAtDesc(cik, form));
+        chain.sort(Comparator.comparing(BatchDeltaService::periodKey)
+                .thenComparing(Filing::getFiledAt));
+        return chain;
+    }
+
+    /**
+     * Stored sections of a filing, or extracted ones; a failed extraction yields none
+     */
+    private Mono<List<FilingSection>> loadSections(Long filingId) {
+        return Mono.defer(() -> sectionExtractor.extractSections(filingId))
+                .subscribeOn(blockingScheduler)
+                .onErrorResume(e -> {
+                    logger.error("Failed to extract sections for filing {}: {}", filingId, e.getMessage());
+                    return Mono.just(new ArrayList<>());
+                })
+                .defaultIfEmpty(new ArrayList<>());
+    }
+
+    /**
+     * Period used to order a chain; filed date stands in when the period end is unknown
+     */
+    private static LocalDate periodKey(Filing filing) {
+        return filing.getPeriodEnd() != null ? filing.getPeriodEnd() : filing.getFiledAt().toLocalDate();
+    }
+
+    private static class ChainResult {
+        private int filings;
+        private int deltas;
+        private String failedCik;
+
+        static ChainResult failed(String cik) {
+            ChainResult result = new ChainResult();
+            result.failedCik = cik;
+            return result;
+        }
+    }
+
+    private static class ChainWalk {
+        // Sections of the filing the rest of the chain is diffed against, until the next period starts
+        private List<FilingSection> baseSections;
+    }
+
+    public static class BatchRequest {
+        private String[] symbols;
+        private String[] forms;
+
+        public BatchRequest() {}
+
+        public String[] getSymbols() { return symbols; }
+        public void setSymbols(String[] symbols) { this.symbols = symbols; }
+
+        public String[] getForms() { return forms; }
+        public void setForms(String[] forms) { this.forms = forms; }
+    }
+
+    public static class BatchResult {
+        private int cikCount;
+        private int filingsProcessed;
+        private int deltasWritten;
+        private long elapsedMillis;
+        private List<String> failedCiks = new ArrayList<>();
+
+        // Getters and Setters
+        public int getCikCount() { return cikCount; }
+        public void setCikCount(int cikCount) { this.cikCount = cikCount; }
+
+        public int getFilingsProcessed() { return filingsProcessed; }
+        public void setFilingsProcessed(int filingsProcessed) { this.filingsProcessed = filingsProcessed; }
+
+        public int getDeltasWritten() { return deltasWritten; }
+        public void setDeltasWritten(int deltasWritten) { this.deltasWritten = deltasWritten; }
+
+        public long getElapsedMillis() { return elapsedMillis; }
+        public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+        public List<String> getFailedCiks() { return failedCiks; }
+        public void setFailedCiks(List<String> failedCiks) { this.failedCiks = failedCiks; }
+    }
+}
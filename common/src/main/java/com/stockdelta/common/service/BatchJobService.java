@@ -0,0 +1,167 @@
+package com.stockdelta.common.service;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.stockdelta.common.config.AnalysisConfig;
+import com.stockdelta.common.config.ExecutorConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs bulk recomputations (batch deltas, metrics, backfills) off the request thread
+ * Jobs share the analysis pool, report the batch's result once finished and expire
+ * after the same retention as analysis jobs. Like analysis jobs, their state is shared
+ * through Redis so any replica can report it.
+ */
+@Service
+public class BatchJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchJobService.class);
+
+    private final TaskExecutor executor;
+    private final AnalysisConfig analysisConfig;
+    private final JobStateStore jobStateStore;
+
+    private final Map<String, BatchJob> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BatchJobService(@Qualifier(ExecutorConfig.ANALYSIS_EXECUTOR) TaskExecutor executor,
+                           AnalysisConfig analysisConfig,
+                           JobStateStore jobStateStore) {
+        this.executor = executor;
+        this.analysisConfig = analysisConfig;
+        this.jobStateStore = jobStateStore;
+    }
+
+    /**
+     * Queue a batch; the supplier's return value becomes the job's result
+     *
+     * @param type Kind of batch, e.g. "metrics", reported with the job
+     */
+    public BatchJob submit(String type, Supplier<?> work) {
+        evictExpiredJobs();
+
+        BatchJob job = new BatchJob(type);
+        jobs.put(job.getJobId(), job);
+        jobStateStore.put(job.getJobId(), job);
+        try {
+            executor.execute(() -> run(job, work));
+            logger.info("Queued {} batch job {}", type, job.getJobId());
+        } catch (TaskRejectedException e) {
+            logger.warn("Analysis queue full, rejecting {} batch job", type);
+            job.fail("Analysis queue is full, retry later");
+            jobStateStore.put(job.getJobId(), job);
+        }
+
+        return job;
+    }
+
+    /**
+     * A job run by this replica, or the last state another replica shared for it
+     */
+    public Optional<BatchJob> getJob(String jobId) {
+        BatchJob job = jobs.get(jobId);
+        return job != null ? Optional.of(job) : jobStateStore.get(jobId, BatchJob.class);
+    }
+
+    private void run(BatchJob job, Supplier<?> work) {
+        job.setStatus(AnalysisJobService.JobStatus.RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        jobStateStore.put(job.getJobId(), job);
+        try {
+            job.complete(work.get());
+            logger.info("{} batch job {} completed", job.getType(), job.getJobId());
+        } catch (Exception e) {
+            logger.error("{} batch job {} failed: {}", job.getType(), job.getJobId(), e.getMessage());
+            job.fail(e.getMessage());
+        }
+        jobStateStore.put(job.getJobId(), job);
+    }
+
+    private void evictExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(analysisConfig.getJobRetentionMinutes());
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    public static class BatchJob {
+        private final String jobId;
+        private final String type;
+        private volatile AnalysisJobService.JobStatus status = AnalysisJobService.JobStatus.QUEUED;
+        private volatile Object result;
+        private volatile String error;
+        private final LocalDateTime submittedAt;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+
+        public BatchJob(String type) {
+            this.jobId = UUID.randomUUID().toString();
+            this.type = type;
+            this.submittedAt = LocalDateTime.now();
+        }
+
+        /**
+         * A job as shared by the replica running it
+         */
+        @JsonCreator
+        BatchJob(@JsonProperty("jobId") String jobId,
+                 @JsonProperty("type") String type,
+                 @JsonProperty("status") AnalysisJobService.JobStatus status,
+                 @JsonProperty("result") Object result,
+                 @JsonProperty("error") String error,
+                 @JsonProperty("submittedAt") LocalDateTime submittedAt,
+                 @JsonProperty("startedAt") LocalDateTime startedAt,
+                 @JsonProperty("finishedAt") LocalDateTime finishedAt) {
+            this.jobId = jobId;
+            this.type = type;
+            this.status = status;
+            this.result = result;
+            this.error = error;
+            this.submittedAt = submittedAt;
+            this.startedAt = startedAt;
+            this.finishedAt = finishedAt;
+        }
+
+        void complete(Object result) {
+            this.result = result;
+            this.finishedAt = LocalDateTime.now();
+            this.status = AnalysisJobService.JobStatus.COMPLETED;
+        }
+
+        void fail(String error) {
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+            this.status = AnalysisJobService.JobStatus.FAILED;
+        }
+
+        // Getters and Setters
+        public String getJobId() { return jobId; }
+
+        public String getType() { return type; }
+
+        public AnalysisJobService.JobStatus getStatus() { return status; }
+        void setStatus(AnalysisJobService.JobStatus status) { this.status = status; }
+
+        public Object getResult() { return result; }
+
+        public String getError() { return error; }
+
+        public LocalDateTime getSubmittedAt() { return submittedAt; }
+
+        public LocalDateTime getStartedAt() { return startedAt; }
+        void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+        public LocalDateTime getFinishedAt() { return finishedAt; }
+    }
+}
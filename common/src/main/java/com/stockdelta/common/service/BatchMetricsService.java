@@ -0,0 +1,422 @@
+package com.stockdelta.common.service;
+
+import com.stockdelta.common.config.MetricsConfig;
+import com.stockdelta.common.entity.Issuer;
+import com.stockdelta.common.event.FilingEvent;
+import com.stockdelta.common.repository.IssuerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recomputes normalized metrics (Abs, QoQ, YoY) for a whole ticker universe
+ * CIKs are processed in cohorts. Each cohort's filings and core-concept financials are
+ * read with two queries into primitive arrays indexed by concept and filing, every
+ * (CIK, form) chain is resolved in one pass sorted by period end, and the metrics are
+ * upserted with JDBC batches. Results match NormalizedMetricsService.calculateMetrics.
+ *
+ * Deliberately not transactional: each write batch commits on its own, so a failed
+ * cohort does not roll back the ones before it.
+ */
+@Service
+public class BatchMetricsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchMetricsService.class);
+
+    private static final List<String> DEFAULT_FORMS = List.of("10-K", "10-Q");
+
+    private static final String FILINGS_SQL =
+            "SELECT id, cik, form, period_end, filed_at FROM filings WHERE cik IN (:ciks) AND form IN (:forms)";
+
+    private static final String FINANCIALS_SQL =
+            "SELECT nf.filing_id, nf.concept, nf.value, nf.end_date, nf.quality_score " +
+            "FROM normalized_financials nf JOIN filings f ON f.id = nf.filing_id " +
+            "WHERE f.cik IN (:ciks) AND f.form IN (:forms) AND nf.concept IN (:concepts) AND nf.value IS NOT NULL";
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO normalized_metrics (filing_id, metric, basis, value, quality_score, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (filing_id, metric, basis) DO UPDATE " +
+            "SET value = EXCLUDED.value, quality_score = EXCLUDED.quality_score";
+
+    // Marks a fact without an end date
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final IssuerRepository issuerRepository;
+    private final MetricsConfig config;
+    private final MetricDistributionService distributionService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public BatchMetricsService(NamedParameterJdbcTemplate jdbcTemplate,
+                               IssuerRepository issuerRepository,
+                               MetricsConfig config,
+                               MetricDistributionService distributionService,
+                               ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.issuerRepository = issuerRepository;
+        this.config = config;
+        this.distributionService = distributionService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Recompute metrics for every normalized filing of the requested tickers
+     */
+    public BatchResult recomputeMetrics(BatchRequest request) {
+        long start = System.nanoTime();
+
+        List<Issuer> issuers = request.getSymbols() == null || request.getSymbols().length == 0
+                ? issuerRepository.findAllWithTicker()
+                : issuerRepository.findByTickerIn(Arrays.stream(request.getSymbols())
+                        .map(String::toUpperCase)
+                        .toList());
+        List<String> forms = request.getForms() == null || request.getForms().length == 0
+                ? DEFAULT_FORMS
+                : Arrays.asList(request.getForms());
+
+        BatchResult result = new BatchResult();
+        result.setCikCount(issuers.size());
+
+        int cohortSize = Math.max(1, config.getCohortSize());
+        for (int from = 0; from < issuers.size(); from += cohortSize) {
+            List<String> ciks = issuers.subList(from, Math.min(from + cohortSize, issuers.size())).stream()
+                    .map(Issuer::getCik)
+                    .toList();
+            try {
+                processCohort(ciks, forms, result);
+            } catch (Exception e) {
+                logger.error("Batch metric recomputation failed for cohort of {} CIKs starting at {}: {}",
+                        ciks.size(), ciks.get(0), e.getMessage());
+                result.getFailedCiks().addAll(ciks);
+            }
+        }
+
+        // Replaced values were overwritten in bulk, so the distributions are recomputed in one pass
+        if (result.getMetricsWritten() > 0) {
+            distributionService.rebuild(MetricDistributionService.Source.NORMALIZED);
+        }
+
+        result.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        logger.info("Batch metric recomputation: {} CIKs, {} filings, {} metrics in {}ms ({} failed)",
+                result.getCikCount(), result.getFilingsProcessed(), result.getMetricsWritten(),
+                result.getElapsedMillis(), result.getFailedCiks().size());
+
+        return result;
+    }
+
+    private void processCohort(List<String> ciks, List<String> forms, BatchResult result) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ciks", ciks)
+                .addValue("forms", forms)
+                .addValue("concepts", NormalizedMetricsService.CORE_CONCEPTS);
+
+        Cohort cohort = loadFilings(params);
+        if (cohort.size() == 0) {
+            return;
+        }
+        loadFinancials(cohort, params);
+
+        List<Object[]> rows = new ArrayList<>();
+        List<Integer> written = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        for (List<Integer> chain : cohort.chains().values()) {
+            for (int index = 0; index < chain.size(); index++) {
+                int position = chain.get(index);
+                if (!cohort.hasData(position)) {
+                    continue;
+                }
+                written.add(position);
+
+                int qoq = cohort.previous(chain, index, 2, 4);
+                int yoy = cohort.previous(chain, index, 11, 13);
+                long filingId = cohort.filingIds[position];
+
+                for (int c = 0; c < cohort.concepts; c++) {
+                    if (Double.isNaN(cohort.values[c][position])) {
+                        continue;
+                    }
+                    String concept = NormalizedMetricsService.CORE_CONCEPTS.get(c);
+                    rows.add(new Object[]{filingId, concept, "Abs",
+                            cents(cohort.values[c][position]), score(cohort.quality[c][position]), now});
+                    addChange(rows, cohort, c, position, qoq, "QoQ", now);
+                    addChange(rows, cohort, c, position, yoy, "YoY", now);
+                }
+            }
+        }
+
+        int batchSize = Math.max(1, config.getWriteBatchSize());
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbcTemplate.getJdbcOperations().batchUpdate(UPSERT_SQL,
+                    rows.subList(from, Math.min(from + batchSize, rows.size())));
+        }
+
+        // No transaction to defer to, so listeners run inline: one event per issuer, not per filing
+        Map<String, List<Long>> filingsByCik = new LinkedHashMap<>();
+        written.stream()
+                .sorted(Comparator.comparing(position -> cohort.filedAt[position]))
+                .forEach(position -> filingsByCik.computeIfAbsent(cohort.ciks[position], k -> new ArrayList<>())
+                        .add(cohort.filingIds[position]));
+        filingsByCik.forEach((cik, filingIds) -> eventPublisher.publishEvent(
+                new FilingEvent(FilingEvent.Type.METRICS_CALCULATED, cik, filingIds)));
+
+        result.setFilingsProcessed(result.getFilingsProcessed() + written.size());
+        result.setMetricsWritten(result.getMetricsWritten() + rows.size());
+        logger.debug("Cohort of {} CIKs: {} filings, {} metrics", ciks.size(), written.size(), rows.size());
+    }
+
+    private static void addChange(List<Object[]> rows, Cohort cohort, int concept, int position,
+                                  int previous, String basis, Timestamp now) {
+        if (previous < 0 || Double.isNaN(cohort.values[concept][previous])) {
+            return;
+        }
+
+        double previousValue = cohort.values[concept][previous];
+        BigDecimal change;
+        if (previousValue == 0.0) {
+            change = BigDecimal.ZERO;
+        } else {
+            // Same rounding as NormalizedMetricsService: ratio to 4 places, then percent to 2
+            double ratio = (cohort.values[concept][position] - previousValue) / Math.abs(previousValue);
+            change = BigDecimal.valueOf(ratio).setScale(4, RoundingMode.HALF_UP)
+                    .movePointRight(2)
+                    .setScale(2, RoundingMode.HALF_UP);
+        }
+
+        BigDecimal quality = score(cohort.quality[concept][position])
+                .add(score(cohort.quality[concept][previous]))
+                .divide(BigDecimal.valueOf(2), 2, RoundingMode.HALF_UP);
+
+        rows.add(new Object[]{cohort.filingIds[position], NormalizedMetricsService.CORE_CONCEPTS.get(concept),
+                basis, change, quality, now});
+    }
+
+    private Cohort loadFilings(MapSqlParameterSource params) {
+        List<Object[]> filings = jdbcTemplate.query(FILINGS_SQL, params, (rs, rowNum) -> {
+            Date periodEnd = rs.getDate("period_end");
+            Timestamp filedAt = rs.getTimestamp("filed_at");
+            return new Object[]{
+                    rs.getLong("id"),
+                    rs.getString("cik"),
+                    rs.getString("form"),
+                    periodEnd != null ? periodEnd.toLocalDate() : null,
+                    filedAt != null ? filedAt.toLocalDateTime() : LocalDateTime.MIN
+            };
+        });
+
+        Cohort cohort = new Cohort(filings.size(), NormalizedMetricsService.CORE_CONCEPTS.size());
+        for (int i = 0; i < filings.size(); i++) {
+            Object[] filing = filings.get(i);
+            cohort.filingIds[i] = (Long) filing[0];
+            cohort.ciks[i] = (String) filing[1];
+            cohort.forms[i] = (String) filing[2];
+            cohort.periodEnds[i] = (LocalDate) filing[3];
+            cohort.filedAt[i] = (LocalDateTime) filing[4];
+            cohort.positions.put(cohort.filingIds[i], i);
+        }
+        return cohort;
+    }
+
+    private void loadFinancials(Cohort cohort, MapSqlParameterSource params) {
+        Map<String, Integer> conceptIndex = new HashMap<>();
+        for (int c = 0; c < NormalizedMetricsService.CORE_CONCEPTS.size(); c++) {
+            conceptIndex.put(NormalizedMetricsService.CORE_CONCEPTS.get(c), c);
+        }
+
+        jdbcTemplate.query(FINANCIALS_SQL, params, rs -> {
+            Integer position = cohort.positions.get(rs.getLong("filing_id"));
+            Integer concept = conceptIndex.get(rs.getString("concept"));
+            if (position == null || concept == null) {
+                return;
+            }
+
+            Date endDate = rs.getDate("end_date");
+            BigDecimal quality = rs.getBigDecimal("quality_score");
+            cohort.offer(concept, position,
+                    rs.getBigDecimal("value").doubleValue(),
+                    quality != null ? quality.doubleValue() : 1.0,
+                    endDate != null ? endDate.toLocalDate().toEpochDay() : NO_DATE);
+        });
+    }
+
+    /**
+     * Amounts are read as doubles; every reported value below 2^53 cents round-trips exactly
+     */
+    private static BigDecimal cents(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal score(double quality) {
+        return BigDecimal.valueOf(quality).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Filings of one cohort and their core-concept values, laid out as parallel arrays
+     */
+    private static final class Cohort {
+        private final long[] filingIds;
+        private final String[] ciks;
+        private final String[] forms;
+        private final LocalDate[] periodEnds;
+        private final LocalDateTime[] filedAt;
+        private final Map<Long, Integer> positions;
+
+        private final int concepts;
+        // [concept][filing]; NaN where the filing did not report the concept
+        private final double[][] values;
+        private final double[][] quality;
+        private final long[][] endDays;
+
+        Cohort(int filings, int concepts) {
+            this.filingIds = new long[filings];
+            this.ciks = new String[filings];
+            this.forms = new String[filings];
+            this.periodEnds = new LocalDate[filings];
+            this.filedAt = new LocalDateTime[filings];
+            this.positions = new HashMap<>(filings * 2);
+            this.concepts = concepts;
+            this.values = new double[concepts][filings];
+            this.quality = new double[concepts][filings];
+            this.endDays = new long[concepts][filings];
+            for (double[] row : values) {
+                Arrays.fill(row, Double.NaN);
+            }
+        }
+
+        int size() {
+            return filingIds.length;
+        }
+
+        /**
+         * Keep a fact if it beats the one held: later end date, then higher quality score
+         */
+        void offer(int concept, int position, double value, double score, long endDay) {
+            if (!Double.isNaN(values[concept][position])) {
+                long heldDay = endDays[concept][position];
+                boolean replaces = heldDay != NO_DATE && endDay != NO_DATE && heldDay != endDay
+                        ? endDay > heldDay
+                        : score > quality[concept][position];
+                if (!replaces) {
+                    return;
+                }
+            }
+            values[concept][position] = value;
+            quality[concept][position] = score;
+            endDays[concept][position] = endDay;
+        }
+
+        boolean hasData(int position) {
+            for (int c = 0; c < concepts; c++) {
+                if (!Double.isNaN(values[c][position])) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Positions grouped by (CIK, form), each sorted by period end with unknown periods last
+         */
+        Map<String, List<Integer>> chains() {
+            Map<String, List<Integer>> chains = new LinkedHashMap<>();
+            for (int i = 0; i < size(); i++) {
+                chains.computeIfAbsent(ciks[i] + "|" + forms[i], k -> new ArrayList<>()).add(i);
+            }
+            Comparator<Integer> byPeriod = Comparator.comparing(i -> periodEnds[i],
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+            chains.values().forEach(chain -> chain.sort(byPeriod));
+            return chains;
+        }
+
+        /**
+         * The comparison filing for a chain member, or -1
+         * Among earlier periods between minMonths and maxMonths back, the most recently
+         * filed one wins, as with the per-filing lookup. The chain is sorted, so the scan
+         * stops at the first period more than maxMonths back.
+         */
+        int previous(List<Integer> chain, int index, int minMonths, int maxMonths) {
+            int position = chain.get(index);
+            LocalDate periodEnd = periodEnds[position];
+            if (periodEnd == null) {
+                return -1;
+            }
+
+            int best = -1;
+            for (int k = index - 1; k >= 0; k--) {
+                int candidate = chain.get(k);
+                LocalDate candidateEnd = periodEnds[candidate];
+                if (!candidateEnd.isBefore(periodEnd)) {
+                    continue;
+                }
+
+                long months = ChronoUnit.MONTHS.between(candidateEnd, periodEnd);
+                if (months > maxMonths) {
+                    break;
+                }
+                if (months >= minMonths && (best < 0 || filedAt[candidate].isAfter(filedAt[best]))) {
+                    best = candidate;
+                }
+            }
+            return best;
+        }
+    }
+
+    public static class BatchRequest {
+        private String[] symbols;
+        private String[] forms;
+
+        public BatchRequest() {}
+
+        public String[] getSymbols() { return symbols; }
+        public void setSymbols(String[] symbols) { this.symbols = symbols; }
+
+        public String[] getForms() { return forms; }
+        public void setForms(String[] forms) { this.forms = forms; }
+    }
+
+    public static class BatchResult {
+        private int cikCount;
+        private int filingsProcessed;
+        private int metricsWritten;
+        private long elapsedMillis;
+        private List<String> failedCiks = new ArrayList<>();
+
+        // Getters and Setters
+        public int getCikCount() { return cikCount; }
+        public void setCikCount(int cikCount) { this.cikCount = cikCount; }
+
+        public int getFilingsProcessed() { return filingsProcessed; }
+        public void setFilingsProcessed(int filingsProcessed) { this.filingsProcessed = filingsProcessed; }
+
+        public int getMetricsWritten() { return metricsWritten; }
+        public void setMetricsWritten(int metricsWritten) { this.metricsWritten = metricsWritten; }
+
+        public long getElapsedMillis() { return elapsedMillis; }
+        public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+        public List<String> getFailedCiks() { return failedCiks; }
+        public void setFailedCiks(List<String> failedCiks) { this.failedCiks = failedCiks; }
+    }
+}
@@ -0,0 +1,134 @@
+package com.stockdelta.common.service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Calendar frame labels for XBRL periods, following the SEC frames API convention
+ * Quarters are labelled CY2024Q3, fiscal years CY2024 and balance sheet instants CY2024Q3I.
+ * A fiscal period is assigned to the calendar period it most closely fits, so issuers
+ * with different fiscal year ends land in comparable frames.
+ */
+public final class CalendarFrames {
+
+    public static final String QUARTER = "quarter";
+    public static final String YEAR = "year";
+    public static final String INSTANT = "instant";
+
+    private static final Pattern FRAME_PATTERN = Pattern.compile("CY(\\d{4})(?:Q([1-4])(I?))?");
+
+    // Half a quarter; shifting a date back by this much lands in the quarter whose end is nearest
+    private static final int HALF_QUARTER_DAYS = 45;
+
+    private CalendarFrames() {
+    }
+
+    /**
+     * Kind of frame a period falls in: quarter, year or instant
+     *
+     * @return Kind, or null for durations that are neither a quarter nor a year (e.g. year-to-date)
+     */
+    public static String kindOf(LocalDate start, LocalDate end) {
+        if (end == null) {
+            return null;
+        }
+        if (start == null || start.equals(end)) {
+            return INSTANT;
+        }
+
+        long days = ChronoUnit.DAYS.between(start, end);
+        if (days >= 70 && days <= 110) {
+            return QUARTER;
+        }
+        if (days >= 330 && days <= 400) {
+            return YEAR;
+        }
+        return null;
+    }
+
+    /**
+     * Frame label for a period
+     *
+     * @return Label, or null when the period has no frame
+     */
+    public static String frameOf(LocalDate start, LocalDate end) {
+        String kind = kindOf(start, end);
+        if (kind == null) {
+            return null;
+        }
+
+        switch (kind) {
+            case INSTANT: {
+                LocalDate nearestQuarter = end.minusDays(HALF_QUARTER_DAYS);
+                return "CY" + nearestQuarter.getYear() + "Q" + quarterOf(nearestQuarter) + "I";
+            }
+            case QUARTER: {
+                LocalDate midpoint = start.plusDays(ChronoUnit.DAYS.between(start, end) / 2);
+                return "CY" + midpoint.getYear() + "Q" + quarterOf(midpoint);
+            }
+            default: {
+                LocalDate midpoint = start.plusDays(ChronoUnit.DAYS.between(start, end) / 2);
+                return "CY" + midpoint.getYear();
+            }
+        }
+    }
+
+    /**
+     * Whether a label is a well-formed frame
+     */
+    public static boolean isValid(String frame) {
+        return frame != null && FRAME_PATTERN.matcher(frame).matches();
+    }
+
+    /**
+     * The frame one quarter earlier; years and instants step back by a year when not quarterly
+     * CY2024Q1 becomes CY2023Q4, CY2024Q1I becomes CY2023Q4I and CY2024 becomes CY2023.
+     */
+    public static String previousQuarter(String frame) {
+        Matcher matcher = parse(frame);
+        int year = Integer.parseInt(matcher.group(1));
+        if (matcher.group(2) == null) {
+            return "CY" + (year - 1);
+        }
+
+        int quarter = Integer.parseInt(matcher.group(2));
+        String suffix = matcher.group(3);
+        return quarter == 1
+                ? "CY" + (year - 1) + "Q4" + suffix
+                : "CY" + year + "Q" + (quarter - 1) + suffix;
+    }
+
+    /**
+     * The same frame one year earlier
+     */
+    public static String previousYear(String frame) {
+        Matcher matcher = parse(frame);
+        int year = Integer.parseInt(matcher.group(1));
+        return "CY" + (year - 1) + frame.substring(matcher.end(1));
+    }
+
+    /**
+     * Kind of frame a label denotes
+     */
+    public static String kindOfFrame(String frame) {
+        Matcher matcher = parse(frame);
+        if (matcher.group(2) == null) {
+            return YEAR;
+        }
+        return matcher.group(3).isEmpty() ? QUARTER : INSTANT;
+    }
+
+    private static Matcher parse(String frame) {
+        Matcher matcher = frame == null ? null : FRAME_PATTERN.matcher(frame);
+        if (matcher == null || !matcher.matches()) {
+            throw new IllegalArgumentException("Invalid frame: " + frame);
+        }
+        return matcher;
+    }
+
+    private static int quarterOf(LocalDate date) {
+        return (date.getMonthValue() - 1) / 3 + 1;
+    }
+}
@@ -1,6 +1,7 @@
 package com.stockdelta.common.service;
 
 import com.stockdelta.common.entity.*;
+import com.stockdelta.common.event.FilingEvent;
 import com.stockdelta.common.parser.DailyIndexParser;
 import com.stockdelta.common.parser.SubmissionsParser;
 import com.stockdelta.common.parser.XbrlFactsParser;
@@ -13,6 +14,7 @@ import com.stockdelta.common.sec.TickerResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
@@ -22,6 +24,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
@@ -31,6 +34,9 @@ public class DataIngestionService {
 
     private static final Logger logger = LoggerFactory.getLogger(DataIngestionService.class);
 
+    // Forms whose arrival changes chains and summaries; other forms raise no event
+    private static final Set<String> EVENT_FORMS = Set.of("10-K", "10-Q");
+
     private final SecApiClient secApiClient;
     private final TickerResolver tickerResolver;
     private final DailyIndexParser dailyIndexParser;
@@ -41,6 +47,7 @@ public class DataIngestionService {
     private final FilingRepository filingRepository;
     private final IngestLogRepository ingestLogRepository;
     private final XbrlFactRepository xbrlFactRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public DataIngestionService(SecApiClient secApiClient,
@@ -51,7 +58,8 @@ public class DataIngestionService {
                                IssuerRepository issuerRepository,
                                FilingRepository filingRepository,
                                IngestLogRepository ingestLogRepository,
-                               XbrlFactRepository xbrlFactRepository) {
+                               XbrlFactRepository xbrlFactRepository,
+                               ApplicationEventPublisher eventPublisher) {
         this.secApiClient = secApiClient;
         this.tickerResolver = tickerResolver;
         this.dailyIndexParser = dailyIndexParser;
@@ -61,6 +69,7 @@ public class DataIngestionService {
         this.filingRepository = filingRepository;
         this.ingestLogRepository = ingestLogRepository;
         this.xbrlFactRepository = xbrlFactRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public static class IngestionRequest {
@@ -219,9 +228,10 @@ public class DataIngestionService {
         AtomicInteger processed = new AtomicInteger(0);
         AtomicInteger inserted = new AtomicInteger(0);
         AtomicInteger skipped = new AtomicInteger(0);
+        Queue<Filing> saved = new ConcurrentLinkedQueue<>();
 
         return Flux.fromIterable(entries)
-                .flatMap(entry -> processIndexEntry(entry)
+                .flatMap(entry -> processIndexEntry(entry, saved)
                         .doOnSuccess(wasInserted -> {
                             processed.incrementAndGet();
                             if (wasInserted) {
@@ -237,6 +247,10 @@ public class DataIngestionService {
                             return Mono.just(false);
                         }))
                 .then(Mono.fromCallable(() -> {
+                    saved.stream()
+                            .collect(Collectors.groupingBy(Filing::getCik))
+                            .forEach(this::publishIngested);
+
                     IngestionResult result = new IngestionResult(logId);
                     result.setTotalProcessed(processed.get());
                     result.setTotalInserted(inserted.get());
@@ -245,7 +259,7 @@ public class DataIngestionService {
                 }));
     }
 
-    private Mono<Boolean> processIndexEntry(DailyIndexParser.IndexEntry entry) {
+    private Mono<Boolean> processIndexEntry(DailyIndexParser.IndexEntry entry, Queue<Filing> saved) {
         // Check if already exists
         if (filingRepository.existsByAccessionNo(entry.getAccessionNo())) {
             return Mono.just(false); // Skip, already exists
@@ -262,10 +276,26 @@ public class DataIngestionService {
 
         filingRepository.save(filing);
         logger.debug("Saved filing: {}", filing.getAccessionNo());
+        saved.add(filing);
 
         return Mono.just(true);
     }
 
+    /**
+     * Announce an issuer's new 10-K/10-Q filings with one event once all of them are saved
+     * Ingestion runs after the service transaction has returned, so listeners run inline.
+     */
+    private void publishIngested(String cik, List<Filing> filings) {
+        List<Long> filingIds = filings.stream()
+                .filter(filing -> EVENT_FORMS.contains(filing.getForm()))
+                .sorted(Comparator.comparing(Filing::getFiledAt, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .map(Filing::getId)
+                .toList();
+        if (!filingIds.isEmpty()) {
+            eventPublisher.publishEvent(new FilingEvent(FilingEvent.Type.FILING_INGESTED, cik, filingIds));
+        }
+    }
+
     private static class CompanyIngestionResult {
         private int insertedCount;
         private int skippedCount;
@@ -310,6 +340,7 @@ public class DataIngestionService {
                         // Process filings - filter only necessary filings for comparison
                         int inserted = 0;
                         int skipped = 0;
+                        List<Filing> saved = new ArrayList<>();
 
                         // Get filings needed for comparison analysis (10-K: 2, 10-Q: 4, etc.)
                         java.util.Map<String, List<Filing>> comparisonFilings =
@@ -326,6 +357,7 @@ public class DataIngestionService {
                             for (Filing filing : filings) {
                                 if (!filingRepository.existsByAccessionNo(filing.getAccessionNo())) {
                                     filingRepository.save(filing);
+                                    saved.add(filing);
                                     inserted++;
                                     formInserted++;
                                     logger.debug("Saved {} filing: {} (period: {})",
@@ -340,6 +372,8 @@ public class DataIngestionService {
                             }
                         }
 
+                        publishIngested(cik, saved);
+
                         // Build detailed log message
                         StringBuilder logMsg = new StringBuilder();
                         logMsg.append("Processed submissions for CIK ").append(cik)
@@ -0,0 +1,48 @@
+package com.stockdelta.common.service;
+
+import com.stockdelta.common.entity.FilingDelta;
+
+/**
+ * One signal of a diff fragment's importance
+ * Every DeltaScorer bean is picked up by DeltaScoringPipeline, which runs the scorers
+ * side by side over a section's fragments and sums their weighted contributions into
+ * the delta score. Implementations must be thread-safe and free of I/O.
+ */
+public interface DeltaScorer {
+
+    /**
+     * Name used for the scorer's weight (stockdelta.scoring.scorer-weights) and metric tag
+     */
+    String name();
+
+    /**
+     * Contribution of this signal to a fragment's score, 0 when it does not apply
+     */
+    double score(Fragment fragment);
+
+    /**
+     * A changed run of text in a section, with the text it replaced or was replaced by
+     */
+    class Fragment {
+        private final String section;
+        private final FilingDelta.Operation operation;
+        private final String text;
+        private final String counterpart;
+
+        public Fragment(String section, FilingDelta.Operation operation, String text, String counterpart) {
+            this.section = section;
+            this.operation = operation;
+            this.text = text;
+            this.counterpart = counterpart;
+        }
+
+        public String getSection() { return section; }
+        public FilingDelta.Operation getOperation() { return operation; }
+        public String getText() { return text; }
+
+        /**
+         * The opposite side of a replacement (the deleted text of an insert and vice versa), or null
+         */
+        public String getCounterpart() { return counterpart; }
+    }
+}
@@ -0,0 +1,149 @@
+package com.stockdelta.common.service;
+
+import com.stockdelta.common.config.ExecutorConfig;
+import com.stockdelta.common.config.ScoringConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Scores the diff fragments of a section with every DeltaScorer bean
+ * Each scorer runs over all of a section's fragments as one task on the scoring pool,
+ * so the scorers of a section run side by side. Contributions are weighted per scorer,
+ * summed and capped at the maximum score. A failing scorer, or one that has not finished
+ * when the scorer timeout since submission runs out, is cancelled and contributes
+ * nothing rather than failing the diff.
+ */
+@Component
+public class DeltaScoringPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeltaScoringPipeline.class);
+
+    private static final String LATENCY_METRIC = "stockdelta.scoring.scorer.latency";
+
+    private final List<DeltaScorer> scorers;
+    private final List<Timer> timers;
+    private final double[] weights;
+    private final ScoringConfig scoringConfig;
+    private final AsyncTaskExecutor executor;
+
+    @Autowired
+    public DeltaScoringPipeline(List<DeltaScorer> scorers,
+                                ScoringConfig scoringConfig,
+                                @Qualifier(ExecutorConfig.SCORING_EXECUTOR) AsyncTaskExecutor executor,
+                                MeterRegistry meterRegistry) {
+        this.scoringConfig = scoringConfig;
+        this.executor = executor;
+
+        // Scorers weighted to zero are dropped instead of run
+        this.scorers = new ArrayList<>();
+        List<Double> activeWeights = new ArrayList<>();
+        for (DeltaScorer scorer : scorers) {
+            double weight = scoringConfig.getScorerWeights().getOrDefault(scorer.name(), 1.0);
+            if (weight != 0.0) {
+                this.scorers.add(scorer);
+                activeWeights.add(weight);
+            }
+        }
+        this.weights = activeWeights.stream().mapToDouble(Double::doubleValue).toArray();
+
+        this.timers = new ArrayList<>(this.scorers.size());
+        for (DeltaScorer scorer : this.scorers) {
+            timers.add(Timer.builder(LATENCY_METRIC)
+                    .description("Delta scorer latency over one section's fragments")
+                    .tag("scorer", scorer.name())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+
+        logger.info("Delta scoring with {} scorers: {}", this.scorers.size(),
+                this.scorers.stream().map(DeltaScorer::name).toList());
+    }
+
+    /**
+     * Score a section's fragments
+     *
+     * @return Scores in fragment order, between 0 and the configured maximum
+     */
+    public double[] score(List<DeltaScorer.Fragment> fragments) {
+        double[] combined = new double[fragments.size()];
+        if (fragments.isEmpty() || scorers.isEmpty()) {
+            return combined;
+        }
+
+        double[][] contributions = new double[scorers.size()][];
+        if (scorers.size() == 1 || fragments.size() < scoringConfig.getParallelMinFragments()) {
+            for (int s = 0; s < scorers.size(); s++) {
+                contributions[s] = run(s, fragments);
+            }
+        } else {
+            // One deadline from submission covers queueing on the pool as well as running
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(scoringConfig.getScorerTimeoutMs());
+            List<Future<double[]>> futures = new ArrayList<>(scorers.size());
+            for (int s = 0; s < scorers.size(); s++) {
+                int index = s;
+                futures.add(executor.submit(() -> run(index, fragments)));
+            }
+            for (int s = 0; s < scorers.size(); s++) {
+                Future<double[]> future = futures.get(s);
+                try {
+                    contributions[s] = future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    future.cancel(true);
+                    logger.warn("Delta scorer {} did not finish within {}ms, leaving it out of this section",
+                            scorers.get(s).name(), scoringConfig.getScorerTimeoutMs());
+                    contributions[s] = new double[fragments.size()];
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    futures.forEach(f -> f.cancel(true));
+                    throw new IllegalStateException("Interrupted while scoring", e);
+                } catch (ExecutionException e) {
+                    // run() catches scorer failures itself, so only errors get here
+                    logger.warn("Delta scorer {} failed, leaving it out of this section: {}",
+                            scorers.get(s).name(), e.getCause().getMessage());
+                    contributions[s] = new double[fragments.size()];
+                }
+            }
+        }
+
+        for (int s = 0; s < scorers.size(); s++) {
+            for (int i = 0; i < combined.length; i++) {
+                combined[i] += weights[s] * contributions[s][i];
+            }
+        }
+        for (int i = 0; i < combined.length; i++) {
+            combined[i] = Math.max(0.0, Math.min(combined[i], scoringConfig.getMaxScore()));
+        }
+        return combined;
+    }
+
+    private double[] run(int index, List<DeltaScorer.Fragment> fragments) {
+        DeltaScorer scorer = scorers.get(index);
+        double[] scores = new double[fragments.size()];
+        long start = System.nanoTime();
+
+        try {
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] = scorer.score(fragments.get(i));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Delta scorer {} failed, leaving it out of this section: {}", scorer.name(), e.getMessage());
+            scores = new double[fragments.size()];
+        }
+
+        timers.get(index).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return scores;
+    }
+}
@@ -0,0 +1,184 @@
+package com.stockdelta.common.service;
+
+import com.stockdelta.common.entity.DiffArtifact;
+import com.stockdelta.common.entity.Filing;
+import com.stockdelta.common.entity.FilingSection;
+import com.stockdelta.common.repository.DiffArtifactRepository;
+import com.stockdelta.common.repository.FilingRepository;
+import com.stockdelta.common.repository.FilingSectionRepository;
+import com.stockdelta.common.text.EditScriptCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Renders stored section diffs for the side-by-side view
+ * Reads the compressed edit script and slices the two section texts, so no diff is recomputed.
+ * Artifacts are stored only for changed sections; a section identical to its predecessor's
+ * renders as an empty diff.
+ */
+@Service
+@Transactional(readOnly = true)
+public class DiffArtifactService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiffArtifactService.class);
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final DiffArtifactRepository artifactRepository;
+    private final FilingSectionRepository sectionRepository;
+    private final FilingRepository filingRepository;
+    private final FilingChainIndex chainIndex;
+
+    @Autowired
+    public DiffArtifactService(DiffArtifactRepository artifactRepository,
+                               FilingSectionRepository sectionRepository,
+                               FilingRepository filingRepository,
+                               FilingChainIndex chainIndex) {
+        this.artifactRepository = artifactRepository;
+        this.sectionRepository = sectionRepository;
+        this.filingRepository = filingRepository;
+        this.chainIndex = chainIndex;
+    }
+
+    /**
+     * Render a page of edit operations for one section
+     *
+     * @param offset Index of the first edit operation to return
+     * @param limit  Maximum number of operations (capped at 1000)
+     * @return Rendered page, or empty when no usable artifact is stored and the section
+     *         is not known to be unchanged
+     */
+    public Optional<DiffPage> renderDiff(Long filingId, String section, int offset, int limit) {
+        Optional<DiffArtifact> artifactOpt = artifactRepository.findByFilingIdAndSection(filingId, section);
+        if (artifactOpt.isEmpty()) {
+            return unchangedDiff(filingId, section, offset);
+        }
+
+        DiffArtifact artifact = artifactOpt.get();
+        Optional<FilingSection> previousOpt = sectionRepository.findById(artifact.getPreviousSectionId());
+        Optional<FilingSection> currentOpt = sectionRepository.findById(artifact.getCurrentSectionId());
+        if (previousOpt.isEmpty() || currentOpt.isEmpty()) {
+            // Sections were re-extracted after the diff ran, so the script no longer lines up
+            logger.warn("Stale diff artifact for filing {} section {}", filingId, section);
+            return Optional.empty();
+        }
+
+        String previousText = previousOpt.get().getText();
+        String currentText = currentOpt.get().getText();
+        List<EditScriptCodec.Edit> edits = EditScriptCodec.decode(artifact.getEditScript());
+
+        int from = Math.max(0, offset);
+        int to = Math.min(edits.size(), from + Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+
+        List<DiffOp> ops = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            EditScriptCodec.Edit edit = edits.get(i);
+            String text = edit.getOp() == EditScriptCodec.Op.INSERT
+                    ? slice(currentText, edit.getCurrentOffset(), edit.getLength())
+                    : slice(previousText, edit.getPreviousOffset(), edit.getLength());
+            if (text == null) {
+                logger.warn("Diff artifact for filing {} section {} does not match section text", filingId, section);
+                return Optional.empty();
+            }
+            ops.add(new DiffOp(edit.getOp().name(), text));
+        }
+
+        DiffPage page = new DiffPage();
+        page.setFilingId(filingId);
+        page.setSection(section);
+        page.setDiffMode(artifact.getDiffMode() != null ? artifact.getDiffMode().name() : null);
+        page.setTotalOps(edits.size());
+        page.setOffset(from);
+        page.setOps(ops);
+        page.setHasMore(to < edits.size());
+        return Optional.of(page);
+    }
+
+    /**
+     * An empty page when the section exists in the filing and its predecessor with the same text
+     */
+    private Optional<DiffPage> unchangedDiff(Long filingId, String section, int offset) {
+        Optional<FilingSection> currentOpt = sectionRepository.findByFilingIdAndSection(filingId, section);
+        if (currentOpt.isEmpty() || currentOpt.get().getTextHash() == null) {
+            return Optional.empty();
+        }
+
+        Optional<FilingSection> previousOpt = filingRepository.findById(filingId)
+                .flatMap(chainIndex::previous)
+                .map(Filing::getId)
+                .flatMap(previousId -> sectionRepository.findByFilingIdAndSection(previousId, section));
+        if (previousOpt.isEmpty() || !currentOpt.get().getTextHash().equals(previousOpt.get().getTextHash())) {
+            // Changed but not diffed yet, or no predecessor to diff against
+            return Optional.empty();
+        }
+
+        DiffPage page = new DiffPage();
+        page.setFilingId(filingId);
+        page.setSection(section);
+        page.setTotalOps(0);
+        page.setOffset(Math.max(0, offset));
+        page.setOps(List.of());
+        page.setHasMore(false);
+        return Optional.of(page);
+    }
+
+    private String slice(String text, int offset, int length) {
+        if (text == null || offset + length > text.length()) {
+            return null;
+        }
+        return text.substring(offset, offset + length);
+    }
+
+    public static class DiffOp {
+        private final String op;
+        private final String text;
+
+        public DiffOp(String op, String text) {
+            this.op = op;
+            this.text = text;
+        }
+
+        public String getOp() { return op; }
+
+        public String getText() { return text; }
+    }
+
+    public static class DiffPage {
+        private Long filingId;
+        private String section;
+        private String diffMode;
+        private int totalOps;
+        private int offset;
+        private boolean hasMore;
+        private List<DiffOp> ops;
+
+        // Getters and Setters
+        public Long getFilingId() { return filingId; }
+        public void setFilingId(Long filingId) { this.filingId = filingId; }
+
+        public String getSection() { return section; }
+        public void setSection(String section) { this.section = section; }
+
+        public String getDiffMode() { return diffMode; }
+        public void setDiffMode(String diffMode) { this.diffMode = diffMode; }
+
+        public int getTotalOps() { return totalOps; }
+        public void setTotalOps(int totalOps) { this.totalOps = totalOps; }
+
+        public int getOffset() { return offset; }
+        public void setOffset(int offset) { this.offset = offset; }
+
+        public boolean isHasMore() { return hasMore; }
+        public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+
+        public List<DiffOp> getOps() { return ops; }
+        public void setOps(List<DiffOp> ops) { this.ops = ops; }
+    }
+}
@@ -1,20 +1,40 @@
 package com.stockdelta.common.service;
 
+import com.stockdelta.common.config.ExecutorConfig;
+import com.stockdelta.common.config.FacMappingConfig;
 import com.stockdelta.common.entity.XbrlTagMapping;
 import com.stockdelta.common.repository.XbrlTagMappingRepository;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * FAC (Fundamental Accounting Concepts) Mapping Service
- * Maps XBRL tags to standardized FAC concepts for normalization
+ * Maps XBRL tags to standardized FAC concepts for normalization. Tags resolve against
+ * an in-memory FacTagResolver snapshot of xbrl_tag_mapping, so mapping a tag touches
+ * no database; inferred mappings are written back in batches.
  */
 @Service
 @Transactional
@@ -24,55 +44,54 @@ public class FacMappingService {
 
     private final XbrlTagMappingRepository mappingRepository;
 
-    // Pattern-based inference rules for common concepts
-    private static final Map<String, List<Pattern>> CONCEPT_PATTERNS = new HashMap<>();
-
-    static {
-        // Revenue patterns
-        CONCEPT_PATTERNS.put("Revenue", List.of(
-                Pattern.compile(".*Revenue.*", Pattern.CASE_INSENSITIVE),
-                Pattern.compile(".*Sales.*", Pattern.CASE_INSENSITIVE)
-        ));
-
-        // Asset patterns
-        CONCEPT_PATTERNS.put("Assets", List.of(
-                Pattern.compile("^Assets$", Pattern.CASE_INSENSITIVE),
-                Pattern.compile(".*TotalAssets.*", Pattern.CASE_INSENSITIVE)
-        ));
-
-        // Liability patterns
-        CONCEPT_PATTERNS.put("Liabilities", List.of(
-                Pattern.compile("^Liabilities$", Pattern.CASE_INSENSITIVE),
-                Pattern.compile(".*TotalLiabilities.*", Pattern.CASE_INSENSITIVE)
-        ));
-
-        // Equity patterns
-        CONCEPT_PATTERNS.put("Equity", List.of(
-                Pattern.compile(".*Equity$", Pattern.CASE_INSENSITIVE),
-                Pattern.compile(".*StockholdersEquity.*", Pattern.CASE_INSENSITIVE)
-        ));
-
-        // Cash patterns
-        CONCEPT_PATTERNS.put("Cash", List.of(
-                Pattern.compile("^Cash$", Pattern.CASE_INSENSITIVE),
-                Pattern.compile(".*CashAndCashEquivalents.*", Pattern.CASE_INSENSITIVE)
-        ));
-
-        // Operating Income patterns
-        CONCEPT_PATTERNS.put("OperatingIncome", List.of(
-                Pattern.compile(".*OperatingIncome.*", Pattern.CASE_INSENSITIVE)
-        ));
-
-        // Net Income patterns
-        CONCEPT_PATTERNS.put("NetIncome", List.of(
-                Pattern.compile(".*NetIncome.*", Pattern.CASE_INSENSITIVE),
-                Pattern.compile("^ProfitLoss$", Pattern.CASE_INSENSITIVE)
-        ));
-    }
+    private static final String INFERRED_RULE_SOURCE = "pattern-match";
+    private static final BigDecimal INFERRED_CONFIDENCE = BigDecimal.valueOf(0.85);
+
+    private static final String WRITE_BACK_SQL =
+            "INSERT INTO xbrl_tag_mapping (source_tag, taxonomy, fundamental_concept, confidence_score, " +
+            "rule_source, created_at) VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (source_tag, taxonomy) DO NOTHING";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final FacMappingConfig config;
+    private final Scheduler blockingScheduler;
+
+    // Current snapshot, swapped whole on reload; readers never lock
+    private final AtomicReference<FacTagResolver> resolver = new AtomicReference<>();
+    // Held by the single thread loading a snapshot; a lock rather than a monitor so a
+    // virtual thread waiting on the query does not pin its carrier
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    // Inferred mappings not yet written, keyed by taxonomy and tag
+    private final Map<String, XbrlTagMapping> pendingWrites = new ConcurrentHashMap<>();
+    private Disposable writeBackLoop;
 
     @Autowired
-    public FacMappingService(XbrlTagMappingRepository mappingRepository) {
+    public FacMappingService(XbrlTagMappingRepository mappingRepository,
+                             NamedParameterJdbcTemplate jdbcTemplate,
+                             FacMappingConfig config,
+                             @Qualifier(ExecutorConfig.BLOCKING_SCHEDULER) Scheduler blockingScheduler) {
         this.mappingRepository = mappingRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.config = config;
+        this.blockingScheduler = blockingScheduler;
+    }
+
+    /**
+     * Build the resolver before the first filing is mapped
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reload();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        synchronized (this) {
+            if (writeBackLoop != null) {
+                writeBackLoop.dispose();
+            }
+        }
+        flushInferredMappings();
     }
 
     /**
@@ -82,27 +101,37 @@ public class FacMappingService {
      * @param taxonomy Taxonomy (e.g., 'us-gaap')
      * @return FAC concept name or null if no mapping found
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public String mapToFundamentalConcept(String tag, String taxonomy) {
+        FacTagResolver.Mapping mapping = resolve(tag, taxonomy);
+        return mapping != null ? mapping.getConcept() : null;
+    }
+
+    /**
+     * Resolve an XBRL tag to its FAC concept and the confidence of the mapping
+     * Stored mappings come first, then the name rules; an inferred mapping is written
+     * back in the background.
+     *
+     * @return The mapping, or null if no mapping found
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public FacTagResolver.Mapping resolve(String tag, String taxonomy) {
         if (tag == null || tag.trim().isEmpty()) {
             return null;
         }
 
-        // 1. Try direct lookup from database
-        Optional<XbrlTagMapping> mapping = mappingRepository.findBySourceTagAndTaxonomy(tag, taxonomy);
-        if (mapping.isPresent()) {
-            logger.debug("Direct mapping found: {} -> {}", tag, mapping.get().getFundamentalConcept());
-            return mapping.get().getFundamentalConcept();
+        // 1. Stored mapping
+        FacTagResolver.Mapping mapping = resolver().lookup(tag, taxonomy);
+        if (mapping != null) {
+            return mapping;
         }
 
-        // 2. Try pattern-based inference
-        String inferredConcept = inferConceptFromPattern(tag);
+        // 2. Name rules
+        String inferredConcept = FacTagResolver.infer(tag);
         if (inferredConcept != null) {
             logger.debug("Pattern-based mapping: {} -> {}", tag, inferredConcept);
-
-            // Optionally save inferred mapping for future use
-            saveInferredMapping(tag, taxonomy, inferredConcept, BigDecimal.valueOf(0.85), "pattern-match");
-
-            return inferredConcept;
+            queueInferredMapping(tag, taxonomy, inferredConcept);
+            return new FacTagResolver.Mapping(inferredConcept, INFERRED_CONFIDENCE);
         }
 
         // 3. No mapping found
@@ -117,57 +146,124 @@ public class FacMappingService {
      * @param taxonomy Taxonomy
      * @return Confidence score (0.0 to 1.0) or 1.0 if not found
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public BigDecimal getConfidenceScore(String tag, String taxonomy) {
-        return mappingRepository.findBySourceTagAndTaxonomy(tag, taxonomy)
-                .map(XbrlTagMapping::getConfidenceScore)
-                .orElse(BigDecimal.ONE);
+        FacTagResolver.Mapping mapping = resolver().lookup(tag, taxonomy);
+        return mapping != null ? mapping.getConfidenceScore() : BigDecimal.ONE;
     }
 
     /**
-     * Infer FAC concept from tag name using pattern matching
-     *
-     * @param tag XBRL tag name
-     * @return Inferred concept or null
+     * The current resolver snapshot
+     * Loaded on first use by one thread while the others wait for it, and reloaded once
+     * it is older than the refresh interval; the thread that reloads blocks on the query
+     * while others keep the old snapshot.
      */
-    private String inferConceptFromPattern(String tag) {
-        for (Map.Entry<String, List<Pattern>> entry : CONCEPT_PATTERNS.entrySet()) {
-            String concept = entry.getKey();
-            List<Pattern> patterns = entry.getValue();
-
-            for (Pattern pattern : patterns) {
-                if (pattern.matcher(tag).matches()) {
-                    return concept;
-                }
+    private FacTagResolver resolver() {
+        FacTagResolver current = resolver.get();
+        if (current == null) {
+            reloadLock.lock();
+            try {
+                current = resolver.get();
+                return current != null ? current : reload();
+            } finally {
+                reloadLock.unlock();
             }
         }
-        return null;
+        if (System.nanoTime() - current.getLoadedAtNanos() > TimeUnit.SECONDS.toNanos(config.getRefreshSeconds())
+                && reloadLock.tryLock()) {
+            try {
+                // Another thread may have reloaded between the check and the lock
+                FacTagResolver latest = resolver.get();
+                return latest != current ? latest : reload();
+            } finally {
+                reloadLock.unlock();
+            }
+        }
+        return current;
     }
 
     /**
-     * Save an inferred mapping to the database
-     *
-     * @param tag              Source tag
-     * @param taxonomy         Taxonomy
-     * @param concept          Fundamental concept
-     * @param confidenceScore  Confidence score
-     * @param ruleSource       Rule source
+     * Load a fresh snapshot from xbrl_tag_mapping and swap it in
      */
-    private void saveInferredMapping(String tag, String taxonomy, String concept,
-                                      BigDecimal confidenceScore, String ruleSource) {
+    public FacTagResolver reload() {
+        reloadLock.lock();
         try {
-            // Check if already exists
-            if (mappingRepository.existsBySourceTagAndTaxonomy(tag, taxonomy)) {
-                return;
-            }
+            long start = System.nanoTime();
+            FacTagResolver fresh = FacTagResolver.of(mappingRepository.findAll());
+            resolver.set(fresh);
+            logger.info("Loaded {} FAC tag mappings in {}ms", fresh.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return fresh;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Hold an inferred mapping for the next write-back
+     */
+    private void queueInferredMapping(String tag, String taxonomy, String concept) {
+        if (taxonomy == null || pendingWrites.size() >= config.getMaxPendingWrites()) {
+            return;
+        }
+
+        pendingWrites.computeIfAbsent(pendingKey(tag, taxonomy),
+                key -> new XbrlTagMapping(tag, taxonomy, concept, INFERRED_CONFIDENCE, INFERRED_RULE_SOURCE));
+        startWriteBack();
+    }
+
+    private synchronized void startWriteBack() {
+        if (writeBackLoop == null) {
+            writeBackLoop = Flux.interval(Duration.ofSeconds(config.getWriteBackIntervalSeconds()))
+                    .onBackpressureDrop()
+                    .concatMap(tick -> Mono.fromRunnable(this::flushInferredMappings)
+                            .subscribeOn(blockingScheduler)
+                            .onErrorResume(error -> {
+                                logger.warn("Failed to write back inferred mappings: {}", error.getMessage());
+                                return Mono.empty();
+                            }))
+                    .subscribe();
+        }
+    }
+
+    /**
+     * Write the pending inferred mappings in batches and add them to the snapshot
+     * Mappings stored meanwhile by another replica are kept; the next reload picks them up.
+     */
+    private void flushInferredMappings() {
+        if (pendingWrites.isEmpty()) {
+            return;
+        }
+
+        List<XbrlTagMapping> batch = new ArrayList<>(pendingWrites.values());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (XbrlTagMapping mapping : batch) {
+            rows.add(new Object[]{mapping.getSourceTag(), mapping.getTaxonomy(), mapping.getFundamentalConcept(),
+                    mapping.getConfidenceScore(), mapping.getRuleSource(), now});
+        }
 
-            XbrlTagMapping mapping = new XbrlTagMapping(tag, taxonomy, concept, confidenceScore, ruleSource);
-            mappingRepository.save(mapping);
-            logger.info("Saved inferred mapping: {} ({}) -> {} (confidence: {})",
-                    tag, taxonomy, concept, confidenceScore);
-        } catch (Exception e) {
-            logger.warn("Failed to save inferred mapping for {} -> {}: {}",
-                    tag, concept, e.getMessage());
+        int batchSize = Math.max(1, config.getWriteBackBatchSize());
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbcTemplate.getJdbcOperations().batchUpdate(WRITE_BACK_SQL,
+                    rows.subList(from, Math.min(from + batchSize, rows.size())));
         }
+
+        // Not while a reload is reading the table, or its snapshot could replace this one
+        reloadLock.lock();
+        try {
+            resolver.updateAndGet(current -> current != null ? current.with(batch) : null);
+        } finally {
+            reloadLock.unlock();
+        }
+        for (XbrlTagMapping mapping : batch) {
+            pendingWrites.remove(pendingKey(mapping.getSourceTag(), mapping.getTaxonomy()), mapping);
+        }
+        logger.info("Wrote back {} inferred FAC mappings", batch.size());
+    }
+
+    private static String pendingKey(String tag, String taxonomy) {
+        return taxonomy + '\u001f' + tag;
     }
 
     /**
@@ -195,7 +291,30 @@ public class FacMappingService {
     public void loadCoreMappings() {
         logger.info("Loading core FAC mappings...");
 
-        List<XbrlTagMapping> coreMappings = Arrays.asList(
+        int savedCount = 0;
+        for (XbrlTagMapping mapping : coreMappings()) {
+            try {
+                if (!mappingRepository.existsBySourceTagAndTaxonomy(
+                        mapping.getSourceTag(), mapping.getTaxonomy())) {
+                    mappingRepository.save(mapping);
+                    savedCount++;
+                }
+            } catch (Exception e) {
+                logger.warn("Failed to save mapping for {}: {}", mapping.getSourceTag(), e.getMessage());
+            }
+        }
+
+        logger.info("Loaded {} core FAC mappings", savedCount);
+        if (savedCount > 0) {
+            reload();
+        }
+    }
+
+    /**
+     * The standard us-gaap mappings seeded by loadCoreMappings
+     */
+    static List<XbrlTagMapping> coreMappings() {
+        return Arrays.asList(
                 // Revenue concepts
                 new XbrlTagMapping("Revenues", "us-gaap", "Revenue", BigDecimal.ONE, "fac-standard"),
                 new XbrlTagMapping("Revenue", "us-gaap", "Revenue", BigDecimal.ONE, "fac-standard"),
@@ -240,21 +359,6 @@ public class FacMappingService {
                 new XbrlTagMapping("EarningsPerShareDiluted", "us-gaap", "EPSDiluted",
                         BigDecimal.ONE, "fac-standard")
         );
-
-        int savedCount = 0;
-        for (XbrlTagMapping mapping : coreMappings) {
-            try {
-                if (!mappingRepository.existsBySourceTagAndTaxonomy(
-                        mapping.getSourceTag(), mapping.getTaxonomy())) {
-                    mappingRepository.save(mapping);
-                    savedCount++;
-                }
-            } catch (Exception e) {
-                logger.warn("Failed to save mapping for {}: {}", mapping.getSourceTag(), e.getMessage());
-            }
-        }
-
-        logger.info("Loaded {} core FAC mappings", savedCount);
     }
 
     /**
@@ -278,6 +382,8 @@ public class FacMappingService {
         bySource.put("pattern-match", (long) mappingRepository.findByRuleSource("pattern-match").size());
         bySource.put("manual", (long) mappingRepository.findByRuleSource("manual").size());
         stats.put("by_source", bySource);
+        stats.put("resolver_size", resolver().size());
+        stats.put("pending_writes", pendingWrites.size());
 
         return stats;
     }
@@ -0,0 +1,145 @@
+package com.stockdelta.common.service;
+
+import com.stockdelta.common.entity.XbrlTagMapping;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the XBRL tag to FAC concept mappings
+ * Stored mappings are an exact-match hash lookup. Tags without one fall through a
+ * fixed cascade of name rules, most specific first, so a tag that several rules
+ * match always resolves the same way. Rules match lower-cased literals rather than
+ * regexes.
+ */
+public final class FacTagResolver {
+
+    private static final char KEY_SEPARATOR = '\u001f';
+
+    // Evaluated in order; exact names before specific fragments before broad ones
+    private static final List<Rule> RULES = List.of(
+            Rule.exact("assets", "Assets"),
+            Rule.exact("liabilities", "Liabilities"),
+            Rule.exact("cash", "Cash"),
+            Rule.exact("profitloss", "NetIncome"),
+            Rule.contains("totalassets", "Assets"),
+            Rule.contains("totalliabilities", "Liabilities"),
+            Rule.contains("cashandcashequivalents", "Cash"),
+            Rule.contains("stockholdersequity", "Equity"),
+            Rule.contains("operatingincome", "OperatingIncome"),
+            Rule.contains("netincome", "NetIncome"),
+            Rule.suffix("equity", "Equity"),
+            Rule.contains("revenue", "Revenue"),
+            Rule.contains("sales", "Revenue")
+    );
+
+    private final Map<String, Mapping> exact;
+    private final long loadedAtNanos;
+
+    private FacTagResolver(Map<String, Mapping> exact, long loadedAtNanos) {
+        this.exact = exact;
+        this.loadedAtNanos = loadedAtNanos;
+    }
+
+    /**
+     * Snapshot of the given stored mappings
+     */
+    public static FacTagResolver of(Collection<XbrlTagMapping> mappings) {
+        Map<String, Mapping> exact = new HashMap<>(mappings.size() * 2);
+        for (XbrlTagMapping mapping : mappings) {
+            exact.put(key(mapping.getSourceTag(), mapping.getTaxonomy()),
+                    new Mapping(mapping.getFundamentalConcept(), mapping.getConfidenceScore()));
+        }
+        return new FacTagResolver(exact, System.nanoTime());
+    }
+
+    /**
+     * A copy with more mappings; existing entries win, as they do in the table
+     */
+    public FacTagResolver with(Collection<XbrlTagMapping> added) {
+        Map<String, Mapping> copy = new HashMap<>(exact);
+        for (XbrlTagMapping mapping : added) {
+            copy.putIfAbsent(key(mapping.getSourceTag(), mapping.getTaxonomy()),
+                    new Mapping(mapping.getFundamentalConcept(), mapping.getConfidenceScore()));
+        }
+        return new FacTagResolver(copy, loadedAtNanos);
+    }
+
+    /**
+     * The stored mapping of a tag, or null
+     */
+    public Mapping lookup(String tag, String taxonomy) {
+        return exact.get(key(tag, taxonomy));
+    }
+
+    /**
+     * The concept the name rules give a tag, or null
+     */
+    public static String infer(String tag) {
+        String name = tag.toLowerCase(Locale.ROOT);
+        for (Rule rule : RULES) {
+            if (rule.matches(name)) {
+                return rule.concept;
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return exact.size();
+    }
+
+    public long getLoadedAtNanos() {
+        return loadedAtNanos;
+    }
+
+    private static String key(String tag, String taxonomy) {
+        return taxonomy + KEY_SEPARATOR + tag;
+    }
+
+    /**
+     * A stored mapping's concept and confidence
+     */
+    public static final class Mapping {
+        private final String concept;
+        private final BigDecimal confidenceScore;
+
+        Mapping(String concept, BigDecimal confidenceScore) {
+            this.concept = concept;
+            this.confidenceScore = confidenceScore != null ? confidenceScore : BigDecimal.ONE;
+        }
+
+        public String getConcept() { return concept; }
+        public BigDecimal getConfidenceScore() { return confidenceScore; }
+    }
+
+    private static final class Rule {
+        private enum Kind { EXACT, CONTAINS, SUFFIX }
+
+        private final Kind kind;
+        private final String text;
+        private final String concept;
+
+        private Rule(Kind kind, String text, String concept) {
+            this.kind = kind;
+            this.text = text;
+            this.concept = concept;
+        }
+
+        static Rule exact(String text, String concept) { return new Rule(Kind.EXACT, text, concept); }
+        static Rule contains(String text, String concept) { return new Rule(Kind.CONTAINS, text, concept); }
+        static Rule suffix(String text, String concept) { return new Rule(Kind.SUFFIX, text, concept); }
+
+        boolean matches(String name) {
+            return switch (kind) {
+                case EXACT -> name.equals(text);
+                case CONTAINS -> name.contains(text);
+                case SUFFIX -> name.endsWith(text);
+            };
+        }
+    }
+}
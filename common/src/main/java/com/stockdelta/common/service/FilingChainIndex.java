@@ -0,0 +1,197 @@
+package com.stockdelta.common.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.stockdelta.common.config.FilingChainConfig;
+import com.stockdelta.common.entity.Filing;
+import com.stockdelta.common.event.FilingEvent;
+import com.stockdelta.common.repository.FilingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves the filings a filing is compared against
+ * Each (CIK, form) chain is loaded once into sorted arrays of period ends and filing
+ * dates and kept in a Caffeine cache, so previous-period, previous-quarter and
+ * previous-year lookups are binary searches followed by one primary key read.
+ * Chains of an issuer are dropped when a new filing of theirs is committed, and
+ * expire after a while to pick up filings ingested on other replicas.
+ */
+@Component
+public class FilingChainIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(FilingChainIndex.class);
+
+    private static final String KEY_SEPARATOR = "|";
+
+    private final FilingRepository filingRepository;
+    private final Cache<String, Chain> chains;
+
+    @Autowired
+    public FilingChainIndex(FilingRepository filingRepository, FilingChainConfig config) {
+        this.filingRepository = filingRepository;
+        this.chains = Caffeine.newBuilder()
+                .maximumSize(config.getMaxChains())
+                .expireAfterWrite(Duration.ofMinutes(config.getExpireMinutes()))
+                .build();
+    }
+
+    /**
+     * The filing a filing's deltas are computed against: the latest earlier period,
+     * or the latest earlier filing date when the period end is unknown
+     */
+    public Optional<Filing> previous(Filing current) {
+        Chain chain = chainOf(current);
+        if (current.getPeriodEnd() == null) {
+            int index = Chain.firstAtOrAfter(chain.filedAt, current.getFiledAt()) - 1;
+            return index >= 0 ? filingRepository.findById(chain.filedIds[index]) : Optional.empty();
+        }
+
+        int index = Chain.firstAtOrAfter(chain.periodEnds, current.getPeriodEnd()) - 1;
+        return index >= 0 ? filingRepository.findById(chain.periodIds[index]) : Optional.empty();
+    }
+
+    /**
+     * Up to n filings with earlier periods, latest period first
+     */
+    public List<Filing> previous(Filing current, int n) {
+        if (current.getPeriodEnd() == null || n <= 0) {
+            return List.of();
+        }
+
+        Chain chain = chainOf(current);
+        int end = Chain.firstAtOrAfter(chain.periodEnds, current.getPeriodEnd());
+        List<Long> ids = new ArrayList<>(Math.min(n, end));
+        for (int i = end - 1; i >= 0 && ids.size() < n; i--) {
+            ids.add(chain.periodIds[i]);
+        }
+
+        Map<Long, Filing> filings = filingRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Filing::getId, Function.identity()));
+        return ids.stream().map(filings::get).filter(f -> f != null).toList();
+    }
+
+    /**
+     * The most recently filed filing whose period ended about a quarter (2-4 months) earlier
+     */
+    public Optional<Filing> previousQuarter(Filing current) {
+        return previousWithin(current, 2, 4);
+    }
+
+    /**
+     * The most recently filed filing whose period ended about a year (11-13 months) earlier
+     */
+    public Optional<Filing> previousYear(Filing current) {
+        return previousWithin(current, 11, 13);
+    }
+
+    /**
+     * Drop an issuer's chains once a new filing of theirs is committed
+     * Ordered first so listeners that rebuild derived data see the new filing.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFilingEvent(FilingEvent event) {
+        if (event.getType() != FilingEvent.Type.FILING_INGESTED || event.getCik() == null) {
+            return;
+        }
+
+        String prefix = event.getCik() + KEY_SEPARATOR;
+        chains.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private Optional<Filing> previousWithin(Filing current, int minMonths, int maxMonths) {
+        LocalDate periodEnd = current.getPeriodEnd();
+        if (periodEnd == null) {
+            return Optional.empty();
+        }
+
+        Chain chain = chainOf(current);
+        int best = -1;
+        // Walk back from the latest earlier period; months only grow, so stop past the window
+        for (int i = Chain.firstAtOrAfter(chain.periodEnds, periodEnd) - 1; i >= 0; i--) {
+            long months = ChronoUnit.MONTHS.between(chain.periodEnds[i], periodEnd);
+            if (months > maxMonths) {
+                break;
+            }
+            if (months >= minMonths && (best < 0 || chain.periodFiledAt[i].isAfter(chain.periodFiledAt[best]))) {
+                best = i;
+            }
+        }
+
+        return best >= 0 ? filingRepository.findById(chain.periodIds[best]) : Optional.empty();
+    }
+
+    private Chain chainOf(Filing filing) {
+        String key = filing.getCik() + KEY_SEPARATOR + filing.getForm();
+        return chains.get(key, k -> {
+            List<Filing> filings = filingRepository.findByCikAndFormOrderByFiledAtDesc(filing.getCik(), filing.getForm());
+            logger.debug("Loaded filing chain {} ({} filings)", k, filings.size());
+            return new Chain(filings);
+        });
+    }
+
+    /**
+     * One (CIK, form) chain as parallel arrays, sorted for binary search
+     */
+    private static final class Chain {
+        // Filings with a period end, by period end then filing date
+        private final long[] periodIds;
+        private final LocalDate[] periodEnds;
+        private final LocalDateTime[] periodFiledAt;
+
+        // Every filing, by filing date
+        private final long[] filedIds;
+        private final LocalDateTime[] filedAt;
+
+        Chain(List<Filing> filings) {
+            List<Filing> byPeriod = filings.stream()
+                    .filter(f -> f.getPeriodEnd() != null)
+                    .sorted(Comparator.comparing(Filing::getPeriodEnd).thenComparing(Filing::getFiledAt))
+                    .toList();
+            this.periodIds = byPeriod.stream().mapToLong(Filing::getId).toArray();
+            this.periodEnds = byPeriod.stream().map(Filing::getPeriodEnd).toArray(LocalDate[]::new);
+            this.periodFiledAt = byPeriod.stream().map(Filing::getFiledAt).toArray(LocalDateTime[]::new);
+
+            List<Filing> byFiled = filings.stream()
+                    .sorted(Comparator.comparing(Filing::getFiledAt))
+                    .toList();
+            this.filedIds = byFiled.stream().mapToLong(Filing::getId).toArray();
+            this.filedAt = byFiled.stream().map(Filing::getFiledAt).toArray(LocalDateTime[]::new);
+        }
+
+        /**
+         * Index of the first element not before key (array length when none)
+         */
+        static <T extends Comparable<? super T>> int firstAtOrAfter(T[] sorted, T key) {
+            int low = 0;
+            int high = sorted.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sorted[mid].compareTo(key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -1,28 +1,35 @@
 package com.stockdelta.common.service;
 
+import com.stockdelta.common.config.DiffConfig;
+import com.stockdelta.common.entity.DiffArtifact;
 import com.stockdelta.common.entity.Filing;
 import com.stockdelta.common.entity.FilingDelta;
 import com.stockdelta.common.entity.FilingSection;
+import com.stockdelta.common.event.FilingEvent;
+import com.stockdelta.common.repository.DiffArtifactRepository;
 import com.stockdelta.common.repository.FilingDeltaRepository;
 import com.stockdelta.common.repository.FilingRepository;
 import com.stockdelta.common.repository.FilingSectionRepository;
-import org.bitbucket.cowwoc.diffmatchpatch.DiffMatchPatch;
+import com.stockdelta.common.text.EditScriptCodec;
 import org.bitbucket.cowwoc.diffmatchpatch.DiffMatchPatch.Diff;
 import org.bitbucket.cowwoc.diffmatchpatch.DiffMatchPatch.Operation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service for computing differences (deltas) between filing sections
@@ -40,23 +47,61 @@ public class FilingDiffService {
     private final FilingRepository filingRepository;
     private final FilingSectionRepository sectionRepository;
     private final FilingDeltaRepository deltaRepository;
+    private final DiffArtifactRepository artifactRepository;
     private final FilingSectionExtractor sectionExtractor;
+    private final SectionDiffEngine diffEngine;
+    private final DeltaScoringPipeline scoringPipeline;
+    private final ParagraphIndexService paragraphIndexService;
+    private final InFlightRegistry inFlightRegistry;
+    private final DiffConfig diffConfig;
+    private final FilingChainIndex chainIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
     public FilingDiffService(FilingRepository filingRepository,
                              FilingSectionRepository sectionRepository,
                              FilingDeltaRepository deltaRepository,
-                             FilingSectionExtractor sectionExtractor) {
+                             DiffArtifactRepository artifactRepository,
+                             FilingSectionExtractor sectionExtractor,
+                             SectionDiffEngine diffEngine,
+                             DeltaScoringPipeline scoringPipeline,
+                             ParagraphIndexService paragraphIndexService,
+                             InFlightRegistry inFlightRegistry,
+                             DiffConfig diffConfig,
+                             FilingChainIndex chainIndex,
+                             ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager) {
         this.filingRepository = filingRepository;
         this.sectionRepository = sectionRepository;
         this.deltaRepository = deltaRepository;
+        this.artifactRepository = artifactRepository;
         this.sectionExtractor = sectionExtractor;
+        this.diffEngine = diffEngine;
+        this.scoringPipeline = scoringPipeline;
+        this.paragraphIndexService = paragraphIndexService;
+        this.inFlightRegistry = inFlightRegistry;
+        this.diffConfig = diffConfig;
+        this.chainIndex = chainIndex;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
      * Compute deltas for a filing by comparing with previous filing
+     * Concurrent calls for the same filing share one computation. Coalescing happens
+     * outside the transaction, so followers wait without a connection and read the
+     * leader's deltas only after they are committed. Sections are diffed and scored
+     * before the write transaction opens, so no connection is held while scorers run.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<FilingDelta> computeDeltas(Long filingId) {
+        return inFlightRegistry.execute("computeDeltas", filingId,
+                () -> doComputeDeltas(filingId),
+                () -> deltaRepository.findByFilingId(filingId));
+    }
+
+    private List<FilingDelta> doComputeDeltas(Long filingId) {
         Optional<Filing> currentFilingOpt = filingRepository.findById(filingId);
         if (currentFilingOpt.isEmpty()) {
             logger.warn("Filing not found: {}", filingId);
@@ -80,7 +125,37 @@ public class FilingDiffService {
         List<FilingSection> currentSections = getOrExtractSections(filingId);
         List<FilingSection> previousSections = getOrExtractSections(previousFiling.getId());
 
-        List<FilingDelta> deltas = new ArrayList<>();
+        // Keep the paragraph reuse index current for both sides of the comparison
+        paragraphIndexService.indexFiling(previousFiling, previousSections);
+        paragraphIndexService.indexFiling(currentFiling, currentSections);
+
+        FilingComparison comparison = diffSections(filingId, currentSections, previousSections);
+
+        // Replace deltas from any earlier run
+        transactionTemplate.executeWithoutResult(status -> {
+            writeComparison(filingId, comparison);
+            eventPublisher.publishEvent(new FilingEvent(FilingEvent.Type.DELTAS_COMPUTED, filingId,
+                    currentFiling.getCik()));
+        });
+        logger.info("Created {} deltas for filing {}", comparison.getDeltas().size(), filingId);
+
+        return comparison.getDeltas();
+    }
+
+    /**
+     * Diff already-loaded sections of a filing against its predecessor's sections
+     * Nothing is persisted, so callers that walk a filing chain can reuse loaded sections.
+     * Runs without a transaction since scoring may wait on the scoring pool.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public FilingComparison diffSections(Long filingId,
+                                         List<FilingSection> currentSections,
+                                         List<FilingSection> previousSections) {
+        FilingComparison comparison = new FilingComparison();
+        List<FilingDelta> deltas = comparison.getDeltas();
+
+        // All sections of this filing share one diff budget
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(diffConfig.getFilingBudgetMs());
 
         // Compare sections
         for (FilingSection currentSection : currentSections) {
@@ -93,7 +168,7 @@ public class FilingDiffService {
                 deltas.add(createSectionAddedDelta(filingId, currentSection));
             } else {
                 // Compare section text
-                deltas.addAll(compareSectionText(filingId, currentSection, previousSectionOpt.get()));
+                compareSectionText(filingId, currentSection, previousSectionOpt.get(), deadline, comparison);
             }
         }
 
@@ -107,11 +182,43 @@ public class FilingDiffService {
             }
         }
 
-        // Save deltas
-        deltaRepository.saveAll(deltas);
-        logger.info("Created {} deltas for filing {}", deltas.size(), filingId);
+        return comparison;
+    }
+
+    /**
+     * Replace a filing's stored deltas and diff artifacts without announcing the change
+     * Bulk writers call this per filing and publish one issuer-level event when done.
+     * Shares computeDeltas' in-flight key, so a write never races a recomputation of the
+     * same filing; while one runs, its deltas are returned instead.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<FilingDelta> replaceDeltas(Long filingId, FilingComparison comparison) {
+        return inFlightRegistry.execute("computeDeltas", filingId,
+                () -> transactionTemplate.execute(status -> {
+                    writeComparison(filingId, comparison);
+                    return comparison.getDeltas();
+                }),
+                () -> deltaRepository.findByFilingId(filingId));
+    }
 
-        return deltas;
+    private void writeComparison(Long filingId, FilingComparison comparison) {
+        deltaRepository.deleteByFilingId(filingId);
+        artifactRepository.deleteByFilingId(filingId);
+        // Flush deletes first so re-inserted artifacts don't trip the (filing_id, section) unique index
+        artifactRepository.flush();
+        deltaRepository.saveAll(comparison.getDeltas());
+        artifactRepository.saveAll(comparison.getArtifacts());
+    }
+
+    /**
+     * Announce recomputed deltas of several filings of one issuer with a single event
+     *
+     * @param filingIds Filings written, the most recently filed last
+     */
+    public void publishDeltasComputed(String cik, List<Long> filingIds) {
+        if (!filingIds.isEmpty()) {
+            eventPublisher.publishEvent(new FilingEvent(FilingEvent.Type.DELTAS_COMPUTED, cik, filingIds));
+        }
     }
 
     /**
@@ -137,24 +244,16 @@ public class FilingDiffService {
     }
 
     private Optional<Filing> findPreviousFiling(Filing current) {
-        String form = current.getForm();
-        String cik = current.getCik();
-        LocalDate periodEnd = current.getPeriodEnd();
-
-        if (periodEnd == null) {
+        if (current.getPeriodEnd() == null) {
             // Use filed date as fallback if periodEnd is not available
             logger.warn("Filing {} has no periodEnd, using filedAt for comparison",
                 current.getAccessionNo());
-            return filingRepository.findByCikAndFormOrderByFiledAtDesc(cik, form).stream()
-                    .filter(f -> f.getFiledAt().isBefore(current.getFiledAt()))
-                    .findFirst();
         }
 
-        // Use periodEnd-based query for more accurate comparison
-        // This finds the most recent filing with periodEnd before the current filing's periodEnd
+        // The most recent filing with a periodEnd before the current filing's periodEnd
         // For 10-Q: finds previous quarter (e.g., 2024-06-30 when current is 2024-09-30)
         // For 10-K: finds previous year (e.g., 2023-12-31 when current is 2024-12-31)
-        Optional<Filing> previous = filingRepository.findPreviousByPeriodEnd(cik, form, periodEnd);
+        Optional<Filing> previous = chainIndex.previous(current);
 
         if (previous.isPresent()) {
             logger.debug("Found previous filing for comparison: {} (period: {}) vs {} (period: {})",
@@ -162,28 +261,36 @@ public class FilingDiffService {
                 previous.get().getAccessionNo(), previous.get().getPeriodEnd());
         } else {
             logger.warn("No previous filing found for CIK {} form {} before period {}",
-                cik, form, periodEnd);
+                current.getCik(), current.getForm(), current.getPeriodEnd());
         }
 
         return previous;
     }
 
-    private List<FilingDelta> compareSectionText(Long filingId, FilingSection current, FilingSection previous) {
-        List<FilingDelta> deltas = new ArrayList<>();
+    private void compareSectionText(Long filingId, FilingSection current, FilingSection previous,
+                                    long deadline, FilingComparison comparison) {
+        List<FilingDelta> deltas = comparison.getDeltas();
 
         if (current.getTextHash() != null && current.getTextHash().equals(previous.getTextHash())) {
             // Sections are identical
             logger.debug("Section {} unchanged", current.getSection());
-            return deltas;
+            return;
         }
 
-        // Use diff-match-patch library
-        DiffMatchPatch dmp = new DiffMatchPatch();
-        LinkedList<Diff> diffs = dmp.diffMain(previous.getText(), current.getText());
-        dmp.diffCleanupSemantic(diffs); // Improve readability
+        // Time-bounded diff, degrades to coarser granularity when over budget
+        long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        SectionDiffEngine.SectionDiff sectionDiff =
+                diffEngine.diff(current.getSection(), previous.getText(), current.getText(), remainingMs);
+        logger.debug("Section {} diffed in {}ms (mode: {})",
+                current.getSection(), sectionDiff.getElapsedMillis(), sectionDiff.getMode());
+
+        // Collect changed fragments, then score them together
+        List<Diff> diffs = new ArrayList<>(sectionDiff.getDiffs());
+        List<FilingDelta> sectionDeltas = new ArrayList<>();
+        List<DeltaScorer.Fragment> fragments = new ArrayList<>();
 
-        // Process diffs
-        for (Diff diff : diffs) {
+        for (int i = 0; i < diffs.size(); i++) {
+            Diff diff = diffs.get(i);
             if (diff.operation == Operation.EQUAL) {
                 continue; // Skip unchanged text
             }
@@ -197,6 +304,7 @@ public class FilingDiffService {
             delta.setFilingId(filingId);
             delta.setSection(current.getSection());
             delta.setSnippet(snippet);
+            delta.setDiffMode(sectionDiff.getMode());
 
             if (diff.operation == Operation.INSERT) {
                 delta.setOperation(FilingDelta.Operation.INSERT);
@@ -204,14 +312,55 @@ public class FilingDiffService {
                 delta.setOperation(FilingDelta.Operation.DELETE);
             }
 
-            // Calculate importance score
-            double score = sectionExtractor.calculateImportanceScore(snippet);
-            delta.setScore(BigDecimal.valueOf(score).setScale(3, RoundingMode.HALF_UP));
+            // A delete directly followed by an insert is a replacement; each side sees the other
+            Diff counterpart = null;
+            if (diff.operation == Operation.DELETE && i + 1 < diffs.size()
+                    && diffs.get(i + 1).operation == Operation.INSERT) {
+                counterpart = diffs.get(i + 1);
+            } else if (diff.operation == Operation.INSERT && i > 0
+                    && diffs.get(i - 1).operation == Operation.DELETE) {
+                counterpart = diffs.get(i - 1);
+            }
+
+            sectionDeltas.add(delta);
+            fragments.add(new DeltaScorer.Fragment(current.getSection(), delta.getOperation(), snippet,
+                    counterpart != null ? truncateSnippet(counterpart.text) : null));
+        }
+
+        // Calculate importance scores
+        double[] scores = scoringPipeline.score(fragments);
+        for (int i = 0; i < sectionDeltas.size(); i++) {
+            sectionDeltas.get(i).setScore(BigDecimal.valueOf(scores[i]).setScale(3, RoundingMode.HALF_UP));
+        }
+        deltas.addAll(sectionDeltas);
+
+        comparison.getArtifacts().add(createArtifact(filingId, current, previous, sectionDiff));
+    }
 
-            deltas.add(delta);
+    /**
+     * Keep the full edit script so the side-by-side view can be rendered without re-diffing
+     */
+    private DiffArtifact createArtifact(Long filingId, FilingSection current, FilingSection previous,
+                                        SectionDiffEngine.SectionDiff sectionDiff) {
+        List<EditScriptCodec.Edit> edits = new ArrayList<>(sectionDiff.getDiffs().size());
+        for (Diff diff : sectionDiff.getDiffs()) {
+            EditScriptCodec.Op op = switch (diff.operation) {
+                case EQUAL -> EditScriptCodec.Op.EQUAL;
+                case DELETE -> EditScriptCodec.Op.DELETE;
+                case INSERT -> EditScriptCodec.Op.INSERT;
+            };
+            edits.add(new EditScriptCodec.Edit(op, diff.text.length()));
         }
 
-        return deltas;
+        DiffArtifact artifact = new DiffArtifact();
+        artifact.setFilingId(filingId);
+        artifact.setSection(current.getSection());
+        artifact.setPreviousSectionId(previous.getId());
+        artifact.setCurrentSectionId(current.getId());
+        artifact.setDiffMode(sectionDiff.getMode());
+        artifact.setEditCount(edits.size());
+        artifact.setEditScript(EditScriptCodec.encode(edits));
+        return artifact;
     }
 
     private FilingDelta createSectionAddedDelta(Long filingId, FilingSection section) {
@@ -259,18 +408,38 @@ public class FilingDiffService {
         summary.setDeleteCount((int) deletes);
         summary.setModifyCount((int) modifies);
 
+        // Sections whose diff ran over budget and was computed at coarser granularity
+        summary.setDegradedSections(deltas.stream()
+                .filter(d -> d.getDiffMode() != null && d.getDiffMode() != FilingDelta.DiffMode.CHAR)
+                .map(FilingDelta::getSection)
+                .distinct()
+                .toList());
+
         // Get top changes
         summary.setTopChanges(deltas.stream().limit(10).toList());
 
         return summary;
     }
 
+    /**
+     * Deltas and diff artifacts produced by comparing one filing with its predecessor
+     */
+    public static class FilingComparison {
+        private final List<FilingDelta> deltas = new ArrayList<>();
+        private final List<DiffArtifact> artifacts = new ArrayList<>();
+
+        public List<FilingDelta> getDeltas() { return deltas; }
+
+        public List<DiffArtifact> getArtifacts() { return artifacts; }
+    }
+
     public static class DeltaSummary {
         private Long filingId;
         private int totalChanges;
         private int insertCount;
         private int deleteCount;
         private int modifyCount;
+        private List<String> degradedSections;
         private List<FilingDelta> topChanges;
 
         // Getters and Setters
@@ -289,6 +458,9 @@ public class FilingDiffService {
         public int getModifyCount() { return modifyCount; }
         public void setModifyCount(int modifyCount) { this.modifyCount = modifyCount; }
 
+        public List<String> getDegradedSections() { return degradedSections; }
+        public void setDegradedSections(List<String> degradedSections) { this.degradedSections = degradedSections; }
+
         public List<FilingDelta> getTopChanges() { return topChanges; }
         public void setTopChanges(List<FilingDelta> topChanges) { this.topChanges = topChanges; }
     }
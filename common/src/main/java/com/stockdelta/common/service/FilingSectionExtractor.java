@@ -2,8 +2,13 @@ package com.stockdelta.common.service;
 
 import com.stockdelta.common.entity.Filing;
 import com.stockdelta.common.entity.FilingSection;
+import com.stockdelta.common.entity.XbrlFact;
+import com.stockdelta.common.event.FilingEvent;
+import com.stockdelta.common.parser.InlineXbrlExtractor;
+import com.stockdelta.common.parser.XbrlInstance;
 import com.stockdelta.common.repository.FilingRepository;
 import com.stockdelta.common.repository.FilingSectionRepository;
+import com.stockdelta.common.repository.XbrlFactRepository;
 import com.stockdelta.common.sec.SecApiClient;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
@@ -12,20 +17,27 @@ import org.jsoup.select.Elements;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * Extracts and parses sections from SEC filings (10-K, 10-Q, 8-K)
- * Focuses on Item 1A (Risk Factors), Item 7 (MD&A), and Item 7A (Market Risk)
+ * Focuses on Item 1A (Risk Factors), Item 7 (MD&A), and Item 7A (Market Risk).
+ * Inline XBRL facts of the primary document are read from the same parse and stored
+ * as the filing's XBRL facts, so XBRL metrics need no second download.
  */
 @Service
 public class FilingSectionExtractor {
@@ -54,14 +66,29 @@ public class FilingSectionExtractor {
     private final SecApiClient secApiClient;
     private final FilingRepository filingRepository;
     private final FilingSectionRepository sectionRepository;
+    private final InFlightRegistry inFlightRegistry;
+    private final InlineXbrlExtractor inlineXbrlExtractor;
+    private final XbrlFactRepository xbrlFactRepository;
+    private final ParagraphIndexService paragraphIndexService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public FilingSectionExtractor(SecApiClient secApiClient,
                                    FilingRepository filingRepository,
-                                   FilingSectionRepository sectionRepository) {
+                                   FilingSectionRepository sectionRepository,
+                                   InFlightRegistry inFlightRegistry,
+                                   InlineXbrlExtractor inlineXbrlExtractor,
+                                   XbrlFactRepository xbrlFactRepository,
+                                   ParagraphIndexService paragraphIndexService,
+                                   ApplicationEventPublisher eventPublisher) {
         this.secApiClient = secApiClient;
         this.filingRepository = filingRepository;
         this.sectionRepository = sectionRepository;
+        this.inFlightRegistry = inFlightRegistry;
+        this.inlineXbrlExtractor = inlineXbrlExtractor;
+        this.xbrlFactRepository = xbrlFactRepository;
+        this.paragraphIndexService = paragraphIndexService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -83,9 +110,25 @@ public class FilingSectionExtractor {
             return Mono.just(existingSections);
         }
 
+        // Concurrent requests for the same filing share one download and parse; forced and
+        // normal extractions share the key, as a normal one only runs when nothing is stored
+        return inFlightRegistry.executeMono("extractSections", filingId,
+                () -> extractAndSave(filingId, forceReextract),
+                () -> Mono.fromCallable(() -> sectionRepository.findByFilingId(filingId)));
+    }
+
+    private Mono<List<FilingSection>> extractAndSave(Long filingId, boolean forceReextract) {
+        List<FilingSection> existingSections = sectionRepository.findByFilingId(filingId);
+        if (!forceReextract && !existingSections.isEmpty()) {
+            // Another caller finished extracting between the check and the lease
+            return Mono.just(existingSections);
+        }
+
         if (forceReextract && !existingSections.isEmpty()) {
             logger.info("Force re-extraction: deleting {} existing sections for filing {}", existingSections.size(), filingId);
             sectionRepository.deleteAll(existingSections);
+            // Paragraph fingerprints describe the old sections
+            paragraphIndexService.removeFiling(filingId);
         }
 
         Filing filing = filingRepository.findById(filingId).orElse(null);
@@ -95,11 +138,16 @@ public class FilingSectionExtractor {
         }
 
         return fetchAndParseFiling(filing)
-                .map(sections -> {
+                .map(parsed -> {
+                    saveInlineFacts(filing, parsed.facts);
+
+                    List<FilingSection> sections = parsed.sections;
                     if (!sections.isEmpty()) {
                         // Save extracted sections to database
                         List<FilingSection> savedSections = sectionRepository.saveAll(sections);
                         logger.info("Saved {} sections for filing {}", savedSections.size(), filingId);
+                        eventPublisher.publishEvent(new FilingEvent(
+                                FilingEvent.Type.SECTIONS_EXTRACTED, filingId, filing.getCik()));
                         return savedSections;
                     }
                     return sections;
@@ -110,27 +158,31 @@ public class FilingSectionExtractor {
                 });
     }
 
-    private Mono<List<FilingSection>> fetchAndParseFiling(Filing filing) {
+    private Mono<ParsedDocument> fetchAndParseFiling(Filing filing) {
         String documentUrl = filing.getPrimaryDocUrl();
         if (documentUrl == null || documentUrl.isEmpty()) {
             logger.warn("No document URL for filing: {}", filing.getAccessionNo());
-            return Mono.just(new ArrayList<>());
+            return Mono.just(new ParsedDocument(new ArrayList<>(), new XbrlInstance()));
         }
 
         return secApiClient.fetchDocument(documentUrl)
                 .map(html -> parseDocument(filing, html))
                 .onErrorResume(error -> {
                     logger.error("Failed to fetch document {}: {}", documentUrl, error.getMessage());
-                    return Mono.just(new ArrayList<>());
+                    return Mono.just(new ParsedDocument(new ArrayList<>(), new XbrlInstance()));
                 });
     }
 
-    private List<FilingSection> parseDocument(Filing filing, String html) {
+    private ParsedDocument parseDocument(Filing filing, String html) {
         List<FilingSection> sections = new ArrayList<>();
+        XbrlInstance facts = new XbrlInstance();
 
         try {
             Document doc = Jsoup.parse(html);
 
+            // Inline XBRL facts come from the same parse as the sections
+            facts = inlineXbrlExtractor.extract(doc);
+
             // Clean up the document
             doc.select("script, style, noscript").remove();
 
@@ -171,7 +223,112 @@ public class FilingSectionExtractor {
             logger.error("Error parsing document for filing {}: {}", filing.getAccessionNo(), e.getMessage());
         }
 
-        return sections;
+        return new ParsedDocument(sections, facts);
+    }
+
+    /**
+     * Store the inline facts of the filing's own period as its XBRL facts
+     * Mirrors what company facts ingestion stores: facts without dimensions whose period
+     * ends on the filing's period end (the latest period in the document when the filing
+     * has none), one per tag, period and unit. Filings that already have facts are left
+     * alone.
+     */
+    private void saveInlineFacts(Filing filing, XbrlInstance instance) {
+        if (instance.getFacts().isEmpty()) {
+            return;
+        }
+
+        try {
+            if (xbrlFactRepository.existsByFilingId(filing.getId())) {
+                logger.debug("XBRL facts already exist for filing {}, not storing inline facts", filing.getId());
+                return;
+            }
+
+            LocalDate periodEnd = filing.getPeriodEnd();
+            if (periodEnd == null) {
+                for (XbrlInstance.Fact fact : instance.getFacts()) {
+                    XbrlInstance.Context context = instance.getContext(fact.getContextRef());
+                    LocalDate end = context != null ? context.getPeriodEnd() : null;
+                    if (end != null && (periodEnd == null || end.isAfter(periodEnd))) {
+                        periodEnd = end;
+                    }
+                }
+            }
+
+            List<XbrlFact> facts = new ArrayList<>();
+            Set<String> seen = new HashSet<>();
+            for (XbrlInstance.Fact fact : instance.getFacts()) {
+                XbrlInstance.Context context = instance.getContext(fact.getContextRef());
+                if (context == null || context.isDimensional() || periodEnd == null
+                        || !periodEnd.equals(context.getPeriodEnd())) {
+                    continue;
+                }
+
+                XbrlFact xbrlFact = toXbrlFact(filing.getId(), fact, context, instance.getUnit(fact.getUnitRef()));
+                if (xbrlFact != null && seen.add(xbrlFact.getTaxonomy() + ':' + xbrlFact.getTag() + '|'
+                        + xbrlFact.getStartDate() + '|' + xbrlFact.getEndDate() + '|' + xbrlFact.getUnit())) {
+                    facts.add(xbrlFact);
+                }
+            }
+
+            if (!facts.isEmpty()) {
+                xbrlFactRepository.saveAll(facts);
+                logger.info("Saved {} inline XBRL facts for filing {} (period: {})",
+                        facts.size(), filing.getId(), periodEnd);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to store inline XBRL facts for filing {}: {}", filing.getId(), e.getMessage());
+        }
+    }
+
+    private static XbrlFact toXbrlFact(Long filingId, XbrlInstance.Fact fact, XbrlInstance.Context context,
+                                       String unit) {
+        String taxonomy = taxonomyOf(fact.getNamespace());
+        BigDecimal value = fact.getValue();
+        // Columns: taxonomy(20), tag(100), unit(20), value numeric(20,2)
+        if (taxonomy == null || taxonomy.length() > 20 || fact.getName().length() > 100
+                || (unit != null && unit.length() > 20) || value.precision() - value.scale() > 18) {
+            return null;
+        }
+
+        XbrlFact xbrlFact = new XbrlFact();
+        xbrlFact.setFilingId(filingId);
+        xbrlFact.setTaxonomy(taxonomy);
+        xbrlFact.setTag(fact.getName());
+        xbrlFact.setUnit(unit);
+        xbrlFact.setStartDate(context.getStartDate());
+        xbrlFact.setEndDate(context.getPeriodEnd());
+        xbrlFact.setValue(value);
+        if (fact.getDecimals() != null && !"INF".equals(fact.getDecimals())) {
+            try {
+                xbrlFact.setDecimals(Integer.parseInt(fact.getDecimals().trim()));
+            } catch (NumberFormatException e) {
+                // Leave decimals unset
+            }
+        }
+        return xbrlFact;
+    }
+
+    /**
+     * Taxonomy name as company facts uses it (us-gaap, dei, ifrs-full), from a namespace URI
+     */
+    private static String taxonomyOf(String namespace) {
+        if (namespace == null) {
+            return null;
+        }
+        if (namespace.contains("fasb.org/us-gaap")) {
+            return "us-gaap";
+        }
+        if (namespace.contains("xbrl.sec.gov/dei")) {
+            return "dei";
+        }
+        if (namespace.contains("xbrl.ifrs.org")) {
+            return "ifrs-full";
+        }
+        if (namespace.contains("fasb.org/srt")) {
+            return "srt";
+        }
+        return null;
     }
 
     /**
@@ -431,6 +588,19 @@ public class FilingSectionExtractor {
         }
     }
 
+    /**
+     * Sections and inline XBRL facts read from one parse of a primary document
+     */
+    private static final class ParsedDocument {
+        private final List<FilingSection> sections;
+        private final XbrlInstance facts;
+
+        ParsedDocument(List<FilingSection> sections, XbrlInstance facts) {
+            this.sections = sections;
+            this.facts = facts;
+        }
+    }
+
     /**
      * Extract sections and calculate importance scores
      */
@@ -451,46 +621,4 @@ public class FilingSectionExtractor {
             return importanceScore;
         }
     }
-
-    /**
-     * Calculate importance score based on keywords
-     */
-    public double calculateImportanceScore(String text) {
-        double score = 0.0;
-
-        // High-importance keywords
-        String[] highKeywords = {"risk", "uncertainty", "lawsuit", "litigation", "material adverse",
-                "investigation", "bankruptcy", "default", "breach", "violation"};
-
-        // Medium-importance keywords
-        String[] mediumKeywords = {"challenge", "competition", "regulatory", "compliance",
-                "depend", "may not", "could adversely", "potential"};
-
-        String lowerText = text.toLowerCase();
-
-        for (String keyword : highKeywords) {
-            int count = countOccurrences(lowerText, keyword);
-            score += count * 0.3;
-        }
-
-        for (String keyword : mediumKeywords) {
-            int count = countOccurrences(lowerText, keyword);
-            score += count * 0.1;
-        }
-
-        // Length factor (longer changes are often more significant)
-        score += Math.log10(text.length() + 1) * 0.05;
-
-        return Math.min(score, 1.0); // Cap at 1.0
-    }
-
-    private int countOccurrences(String text, String keyword) {
-        int count = 0;
-        int index = 0;
-        while ((index = text.indexOf(keyword, index)) != -1) {
-            count++;
-            index += keyword.length();
-        }
-        return count;
-    }
 }
@@ -0,0 +1,404 @@
+package com.stockdelta.common.service;
+
+import com.stockdelta.common.entity.Filing;
+import com.stockdelta.common.entity.FinancialTimeSeriesPoint;
+import com.stockdelta.common.entity.Issuer;
+import com.stockdelta.common.entity.NormalizedFinancial;
+import com.stockdelta.common.event.FilingEvent;
+import com.stockdelta.common.repository.FilingRepository;
+import com.stockdelta.common.repository.FinancialTimeSeriesRepository;
+import com.stockdelta.common.repository.IssuerRepository;
+import com.stockdelta.common.repository.NormalizedFinancialRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the cross-issuer time-series store of normalized financials
+ * Each normalized filing is folded into the store by calendar frame, so an issuer's
+ * history and a frame across all issuers are read with one range scan instead of
+ * walking filings one predecessor at a time.
+ */
+@Service
+@Transactional
+public class FinancialTimeSeriesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FinancialTimeSeriesService.class);
+
+    public static final String BASIS_QOQ = "QoQ";
+    public static final String BASIS_YOY = "YoY";
+
+    // Best candidate last: a fact known to be consolidated, then quality, then the first one read.
+    // Rows normalized before the dimensional flag existed rank below flagged consolidated ones.
+    private static final Comparator<NormalizedFinancial> CANDIDATE_ORDER =
+            Comparator.<NormalizedFinancial, Boolean>comparing(f -> Boolean.FALSE.equals(f.getDimensional()))
+                    .thenComparing(FinancialTimeSeriesService::quality)
+                    .thenComparing(NormalizedFinancial::getId, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final FinancialTimeSeriesRepository timeSeriesRepository;
+    private final NormalizedFinancialRepository normalizedFinancialRepository;
+    private final FilingRepository filingRepository;
+    private final IssuerRepository issuerRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public FinancialTimeSeriesService(FinancialTimeSeriesRepository timeSeriesRepository,
+                                      NormalizedFinancialRepository normalizedFinancialRepository,
+                                      FilingRepository filingRepository,
+                                      IssuerRepository issuerRepository,
+                                      PlatformTransactionManager transactionManager) {
+        this.timeSeriesRepository = timeSeriesRepository;
+        this.normalizedFinancialRepository = normalizedFinancialRepository;
+        this.filingRepository = filingRepository;
+        this.issuerRepository = issuerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Fold a filing's normalized financials into the store
+     * Only facts of consolidated (non-dimensional) contexts are folded in. A stored value is
+     * replaced only by a filing filed after the one it came from, or on the same day with a higher id.
+     *
+     * @return Number of points written
+     */
+    public int record(Long filingId) {
+        Optional<Filing> filingOpt = filingRepository.findById(filingId);
+        if (filingOpt.isEmpty()) {
+            logger.warn("Filing not found: {}", filingId);
+            return 0;
+        }
+
+        Filing filing = filingOpt.get();
+        Map<String, FramedValue> candidates = new HashMap<>();
+        for (NormalizedFinancial financial : normalizedFinancialRepository.findByFilingId(filingId)) {
+            String frame = CalendarFrames.frameOf(financial.getStartDate(), financial.getEndDate());
+            // A segment or axis member is not the issuer's value for the frame
+            if (frame == null || financial.getValue() == null || Boolean.TRUE.equals(financial.getDimensional())) {
+                continue;
+            }
+            candidates.merge(financial.getConcept() + "|" + frame, new FramedValue(frame, financial),
+                    (a, b) -> CANDIDATE_ORDER.compare(b.financial, a.financial) > 0 ? b : a);
+        }
+
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        String sic = issuerRepository.findByCik(filing.getCik()).map(Issuer::getSic).orElse(null);
+        Set<String> frames = candidates.values().stream().map(v -> v.frame).collect(Collectors.toSet());
+        Map<String, FinancialTimeSeriesPoint> stored = timeSeriesRepository
+                .findByCikAndFrameIn(filing.getCik(), frames).stream()
+                .collect(Collectors.toMap(p -> p.getConcept() + "|" + p.getFrame(), Function.identity()));
+
+        List<FinancialTimeSeriesPoint> writes = new ArrayList<>();
+        for (Map.Entry<String, FramedValue> entry : candidates.entrySet()) {
+            FramedValue candidate = entry.getValue();
+            FinancialTimeSeriesPoint point = stored.get(entry.getKey());
+            if (point == null) {
+                point = new FinancialTimeSeriesPoint(candidate.financial.getConcept(), filing.getCik(), candidate.frame);
+            } else if (!filingId.equals(point.getFilingId()) && filedLater(point, filing)) {
+                // A later filing already restated this period
+                continue;
+            }
+
+            NormalizedFinancial financial = candidate.financial;
+            point.setPeriodKind(CalendarFrames.kindOf(financial.getStartDate(), financial.getEndDate()));
+            point.setPeriodStart(financial.getStartDate());
+            point.setPeriodEnd(financial.getEndDate());
+            point.setValue(financial.getValue());
+            point.setUnit(financial.getUnit());
+            point.setSic(sic);
+            point.setFilingId(filingId);
+            point.setFiledAt(filing.getFiledAt());
+            point.setQualityScore(financial.getQualityScore());
+            writes.add(point);
+        }
+
+        timeSeriesRepository.saveAll(writes);
+        logger.debug("Recorded {} time-series points for filing {}", writes.size(), filingId);
+        return writes.size();
+    }
+
+    /**
+     * Rebuild the store from every filing with normalized financials
+     * Each filing is folded in and committed in its own transaction, so the persistence
+     * context never holds more than one filing and a failing filing is skipped.
+     *
+     * @return Number of filings folded in
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int backfill() {
+        List<Long> filingIds = normalizedFinancialRepository.findNormalizedFilingIdsOrderByFiledAt();
+        int folded = 0;
+        for (Long filingId : filingIds) {
+            try {
+                recordInTransaction(filingId);
+                folded++;
+            } catch (Exception e) {
+                logger.warn("Failed to backfill time series for filing {}: {}", filingId, e.getMessage());
+            }
+        }
+        logger.info("Backfilled time-series store from {} of {} filings", folded, filingIds.size());
+        return folded;
+    }
+
+    /**
+     * Last N periods of a concept for an issuer, oldest first
+     *
+     * @param periodKind quarter, year or instant
+     */
+    @Transactional(readOnly = true)
+    public List<SeriesPoint> getHistory(String cik, String concept, String periodKind, int periods) {
+        List<SeriesPoint> history = timeSeriesRepository.findHistory(concept, cik, periodKind, periods).stream()
+                .map(SeriesPoint::new)
+                .collect(Collectors.toCollection(ArrayList::new));
+        Collections.reverse(history);
+        return history;
+    }
+
+    /**
+     * Every issuer's value of a concept in one frame, optionally limited to a SIC code
+     * With a basis the prior frame is read in the same scan and the change computed per issuer.
+     *
+     * @param basis QoQ, YoY, or null for values only
+     */
+    @Transactional(readOnly = true)
+    public List<FrameValue> getFrame(String concept, String frame, String sic, String basis) {
+        String priorFrame = priorFrame(frame, basis);
+        Set<String> frames = priorFrame == null ? Set.of(frame) : Set.of(frame, priorFrame);
+
+        List<FinancialTimeSeriesPoint> points = sic == null
+                ? timeSeriesRepository.findByFrames(concept, frames)
+                : timeSeriesRepository.findByFramesAndSic(concept, frames, sic);
+
+        Map<String, FinancialTimeSeriesPoint> prior = new HashMap<>();
+        List<FinancialTimeSeriesPoint> current = new ArrayList<>();
+        for (FinancialTimeSeriesPoint point : points) {
+            if (frame.equals(point.getFrame())) {
+                current.add(point);
+            } else {
+                prior.put(point.getCik(), point);
+            }
+        }
+
+        Map<String, Issuer> issuers = issuerRepository.findAllById(
+                        current.stream().map(FinancialTimeSeriesPoint::getCik).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Issuer::getCik, Function.identity()));
+
+        List<FrameValue> values = new ArrayList<>(current.size());
+        for (FinancialTimeSeriesPoint point : current) {
+            FrameValue value = new FrameValue(point, issuers.get(point.getCik()));
+            FinancialTimeSeriesPoint previous = prior.get(point.getCik());
+            if (previous != null && previous.getValue() != null) {
+                value.setPriorValue(previous.getValue());
+                value.setChangePercent(percentChange(previous.getValue(), point.getValue()));
+            }
+            values.add(value);
+        }
+
+        values.sort(Comparator.comparing(FrameValue::getValue, Comparator.nullsLast(Comparator.reverseOrder())));
+        return values;
+    }
+
+    /**
+     * Fold each normalized filing into the store once its financials are committed
+     * Ordered with the other rebuild listeners ahead of response cache invalidation, and
+     * run outside the publisher's transaction in one of its own, so a failure is logged
+     * instead of failing later listeners.
+     */
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onFilingEvent(FilingEvent event) {
+        if (event.getType() != FilingEvent.Type.NORMALIZED) {
+            return;
+        }
+
+        try {
+            recordInTransaction(event.getFilingId());
+        } catch (Exception e) {
+            logger.warn("Failed to record time series for filing {}: {}", event.getFilingId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Fold a filing in within its own transaction
+     * Two filings of an issuer folded at once can both insert the same (concept, cik, frame);
+     * the loser of uk_financial_time_series_concept_cik_frame is retried once, by which time
+     * the winner's point is visible and is updated instead.
+     */
+    private int recordInTransaction(Long filingId) {
+        try {
+            return transactionTemplate.execute(status -> record(filingId));
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Time-series point of filing {} was inserted concurrently, retrying", filingId);
+            return transactionTemplate.execute(status -> record(filingId));
+        }
+    }
+
+    private static String priorFrame(String frame, String basis) {
+        if (basis == null) {
+            return null;
+        }
+        if (BASIS_YOY.equalsIgnoreCase(basis)) {
+            return CalendarFrames.previousYear(frame);
+        }
+        if (BASIS_QOQ.equalsIgnoreCase(basis)) {
+            if (CalendarFrames.YEAR.equals(CalendarFrames.kindOfFrame(frame))) {
+                throw new IllegalArgumentException("QoQ requires a quarterly or instant frame: " + frame);
+            }
+            return CalendarFrames.previousQuarter(frame);
+        }
+        throw new IllegalArgumentException("Unknown basis: " + basis);
+    }
+
+    private static BigDecimal percentChange(BigDecimal previous, BigDecimal current) {
+        if (current == null || previous.compareTo(BigDecimal.ZERO) == 0) {
+            return null;
+        }
+        return current.subtract(previous)
+                .divide(previous.abs(), 4, RoundingMode.HALF_UP)
+                .multiply(BigDecimal.valueOf(100))
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Whether the stored point came from a filing filed after this one
+     * Filings on the same day are ordered by id, so the outcome does not depend on fold order.
+     */
+    private static boolean filedLater(FinancialTimeSeriesPoint point, Filing filing) {
+        if (point.getFiledAt() == null || filing.getFiledAt() == null) {
+            return false;
+        }
+        int byDate = point.getFiledAt().compareTo(filing.getFiledAt());
+        if (byDate != 0) {
+            return byDate > 0;
+        }
+        return point.getFilingId() != null && filing.getId() != null && point.getFilingId() > filing.getId();
+    }
+
+    private static BigDecimal quality(NormalizedFinancial financial) {
+        return financial.getQualityScore() != null ? financial.getQualityScore() : BigDecimal.ZERO;
+    }
+
+    private static class FramedValue {
+        private final String frame;
+        private final NormalizedFinancial financial;
+
+        FramedValue(String frame, NormalizedFinancial financial) {
+            this.frame = frame;
+            this.financial = financial;
+        }
+    }
+
+    // Result classes
+
+    public static class SeriesPoint {
+        private String frame;
+        private LocalDate periodStart;
+        private LocalDate periodEnd;
+        private BigDecimal value;
+        private String unit;
+        private Long filingId;
+
+        public SeriesPoint() {}
+
+        public SeriesPoint(FinancialTimeSeriesPoint point) {
+            this.frame = point.getFrame();
+            this.periodStart = point.getPeriodStart();
+            this.periodEnd = point.getPeriodEnd();
+            this.value = point.getValue();
+            this.unit = point.getUnit();
+            this.filingId = point.getFilingId();
+        }
+
+        // Getters and Setters
+        public String getFrame() { return frame; }
+        public void setFrame(String frame) { this.frame = frame; }
+
+        public LocalDate getPeriodStart() { return periodStart; }
+        public void setPeriodStart(LocalDate periodStart) { this.periodStart = periodStart; }
+
+        public LocalDate getPeriodEnd() { return periodEnd; }
+        public void setPeriodEnd(LocalDate periodEnd) { this.periodEnd = periodEnd; }
+
+        public BigDecimal getValue() { return value; }
+        public void setValue(BigDecimal value) { this.value = value; }
+
+        public String getUnit() { return unit; }
+        public void setUnit(String unit) { this.unit = unit; }
+
+        public Long getFilingId() { return filingId; }
+        public void setFilingId(Long filingId) { this.filingId = filingId; }
+    }
+
+    public static class FrameValue {
+        private String cik;
+        private String ticker;
+        private String companyName;
+        private LocalDate periodEnd;
+        private BigDecimal value;
+        private BigDecimal priorValue;
+        private BigDecimal changePercent;
+        private String unit;
+        private Long filingId;
+
+        public FrameValue() {}
+
+        public FrameValue(FinancialTimeSeriesPoint point, Issuer issuer) {
+            this.cik = point.getCik();
+            this.periodEnd = point.getPeriodEnd();
+            this.value = point.getValue();
+            this.unit = point.getUnit();
+            this.filingId = point.getFilingId();
+            if (issuer != null) {
+                this.ticker = issuer.getTicker();
+                this.companyName = issuer.getName();
+            }
+        }
+
+        // Getters and Setters
+        public String getCik() { return cik; }
+        public void setCik(String cik) { this.cik = cik; }
+
+        public String getTicker() { return ticker; }
+        public void setTicker(String ticker) { this.ticker = ticker; }
+
+        public String getCompanyName() { return companyName; }
+        public void setCompanyName(String companyName) { this.companyName = companyName; }
+
+        public LocalDate getPeriodEnd() { return periodEnd; }
+        public void setPeriodEnd(LocalDate periodEnd) { this.periodEnd = periodEnd; }
+
+        public BigDecimal getValue() { return value; }
+        public void setValue(BigDecimal value) { this.value = value; }
+
+        public BigDecimal getPriorValue() { return priorValue; }
+        public void setPriorValue(BigDecimal priorValue) { this.priorValue = priorValue; }
+
+        public BigDecimal getChangePercent() { return changePercent; }
+        public void setChangePercent(BigDecimal changePercent) { this.changePercent = changePercent; }
+
+        public String getUnit() { return unit; }
+        public void setUnit(String unit) { this.unit = unit; }
+
+        public Long getFilingId() { return filingId; }
+        public void setFilingId(Long filingId) { this.filingId = filingId; }
+    }
+}
@@ -0,0 +1,404 @@
+package com.stockdelta.common.service;
+
+import com.stockdelta.common.config.ExecutorConfig;
+import com.stockdelta.common.config.InFlightConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Keyed single-flight registry for expensive per-filing work
+ * Callers asking for the same operation and key while it is running share the
+ * leader's result. Within a JVM the result itself is shared; across replicas a
+ * Redis lease makes followers wait for the holder and then read what it stored.
+ * The holder announces the release on a pub/sub channel, so followers are woken
+ * rather than polling; a lease that expires unannounced ends the wait at its TTL.
+ * Redis errors fail open, so coalescing degrades to per-replica rather than blocking work.
+ */
+@Component
+public class InFlightRegistry implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(InFlightRegistry.class);
+
+    private static final String LEASE_PREFIX = "inflight:";
+    private static final String COALESCED_METRIC = "stockdelta.inflight.coalesced";
+    private static final String EXECUTED_METRIC = "stockdelta.inflight.executed";
+
+    // Deletes the lease if this replica still holds it and announces the release
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+            "redis.call('del', KEYS[1]) redis.call('publish', ARGV[2], ARGV[3]) return 1 " +
+            "else return 0 end",
+            Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final InFlightConfig config;
+    private final MeterRegistry meterRegistry;
+    private final Scheduler blockingScheduler;
+    private final String ownerId = UUID.randomUUID().toString();
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Mono<?>> inFlightMonos = new ConcurrentHashMap<>();
+    private final Map<String, Set<CompletableFuture<Void>>> releaseWatchers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public InFlightRegistry(RedisTemplate<String, Object> redisTemplate,
+                            InFlightConfig config,
+                            MeterRegistry meterRegistry,
+                            @Qualifier(ExecutorConfig.BLOCKING_SCHEDULER) Scheduler blockingScheduler,
+                            RedisMessageListenerContainer listenerContainer) {
+        this.redisTemplate = redisTemplate;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.blockingScheduler = blockingScheduler;
+
+        listenerContainer.addMessageListener(this, new ChannelTopic(config.getReleaseChannel()));
+    }
+
+    /**
+     * Run blocking work once per key
+     * Call it outside a transaction: a follower waiting on another replica would hold
+     * its connection for as long as the wait lasts.
+     *
+     * @param operation   Operation name, used in the key and as the metric tag
+     * @param key         Entity key, usually the filing ID
+     * @param work        The computation
+     * @param afterRemote Reads the stored result after another replica finished; null re-runs work
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Object key, Supplier<T> work, Supplier<T> afterRemote) {
+        String id = operation + ":" + key;
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(id, mine);
+
+        if (existing != null) {
+            recordCoalesced(operation, "local");
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw e;
+            }
+        }
+
+        boolean leader = false;
+        try {
+            T result;
+            if (tryAcquire(id)) {
+                leader = true;
+                recordExecuted(operation);
+                result = work.get();
+            } else {
+                result = awaitRemote(id, operation, work, afterRemote);
+            }
+            finish(id, mine, leader, result);
+            return result;
+        } catch (RuntimeException e) {
+            if (leader) {
+                release(id);
+            }
+            inFlight.remove(id, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Hand the result to followers and release the lease
+     * Inside a transaction this waits for the commit, since followers read what the
+     * work wrote; a rollback fails local followers and frees the lease for a re-run.
+     * The entry stays registered until then, so callers arriving before the commit
+     * join this run instead of starting another.
+     */
+    private void finish(String id, CompletableFuture<Object> mine, boolean leader, Object result) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (leader) {
+                release(id);
+            }
+            inFlight.remove(id, mine);
+            mine.complete(result);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (leader) {
+                    release(id);
+                }
+                inFlight.remove(id, mine);
+                if (status == STATUS_COMMITTED) {
+                    mine.complete(result);
+                } else {
+                    mine.completeExceptionally(new IllegalStateException("Transaction of " + id + " rolled back"));
+                }
+            }
+        });
+    }
+
+    /**
+     * Run reactive work once per key; the shared Mono is replayed to every concurrent subscriber
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> executeMono(String operation, Object key,
+                                   Supplier<Mono<T>> work, Supplier<Mono<T>> afterRemote) {
+        String id = operation + ":" + key;
+        return Mono.defer(() -> {
+            boolean[] created = {false};
+            Mono<?> shared = inFlightMonos.computeIfAbsent(id, k -> {
+                created[0] = true;
+                return leaseMono(id, operation, work, afterRemote)
+                        .doFinally(signal -> inFlightMonos.remove(id))
+                        .cache();
+            });
+
+            if (!created[0]) {
+                recordCoalesced(operation, "local");
+            }
+            return (Mono<T>) shared;
+        });
+    }
+
+    /**
+     * Claim a key for work that runs as part of a larger batch
+     * While the claim is open, execute and executeMono callers for the key follow it and
+     * receive what it is completed with.
+     *
+     * @return The claim, or empty if the key is already in flight here or on another
+     *         replica; the caller then goes through executeMono to follow that run
+     */
+    public <T> Mono<Claim<T>> claim(String operation, Object key) {
+        String id = operation + ":" + key;
+        return Mono.defer(() -> {
+            Sinks.One<T> sink = Sinks.one();
+            Mono<T> shared = sink.asMono();
+            if (inFlightMonos.putIfAbsent(id, shared) != null) {
+                return Mono.empty();
+            }
+
+            return Mono.fromCallable(() -> tryAcquire(id))
+                    .subscribeOn(blockingScheduler)
+                    .flatMap(acquired -> {
+                        if (!acquired) {
+                            inFlightMonos.remove(id, shared);
+                            return Mono.<Claim<T>>empty();
+                        }
+                        recordExecuted(operation);
+                        return Mono.just(new Claim<>(id, sink, shared));
+                    });
+        });
+    }
+
+    /**
+     * A key held by batch work; complete or fail it exactly once, later calls are ignored
+     */
+    public final class Claim<T> {
+
+        private final String id;
+        private final Sinks.One<T> sink;
+        private final Mono<T> shared;
+
+        private Claim(String id, Sinks.One<T> sink, Mono<T> shared) {
+            this.id = id;
+            this.sink = sink;
+            this.shared = shared;
+        }
+
+        public void complete(T result) {
+            settle();
+            sink.tryEmitValue(result);
+        }
+
+        public void fail(Throwable error) {
+            settle();
+            sink.tryEmitError(error);
+        }
+
+        private void settle() {
+            if (inFlightMonos.remove(id, shared)) {
+                blockingScheduler.schedule(() -> release(id));
+            }
+        }
+    }
+
+    private <T> T awaitRemote(String id, String operation, Supplier<T> work, Supplier<T> afterRemote) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            logger.warn("Waiting for remote lease {} inside a transaction holds its connection", id);
+        }
+
+        recordCoalesced(operation, "remote");
+        // Watch before reading the lease, so a release in between is not missed
+        CompletableFuture<Void> released = watchRelease(id);
+        try {
+            long waitMs = waitMs(id);
+            if (waitMs > 0) {
+                released.get(waitMs, TimeUnit.MILLISECONDS);
+            }
+        } catch (TimeoutException e) {
+            logger.warn("Timed out waiting for remote lease {}, running locally", id);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Never completed exceptionally
+        } finally {
+            unwatchRelease(id, released);
+        }
+
+        if (afterRemote != null) {
+            return afterRemote.get();
+        }
+        recordExecuted(operation);
+        return work.get();
+    }
+
+    private <T> Mono<T> leaseMono(String id, String operation,
+                                  Supplier<Mono<T>> work, Supplier<Mono<T>> afterRemote) {
+        return Mono.fromCallable(() -> tryAcquire(id))
+                .subscribeOn(blockingScheduler)
+                .flatMap(acquired -> {
+                    if (acquired) {
+                        recordExecuted(operation);
+                        return work.get()
+                                .doFinally(signal -> blockingScheduler.schedule(() -> release(id)));
+                    }
+
+                    recordCoalesced(operation, "remote");
+                    return awaitRelease(id)
+                            .then(Mono.defer(() -> {
+                                if (afterRemote != null) {
+                                    return afterRemote.get();
+                                }
+                                recordExecuted(operation);
+                                return work.get();
+                            }));
+                });
+    }
+
+    private Mono<Void> awaitRelease(String id) {
+        return Mono.defer(() -> {
+            CompletableFuture<Void> released = watchRelease(id);
+            return Mono.fromCallable(() -> waitMs(id))
+                    .subscribeOn(blockingScheduler)
+                    .flatMap(waitMs -> waitMs <= 0
+                            ? Mono.<Void>empty()
+                            : Mono.fromFuture(released)
+                                    .timeout(Duration.ofMillis(waitMs))
+                                    .onErrorResume(TimeoutException.class, e -> {
+                                        logger.warn("Timed out waiting for remote lease {}, running locally", id);
+                                        return Mono.empty();
+                                    }))
+                    .doFinally(signal -> unwatchRelease(id, released));
+        });
+    }
+
+    /**
+     * Wake the local followers of a lease another replica released
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String id = new String(message.getBody(), StandardCharsets.UTF_8);
+        Set<CompletableFuture<Void>> watchers = releaseWatchers.remove(id);
+        if (watchers != null) {
+            watchers.forEach(released -> released.complete(null));
+        }
+    }
+
+    private CompletableFuture<Void> watchRelease(String id) {
+        CompletableFuture<Void> released = new CompletableFuture<>();
+        releaseWatchers.compute(id, (k, watchers) -> {
+            Set<CompletableFuture<Void>> set = watchers != null ? watchers : ConcurrentHashMap.newKeySet();
+            set.add(released);
+            return set;
+        });
+        return released;
+    }
+
+    private void unwatchRelease(String id, CompletableFuture<Void> released) {
+        releaseWatchers.computeIfPresent(id, (k, watchers) -> {
+            watchers.remove(released);
+            return watchers.isEmpty() ? null : watchers;
+        });
+    }
+
+    private boolean tryAcquire(String id) {
+        if (!config.isDistributed()) {
+            return true;
+        }
+        try {
+            Boolean acquired = redisTemplate.opsForValue()
+                    .setIfAbsent(LEASE_PREFIX + id, ownerId, config.getLeaseTtlMs(), TimeUnit.MILLISECONDS);
+            return !Boolean.FALSE.equals(acquired);
+        } catch (Exception e) {
+            logger.warn("Redis lease unavailable for {}, running without it: {}", id, e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * How long to wait for another replica's lease: until it expires, at most the remote wait
+     *
+     * @return 0 if the lease is no longer held
+     */
+    private long waitMs(String id) {
+        try {
+            Long ttl = redisTemplate.getExpire(LEASE_PREFIX + id, TimeUnit.MILLISECONDS);
+            if (ttl == null || ttl == -2) {
+                return 0;
+            }
+            return ttl < 0 ? config.getRemoteWaitMs() : Math.min(ttl, config.getRemoteWaitMs());
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    private void release(String id) {
+        if (!config.isDistributed()) {
+            return;
+        }
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(LEASE_PREFIX + id),
+                    ownerId, config.getReleaseChannel(), id);
+        } catch (Exception e) {
+            logger.warn("Failed to release Redis lease for {}: {}", id, e.getMessage());
+        }
+    }
+
+    private void recordCoalesced(String operation, String scope) {
+        logger.debug("Coalesced {} call ({})", operation, scope);
+        meterRegistry.counter(COALESCED_METRIC, "operation", operation, "scope", scope).increment();
+    }
+
+    private void recordExecuted(String operation) {
+        meterRegistry.counter(EXECUTED_METRIC, "operation", operation).increment();
+    }
+}
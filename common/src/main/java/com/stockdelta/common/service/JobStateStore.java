@@ -0,0 +1,58 @@
+package com.stockdelta.common.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockdelta.common.config.AnalysisConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shares background job state between replicas through Redis
+ * A job's state is written as JSON on every transition and expires after the job
+ * retention, so a status request answered by any replica sees the job. Redis errors
+ * fail open: the job stays visible on the replica running it.
+ */
+@Component
+public class JobStateStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobStateStore.class);
+
+    private static final String KEY_PREFIX = "job:";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final AnalysisConfig analysisConfig;
+
+    @Autowired
+    public JobStateStore(RedisTemplate<String, Object> redisTemplate,
+                         ObjectMapper objectMapper,
+                         AnalysisConfig analysisConfig) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.analysisConfig = analysisConfig;
+    }
+
+    public void put(String jobId, Object state) {
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + jobId, objectMapper.writeValueAsString(state),
+                    analysisConfig.getJobRetentionMinutes(), TimeUnit.MINUTES);
+        } catch (Exception e) {
+            logger.warn("Failed to share state of job {}: {}", jobId, e.getMessage());
+        }
+    }
+
+    public <T> Optional<T> get(String jobId, Class<T> type) {
+        try {
+            Object stored = redisTemplate.opsForValue().get(KEY_PREFIX + jobId);
+            return stored != null ? Optional.of(objectMapper.readValue(stored.toString(), type)) : Optional.empty();
+        } catch (Exception e) {
+            logger.warn("Failed to read shared state of job {}: {}", jobId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
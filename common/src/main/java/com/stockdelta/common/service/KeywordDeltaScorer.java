@@ -0,0 +1,28 @@
+package com.stockdelta.common.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keyword dictionary matches of a fragment, using the section's dictionary when one is configured
+ */
+@Component
+public class KeywordDeltaScorer implements DeltaScorer {
+
+    private final KeywordScoringEngine scoringEngine;
+
+    @Autowired
+    public KeywordDeltaScorer(KeywordScoringEngine scoringEngine) {
+        this.scoringEngine = scoringEngine;
+    }
+
+    @Override
+    public String name() {
+        return "keyword";
+    }
+
+    @Override
+    public double score(Fragment fragment) {
+        return scoringEngine.keywordScore(fragment.getSection(), fragment.getText());
+    }
+}
@@ -0,0 +1,64 @@
+package com.stockdelta.common.service;
+
+import com.stockdelta.common.config.ScoringConfig;
+import com.stockdelta.common.text.KeywordAutomaton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Scores diff fragments against the configured keyword dictionaries
+ * Dictionaries are compiled into Aho-Corasick automata once at startup, so each
+ * fragment is scanned a single time regardless of dictionary size.
+ */
+@Component
+public class KeywordScoringEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeywordScoringEngine.class);
+
+    private final ScoringConfig scoringConfig;
+    private final KeywordAutomaton defaultAutomaton;
+    private final Map<String, KeywordAutomaton> sectionAutomata = new HashMap<>();
+
+    @Autowired
+    public KeywordScoringEngine(ScoringConfig scoringConfig) {
+        this.scoringConfig = scoringConfig;
+        this.defaultAutomaton = KeywordAutomaton.compile(scoringConfig.getKeywords());
+
+        scoringConfig.getSectionKeywords().forEach((section, keywords) ->
+                sectionAutomata.put(section, KeywordAutomaton.compile(keywords)));
+
+        logger.info("Compiled {} default scoring keywords and {} section dictionaries",
+                defaultAutomaton.size(), sectionAutomata.size());
+    }
+
+    /**
+     * Calculate importance score for a text fragment
+     *
+     * @param section Section type used to pick the dictionary; null uses the default dictionary
+     * @param text    Fragment text
+     * @return Score between 0 and the configured maximum
+     */
+    public double score(String section, String text) {
+        double score = keywordScore(section, text);
+
+        // Length factor (longer changes are often more significant)
+        score += Math.log10(text.length() + 1) * scoringConfig.getLengthWeight();
+
+        return Math.min(score, scoringConfig.getMaxScore());
+    }
+
+    /**
+     * Sum of the dictionary weights matched in a fragment, without the length factor or cap
+     */
+    public double keywordScore(String section, String text) {
+        KeywordAutomaton automaton = section != null
+                ? sectionAutomata.getOrDefault(section, defaultAutomaton)
+                : defaultAutomaton;
+        return automaton.score(text);
+    }
+}
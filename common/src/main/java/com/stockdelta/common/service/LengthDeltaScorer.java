@@ -0,0 +1,29 @@
+package com.stockdelta.common.service;
+
+import com.stockdelta.common.config.ScoringConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Length factor of a fragment; longer changes are often more significant
+ */
+@Component
+public class LengthDeltaScorer implements DeltaScorer {
+
+    private final ScoringConfig scoringConfig;
+
+    @Autowired
+    public LengthDeltaScorer(ScoringConfig scoringConfig) {
+        this.scoringConfig = scoringConfig;
+    }
+
+    @Override
+    public String name() {
+        return "length";
+    }
+
+    @Override
+    public double score(Fragment fragment) {
+        return Math.log10(fragment.getText().length() + 1) * scoringConfig.getLengthWeight();
+    }
+}
@@ -0,0 +1,360 @@
+package com.stockdelta.common.service;
+
+import com.stockdelta.common.config.MetricsConfig;
+import com.stockdelta.common.entity.Issuer;
+import com.stockdelta.common.entity.MetricDistribution;
+import com.stockdelta.common.entity.MetricDistribution.MetricDistributionId;
+import com.stockdelta.common.repository.IssuerRepository;
+import com.stockdelta.common.repository.MetricDistributionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-metric distributions of QoQ/YoY changes, overall and per SIC code, for z-scores
+ * Each stored change enters the distribution of its metric and basis across all issuers
+ * and within the issuer's SIC code. Welford aggregates are updated in place by single
+ * upsert statements, so concurrent writers never lose samples, and a recomputed metric
+ * removes its old value before adding the new one. Scoring reads an in-memory copy of
+ * the table, so a z-score or percentile costs no query.
+ *
+ * A distribution with too few samples falls back to the overall one, then to fixed
+ * thresholds on the size of the change.
+ */
+@Service
+@Transactional
+public class MetricDistributionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricDistributionService.class);
+
+    private static final Set<String> CHANGE_BASES = Set.of("QoQ", "YoY");
+
+    // Chan et al. pairwise merge of one sample into the stored aggregate
+    private static final String ADD_SQL =
+            "INSERT INTO metric_distributions (source, metric, basis, sic, sample_count, mean, m2, updated_at) " +
+            "VALUES (?, ?, ?, ?, 1, ?, 0, ?) " +
+            "ON CONFLICT (source, metric, basis, sic) DO UPDATE SET " +
+            "sample_count = metric_distributions.sample_count + 1, " +
+            "mean = metric_distributions.mean + (EXCLUDED.mean - metric_distributions.mean) " +
+            "/ (metric_distributions.sample_count + 1), " +
+            "m2 = metric_distributions.m2 + (EXCLUDED.mean - metric_distributions.mean) " +
+            "* (EXCLUDED.mean - metric_distributions.mean) " +
+            "* metric_distributions.sample_count / (metric_distributions.sample_count + 1), " +
+            "updated_at = EXCLUDED.updated_at";
+
+    // Inverse Welford step; the right-hand sides all see the pre-update row
+    private static final String REMOVE_SQL =
+            "UPDATE metric_distributions SET " +
+            "sample_count = sample_count - 1, " +
+            "mean = CASE WHEN sample_count <= 1 THEN 0 ELSE (sample_count * mean - ?) / (sample_count - 1) END, " +
+            "m2 = CASE WHEN sample_count <= 1 THEN 0 " +
+            "ELSE GREATEST(0, m2 - (? - mean) * (? - mean) * sample_count / (sample_count - 1)) END, " +
+            "updated_at = ? " +
+            "WHERE source = ? AND metric = ? AND basis = ? AND sic = ? AND sample_count > 0";
+
+    private static final String DELETE_SOURCE_SQL = "DELETE FROM metric_distributions WHERE source = :source";
+
+    // %1$s is the metric table; sic is '*' for the overall rows and the issuer's SIC otherwise
+    private static final String REBUILD_SQL =
+            "INSERT INTO metric_distributions (source, metric, basis, sic, sample_count, mean, m2, updated_at) " +
+            "SELECT :source, s.metric, s.basis, s.sic, COUNT(*), AVG(s.x), COALESCE(VAR_POP(s.x), 0) * COUNT(*), :now " +
+            "FROM (" +
+            "  SELECT m.metric, m.basis, '*' AS sic, LEAST(GREATEST(m.value, -:clamp), :clamp) AS x " +
+            "  FROM %1$s m WHERE m.basis IN ('QoQ', 'YoY') AND m.value IS NOT NULL " +
+            "  UNION ALL " +
+            "  SELECT m.metric, m.basis, i.sic, LEAST(GREATEST(m.value, -:clamp), :clamp) " +
+            "  FROM %1$s m JOIN filings f ON f.id = m.filing_id JOIN issuers i ON i.cik = f.cik " +
+            "  WHERE m.basis IN ('QoQ', 'YoY') AND m.value IS NOT NULL AND i.sic IS NOT NULL" +
+            ") s GROUP BY s.metric, s.basis, s.sic";
+
+    /**
+     * Metric tables whose changes are tracked
+     */
+    public enum Source {
+        XBRL("xbrl", "xbrl_metrics"),
+        NORMALIZED("normalized", "normalized_metrics");
+
+        private final String key;
+        private final String table;
+
+        Source(String key, String table) {
+            this.key = key;
+            this.table = table;
+        }
+
+        public String getKey() { return key; }
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final MetricDistributionRepository distributionRepository;
+    private final IssuerRepository issuerRepository;
+    private final MetricsConfig config;
+
+    // Null until first loaded
+    private volatile Map<MetricDistributionId, MetricDistribution> snapshot;
+    private volatile long snapshotLoadedAt;
+    private volatile boolean snapshotStale = true;
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
+    @Autowired
+    public MetricDistributionService(NamedParameterJdbcTemplate jdbcTemplate,
+                                     MetricDistributionRepository distributionRepository,
+                                     IssuerRepository issuerRepository,
+                                     MetricsConfig config) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.distributionRepository = distributionRepository;
+        this.issuerRepository = issuerRepository;
+        this.config = config;
+    }
+
+    /**
+     * Apply rewritten metric values of one filing to the distributions
+     * Abs values are ignored; a change with a previous value replaces that sample.
+     *
+     * @param cik Issuer CIK, used to find the SIC distribution
+     */
+    public void recordChanges(Source source, String cik, List<Change> changes) {
+        String sic = sicOf(cik);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> removals = new ArrayList<>();
+        List<Object[]> additions = new ArrayList<>();
+
+        for (Change change : changes) {
+            if (!CHANGE_BASES.contains(change.getBasis())) {
+                continue;
+            }
+            for (String group : sic != null ? List.of(MetricDistribution.ALL_SIC, sic) : List.of(MetricDistribution.ALL_SIC)) {
+                if (change.getPreviousValue() != null) {
+                    double x = clamp(change.getPreviousValue());
+                    removals.add(new Object[]{x, x, x, now,
+                            source.getKey(), change.getMetric(), change.getBasis(), group});
+                }
+                if (change.getValue() != null) {
+                    additions.add(new Object[]{source.getKey(), change.getMetric(), change.getBasis(), group,
+                            clamp(change.getValue()), now});
+                }
+            }
+        }
+
+        if (!removals.isEmpty()) {
+            jdbcTemplate.getJdbcOperations().batchUpdate(REMOVE_SQL, removals);
+        }
+        if (!additions.isEmpty()) {
+            jdbcTemplate.getJdbcOperations().batchUpdate(ADD_SQL, additions);
+        }
+        snapshotStale = true;
+    }
+
+    /**
+     * Recompute a source's distributions from its metric table in one pass
+     * Used after bulk rewrites, whose replaced values are not known individually.
+     */
+    public void rebuild(Source source) {
+        long start = System.nanoTime();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("source", source.getKey())
+                .addValue("clamp", config.getChangeClampPercent())
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+
+        jdbcTemplate.update(DELETE_SOURCE_SQL, params);
+        int rows = jdbcTemplate.update(String.format(REBUILD_SQL, source.table), params);
+        snapshotStale = true;
+
+        logger.info("Rebuilt {} {} metric distributions in {}ms", rows, source.getKey(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Scorer for one issuer's changes; resolves the issuer's SIC once
+     */
+    @Transactional(readOnly = true)
+    public Scorer scorer(Source source, String cik) {
+        return new Scorer(source, sicOf(cik), distributions());
+    }
+
+    /**
+     * Fixed thresholds on the absolute percentage change, used without enough samples
+     */
+    static double thresholdScore(BigDecimal value) {
+        double absValue = Math.abs(value.doubleValue());
+
+        if (absValue > 50) return 3.0;
+        if (absValue > 30) return 2.5;
+        if (absValue > 20) return 2.0;
+        if (absValue > 10) return 1.5;
+        return absValue / 10.0;
+    }
+
+    /**
+     * The in-memory copy of the table
+     * Until the first load every caller waits for it; after that one thread reloads a stale
+     * copy while the others keep scoring against the one they have.
+     */
+    private Map<MetricDistributionId, MetricDistribution> distributions() {
+        Map<MetricDistributionId, MetricDistribution> current = snapshot;
+        if (current != null && !snapshotExpired()) {
+            return current;
+        }
+
+        if (current == null) {
+            snapshotLock.lock();
+        } else if (!snapshotLock.tryLock()) {
+            return current;
+        }
+        try {
+            if (snapshot == null || snapshotExpired()) {
+                // Cleared before reading, so a write committed meanwhile marks the new copy stale
+                snapshotStale = false;
+                Map<MetricDistributionId, MetricDistribution> loaded = new HashMap<>();
+                try {
+                    for (MetricDistribution distribution : distributionRepository.findAll()) {
+                        loaded.put(distribution.getId(), distribution);
+                    }
+                } catch (RuntimeException e) {
+                    snapshotStale = true;
+                    throw e;
+                }
+                snapshot = loaded;
+                snapshotLoadedAt = System.nanoTime();
+            }
+            return snapshot;
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    private boolean snapshotExpired() {
+        return snapshotStale
+                || System.nanoTime() - snapshotLoadedAt > TimeUnit.SECONDS.toNanos(config.getDistributionRefreshSeconds());
+    }
+
+    private String sicOf(String cik) {
+        if (cik == null) {
+            return null;
+        }
+        return issuerRepository.findByCik(cik).map(Issuer::getSic).orElse(null);
+    }
+
+    private double clamp(BigDecimal value) {
+        double limit = config.getChangeClampPercent();
+        return Math.max(-limit, Math.min(limit, value.doubleValue()));
+    }
+
+    /**
+     * Standard normal CDF (Abramowitz and Stegun 26.2.17, error below 1e-7)
+     */
+    private static double normalCdf(double z) {
+        double t = 1.0 / (1.0 + 0.2316419 * Math.abs(z));
+        double poly = t * (0.319381530 + t * (-0.356563782 + t * (1.781477937
+                + t * (-1.821255978 + t * 1.330274429))));
+        double tail = Math.exp(-z * z / 2.0) / Math.sqrt(2.0 * Math.PI) * poly;
+        return z >= 0 ? 1.0 - tail : tail;
+    }
+
+    /**
+     * Scores changes of one issuer against the loaded distributions
+     */
+    public class Scorer {
+        private final Source source;
+        private final String sic;
+        private final Map<MetricDistributionId, MetricDistribution> distributions;
+
+        Scorer(Source source, String sic, Map<MetricDistributionId, MetricDistribution> distributions) {
+            this.source = source;
+            this.sic = sic;
+            this.distributions = distributions;
+        }
+
+        /**
+         * Score a percentage change: the industry distribution if it has enough samples,
+         * then the overall one, then fixed thresholds (without a percentile)
+         */
+        public Score score(String metric, String basis, BigDecimal change) {
+            MetricDistribution distribution = null;
+            if (sic != null) {
+                distribution = usable(new MetricDistributionId(source.getKey(), metric, basis, sic));
+            }
+            if (distribution == null) {
+                distribution = usable(new MetricDistributionId(
+                        source.getKey(), metric, basis, MetricDistribution.ALL_SIC));
+            }
+            if (distribution == null) {
+                return new Score(thresholdScore(change), null, null);
+            }
+
+            double z = (clamp(change) - distribution.getMean()) / distribution.getStandardDeviation();
+            return new Score(Math.abs(z), normalCdf(z) * 100.0, distribution.getId().getSic());
+        }
+
+        private MetricDistribution usable(MetricDistributionId id) {
+            MetricDistribution distribution = distributions.get(id);
+            if (distribution == null
+                    || distribution.getSampleCount() < config.getDistributionMinSamples()
+                    || distribution.getStandardDeviation() == 0.0) {
+                return null;
+            }
+            return distribution;
+        }
+    }
+
+    /**
+     * A stored metric value of a filing, with the value it replaced
+     */
+    public static class Change {
+        private final String metric;
+        private final String basis;
+        private final BigDecimal previousValue;
+        private final BigDecimal value;
+
+        public Change(String metric, String basis, BigDecimal previousValue, BigDecimal value) {
+            this.metric = metric;
+            this.basis = basis;
+            this.previousValue = previousValue;
+            this.value = value;
+        }
+
+        public String getMetric() { return metric; }
+        public String getBasis() { return basis; }
+        public BigDecimal getPreviousValue() { return previousValue; }
+        public BigDecimal getValue() { return value; }
+    }
+
+    /**
+     * Magnitude of a change in standard deviations, with its percentile when scored
+     * against a distribution
+     */
+    public static class Score {
+        private final double zScore;
+        private final Double percentile;
+        private final String sic;
+
+        public Score(double zScore, Double percentile, String sic) {
+            this.zScore = zScore;
+            this.percentile = percentile;
+            this.sic = sic;
+        }
+
+        public double getZScore() { return zScore; }
+
+        // Percent of the distribution below the change; null for threshold scores
+        public Double getPercentile() { return percentile; }
+
+        // SIC of the distribution used, * for all issuers, null for threshold scores
+        public String getSic() { return sic; }
+    }
+}
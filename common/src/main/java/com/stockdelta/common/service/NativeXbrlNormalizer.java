@@ -0,0 +1,141 @@
+package com.stockdelta.common.service;
+
+import com.stockdelta.common.config.ExecutorConfig;
+import com.stockdelta.common.config.NormalizationConfig;
+import com.stockdelta.common.entity.Filing;
+import com.stockdelta.common.entity.NormalizedFinancial;
+import com.stockdelta.common.parser.XbrlInstance;
+import com.stockdelta.common.parser.XbrlInstanceParser;
+import com.stockdelta.common.sec.SecApiClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * In-process normalizer of XBRL instance and inline XBRL documents
+ * Fetches the document through the SEC client (and its document cache), reads it with
+ * XbrlInstanceParser and maps us-gaap facts to FAC concepts through xbrl_tag_mapping,
+ * producing the same rows as the Arelle service without a call to it. DQC validation
+ * stays with the Arelle service.
+ */
+@Component
+public class NativeXbrlNormalizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(NativeXbrlNormalizer.class);
+
+    public static final String ENGINE = "native";
+
+    // Bump when parsing or mapping changes the output for the same document
+    public static final String RULES_VERSION = "native-2";
+
+    private static final String SOURCE = "native-fac";
+
+    private final SecApiClient secApiClient;
+    private final XbrlInstanceParser parser;
+    private final FacMappingService facMappingService;
+    private final NormalizationConfig config;
+    private final Scheduler blockingScheduler;
+
+    @Autowired
+    public NativeXbrlNormalizer(SecApiClient secApiClient,
+                                XbrlInstanceParser parser,
+                                FacMappingService facMappingService,
+                                NormalizationConfig config,
+                                @Qualifier(ExecutorConfig.BLOCKING_SCHEDULER) Scheduler blockingScheduler) {
+        this.secApiClient = secApiClient;
+        this.parser = parser;
+        this.facMappingService = facMappingService;
+        this.config = config;
+        this.blockingScheduler = blockingScheduler;
+    }
+
+    /**
+     * Whether a filing is normalized in-process under the current configuration
+     */
+    public boolean handles(Filing filing) {
+        return ENGINE.equalsIgnoreCase(config.getEngine())
+                && filing.getForm() != null
+                && config.getNativeForms().stream().anyMatch(form -> form.equalsIgnoreCase(filing.getForm()));
+    }
+
+    /**
+     * Fetch and normalize a filing's instance or inline XBRL document
+     * Fails when the document cannot be read or yields no mapped facts, so the caller
+     * can fall back to the Arelle service.
+     */
+    public Mono<List<NormalizedFinancial>> normalize(Filing filing, String documentUrl) {
+        return secApiClient.fetchDocument(documentUrl)
+                .publishOn(blockingScheduler)
+                .map(document -> {
+                    long start = System.nanoTime();
+                    XbrlInstance instance;
+                    try {
+                        instance = parser.parse(document);
+                    } catch (Exception e) {
+                        throw new IllegalStateException("Unreadable XBRL document " + documentUrl + ": "
+                                + e.getMessage(), e);
+                    }
+
+                    List<NormalizedFinancial> financials = map(filing, instance);
+                    if (financials.isEmpty()) {
+                        throw new IllegalStateException("No FAC concepts in " + instance.getFacts().size()
+                                + " facts of " + documentUrl);
+                    }
+
+                    logger.info("Natively normalized {} concepts from {} facts for filing {} in {}ms",
+                            financials.size(), instance.getFacts().size(), filing.getId(),
+                            (System.nanoTime() - start) / 1_000_000);
+                    return financials;
+                });
+    }
+
+    /**
+     * Map the us-gaap facts of an instance to FAC concepts
+     */
+    List<NormalizedFinancial> map(Filing filing, XbrlInstance instance) {
+        List<NormalizedFinancial> financials = new ArrayList<>();
+
+        for (XbrlInstance.Fact fact : instance.getFacts()) {
+            // Only US-GAAP concepts map to FAC, as in the Arelle service
+            String namespace = fact.getNamespace() != null ? fact.getNamespace().toLowerCase(Locale.ROOT) : "";
+            if (!namespace.contains("us-gaap") && !namespace.contains("fasb")) {
+                continue;
+            }
+
+            FacTagResolver.Mapping mapping = facMappingService.resolve(fact.getName(), "us-gaap");
+            if (mapping == null) {
+                continue;
+            }
+
+            XbrlInstance.Context context = instance.getContext(fact.getContextRef());
+
+            NormalizedFinancial financial = new NormalizedFinancial();
+            financial.setFilingId(filing.getId());
+            financial.setConcept(mapping.getConcept());
+            financial.setValue(fact.getValue());
+            financial.setContextRef(fact.getContextRef());
+            financial.setUnit(instance.getUnit(fact.getUnitRef()));
+            financial.setPeriodType(context != null ? context.getPeriodType() : "unknown");
+            if (context != null) {
+                financial.setStartDate(context.getStartDate());
+                financial.setEndDate(context.getPeriodEnd());
+            }
+            financial.setDimensional(context != null && context.isDimensional());
+            financial.setQualityScore(mapping.getConfidenceScore() != null
+                    ? mapping.getConfidenceScore() : BigDecimal.ONE);
+            financial.setSource(SOURCE);
+            financials.add(financial);
+        }
+
+        return financials;
+    }
+}
@@ -0,0 +1,245 @@
+package com.stockdelta.common.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockdelta.common.client.ArelleNormalizationClient;
+import com.stockdelta.common.config.ExecutorConfig;
+import com.stockdelta.common.config.NormalizationConfig;
+import com.stockdelta.common.entity.Filing;
+import com.stockdelta.common.entity.NormalizationCacheEntry.NormalizationCacheKey;
+import com.stockdelta.common.entity.NormalizationState;
+import com.stockdelta.common.repository.NormalizationCacheRepository;
+import com.stockdelta.common.repository.NormalizationStateRepository;
+import com.stockdelta.common.sec.FilingIndexResolver;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cache of normalization service responses keyed by instance document and rules version
+ * EDGAR never changes an accepted filing's files, so an instance is identified by the
+ * SHA-256 of its URL, size and last-modified time from the filing's directory listing,
+ * which resolving the instance has already read; the document itself is not downloaded.
+ * The rules version is the last one the service reported, remembered here and in the
+ * cache table, so fingerprinting does not wait on the service either. The same
+ * fingerprint as the filing's stored state means there is nothing to do; a stored
+ * response for the fingerprint is applied without calling Arelle. Hits are counted
+ * together with the service time they saved.
+ */
+@Component
+public class NormalizationCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(NormalizationCache.class);
+
+    private static final String REQUESTS_METRIC = "stockdelta.normalization.cache.requests";
+    private static final String SAVED_METRIC = "stockdelta.normalization.cache.saved";
+
+    private static final String LATEST_RULES_VERSION_SQL =
+            "SELECT rules_version FROM normalization_cache ORDER BY created_at DESC LIMIT 1";
+
+    private static final String PUT_SQL =
+            "INSERT INTO normalization_cache (instance_sha256, rules_version, response, processing_time_ms, created_at) " +
+            "VALUES (?, ?, ?, ?, ?) ON CONFLICT (instance_sha256, rules_version) DO NOTHING";
+
+    private final NormalizationStateRepository stateRepository;
+    private final NormalizationCacheRepository cacheRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final FilingIndexResolver filingIndexResolver;
+    private final ArelleNormalizationClient arelleClient;
+    private final ObjectMapper objectMapper;
+    private final NormalizationConfig config;
+    private final MeterRegistry meterRegistry;
+    private final Scheduler blockingScheduler;
+
+    // Last rules version the service reported, seeded once from the cache table
+    private volatile String rulesVersion;
+    private volatile boolean rulesVersionLoaded;
+
+    @Autowired
+    public NormalizationCache(NormalizationStateRepository stateRepository,
+                              NormalizationCacheRepository cacheRepository,
+                              NamedParameterJdbcTemplate jdbcTemplate,
+                              FilingIndexResolver filingIndexResolver,
+                              ArelleNormalizationClient arelleClient,
+                              ObjectMapper objectMapper,
+                              NormalizationConfig config,
+                              MeterRegistry meterRegistry,
+                              @Qualifier(ExecutorConfig.BLOCKING_SCHEDULER) Scheduler blockingScheduler) {
+        this.stateRepository = stateRepository;
+        this.cacheRepository = cacheRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.filingIndexResolver = filingIndexResolver;
+        this.arelleClient = arelleClient;
+        this.objectMapper = objectMapper;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.blockingScheduler = blockingScheduler;
+    }
+
+    /**
+     * Fingerprint a filing's instance document under the last known rules
+     * While the service is reachable its current rules version is picked up in the
+     * background, so a rules change reaches the fingerprint within the version TTL.
+     *
+     * @return The fingerprint, empty when caching is disabled, no rules version is known yet
+     *         or the instance is not in the filing's directory listing
+     */
+    public Mono<Fingerprint> fingerprint(Filing filing, String instanceUrl) {
+        if (!config.isCacheEnabled()) {
+            return Mono.empty();
+        }
+
+        if (arelleClient.isAvailable()) {
+            arelleClient.getRulesVersion().subscribe(this::remember,
+                    error -> logger.debug("Rules version not refreshed: {}", error.getMessage()));
+        }
+
+        return filingIndexResolver.listing(filing)
+                .flatMap(items -> Mono.justOrEmpty(items.stream()
+                        .filter(item -> item.getUrl().equals(instanceUrl))
+                        .findFirst()))
+                .flatMap(item -> Mono.fromCallable(() -> Optional.ofNullable(rulesVersion()))
+                        .subscribeOn(blockingScheduler)
+                        .flatMap(Mono::justOrEmpty)
+                        .map(version -> new Fingerprint(identity(item), version)));
+    }
+
+    private static String identity(FilingIndexResolver.Item item) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String key = item.getUrl() + "|" + item.getSize() + "|" + item.getLastModified();
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private String rulesVersion() {
+        if (!rulesVersionLoaded) {
+            List<String> latest = jdbcTemplate.getJdbcOperations().queryForList(LATEST_RULES_VERSION_SQL, String.class);
+            // A version reported meanwhile is newer than the stored one
+            if (rulesVersion == null && !latest.isEmpty()) {
+                rulesVersion = latest.get(0);
+            }
+            rulesVersionLoaded = true;
+        }
+        return rulesVersion;
+    }
+
+    private void remember(String version) {
+        if (version != null && !version.equals(rulesVersion)) {
+            logger.info("Normalization rules version is now {}", version);
+            rulesVersion = version;
+        }
+    }
+
+    /**
+     * What the filing's stored normalization was produced from
+     */
+    public Optional<NormalizationState> state(Long filingId) {
+        return stateRepository.findById(filingId);
+    }
+
+    /**
+     * A stored response for the fingerprint, from any filing
+     */
+    public Optional<ArelleNormalizationClient.ProcessResponse> lookup(Fingerprint fingerprint) {
+        return cacheRepository.findById(new NormalizationCacheKey(fingerprint.getInstanceSha256(),
+                        fingerprint.getRulesVersion()))
+                .flatMap(entry -> {
+                    try {
+                        return Optional.of(objectMapper.readValue(entry.getResponse(),
+                                ArelleNormalizationClient.ProcessResponse.class));
+                    } catch (JsonProcessingException e) {
+                        logger.warn("Unreadable cached normalization for {}: {}",
+                                fingerprint.getInstanceSha256(), e.getMessage());
+                        return Optional.empty();
+                    }
+                });
+    }
+
+    /**
+     * Store a fresh response under its instance hash and the rules version that produced it
+     * Concurrent stores of the same fingerprint keep the first.
+     */
+    public void put(String instanceSha256, ArelleNormalizationClient.ProcessResponse response) {
+        if (!config.isCacheEnabled() || response.getRulesVersion() == null) {
+            return;
+        }
+        remember(response.getRulesVersion());
+        if (instanceSha256 == null) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.getJdbcOperations().update(PUT_SQL,
+                    instanceSha256,
+                    response.getRulesVersion(),
+                    objectMapper.writeValueAsString(response),
+                    response.getProcessingTimeMs(),
+                    Timestamp.valueOf(LocalDateTime.now()));
+        } catch (Exception e) {
+            logger.warn("Failed to cache normalization for {}: {}", instanceSha256, e.getMessage());
+        }
+    }
+
+    /**
+     * The filing already holds this fingerprint's data
+     */
+    public void recordUnchanged(Integer savedMillis) {
+        record("unchanged", savedMillis);
+    }
+
+    /**
+     * The fingerprint's data was applied from the cache
+     */
+    public void recordHit(Integer savedMillis) {
+        record("hit", savedMillis);
+    }
+
+    /**
+     * The filing had to go through the normalization service
+     */
+    public void recordMiss() {
+        record("miss", null);
+    }
+
+    private void record(String result, Integer savedMillis) {
+        meterRegistry.counter(REQUESTS_METRIC, "result", result).increment();
+        if (savedMillis != null) {
+            meterRegistry.timer(SAVED_METRIC, "result", result).record(Duration.ofMillis(savedMillis));
+        }
+    }
+
+    /**
+     * Instance hash and rules version that together determine a normalization result
+     */
+    public static class Fingerprint {
+        private final String instanceSha256;
+        private final String rulesVersion;
+
+        public Fingerprint(String instanceSha256, String rulesVersion) {
+            this.instanceSha256 = instanceSha256;
+            this.rulesVersion = rulesVersion;
+        }
+
+        public String getInstanceSha256() { return instanceSha256; }
+        public String getRulesVersion() { return rulesVersion; }
+    }
+}
@@ -1,29 +1,52 @@
 package com.stockdelta.common.service;
 
 import com.stockdelta.common.client.ArelleNormalizationClient;
+import com.stockdelta.common.client.ServiceGuard;
+import com.stockdelta.common.config.ExecutorConfig;
+import com.stockdelta.common.config.NormalizationConfig;
 import com.stockdelta.common.entity.DataQualityValidation;
 import com.stockdelta.common.entity.Filing;
+import com.stockdelta.common.entity.NormalizationState;
 import com.stockdelta.common.entity.NormalizedFinancial;
 import com.stockdelta.common.repository.DataQualityValidationRepository;
 import com.stockdelta.common.repository.FilingRepository;
 import com.stockdelta.common.repository.NormalizedFinancialRepository;
+import com.stockdelta.common.sec.FilingIndexResolver;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.concurrent.Queues;
 
-import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Normalization Pipeline Service
- * Orchestrates the XBRL normalization process using Arelle and FAC mapping
+ * Orchestrates the XBRL normalization process using Arelle and FAC mapping.
+ * Filings turned away because the service is down or saturated come back as "deferred"
+ * and are retried in the background once its circuit lets calls through again.
+ * Background DQC validations of natively normalized filings are queued and run with the
+ * batch concurrency; a validation the service turns away joins the same retry queue.
  */
 @Service
 @Transactional
@@ -35,17 +58,53 @@ public class NormalizationPipelineService {
     private final NormalizedFinancialRepository normalizedFinancialRepository;
     private final DataQualityValidationRepository validationRepository;
     private final ArelleNormalizationClient arelleClient;
+    private final NormalizationResultWriter resultWriter;
+    private final NormalizationCache normalizationCache;
+    private final NormalizationConfig normalizationConfig;
+    private final InFlightRegistry inFlightRegistry;
+    private final NativeXbrlNormalizer nativeNormalizer;
+    private final FilingIndexResolver filingIndexResolver;
+    private final Scheduler blockingScheduler;
+
+    // Deferred filing ID -> retries made so far
+    private final Map<Long, Integer> deferred = new ConcurrentHashMap<>();
+    // Filing ID -> validation waiting for a retry
+    private final Map<Long, ValidationTask> deferredValidations = new ConcurrentHashMap<>();
+    private Disposable retryLoop;
+
+    private final Sinks.Many<ValidationTask> validations;
+    private final Disposable validationLoop;
 
     @Autowired
     public NormalizationPipelineService(
             FilingRepository filingRepository,
             NormalizedFinancialRepository normalizedFinancialRepository,
             DataQualityValidationRepository validationRepository,
-            ArelleNormalizationClient arelleClient) {
+            ArelleNormalizationClient arelleClient,
+            NormalizationResultWriter resultWriter,
+            NormalizationCache normalizationCache,
+            NormalizationConfig normalizationConfig,
+            InFlightRegistry inFlightRegistry,
+            NativeXbrlNormalizer nativeNormalizer,
+            FilingIndexResolver filingIndexResolver,
+            @Qualifier(ExecutorConfig.BLOCKING_SCHEDULER) Scheduler blockingScheduler) {
         this.filingRepository = filingRepository;
         this.normalizedFinancialRepository = normalizedFinancialRepository;
         this.validationRepository = validationRepository;
         this.arelleClient = arelleClient;
+        this.resultWriter = resultWriter;
+        this.normalizationCache = normalizationCache;
+        this.normalizationConfig = normalizationConfig;
+        this.inFlightRegistry = inFlightRegistry;
+        this.nativeNormalizer = nativeNormalizer;
+        this.filingIndexResolver = filingIndexResolver;
+        this.blockingScheduler = blockingScheduler;
+
+        this.validations = Sinks.many().unicast()
+                .onBackpressureBuffer(Queues.<ValidationTask>get(Math.max(1, normalizationConfig.getMaxDeferred())).get());
+        this.validationLoop = validations.asFlux()
+                .flatMap(this::validate, Math.max(1, normalizationConfig.getBatchConcurrency()))
+                .subscribe();
     }
 
     /**
@@ -55,9 +114,17 @@ public class NormalizationPipelineService {
      * @return Normalization result
      */
     public Mono<NormalizationResult> processFiling(Long filingId) {
+        // Concurrent requests for the same filing share one normalization run
+        return inFlightRegistry.executeMono("processFiling", filingId,
+                () -> runPipeline(filingId),
+                () -> Mono.fromCallable(() -> storedResult(filingId)));
+    }
+
+    private Mono<NormalizationResult> runPipeline(Long filingId) {
         logger.info("Starting normalization pipeline for filing ID: {}", filingId);
 
         return Mono.fromCallable(() -> filingRepository.findById(filingId))
+                .subscribeOn(blockingScheduler)
                 .flatMap(filingOpt -> {
                     if (filingOpt.isEmpty()) {
                         return Mono.error(new IllegalArgumentException("Filing not found: " + filingId));
@@ -71,86 +138,522 @@ public class NormalizationPipelineService {
                                 "Filing has no primary document URL: " + filingId));
                     }
 
-                    // Delete existing normalized data for this filing (re-normalization)
-                    cleanupExistingData(filingId);
-
-                    // Get XBRL instance URL
-                    String xbrlUrl = getXbrlInstanceUrl(filing);
-                    logger.info("Using XBRL URL for filing {}: {}", filingId, xbrlUrl);
-
-                    // Step 1: Normalize using Arelle
-                    return arelleClient.normalize(xbrlUrl, filing.getCik(), filing.getAccessionNo())
-                            .flatMap(normalizedResponse -> {
-                                logger.info("Received normalized response with {} concepts",
-                                    normalizedResponse.getConcepts() != null ? normalizedResponse.getConcepts().size() : 0);
-
-                                // Step 2: Validate using DQC
-                                return arelleClient.validate(xbrlUrl)
-                                        .map(validationResult -> {
-                                            logger.info("Received validation result: {} errors, {} warnings",
-                                                validationResult.getErrorCount(), validationResult.getWarningCount());
-
-                                            // Step 3: Save normalized financials
-                                            List<NormalizedFinancial> financials =
-                                                    convertToNormalizedFinancials(normalizedResponse, filing);
-                                            logger.info("Converted {} normalized financials, saving to DB...", financials.size());
-                                            normalizedFinancialRepository.saveAll(financials);
-                                            logger.info("Successfully saved {} normalized financials to DB", financials.size());
-
-                                            // Step 4: Save DQC validation results
-                                            List<DataQualityValidation> validations =
-                                                    convertToValidations(validationResult, filingId);
-                                            logger.info("Converted {} validations, saving to DB...", validations.size());
-                                            validationRepository.saveAll(validations);
-                                            logger.info("Successfully saved {} validations to DB", validations.size());
-
-                                            // Step 5: Build result
-                                            NormalizationResult result = new NormalizationResult();
-                                            result.setFilingId(filingId);
-                                            result.setNormalizedConceptCount(financials.size());
-                                            result.setErrorCount(validationResult.getErrorCount());
-                                            result.setWarningCount(validationResult.getWarningCount());
-                                            result.setStatus("completed");
-                                            result.setProcessingTimeMs(
-                                                    normalizedResponse.getProcessingTimeMs() +
-                                                            validationResult.getProcessingTimeMs());
-
-                                            logger.info("Normalization completed for filing {}: {} concepts, {} errors, {} warnings",
-                                                    filingId, financials.size(),
-                                                    validationResult.getErrorCount(),
-                                                    validationResult.getWarningCount());
-
-                                            return result;
-                                        });
-                            });
+                    return nativeNormalizer.handles(filing) ? runNative(filing) : runArelle(filing);
                 })
                 .onErrorResume(error -> {
+                    if (ServiceGuard.isUnavailable(error)) {
+                        return Mono.just(deferredResult(filingId, error.getMessage()));
+                    }
                     logger.error("Normalization pipeline failed for filing {}: {}",
                             filingId, error.getMessage(), error);
+                    return Mono.just(failedResult(filingId, error.getMessage()));
+                });
+    }
+
+    /**
+     * Normalize and validate through the Arelle service from a single load of the instance,
+     * unless the cache settles the filing
+     */
+    private Mono<NormalizationResult> runArelle(Filing filing) {
+        return prepare(filing).flatMap(prepared -> {
+            if (prepared.result != null) {
+                return Mono.just(prepared.result);
+            }
+
+            return arelleClient.process(prepared.instanceUrl, filing.getCik(), filing.getAccessionNo())
+                    .publishOn(blockingScheduler)
+                    .map(response -> storeFresh(prepared, response));
+        });
+    }
+
+    /**
+     * Normalize in-process and leave DQC validation to the Arelle service in the background
+     * A document the native parser cannot handle goes to the Arelle service instead. An inline
+     * XBRL filing is read from its primary document, which section extraction has usually
+     * left in the SEC client's document cache, instead of downloading the extracted instance.
+     */
+    private Mono<NormalizationResult> runNative(Filing filing) {
+        return filingIndexResolver.resolveXbrlUrl(filing, true)
+                .flatMap(xbrlUrl -> runNative(filing, xbrlUrl));
+    }
+
+    private Mono<NormalizationResult> runNative(Filing filing, String xbrlUrl) {
+        long start = System.nanoTime();
+
+        return nativeNormalizer.normalize(filing, xbrlUrl)
+                .map(financials -> {
+                    int elapsedMillis = (int) TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+                    NormalizationState state = new NormalizationState();
+                    state.setFilingId(filing.getId());
+                    state.setRulesVersion(NativeXbrlNormalizer.RULES_VERSION);
+                    state.setConceptCount(financials.size());
+                    state.setProcessingTimeMs(elapsedMillis);
+                    int changed = resultWriter.apply(filing, financials, null, state);
+
+                    logger.info("Native normalization completed for filing {}: {} concepts ({} rows changed)",
+                            filing.getId(), financials.size(), changed);
 
                     NormalizationResult result = new NormalizationResult();
-                    result.setFilingId(filingId);
-                    result.setStatus("failed");
-                    result.setErrorMessage(error.getMessage());
-                    return Mono.just(result);
+                    result.setFilingId(filing.getId());
+                    result.setNormalizedConceptCount(financials.size());
+                    result.setStatus("completed");
+                    result.setProcessingTimeMs(elapsedMillis);
+                    result.setEngine(NativeXbrlNormalizer.ENGINE);
+                    return result;
+                })
+                .doOnNext(result -> validateInBackground(filing, xbrlUrl))
+                .onErrorResume(error -> {
+                    logger.warn("Native normalization of filing {} failed, using the Arelle service: {}",
+                            filing.getId(), error.getMessage());
+                    return runArelle(filing);
+                });
+    }
+
+    /**
+     * Queue a DQC run for a natively normalized filing
+     * Validations run at most batchConcurrency at a time; one that finds the queue full is
+     * deferred like a turned-away call.
+     */
+    private void validateInBackground(Filing filing, String xbrlUrl) {
+        enqueue(new ValidationTask(filing, xbrlUrl));
+    }
+
+    private void enqueue(ValidationTask task) {
+        Sinks.EmitResult emitted;
+        do {
+            emitted = validations.tryEmitNext(task);
+        } while (emitted == Sinks.EmitResult.FAIL_NON_SERIALIZED);
+
+        if (emitted.isFailure()) {
+            deferValidation(task, "Validation queue is full");
+        }
+    }
+
+    /**
+     * Store a DQC run once the Arelle service gets to it
+     */
+    private Mono<Integer> validate(ValidationTask task) {
+        Long filingId = task.filing.getId();
+        return arelleClient.validate(task.xbrlUrl)
+                .publishOn(blockingScheduler)
+                .map(validation -> resultWriter.applyValidations(filingId, convertToValidations(validation, filingId)))
+                .doOnNext(changed -> logger.debug("Stored DQC validation of filing {} ({} rows changed)",
+                        filingId, changed))
+                .onErrorResume(error -> {
+                    if (ServiceGuard.isUnavailable(error)) {
+                        deferValidation(task, error.getMessage());
+                    } else {
+                        logger.warn("DQC validation of filing {} skipped: {}", filingId, error.getMessage());
+                    }
+                    return Mono.empty();
                 });
     }
 
     /**
-     * Cleanup existing normalized data for a filing
+     * Hold a validation for retry; it is skipped when the retry queue is full
+     */
+    private void deferValidation(ValidationTask task, String reason) {
+        Long filingId = task.filing.getId();
+        if (!deferredValidations.containsKey(filingId) && getDeferredCount() >= normalizationConfig.getMaxDeferred()) {
+            logger.warn("DQC validation of filing {} skipped, retry queue full ({}): {}",
+                    filingId, normalizationConfig.getMaxDeferred(), reason);
+            return;
+        }
+
+        deferredValidations.putIfAbsent(filingId, task);
+        startRetries();
+        logger.warn("DQC validation of filing {} deferred: {}", filingId, reason);
+    }
+
+    /**
+     * Filings and validations waiting to be retried against the normalization service
+     */
+    public int getDeferredCount() {
+        return deferred.size() + deferredValidations.size();
+    }
+
+    @PreDestroy
+    synchronized void stopRetries() {
+        if (retryLoop != null) {
+            retryLoop.dispose();
+        }
+        validationLoop.dispose();
+    }
+
+    /**
+     * Hold a filing for retry; it fails instead when the retry queue is full
+     */
+    private NormalizationResult deferredResult(Long filingId, String reason) {
+        if (!deferred.containsKey(filingId) && getDeferredCount() >= normalizationConfig.getMaxDeferred()) {
+            logger.error("Normalization of filing {} failed, retry queue full ({}): {}",
+                    filingId, normalizationConfig.getMaxDeferred(), reason);
+            return failedResult(filingId, reason);
+        }
+
+        deferred.putIfAbsent(filingId, 0);
+        startRetries();
+        logger.warn("Normalization of filing {} deferred: {}", filingId, reason);
+
+        NormalizationResult result = new NormalizationResult();
+        result.setFilingId(filingId);
+        result.setStatus("deferred");
+        result.setErrorMessage(reason);
+        return result;
+    }
+
+    private synchronized void startRetries() {
+        if (retryLoop == null) {
+            retryLoop = Flux.interval(Duration.ofSeconds(normalizationConfig.getRetryIntervalSeconds()))
+                    .onBackpressureDrop()
+                    .concatMap(tick -> retryDeferred())
+                    .subscribe();
+        }
+    }
+
+    /**
+     * Run the deferred filings and validations again, provided the service is letting calls through
+     * A filing is dropped once it succeeds, fails for another reason, or runs out of retries.
+     * Deferred validations go back on the validation queue.
      */
-    private void cleanupExistingData(Long filingId) {
-        try {
-            if (normalizedFinancialRepository.existsByFilingId(filingId)) {
-                normalizedFinancialRepository.deleteByFilingId(filingId);
-                logger.debug("Deleted existing normalized financials for filing {}", filingId);
+    private Mono<Void> retryDeferred() {
+        if ((deferred.isEmpty() && deferredValidations.isEmpty()) || !arelleClient.isAvailable()) {
+            return Mono.empty();
+        }
+
+        for (ValidationTask task : new ArrayList<>(deferredValidations.values())) {
+            deferredValidations.remove(task.filing.getId());
+            if (++task.attempts > normalizationConfig.getMaxRetryAttempts()) {
+                logger.error("Giving up on DQC validation of filing {} after {} retries",
+                        task.filing.getId(), normalizationConfig.getMaxRetryAttempts());
+                continue;
             }
+            enqueue(task);
+        }
+        if (deferred.isEmpty()) {
+            return Mono.empty();
+        }
+
+        List<Long> filingIds = new ArrayList<>(deferred.keySet());
+        logger.info("Retrying {} deferred normalizations", filingIds.size());
+
+        return Flux.fromIterable(filingIds)
+                .filter(filingId -> {
+                    Integer attempts = deferred.merge(filingId, 1, Integer::sum);
+                    if (attempts > normalizationConfig.getMaxRetryAttempts()) {
+                        deferred.remove(filingId);
+                        logger.error("Giving up on deferred normalization of filing {} after {} retries",
+                                filingId, normalizationConfig.getMaxRetryAttempts());
+                        return false;
+                    }
+                    return true;
+                })
+                .flatMap(filingId -> processFiling(filingId)
+                                .doOnNext(result -> {
+                                    if (!"deferred".equals(result.getStatus())) {
+                                        deferred.remove(filingId);
+                                    }
+                                }),
+                        Math.max(1, normalizationConfig.getBatchConcurrency()))
+                .onErrorResume(error -> {
+                    logger.error("Deferred normalization retry failed: {}", error.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * Process many filings, with the configured number in flight at the normalization service
+     * Filings whose instance is unchanged or cached are settled first; the rest go to the
+     * service as one batch. Results are stored per filing as they arrive; one failure does
+     * not stop the batch. A filing also being run by processFiling is serialized with it
+     * by NormalizationResultWriter.
+     *
+     * @param request Filing IDs to normalize
+     * @return Per-filing results and totals
+     */
+    public Mono<BatchResult> processFilings(BatchRequest request) {
+        long start = System.nanoTime();
+        List<Long> filingIds = request.getFilingIds() == null
+                ? List.of()
+                : new ArrayList<>(new LinkedHashSet<>(request.getFilingIds()));
+
+        return Mono.fromCallable(() -> filingRepository.findAllById(filingIds))
+                .subscribeOn(blockingScheduler)
+                .flatMapMany(filings -> {
+                    List<NormalizationResult> rejected = new ArrayList<>();
+                    List<Filing> accepted = new ArrayList<>();
+                    Set<Long> found = new HashSet<>();
+
+                    for (Filing filing : filings) {
+                        found.add(filing.getId());
+                        if (filing.getPrimaryDocUrl() == null || filing.getPrimaryDocUrl().isEmpty()) {
+                            rejected.add(failedResult(filing.getId(),
+                                    "Filing has no primary document URL: " + filing.getId()));
+                            continue;
+                        }
+                        accepted.add(filing);
+                    }
+                    for (Long filingId : filingIds) {
+                        if (!found.contains(filingId)) {
+                            rejected.add(failedResult(filingId, "Filing not found: " + filingId));
+                        }
+                    }
+
+                    List<Filing> viaArelle = new ArrayList<>();
+                    List<Filing> viaNative = new ArrayList<>();
+                    for (Filing filing : accepted) {
+                        (nativeNormalizer.handles(filing) ? viaNative : viaArelle).add(filing);
+                    }
+
+                    // Shares the single-filing key, so a batch and a processFiling call run a filing once
+                    Flux<NormalizationResult> processedNatively = Flux.fromIterable(viaNative)
+                            .flatMap(filing -> inFlightRegistry.executeMono("processFiling", filing.getId(),
+                                                    () -> runNative(filing),
+                                                    () -> Mono.fromCallable(() -> storedResult(filing.getId())))
+                                            .onErrorResume(e -> Mono.just(ServiceGuard.isUnavailable(e)
+                                                    ? deferredResult(filing.getId(), e.getMessage())
+                                                    : failedResult(filing.getId(), e.getMessage()))),
+                                    Math.max(1, normalizationConfig.getBatchConcurrency()));
+
+                    // Arelle members are claimed under the same key; a filing already running
+                    // elsewhere is followed instead of sent again
+                    Flux<NormalizationResult> processed = Flux.fromIterable(viaArelle)
+                            .flatMap(filing -> inFlightRegistry.<NormalizationResult>claim("processFiling", filing.getId())
+                                    .map(claim -> new Claimed(filing, claim))
+                                    .defaultIfEmpty(new Claimed(filing, null)))
+                            .collectList()
+                            .flatMapMany(claimed -> {
+                                Map<Long, InFlightRegistry.Claim<NormalizationResult>> claims = new ConcurrentHashMap<>();
+                                List<Filing> followed = new ArrayList<>();
+                                List<Filing> batch = new ArrayList<>();
+                                for (Claimed item : claimed) {
+                                    if (item.claim == null) {
+                                        followed.add(item.filing);
+                                    } else {
+                                        claims.put(item.filing.getId(), item.claim);
+                                        batch.add(item.filing);
+                                    }
+                                }
+
+                                Flux<NormalizationResult> following = Flux.fromIterable(followed)
+                                        .flatMap(filing -> processFiling(filing.getId()),
+                                                Math.max(1, normalizationConfig.getBatchConcurrency()));
+
+                                return following.concatWith(processArelleBatch(batch)
+                                        .doOnNext(result -> {
+                                            InFlightRegistry.Claim<NormalizationResult> claim =
+                                                    claims.remove(result.getFilingId());
+                                            if (claim != null) {
+                                                claim.complete(result);
+                                            }
+                                        })
+                                        // Followers of a member the batch never reported are failed rather than left waiting
+                                        .doFinally(signal -> claims.values().forEach(claim -> claim.fail(
+                                                new IllegalStateException("Batch normalization ended early")))));
+                            });
+
+                    return Flux.fromIterable(rejected).concatWith(processedNatively).concatWith(processed);
+                })
+                .collectList()
+                .map(results -> {
+                    BatchResult result = new BatchResult();
+                    result.setResults(results);
+                    result.setFilingCount(filingIds.size());
+                    result.setCompleted((int) results.stream()
+                            .filter(r -> "completed".equals(r.getStatus()))
+                            .count());
+                    result.setDeferred((int) results.stream()
+                            .filter(r -> "deferred".equals(r.getStatus()))
+                            .count());
+                    result.setFailed(results.size() - result.getCompleted() - result.getDeferred());
+                    result.setCached((int) results.stream()
+                            .filter(NormalizationResult::isCached)
+                            .count());
+                    result.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+                    logger.info("Batch normalization: {} filings, {} completed ({} from cache), {} deferred, {} failed in {}ms",
+                            result.getFilingCount(), result.getCompleted(), result.getCached(),
+                            result.getDeferred(), result.getFailed(), result.getElapsedMillis());
+                    return result;
+                });
+    }
+
+    /**
+     * Normalize claimed filings with one Arelle batch call, after the cache settles what it can
+     */
+    private Flux<NormalizationResult> processArelleBatch(List<Filing> filings) {
+        return Flux.fromIterable(filings)
+                .flatMap(filing -> prepare(filing)
+                        .onErrorResume(e -> Mono.just(new Prepared(filing, null, null,
+                                failedResult(filing.getId(), e.getMessage())))),
+                        Math.max(1, normalizationConfig.getBatchConcurrency()))
+                .collectList()
+                .flatMapMany(prepared -> {
+                    List<NormalizationResult> settled = new ArrayList<>();
+                    Map<ArelleNormalizationClient.NormalizationRequest, Prepared> submitted =
+                            new IdentityHashMap<>();
+                    for (Prepared item : prepared) {
+                        if (item.result != null) {
+                            settled.add(item.result);
+                        } else {
+                            submitted.put(new ArelleNormalizationClient.NormalizationRequest(
+                                    item.instanceUrl, item.filing.getCik(),
+                                    item.filing.getAccessionNo()), item);
+                        }
+                    }
+
+                    Flux<NormalizationResult> stored = arelleClient
+                            .processBatch(new ArrayList<>(submitted.keySet()))
+                            .concatMap(item -> Mono.fromCallable(() -> {
+                                Prepared pending = submitted.get(item.getRequest());
+                                if (!item.isSuccess()) {
+                                    return ServiceGuard.isUnavailable(item.getError())
+                                            ? deferredResult(pending.filing.getId(), item.getErrorMessage())
+                                            : failedResult(pending.filing.getId(), item.getErrorMessage());
+                                }
+                                try {
+                                    return storeFresh(pending, item.getResponse());
+                                } catch (Exception e) {
+                                    logger.error("Failed to store normalization of filing {}: {}",
+                                            pending.filing.getId(), e.getMessage());
+                                    return failedResult(pending.filing.getId(), e.getMessage());
+                                }
+                            }).subscribeOn(blockingScheduler));
+
+                    return Flux.fromIterable(settled).concatWith(stored);
+                });
+    }
+
+    /**
+     * Fingerprint a filing's instance and settle it from the cache when possible
+     * A fingerprinting failure only costs the cache: the filing then goes to the service.
+     */
+    private Mono<Prepared> prepare(Filing filing) {
+        return filingIndexResolver.resolveXbrlUrl(filing)
+                .flatMap(xbrlUrl -> prepare(filing, xbrlUrl));
+    }
+
+    private Mono<Prepared> prepare(Filing filing, String xbrlUrl) {
+        logger.info("Using XBRL URL for filing {}: {}", filing.getId(), xbrlUrl);
+
+        return normalizationCache.fingerprint(filing, xbrlUrl)
+                .publishOn(blockingScheduler)
+                .map(fingerprint -> new Prepared(filing, xbrlUrl, fingerprint, fromCache(filing, fingerprint)))
+                .onErrorResume(error -> {
+                    logger.warn("Could not fingerprint instance of filing {}, skipping the cache: {}",
+                            filing.getId(), error.getMessage());
+                    return Mono.empty();
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> new Prepared(filing, xbrlUrl, null, null)));
+    }
 
-            validationRepository.deleteByFilingId(filingId);
-            logger.debug("Deleted existing DQC validations for filing {}", filingId);
-        } catch (Exception e) {
-            logger.warn("Error cleaning up existing data for filing {}: {}", filingId, e.getMessage());
+    /**
+     * The result of a filing served without the normalization service, or null on a miss
+     */
+    private NormalizationResult fromCache(Filing filing, NormalizationCache.Fingerprint fingerprint) {
+        Optional<NormalizationState> state = normalizationCache.state(filing.getId());
+        if (state.isPresent() && state.get().matches(fingerprint.getInstanceSha256(), fingerprint.getRulesVersion())) {
+            normalizationCache.recordUnchanged(state.get().getProcessingTimeMs());
+            logger.info("Filing {} already normalized from this instance and rules version, nothing to do",
+                    filing.getId());
+
+            NormalizationResult result = new NormalizationResult();
+            result.setFilingId(filing.getId());
+            result.setNormalizedConceptCount(state.get().getConceptCount());
+            result.setErrorCount(state.get().getErrorCount());
+            result.setWarningCount(state.get().getWarningCount());
+            result.setStatus("completed");
+            result.setCacheStatus("unchanged");
+            return result;
         }
+
+        Optional<ArelleNormalizationClient.ProcessResponse> cached = normalizationCache.lookup(fingerprint);
+        if (cached.isPresent()) {
+            normalizationCache.recordHit(cached.get().getProcessingTimeMs());
+            logger.info("Applying cached normalization to filing {} (instance {})",
+                    filing.getId(), fingerprint.getInstanceSha256());
+
+            NormalizationResult result = store(filing, cached.get(), fingerprint.getInstanceSha256(),
+                    fingerprint.getRulesVersion());
+            result.setCacheStatus("hit");
+            return result;
+        }
+
+        normalizationCache.recordMiss();
+        return null;
+    }
+
+    /**
+     * Cache a response from the service, then store it for the filing
+     */
+    private NormalizationResult storeFresh(Prepared prepared, ArelleNormalizationClient.ProcessResponse response) {
+        String instanceSha256 = prepared.fingerprint != null ? prepared.fingerprint.getInstanceSha256() : null;
+        normalizationCache.put(instanceSha256, response);
+        NormalizationResult result = store(prepared.filing, response, instanceSha256, response.getRulesVersion());
+        result.setCacheStatus(prepared.fingerprint != null ? "miss" : null);
+        return result;
+    }
+
+    /**
+     * Convert one service response and apply it to the filing's stored data
+     */
+    private NormalizationResult store(Filing filing, ArelleNormalizationClient.ProcessResponse response,
+                                      String instanceSha256, String rulesVersion) {
+        ArelleNormalizationClient.NormalizedXbrlResponse normalizedResponse = response.getNormalization();
+        ArelleNormalizationClient.DqcValidationResult validationResult = response.getValidation();
+        logger.info("Received {} concepts, {} errors, {} warnings for filing {}",
+                normalizedResponse.getConcepts() != null ? normalizedResponse.getConcepts().size() : 0,
+                validationResult.getErrorCount(), validationResult.getWarningCount(), filing.getId());
+
+        List<NormalizedFinancial> financials = convertToNormalizedFinancials(normalizedResponse, filing);
+        List<DataQualityValidation> validations = convertToValidations(validationResult, filing.getId());
+
+        NormalizationState state = new NormalizationState();
+        state.setFilingId(filing.getId());
+        state.setInstanceSha256(instanceSha256);
+        state.setRulesVersion(rulesVersion);
+        state.setConceptCount(financials.size());
+        state.setErrorCount(validationResult.getErrorCount());
+        state.setWarningCount(validationResult.getWarningCount());
+        state.setProcessingTimeMs(response.getProcessingTimeMs());
+        int changed = resultWriter.apply(filing, financials, validations, state);
+
+        NormalizationResult result = new NormalizationResult();
+        result.setFilingId(filing.getId());
+        result.setNormalizedConceptCount(financials.size());
+        result.setErrorCount(validationResult.getErrorCount());
+        result.setWarningCount(validationResult.getWarningCount());
+        result.setStatus("completed");
+        result.setProcessingTimeMs(response.getProcessingTimeMs());
+
+        logger.info("Normalization completed for filing {}: {} concepts, {} errors, {} warnings ({} rows changed)",
+                filing.getId(), financials.size(),
+                validationResult.getErrorCount(),
+                validationResult.getWarningCount(),
+                changed);
+        return result;
+    }
+
+    private static NormalizationResult failedResult(Long filingId, String errorMessage) {
+        NormalizationResult result = new NormalizationResult();
+        result.setFilingId(filingId);
+        result.setStatus("failed");
+        result.setErrorMessage(errorMessage);
+        return result;
+    }
+
+    /**
+     * Build a result from data stored by a normalization run on another replica
+     */
+    private NormalizationResult storedResult(Long filingId) {
+        NormalizationResult result = new NormalizationResult();
+        result.setFilingId(filingId);
+        result.setNormalizedConceptCount((int) normalizedFinancialRepository.countByFilingId(filingId));
+        result.setErrorCount((int) validationRepository.countErrorsByFilingId(filingId));
+        result.setWarningCount((int) validationRepository.countWarningsByFilingId(filingId));
+        result.setStatus(result.getNormalizedConceptCount() > 0 ? "completed" : "failed");
+        return result;
     }
 
     /**
@@ -188,6 +691,7 @@ public class NormalizationPipelineService {
                 }
             }
 
+            financial.setDimensional(concept.getDimensional());
             financial.setQualityScore(concept.getQualityScore());
             financial.setSource(concept.getSource());
 
@@ -270,36 +774,48 @@ public class NormalizationPipelineService {
     }
 
     /**
-     * Convert primary_doc_url to XBRL instance URL
-     * Converts .htm files to .xml XBRL instance documents
+     * A batch member with its claim on the processFiling key; claim is null when the filing is followed
      */
-    private String getXbrlInstanceUrl(Filing filing) {
-        String primaryUrl = filing.getPrimaryDocUrl();
+    private static final class Claimed {
+        private final Filing filing;
+        private final InFlightRegistry.Claim<NormalizationResult> claim;
 
-        if (primaryUrl == null || primaryUrl.isEmpty()) {
-            return null;
+        private Claimed(Filing filing, InFlightRegistry.Claim<NormalizationResult> claim) {
+            this.filing = filing;
+            this.claim = claim;
         }
+    }
 
-        // If it's an .htm file, try to convert to .xml
-        if (primaryUrl.endsWith(".htm")) {
-            // Extract the ticker/company from filename
-            // Example: msft-10k_20190630.htm -> msft-20190630.xml
-            String[] parts = primaryUrl.split("/");
-            String filename = parts[parts.length - 1];
-            String basePath = primaryUrl.substring(0, primaryUrl.lastIndexOf('/') + 1);
-
-            // Try common naming patterns
-            if (filename.contains("-10k") || filename.contains("-10q")) {
-                // Pattern: msft-10k_20190630.htm -> msft-20190630.xml
-                String xmlFilename = filename
-                        .replaceFirst("-10[kq]_", "-")
-                        .replace(".htm", ".xml");
-                return basePath + xmlFilename;
-            }
+    /**
+     * A filing with its instance URL and fingerprint; result is set when the cache settled it
+     */
+    private static final class Prepared {
+        private final Filing filing;
+        private final String instanceUrl;
+        private final NormalizationCache.Fingerprint fingerprint;
+        private final NormalizationResult result;
+
+        Prepared(Filing filing, String instanceUrl, NormalizationCache.Fingerprint fingerprint,
+                 NormalizationResult result) {
+            this.filing = filing;
+            this.instanceUrl = instanceUrl;
+            this.fingerprint = fingerprint;
+            this.result = result;
         }
+    }
 
-        // Return original URL if no conversion needed
-        return primaryUrl;
+    /**
+     * A background DQC run of a natively normalized filing; attempts counts retries made
+     */
+    private static final class ValidationTask {
+        private final Filing filing;
+        private final String xbrlUrl;
+        private int attempts;
+
+        ValidationTask(Filing filing, String xbrlUrl) {
+            this.filing = filing;
+            this.xbrlUrl = xbrlUrl;
+        }
     }
 
     // Result classes
@@ -309,9 +825,11 @@ public class NormalizationPipelineService {
         private int normalizedConceptCount;
         private int errorCount;
         private int warningCount;
-        private String status;
+        private String status;  // completed, failed, deferred
         private String errorMessage;
         private Integer processingTimeMs;
+        private String cacheStatus;  // unchanged, hit, miss; null when the cache was skipped
+        private String engine = "arelle";  // arelle, native
 
         // Getters and Setters
         public Long getFilingId() { return filingId; }
@@ -336,6 +854,53 @@ public class NormalizationPipelineService {
 
         public Integer getProcessingTimeMs() { return processingTimeMs; }
         public void setProcessingTimeMs(Integer processingTimeMs) { this.processingTimeMs = processingTimeMs; }
+
+        public String getCacheStatus() { return cacheStatus; }
+        public void setCacheStatus(String cacheStatus) { this.cacheStatus = cacheStatus; }
+
+        public String getEngine() { return engine; }
+        public void setEngine(String engine) { this.engine = engine; }
+
+        public boolean isCached() { return "unchanged".equals(cacheStatus) || "hit".equals(cacheStatus); }
+    }
+
+    public static class BatchRequest {
+        private List<Long> filingIds;
+
+        public List<Long> getFilingIds() { return filingIds; }
+        public void setFilingIds(List<Long> filingIds) { this.filingIds = filingIds; }
+    }
+
+    public static class BatchResult {
+        private int filingCount;
+        private int completed;
+        private int failed;
+        private int deferred;
+        private int cached;
+        private long elapsedMillis;
+        private List<NormalizationResult> results = new ArrayList<>();
+
+        // Getters and Setters
+        public int getFilingCount() { return filingCount; }
+        public void setFilingCount(int filingCount) { this.filingCount = filingCount; }
+
+        public int getCompleted() { return completed; }
+        public void setCompleted(int completed) { this.completed = completed; }
+
+        public int getFailed() { return failed; }
+        public void setFailed(int failed) { this.failed = failed; }
+
+        public int getDeferred() { return deferred; }
+        public void setDeferred(int deferred) { this.deferred = deferred; }
+
+        public int getCached() { return cached; }
+        public void setCached(int cached) { this.cached = cached; }
+
+        public long getElapsedMillis() { return elapsedMillis; }
+        public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+        public List<NormalizationResult> getResults() { return results; }
+        public void setResults(List<NormalizationResult> results) { this.results = results; }
     }
 
     public static class NormalizationStats {
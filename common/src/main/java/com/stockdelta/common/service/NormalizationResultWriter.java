@@ -0,0 +1,321 @@
+package com.stockdelta.common.service;
+
+import com.stockdelta.common.config.NormalizationConfig;
+import com.stockdelta.common.entity.DataQualityValidation;
+import com.stockdelta.common.entity.Filing;
+import com.stockdelta.common.entity.NormalizationState;
+import com.stockdelta.common.entity.NormalizedFinancial;
+import com.stockdelta.common.event.FilingEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Stores the result of a normalization run
+ * New rows are diffed against the filing's stored financials and validations: rows
+ * that are unchanged stay, the rest are deleted or inserted with JDBC batches. The
+ * filing's normalization state is written in the same transaction, so readers never
+ * see a filing half-normalized and a failed run leaves the previous data in place.
+ * Writes for one filing are serialized on its normalization_state row, so runs that
+ * overlap (a single-filing run and a batch) cannot both insert the same rows.
+ */
+@Service
+@Transactional
+public class NormalizationResultWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(NormalizationResultWriter.class);
+
+    // Joins the columns of a row key; does not occur in XBRL text
+    private static final String KEY_SEPARATOR = "\u001f";
+
+    private static final String EXISTING_FINANCIALS_SQL =
+            "SELECT id, concept, value, period_type, context_ref, unit, start_date, end_date, dimensional, " +
+            "quality_score, source FROM normalized_financials WHERE filing_id = ?";
+
+    private static final String EXISTING_VALIDATIONS_SQL =
+            "SELECT id, rule_id, severity, message, affected_concept FROM data_quality_validations WHERE filing_id = ?";
+
+    private static final String DELETE_FINANCIAL_SQL = "DELETE FROM normalized_financials WHERE id = ?";
+
+    private static final String DELETE_VALIDATION_SQL = "DELETE FROM data_quality_validations WHERE id = ?";
+
+    private static final String INSERT_FINANCIAL_SQL =
+            "INSERT INTO normalized_financials (filing_id, concept, value, period_type, context_ref, unit, " +
+            "start_date, end_date, dimensional, quality_score, source, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_VALIDATION_SQL =
+            "INSERT INTO data_quality_validations (filing_id, rule_id, severity, message, affected_concept, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String UPSERT_STATE_SQL =
+            "INSERT INTO normalization_state (filing_id, instance_sha256, rules_version, concept_count, " +
+            "error_count, warning_count, processing_time_ms, normalized_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (filing_id) DO UPDATE SET instance_sha256 = EXCLUDED.instance_sha256, " +
+            "rules_version = EXCLUDED.rules_version, concept_count = EXCLUDED.concept_count, " +
+            "error_count = EXCLUDED.error_count, warning_count = EXCLUDED.warning_count, " +
+            "processing_time_ms = EXCLUDED.processing_time_ms, normalized_at = EXCLUDED.normalized_at";
+
+    private static final String UPSERT_STATE_KEEP_COUNTS_SQL =
+            "INSERT INTO normalization_state (filing_id, instance_sha256, rules_version, concept_count, " +
+            "error_count, warning_count, processing_time_ms, normalized_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (filing_id) DO UPDATE SET instance_sha256 = EXCLUDED.instance_sha256, " +
+            "rules_version = EXCLUDED.rules_version, concept_count = EXCLUDED.concept_count, " +
+            "processing_time_ms = EXCLUDED.processing_time_ms, normalized_at = EXCLUDED.normalized_at";
+
+    // A state row to lock exists before the first run of a filing has committed
+    private static final String SEED_STATE_SQL =
+            "INSERT INTO normalization_state (filing_id, concept_count, error_count, warning_count) " +
+            "VALUES (?, 0, 0, 0) ON CONFLICT (filing_id) DO NOTHING";
+
+    private static final String LOCK_STATE_SQL =
+            "SELECT filing_id FROM normalization_state WHERE filing_id = ? FOR UPDATE";
+
+    private static final String UPDATE_STATE_COUNTS_SQL =
+            "UPDATE normalization_state SET error_count = ?, warning_count = ? WHERE filing_id = ?";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final NormalizationConfig config;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public NormalizationResultWriter(NamedParameterJdbcTemplate jdbcTemplate,
+                                     NormalizationConfig config,
+                                     ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.config = config;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Bring a filing's normalized financials and validations in line with a run's output
+     * NORMALIZED is published with the transaction when any row changed, so listeners
+     * run after commit and an identical re-run does not trigger recomputation.
+     * Null validations leave the stored validations and their counts as they are.
+     *
+     * @param state Instance hash, rules version and counts of the run
+     * @return Rows inserted plus rows deleted
+     */
+    public int apply(Filing filing, List<NormalizedFinancial> financials,
+                     List<DataQualityValidation> validations, NormalizationState state) {
+        Long filingId = filing.getId();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        lockFiling(filingId);
+
+        // Stored rows by content; each new row with the same content keeps one of them
+        Map<String, Deque<Long>> storedFinancials = new HashMap<>();
+        jdbcTemplate.getJdbcOperations().query(EXISTING_FINANCIALS_SQL, rs -> {
+            Date startDate = rs.getDate("start_date");
+            Date endDate = rs.getDate("end_date");
+            storedFinancials.computeIfAbsent(financialKey(
+                    rs.getString("concept"),
+                    rs.getBigDecimal("value"),
+                    rs.getString("period_type"),
+                    rs.getString("context_ref"),
+                    rs.getString("unit"),
+                    startDate != null ? startDate.toLocalDate() : null,
+                    endDate != null ? endDate.toLocalDate() : null,
+                    (Boolean) rs.getObject("dimensional"),
+                    rs.getBigDecimal("quality_score"),
+                    rs.getString("source")), k -> new ArrayDeque<>()).add(rs.getLong("id"));
+        }, filingId);
+
+        List<Object[]> financialInserts = new ArrayList<>();
+        for (NormalizedFinancial financial : financials) {
+            BigDecimal quality = financial.getQualityScore() != null ? financial.getQualityScore() : BigDecimal.ONE;
+            Deque<Long> stored = storedFinancials.get(financialKey(financial.getConcept(), financial.getValue(),
+                    financial.getPeriodType(), financial.getContextRef(), financial.getUnit(),
+                    financial.getStartDate(), financial.getEndDate(), financial.getDimensional(), quality,
+                    financial.getSource()));
+            if (stored != null && !stored.isEmpty()) {
+                stored.poll();
+                continue;
+            }
+
+            financialInserts.add(new Object[]{
+                    filingId,
+                    financial.getConcept(),
+                    financial.getValue(),
+                    financial.getPeriodType(),
+                    financial.getContextRef(),
+                    financial.getUnit(),
+                    date(financial.getStartDate()),
+                    date(financial.getEndDate()),
+                    financial.getDimensional(),
+                    quality,
+                    financial.getSource(),
+                    now
+            });
+        }
+
+        List<Object[]> validationInserts = new ArrayList<>();
+        List<Object[]> validationDeletes = new ArrayList<>();
+        if (validations != null) {
+            diffValidations(filingId, validations, now, validationInserts, validationDeletes);
+        }
+
+        List<Object[]> financialDeletes = leftover(storedFinancials);
+
+        batch(DELETE_FINANCIAL_SQL, financialDeletes);
+        batch(DELETE_VALIDATION_SQL, validationDeletes);
+        batch(INSERT_FINANCIAL_SQL, financialInserts);
+        batch(INSERT_VALIDATION_SQL, validationInserts);
+
+        jdbcTemplate.getJdbcOperations().update(validations != null ? UPSERT_STATE_SQL : UPSERT_STATE_KEEP_COUNTS_SQL,
+                filingId,
+                state.getInstanceSha256(),
+                state.getRulesVersion(),
+                state.getConceptCount(),
+                state.getErrorCount(),
+                state.getWarningCount(),
+                state.getProcessingTimeMs(),
+                now);
+
+        int changed = financialDeletes.size() + validationDeletes.size()
+                + financialInserts.size() + validationInserts.size();
+        logger.debug("Applied normalization of filing {}: financials -{} +{}, validations -{} +{}",
+                filingId, financialDeletes.size(), financialInserts.size(),
+                validationDeletes.size(), validationInserts.size());
+
+        if (changed > 0) {
+            eventPublisher.publishEvent(new FilingEvent(FilingEvent.Type.NORMALIZED, filingId, filing.getCik()));
+        }
+        return changed;
+    }
+
+    /**
+     * Bring a filing's validations in line with a DQC run made after its normalization
+     *
+     * @return Rows inserted plus rows deleted
+     */
+    public int applyValidations(Long filingId, List<DataQualityValidation> validations) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        lockFiling(filingId);
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        diffValidations(filingId, validations, now, inserts, deletes);
+
+        batch(DELETE_VALIDATION_SQL, deletes);
+        batch(INSERT_VALIDATION_SQL, inserts);
+
+        int errors = 0;
+        int warnings = 0;
+        for (DataQualityValidation validation : validations) {
+            if ("error".equals(validation.getSeverity())) {
+                errors++;
+            } else if ("warning".equals(validation.getSeverity())) {
+                warnings++;
+            }
+        }
+        jdbcTemplate.getJdbcOperations().update(UPDATE_STATE_COUNTS_SQL, errors, warnings, filingId);
+
+        logger.debug("Applied validations of filing {}: -{} +{}", filingId, deletes.size(), inserts.size());
+        return deletes.size() + inserts.size();
+    }
+
+    /**
+     * Hold the filing's state row until commit; a concurrent writer reads the rows only after this one is done
+     */
+    private void lockFiling(Long filingId) {
+        jdbcTemplate.getJdbcOperations().update(SEED_STATE_SQL, filingId);
+        jdbcTemplate.getJdbcOperations().queryForList(LOCK_STATE_SQL, Long.class, filingId);
+    }
+
+    private void diffValidations(Long filingId, List<DataQualityValidation> validations, Timestamp now,
+                                 List<Object[]> inserts, List<Object[]> deletes) {
+        Map<String, Deque<Long>> storedValidations = new HashMap<>();
+        jdbcTemplate.getJdbcOperations().query(EXISTING_VALIDATIONS_SQL, rs -> {
+            storedValidations.computeIfAbsent(validationKey(
+                    rs.getString("rule_id"),
+                    rs.getString("severity"),
+                    rs.getString("message"),
+                    rs.getString("affected_concept")), k -> new ArrayDeque<>()).add(rs.getLong("id"));
+        }, filingId);
+
+        for (DataQualityValidation validation : validations) {
+            Deque<Long> stored = storedValidations.get(validationKey(validation.getRuleId(),
+                    validation.getSeverity(), validation.getMessage(), validation.getAffectedConcept()));
+            if (stored != null && !stored.isEmpty()) {
+                stored.poll();
+                continue;
+            }
+
+            inserts.add(new Object[]{
+                    filingId,
+                    validation.getRuleId(),
+                    validation.getSeverity(),
+                    validation.getMessage(),
+                    validation.getAffectedConcept(),
+                    now
+            });
+        }
+        deletes.addAll(leftover(storedValidations));
+    }
+
+    private void batch(String sql, List<Object[]> rows) {
+        int batchSize = Math.max(1, config.getWriteBatchSize());
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbcTemplate.getJdbcOperations().batchUpdate(sql,
+                    rows.subList(from, Math.min(from + batchSize, rows.size())));
+        }
+    }
+
+    private static List<Object[]> leftover(Map<String, Deque<Long>> stored) {
+        List<Object[]> ids = new ArrayList<>();
+        for (Deque<Long> remaining : stored.values()) {
+            for (Long id : remaining) {
+                ids.add(new Object[]{id});
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Row content as stored: amounts and scores at the scale of their columns
+     */
+    private static String financialKey(String concept, BigDecimal value, String periodType, String contextRef,
+                                       String unit, LocalDate startDate, LocalDate endDate, Boolean dimensional,
+                                       BigDecimal qualityScore, String source) {
+        return String.join(KEY_SEPARATOR,
+                Objects.toString(concept, ""),
+                value != null ? value.setScale(2, RoundingMode.HALF_UP).toPlainString() : "",
+                Objects.toString(periodType, ""),
+                Objects.toString(contextRef, ""),
+                Objects.toString(unit, ""),
+                Objects.toString(startDate, ""),
+                Objects.toString(endDate, ""),
+                Objects.toString(dimensional, ""),
+                qualityScore != null ? qualityScore.setScale(2, RoundingMode.HALF_UP).toPlainString() : "",
+                Objects.toString(source, ""));
+    }
+
+    private static String validationKey(String ruleId, String severity, String message, String affectedConcept) {
+        return String.join(KEY_SEPARATOR,
+                Objects.toString(ruleId, ""),
+                Objects.toString(severity, ""),
+                Objects.toString(message, ""),
+                Objects.toString(affectedConcept, ""));
+    }
+
+    private static Date date(LocalDate date) {
+        return date != null ? Date.valueOf(date) : null;
+    }
+}
@@ -3,18 +3,19 @@ package com.stockdelta.common.service;
 import com.stockdelta.common.entity.Filing;
 import com.stockdelta.common.entity.NormalizedFinancial;
 import com.stockdelta.common.entity.NormalizedMetric;
+import com.stockdelta.common.event.FilingEvent;
 import com.stockdelta.common.repository.FilingRepository;
 import com.stockdelta.common.repository.NormalizedFinancialRepository;
 import com.stockdelta.common.repository.NormalizedMetricRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -29,7 +30,7 @@ public class NormalizedMetricsService {
     private static final Logger logger = LoggerFactory.getLogger(NormalizedMetricsService.class);
 
     // Core concepts to track for metrics
-    private static final List<String> CORE_CONCEPTS = Arrays.asList(
+    static final List<String> CORE_CONCEPTS = Arrays.asList(
             "Revenue",
             "OperatingIncome",
             "NetIncome",
@@ -48,15 +49,24 @@ public class NormalizedMetricsService {
     private final FilingRepository filingRepository;
     private final NormalizedFinancialRepository normalizedFinancialRepository;
     private final NormalizedMetricRepository normalizedMetricRepository;
+    private final MetricDistributionService distributionService;
+    private final FilingChainIndex chainIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public NormalizedMetricsService(
             FilingRepository filingRepository,
             NormalizedFinancialRepository normalizedFinancialRepository,
-            NormalizedMetricRepository normalizedMetricRepository) {
+            NormalizedMetricRepository normalizedMetricRepository,
+            MetricDistributionService distributionService,
+            FilingChainIndex chainIndex,
+            ApplicationEventPublisher eventPublisher) {
         this.filingRepository = filingRepository;
         this.normalizedFinancialRepository = normalizedFinancialRepository;
         this.normalizedMetricRepository = normalizedMetricRepository;
+        this.distributionService = distributionService;
+        this.chainIndex = chainIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -75,6 +85,15 @@ public class NormalizedMetricsService {
         }
 
         Filing currentFiling = currentFilingOpt.get();
+        List<NormalizedMetric> metrics = calculateMetrics(currentFiling);
+        eventPublisher.publishEvent(
+                new FilingEvent(FilingEvent.Type.METRICS_CALCULATED, filingId, currentFiling.getCik()));
+
+        return metrics;
+    }
+
+    private List<NormalizedMetric> calculateMetrics(Filing currentFiling) {
+        Long filingId = currentFiling.getId();
         List<NormalizedMetric> metrics = new ArrayList<>();
 
         // Get normalized financials for current filing
@@ -90,13 +109,13 @@ public class NormalizedMetricsService {
         metrics.addAll(saveAbsoluteMetrics(currentFinancials, filingId));
 
         // Find previous filings for QoQ and YoY comparison
-        Optional<Filing> qoqFilingOpt = findPreviousFilingByQuarter(currentFiling);
-        Optional<Filing> yoyFilingOpt = findPreviousFilingByYear(currentFiling);
+        Optional<Filing> qoqFilingOpt = chainIndex.previousQuarter(currentFiling);
+        Optional<Filing> yoyFilingOpt = chainIndex.previousYear(currentFiling);
 
         if (qoqFilingOpt.isEmpty() && yoyFilingOpt.isEmpty()) {
             logger.info("No previous filing found for comparison: {}", currentFiling.getAccessionNo());
             // Save absolute metrics before returning
-            normalizedMetricRepository.saveAll(metrics);
+            saveMetrics(currentFiling, metrics);
             logger.info("Calculated {} absolute metrics for filing {}", metrics.size(), filingId);
             return metrics;
         }
@@ -126,7 +145,7 @@ public class NormalizedMetricsService {
         }
 
         // Save all metrics
-        normalizedMetricRepository.saveAll(metrics);
+        saveMetrics(currentFiling, metrics);
         logger.info("Calculated {} total metrics for filing {}", metrics.size(), filingId);
 
         return metrics;
@@ -140,26 +159,7 @@ public class NormalizedMetricsService {
 
         List<NormalizedMetric> metrics = new ArrayList<>();
 
-        // Group by concept and get latest value for each
-        Map<String, NormalizedFinancial> latestByConcept = financials.stream()
-                .filter(f -> CORE_CONCEPTS.contains(f.getConcept()))
-                .filter(f -> f.getValue() != null)
-                .collect(Collectors.toMap(
-                        NormalizedFinancial::getConcept,
-                        f -> f,
-                        (f1, f2) -> {
-                            // Prefer the one with later end date or higher quality score
-                            if (f1.getEndDate() != null && f2.getEndDate() != null) {
-                                int dateCompare = f1.getEndDate().compareTo(f2.getEndDate());
-                                if (dateCompare != 0) {
-                                    return dateCompare > 0 ? f1 : f2;
-                                }
-                            }
-                            return f1.getQualityScore().compareTo(f2.getQualityScore()) >= 0 ? f1 : f2;
-                        }
-                ));
-
-        for (Map.Entry<String, NormalizedFinancial> entry : latestByConcept.entrySet()) {
+        for (Map.Entry<String, NormalizedFinancial> entry : latestByConcept(financials).entrySet()) {
             String concept = entry.getKey();
             NormalizedFinancial financial = entry.getValue();
 
@@ -190,20 +190,20 @@ public class NormalizedMetricsService {
         List<NormalizedMetric> metrics = new ArrayList<>();
 
         // Group financials by concept
-        Map<String, BigDecimal> currentValues = getLatestValuesByConcept(currentFinancials);
-        Map<String, BigDecimal> previousValues = getLatestValuesByConcept(previousFinancials);
+        Map<String, NormalizedFinancial> currentByConcept = latestByConcept(currentFinancials);
+        Map<String, NormalizedFinancial> previousByConcept = latestByConcept(previousFinancials);
 
         // Calculate percentage changes for core concepts
         for (String concept : CORE_CONCEPTS) {
-            if (currentValues.containsKey(concept) && previousValues.containsKey(concept)) {
-                BigDecimal currentValue = currentValues.get(concept);
-                BigDecimal previousValue = previousValues.get(concept);
+            NormalizedFinancial current = currentByConcept.get(concept);
+            NormalizedFinancial previous = previousByConcept.get(concept);
+            if (current != null && previous != null) {
+                BigDecimal percentChange = calculatePercentageChange(previous.getValue(), current.getValue());
 
-                BigDecimal percentChange = calculatePercentageChange(previousValue, currentValue);
-
-                // Calculate average quality score
-                BigDecimal avgQualityScore = getAverageQualityScore(
-                        currentFinancials, previousFinancials, concept);
+                // Average quality score of the two values compared
+                BigDecimal avgQualityScore = current.getQualityScore()
+                        .add(previous.getQualityScore())
+                        .divide(BigDecimal.valueOf(2), 2, RoundingMode.HALF_UP);
 
                 NormalizedMetric metric = new NormalizedMetric(
                         filingId,
@@ -214,7 +214,7 @@ public class NormalizedMetricsService {
                 );
                 metrics.add(metric);
 
-                logger.debug("Metric {}: {} -> {} ({}%)", concept, previousValue, currentValue, percentChange);
+                logger.debug("Metric {}: {} -> {} ({}%)", concept, previous.getValue(), current.getValue(), percentChange);
             }
         }
 
@@ -222,47 +222,29 @@ public class NormalizedMetricsService {
     }
 
     /**
-     * Get latest values grouped by concept
+     * Latest fact per core concept: the later end date wins, then the higher quality score
+     * BatchMetricsService applies the same rule, so both paths store the same metrics.
      */
-    private Map<String, BigDecimal> getLatestValuesByConcept(List<NormalizedFinancial> financials) {
+    private Map<String, NormalizedFinancial> latestByConcept(List<NormalizedFinancial> financials) {
         return financials.stream()
                 .filter(f -> CORE_CONCEPTS.contains(f.getConcept()))
                 .filter(f -> f.getValue() != null)
                 .collect(Collectors.toMap(
                         NormalizedFinancial::getConcept,
-                        NormalizedFinancial::getValue,
-                        (v1, v2) -> v1  // Keep first if duplicate
+                        f -> f,
+                        (f1, f2) -> {
+                            // Prefer the one with later end date or higher quality score
+                            if (f1.getEndDate() != null && f2.getEndDate() != null) {
+                                int dateCompare = f1.getEndDate().compareTo(f2.getEndDate());
+                                if (dateCompare != 0) {
+                                    return dateCompare > 0 ? f1 : f2;
+                                }
+                            }
+                            return f1.getQualityScore().compareTo(f2.getQualityScore()) >= 0 ? f1 : f2;
+                        }
                 ));
     }
 
-    /**
-     * Get average quality score for a concept across current and previous periods
-     */
-    private BigDecimal getAverageQualityScore(
-            List<NormalizedFinancial> currentFinancials,
-            List<NormalizedFinancial> previousFinancials,
-            String concept) {
-
-        List<BigDecimal> scores = new ArrayList<>();
-
-        currentFinancials.stream()
-                .filter(f -> concept.equals(f.getConcept()))
-                .findFirst()
-                .ifPresent(f -> scores.add(f.getQualityScore()));
-
-        previousFinancials.stream()
-                .filter(f -> concept.equals(f.getConcept()))
-                .findFirst()
-                .ifPresent(f -> scores.add(f.getQualityScore()));
-
-        if (scores.isEmpty()) {
-            return BigDecimal.ONE;
-        }
-
-        BigDecimal sum = scores.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
-        return sum.divide(BigDecimal.valueOf(scores.size()), 2, RoundingMode.HALF_UP);
-    }
-
     /**
      * Calculate percentage change
      */
@@ -279,49 +261,23 @@ public class NormalizedMetricsService {
     }
 
     /**
-     * Find previous quarter filing (3 months before)
+     * Save a filing's metrics and move the changes they replace in the distributions
      */
-    private Optional<Filing> findPreviousFilingByQuarter(Filing current) {
-        String form = current.getForm();
-        String cik = current.getCik();
-        LocalDate periodEnd = current.getPeriodEnd();
-
-        if (periodEnd == null) {
-            return Optional.empty();
+    private void saveMetrics(Filing filing, List<NormalizedMetric> metrics) {
+        Map<String, BigDecimal> stored = new HashMap<>();
+        for (NormalizedMetric existing : normalizedMetricRepository.findByFilingId(filing.getId())) {
+            stored.put(existing.getId().getMetric() + "|" + existing.getId().getBasis(), existing.getValue());
         }
 
-        List<Filing> previousFilings = filingRepository.findByCikAndFormOrderByFiledAtDesc(cik, form);
-
-        return previousFilings.stream()
-                .filter(f -> f.getPeriodEnd() != null && f.getPeriodEnd().isBefore(periodEnd))
-                .filter(f -> {
-                    long monthsDiff = java.time.temporal.ChronoUnit.MONTHS.between(f.getPeriodEnd(), periodEnd);
-                    return monthsDiff >= 2 && monthsDiff <= 4;  // ~3 months
-                })
-                .findFirst();
-    }
-
-    /**
-     * Find previous year filing (12 months before)
-     */
-    private Optional<Filing> findPreviousFilingByYear(Filing current) {
-        String form = current.getForm();
-        String cik = current.getCik();
-        LocalDate periodEnd = current.getPeriodEnd();
-
-        if (periodEnd == null) {
-            return Optional.empty();
+        List<MetricDistributionService.Change> changes = new ArrayList<>();
+        for (NormalizedMetric metric : metrics) {
+            String key = metric.getId().getMetric() + "|" + metric.getId().getBasis();
+            changes.add(new MetricDistributionService.Change(
+                    metric.getId().getMetric(), metric.getId().getBasis(), stored.get(key), metric.getValue()));
         }
 
-        List<Filing> previousFilings = filingRepository.findByCikAndFormOrderByFiledAtDesc(cik, form);
-
-        return previousFilings.stream()
-                .filter(f -> f.getPeriodEnd() != null && f.getPeriodEnd().isBefore(periodEnd))
-                .filter(f -> {
-                    long monthsDiff = java.time.temporal.ChronoUnit.MONTHS.between(f.getPeriodEnd(), periodEnd);
-                    return monthsDiff >= 11 && monthsDiff <= 13;  // ~12 months
-                })
-                .findFirst();
+        normalizedMetricRepository.saveAll(metrics);
+        distributionService.recordChanges(MetricDistributionService.Source.NORMALIZED, filing.getCik(), changes);
     }
 
     /**
@@ -333,6 +289,10 @@ public class NormalizedMetricsService {
         HeatmapData heatmap = new HeatmapData();
         heatmap.setFilingId(filingId);
 
+        String cik = filingRepository.findById(filingId).map(Filing::getCik).orElse(null);
+        MetricDistributionService.Scorer scorer =
+                distributionService.scorer(MetricDistributionService.Source.NORMALIZED, cik);
+
         // Group by metric and basis
         Map<String, Map<String, BigDecimal>> data = new HashMap<>();
 
@@ -351,12 +311,13 @@ public class NormalizedMetricsService {
             row.setMetric(entry.getKey());
             row.setValues(entry.getValue());
 
-            // Calculate Z-score for anomaly detection
-            if (entry.getValue().containsKey("QoQ") || entry.getValue().containsKey("YoY")) {
-                BigDecimal change = entry.getValue().getOrDefault("QoQ", entry.getValue().get("YoY"));
-                if (change != null) {
-                    row.setZScore(calculateZScore(change));
-                }
+            // Score the change against the metric's distribution for anomaly detection
+            String basis = entry.getValue().containsKey("QoQ") ? "QoQ" : "YoY";
+            BigDecimal change = entry.getValue().get(basis);
+            if (change != null) {
+                MetricDistributionService.Score score = scorer.score(entry.getKey(), basis, change);
+                row.setZScore(score.getZScore());
+                row.setPercentile(score.getPercentile());
             }
 
             rows.add(row);
@@ -366,19 +327,6 @@ public class NormalizedMetricsService {
         return heatmap;
     }
 
-    /**
-     * Calculate Z-score for anomaly detection (simplified)
-     */
-    private double calculateZScore(BigDecimal value) {
-        double absValue = Math.abs(value.doubleValue());
-
-        if (absValue > 50) return 3.0;
-        if (absValue > 30) return 2.5;
-        if (absValue > 20) return 2.0;
-        if (absValue > 10) return 1.5;
-        return absValue / 10.0;
-    }
-
     // DTO Classes
 
     public static class HeatmapData {
@@ -396,6 +344,7 @@ public class NormalizedMetricsService {
         private String metric;
         private Map<String, BigDecimal> values;  // basis -> value
         private double zScore;
+        private Double percentile;  // Percent of the metric's changes below this one; null without a distribution
 
         public String getMetric() { return metric; }
         public void setMetric(String metric) { this.metric = metric; }
@@ -406,5 +355,8 @@ public class NormalizedMetricsService {
         @com.fasterxml.jackson.annotation.JsonProperty("zScore")
         public double getZScore() { return zScore; }
         public void setZScore(double zScore) { this.zScore = zScore; }
+
+        public Double getPercentile() { return percentile; }
+        public void setPercentile(Double percentile) { this.percentile = percentile; }
     }
 }
@@ -0,0 +1,118 @@
+package com.stockdelta.common.service;
+
+import com.stockdelta.common.config.ScoringConfig;
+import com.stockdelta.common.entity.FilingDelta;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Changed figures in a fragment
+ * When a fragment replaces other text, figures are paired by position and the largest
+ * relative move against the old value sets the score, reaching the configured weight at
+ * 100%. Figures with nothing to pair against count half. Four-digit years are not figures.
+ */
+@Component
+public class NumericChangeDeltaScorer implements DeltaScorer {
+
+    private static final double UNPAIRED_FACTOR = 0.5;
+
+    private final ScoringConfig scoringConfig;
+
+    @Autowired
+    public NumericChangeDeltaScorer(ScoringConfig scoringConfig) {
+        this.scoringConfig = scoringConfig;
+    }
+
+    @Override
+    public String name() {
+        return "numeric-change";
+    }
+
+    @Override
+    public double score(Fragment fragment) {
+        List<Double> figures = figures(fragment.getText());
+        if (figures.isEmpty()) {
+            return 0.0;
+        }
+
+        List<Double> other = fragment.getCounterpart() != null ? figures(fragment.getCounterpart()) : List.of();
+        if (other.isEmpty()) {
+            return scoringConfig.getNumericChangeWeight() * UNPAIRED_FACTOR;
+        }
+
+        boolean inserted = fragment.getOperation() == FilingDelta.Operation.INSERT;
+        List<Double> oldFigures = inserted ? other : figures;
+        List<Double> newFigures = inserted ? figures : other;
+
+        double change = 0.0;
+        for (int i = 0; i < Math.min(oldFigures.size(), newFigures.size()); i++) {
+            double oldValue = oldFigures.get(i);
+            double newValue = newFigures.get(i);
+            if (oldValue == newValue) {
+                continue;
+            }
+            change = Math.max(change, oldValue == 0.0 ? 1.0 : Math.abs(newValue - oldValue) / Math.abs(oldValue));
+        }
+        return scoringConfig.getNumericChangeWeight() * Math.min(1.0, change);
+    }
+
+    /**
+     * Numbers in the text in order, with thousands separators removed
+     */
+    static List<Double> figures(String text) {
+        List<Double> figures = new ArrayList<>();
+        StringBuilder digits = new StringBuilder();
+        int i = 0;
+
+        while (i < text.length()) {
+            if (!isDigit(text.charAt(i))) {
+                i++;
+                continue;
+            }
+
+            digits.setLength(0);
+            boolean grouped = false;
+            boolean decimal = false;
+            while (i < text.length()) {
+                char c = text.charAt(i);
+                boolean followedByDigit = i + 1 < text.length() && isDigit(text.charAt(i + 1));
+                if (isDigit(c)) {
+                    digits.append(c);
+                } else if (c == ',' && followedByDigit && !decimal) {
+                    grouped = true;
+                } else if (c == '.' && followedByDigit && !decimal) {
+                    decimal = true;
+                    digits.append(c);
+                } else {
+                    break;
+                }
+                i++;
+            }
+
+            boolean percent = i < text.length() && text.charAt(i) == '%';
+            if (!grouped && !decimal && !percent && isYear(digits)) {
+                continue;
+            }
+            figures.add(Double.parseDouble(digits.toString()));
+        }
+        return figures;
+    }
+
+    /**
+     * ASCII digits only; other Unicode digits would not parse as a double
+     */
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isYear(CharSequence digits) {
+        if (digits.length() != 4) {
+            return false;
+        }
+        int value = Integer.parseInt(digits.toString());
+        return value >= 1900 && value <= 2099;
+    }
+}
@@ -0,0 +1,275 @@
+package com.stockdelta.common.service;
+
+import com.stockdelta.common.entity.Filing;
+import com.stockdelta.common.entity.FilingSection;
+import com.stockdelta.common.entity.Issuer;
+import com.stockdelta.common.entity.ParagraphFingerprint;
+import com.stockdelta.common.repository.FilingRepository;
+import com.stockdelta.common.repository.FilingSectionRepository;
+import com.stockdelta.common.repository.IssuerRepository;
+import com.stockdelta.common.repository.ParagraphFingerprintRepository;
+import com.stockdelta.common.repository.ParagraphLshBandRepository;
+import com.stockdelta.common.text.MinHasher;
+import com.stockdelta.common.text.TextSegmenter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * MinHash/LSH index over section paragraphs
+ * Detects language reused from earlier filings of the same industry (SIC code),
+ * so boilerplate carried between filings and companies can be told apart from
+ * text that appears for the first time.
+ */
+@Service
+@Transactional
+public class ParagraphIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParagraphIndexService.class);
+
+    private static final double NEAR_DUPLICATE_THRESHOLD = 0.8;
+    private static final int MAX_PREVIEW_LENGTH = 500;
+    private static final int MAX_CANDIDATES = 5000;
+    private static final int CANDIDATE_WINDOW_YEARS = 5;
+    private static final int WRITE_BATCH_SIZE = 1000;
+
+    private static final String NEXT_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('paragraph_fingerprints', 'id')) FROM generate_series(1, ?)";
+
+    private static final String INSERT_FINGERPRINT_SQL =
+            "INSERT INTO paragraph_fingerprints (id, filing_id, cik, sic, section, ordinal, content_hash, minhash, " +
+            "char_count, filed_at, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Held until commit; concurrent indexers of one filing run one after the other
+    private static final String LOCK_FILING_SQL = "SELECT pg_advisory_xact_lock(?)";
+
+    private static final String INSERT_BAND_SQL =
+            "INSERT INTO paragraph_lsh_bands (fingerprint_id, filing_id, band_key, sic, filed_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final FilingRepository filingRepository;
+    private final FilingSectionRepository sectionRepository;
+    private final IssuerRepository issuerRepository;
+    private final ParagraphFingerprintRepository fingerprintRepository;
+    private final ParagraphLshBandRepository bandRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ParagraphIndexService(FilingRepository filingRepository,
+                                 FilingSectionRepository sectionRepository,
+                                 IssuerRepository issuerRepository,
+                                 ParagraphFingerprintRepository fingerprintRepository,
+                                 ParagraphLshBandRepository bandRepository,
+                                 NamedParameterJdbcTemplate jdbcTemplate) {
+        this.filingRepository = filingRepository;
+        this.sectionRepository = sectionRepository;
+        this.issuerRepository = issuerRepository;
+        this.fingerprintRepository = fingerprintRepository;
+        this.bandRepository = bandRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Fingerprint every paragraph of the given sections; filings already indexed are skipped
+     * Fingerprint ids are drawn from the table's sequence in one query, so fingerprints
+     * and their band rows go in as JDBC batches instead of a statement per row. The check
+     * and the inserts run under a per-filing advisory lock, so two comparisons that share
+     * a filing cannot both index it.
+     */
+    public void indexFiling(Filing filing, List<FilingSection> sections) {
+        if (sections.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.getJdbcOperations().queryForList(LOCK_FILING_SQL, filing.getId());
+        if (fingerprintRepository.existsByFilingId(filing.getId())) {
+            return;
+        }
+
+        String sic = issuerRepository.findByCik(filing.getCik()).map(Issuer::getSic).orElse(null);
+        Timestamp filedAt = filing.getFiledAt() != null ? Timestamp.valueOf(filing.getFiledAt()) : null;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> fingerprints = new ArrayList<>();
+        List<int[]> signatures = new ArrayList<>();
+        for (FilingSection section : sections) {
+            if (section.getText() == null) {
+                continue;
+            }
+
+            List<String> paragraphs = TextSegmenter.paragraphs(section.getText());
+            for (int ordinal = 0; ordinal < paragraphs.size(); ordinal++) {
+                String paragraph = paragraphs.get(ordinal);
+                int[] signature = MinHasher.signature(paragraph);
+
+                fingerprints.add(new Object[]{
+                        null, // id, assigned below
+                        filing.getId(),
+                        filing.getCik(),
+                        sic,
+                        section.getSection(),
+                        ordinal,
+                        MinHasher.contentHash(paragraph),
+                        MinHasher.toBytes(signature),
+                        paragraph.length(),
+                        filedAt,
+                        now
+                });
+                signatures.add(signature);
+            }
+        }
+        if (fingerprints.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids = jdbcTemplate.getJdbcOperations().queryForList(NEXT_IDS_SQL, Long.class, fingerprints.size());
+        List<Object[]> bands = new ArrayList<>(fingerprints.size() * MinHasher.BANDS);
+        for (int i = 0; i < fingerprints.size(); i++) {
+            Long id = ids.get(i);
+            fingerprints.get(i)[0] = id;
+            for (long bandKey : MinHasher.bandKeys(signatures.get(i))) {
+                bands.add(new Object[]{id, filing.getId(), bandKey, sic, filedAt});
+            }
+        }
+
+        batch(INSERT_FINGERPRINT_SQL, fingerprints);
+        batch(INSERT_BAND_SQL, bands);
+
+        logger.info("Indexed {} paragraphs for filing {}", fingerprints.size(), filing.getAccessionNo());
+    }
+
+    /**
+     * Drop a filing's fingerprints, so they are rebuilt from its sections on the next indexFiling
+     */
+    public void removeFiling(Long filingId) {
+        jdbcTemplate.getJdbcOperations().queryForList(LOCK_FILING_SQL, filingId);
+        bandRepository.deleteByFilingId(filingId);
+        fingerprintRepository.deleteByFilingId(filingId);
+    }
+
+    /**
+     * Compare each paragraph of a section against earlier filings in the same industry
+     * A paragraph is novel when no earlier paragraph reaches the near-duplicate threshold
+     */
+    public List<ParagraphMatch> findNovelParagraphs(Long filingId, String section) {
+        Optional<Filing> filingOpt = filingRepository.findById(filingId);
+        Optional<FilingSection> sectionOpt = sectionRepository.findByFilingIdAndSection(filingId, section);
+        if (filingOpt.isEmpty() || sectionOpt.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Filing filing = filingOpt.get();
+        if (!fingerprintRepository.existsByFilingId(filingId)) {
+            indexFiling(filing, sectionRepository.findByFilingId(filingId));
+        }
+
+        List<ParagraphFingerprint> fingerprints =
+                fingerprintRepository.findByFilingIdAndSectionOrderByOrdinal(filingId, section);
+        if (fingerprints.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // One candidate lookup for the whole section
+        Set<Long> bandKeys = new HashSet<>();
+        List<int[]> signatures = new ArrayList<>();
+        for (ParagraphFingerprint fingerprint : fingerprints) {
+            int[] signature = MinHasher.fromBytes(fingerprint.getMinhash());
+            signatures.add(signature);
+            for (long bandKey : MinHasher.bandKeys(signature)) {
+                bandKeys.add(bandKey);
+            }
+        }
+
+        // Most recent candidates within the window; older language still counts as seen once it recurs
+        String sic = fingerprints.get(0).getSic();
+        List<ParagraphFingerprint> candidates = sic != null && filing.getFiledAt() != null
+                ? fingerprintRepository.findEarlierCandidates(bandKeys, sic,
+                        filing.getFiledAt().minusYears(CANDIDATE_WINDOW_YEARS), filing.getFiledAt(), filingId,
+                        PageRequest.of(0, MAX_CANDIDATES))
+                : new ArrayList<>();
+        List<int[]> candidateSignatures = candidates.stream()
+                .map(c -> MinHasher.fromBytes(c.getMinhash()))
+                .toList();
+
+        List<String> paragraphs = TextSegmenter.paragraphs(sectionOpt.get().getText());
+        List<ParagraphMatch> novel = new ArrayList<>();
+        for (int i = 0; i < fingerprints.size(); i++) {
+            ParagraphFingerprint fingerprint = fingerprints.get(i);
+
+            double bestSimilarity = 0.0;
+            ParagraphFingerprint bestMatch = null;
+            for (int j = 0; j < candidates.size(); j++) {
+                ParagraphFingerprint candidate = candidates.get(j);
+                double similarity = candidate.getContentHash().equals(fingerprint.getContentHash())
+                        ? 1.0
+                        : MinHasher.similarity(signatures.get(i), candidateSignatures.get(j));
+                if (similarity > bestSimilarity) {
+                    bestSimilarity = similarity;
+                    bestMatch = candidate;
+                }
+            }
+
+            if (bestSimilarity >= NEAR_DUPLICATE_THRESHOLD) {
+                continue;
+            }
+
+            int ordinal = fingerprint.getOrdinal();
+            ParagraphMatch match = new ParagraphMatch();
+            match.setOrdinal(ordinal);
+            match.setText(ordinal < paragraphs.size() ? truncate(paragraphs.get(ordinal)) : null);
+            match.setBestSimilarity(bestSimilarity);
+            match.setClosestFilingId(bestMatch != null ? bestMatch.getFilingId() : null);
+            novel.add(match);
+        }
+
+        logger.debug("Section {} of filing {}: {} of {} paragraphs novel ({} candidates)",
+                section, filingId, novel.size(), fingerprints.size(), candidates.size());
+
+        return novel;
+    }
+
+    private void batch(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += WRITE_BATCH_SIZE) {
+            jdbcTemplate.getJdbcOperations().batchUpdate(sql,
+                    rows.subList(from, Math.min(from + WRITE_BATCH_SIZE, rows.size())));
+        }
+    }
+
+    private String truncate(String text) {
+        if (text.length() <= MAX_PREVIEW_LENGTH) {
+            return text;
+        }
+        return text.substring(0, MAX_PREVIEW_LENGTH) + "...";
+    }
+
+    public static class ParagraphMatch {
+        private int ordinal;
+        private String text;
+        private double bestSimilarity;
+        private Long closestFilingId;
+
+        // Getters and Setters
+        public int getOrdinal() { return ordinal; }
+        public void setOrdinal(int ordinal) { this.ordinal = ordinal; }
+
+        public String getText() { return text; }
+        public void setText(String text) { this.text = text; }
+
+        public double getBestSimilarity() { return bestSimilarity; }
+        public void setBestSimilarity(double bestSimilarity) { this.bestSimilarity = bestSimilarity; }
+
+        public Long getClosestFilingId() { return closestFilingId; }
+        public void setClosestFilingId(Long closestFilingId) { this.closestFilingId = closestFilingId; }
+    }
+}
@@ -0,0 +1,250 @@
+package com.stockdelta.common.service;
+
+import com.stockdelta.common.config.DiffConfig;
+import com.stockdelta.common.entity.FilingDelta.DiffMode;
+import com.stockdelta.common.text.TextSegmenter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bitbucket.cowwoc.diffmatchpatch.DiffMatchPatch;
+import org.bitbucket.cowwoc.diffmatchpatch.DiffMatchPatch.Diff;
+import org.bitbucket.cowwoc.diffmatchpatch.DiffMatchPatch.Operation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Time-bounded text diff for filing sections
+ * Runs a paragraph-anchored character-level diff within the section budget and degrades to a
+ * sentence-level diff, and finally to a whole-section replacement, when the
+ * budget is exhausted.
+ */
+@Component
+public class SectionDiffEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(SectionDiffEngine.class);
+
+    private static final String LATENCY_METRIC = "stockdelta.diff.section.latency";
+
+    private final DiffConfig diffConfig;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public SectionDiffEngine(DiffConfig diffConfig, MeterRegistry meterRegistry) {
+        this.diffConfig = diffConfig;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Diff two versions of a section
+     *
+     * @param section             Section name, used as the metric tag
+     * @param previous            Previous section text
+     * @param current             Current section text
+     * @param filingRemainingMs   Time left in the filing-wide diff budget
+     * @return Diff operations together with the mode that produced them
+     */
+    public SectionDiff diff(String section, String previous, String current, long filingRemainingMs) {
+        long start = System.nanoTime();
+        SectionDiff result;
+
+        if (filingRemainingMs <= 0) {
+            result = new SectionDiff(replaceSection(previous, current), DiffMode.SECTION);
+        } else {
+            long charBudgetMs = Math.min(diffConfig.getSectionTimeoutMs(), filingRemainingMs);
+            LinkedList<Diff> diffs = charDiff(previous, current, charBudgetMs);
+            long elapsedMs = elapsedMillis(start);
+
+            if (elapsedMs < charBudgetMs) {
+                cleanup(diffs);
+                result = new SectionDiff(diffs, DiffMode.CHAR);
+            } else {
+                // diff-match-patch hit its deadline and returned a coarse result
+                long sentenceBudgetMs = filingRemainingMs - elapsedMs;
+                LinkedList<Diff> sentenceDiffs = sentenceBudgetMs > 0
+                        ? sentenceDiff(previous, current, sentenceBudgetMs)
+                        : null;
+
+                if (sentenceDiffs != null) {
+                    logger.info("Section {} exceeded {}ms char diff budget, degraded to sentence diff",
+                            section, charBudgetMs);
+                    result = new SectionDiff(sentenceDiffs, DiffMode.SENTENCE);
+                } else {
+                    logger.warn("Section {} exceeded diff budget, reporting whole-section replacement", section);
+                    result = new SectionDiff(replaceSection(previous, current), DiffMode.SECTION);
+                }
+            }
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        result.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+
+        Timer.builder(LATENCY_METRIC)
+                .description("Section diff latency")
+                .tag("section", section)
+                .tag("mode", result.getMode().name())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        return result;
+    }
+
+    /**
+     * Character diff anchored on paragraphs
+     * Paragraphs carried over unchanged are matched as whole tokens first, so only
+     * the changed runs between them go through the character-level diff.
+     */
+    private LinkedList<Diff> charDiff(String previous, String current, long budgetMs) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMs);
+        LinkedList<Diff> paragraphDiffs = tokenDiff(previous, current, TextSegmenter::paragraphs, budgetMs);
+        if (paragraphDiffs == null) {
+            return rawCharDiff(previous, current, budgetMs);
+        }
+
+        LinkedList<Diff> diffs = new LinkedList<>();
+        StringBuilder deleted = new StringBuilder();
+        StringBuilder inserted = new StringBuilder();
+        for (Diff diff : paragraphDiffs) {
+            if (diff.operation == Operation.EQUAL) {
+                diffChangedRun(diffs, deleted, inserted, deadline);
+                diffs.add(diff);
+            } else if (diff.operation == Operation.DELETE) {
+                deleted.append(diff.text);
+            } else {
+                inserted.append(diff.text);
+            }
+        }
+        diffChangedRun(diffs, deleted, inserted, deadline);
+
+        return diffs;
+    }
+
+    private void diffChangedRun(LinkedList<Diff> diffs, StringBuilder deleted, StringBuilder inserted,
+                                long deadline) {
+        if (deleted.length() == 0 && inserted.length() == 0) {
+            return;
+        }
+
+        long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remainingMs > 0) {
+            diffs.addAll(rawCharDiff(deleted.toString(), inserted.toString(), remainingMs));
+        } else {
+            diffs.addAll(replaceSection(deleted.toString(), inserted.toString()));
+        }
+
+        deleted.setLength(0);
+        inserted.setLength(0);
+    }
+
+    private LinkedList<Diff> rawCharDiff(String previous, String current, long budgetMs) {
+        DiffMatchPatch dmp = new DiffMatchPatch();
+        dmp.diffTimeout = budgetMs / 1000f;
+        // Section text has no line breaks, so line-mode speedup would only add a wasted pass
+        return dmp.diffMain(previous, current, false);
+    }
+
+    private void cleanup(LinkedList<Diff> diffs) {
+        DiffMatchPatch dmp = new DiffMatchPatch();
+        if (diffs.size() <= diffConfig.getSemanticCleanupMaxDiffs()) {
+            dmp.diffCleanupSemantic(diffs); // Improve readability
+        } else {
+            dmp.diffCleanupEfficiency(diffs);
+        }
+    }
+
+    private LinkedList<Diff> sentenceDiff(String previous, String current, long budgetMs) {
+        return tokenDiff(previous, current, TextSegmenter::sentences, budgetMs);
+    }
+
+    /**
+     * Diff at token granularity by encoding each distinct token as a single character
+     * Returns null if the texts have more distinct tokens than can be encoded
+     */
+    private LinkedList<Diff> tokenDiff(String previous, String current,
+                                       Function<String, List<String>> tokenizer, long budgetMs) {
+        List<String> tokenTable = new ArrayList<>();
+        Map<String, Integer> tokenIndex = new HashMap<>();
+        tokenTable.add(""); // Reserve char 0
+
+        String encodedPrevious = encodeTokens(tokenizer.apply(previous), tokenTable, tokenIndex);
+        String encodedCurrent = encodeTokens(tokenizer.apply(current), tokenTable, tokenIndex);
+        if (encodedPrevious == null || encodedCurrent == null) {
+            return null;
+        }
+
+        DiffMatchPatch dmp = new DiffMatchPatch();
+        dmp.diffTimeout = budgetMs / 1000f;
+        LinkedList<Diff> encodedDiffs = dmp.diffMain(encodedPrevious, encodedCurrent, false);
+
+        LinkedList<Diff> diffs = new LinkedList<>();
+        for (Diff encoded : encodedDiffs) {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < encoded.text.length(); i++) {
+                text.append(tokenTable.get(encoded.text.charAt(i)));
+            }
+            diffs.add(new Diff(encoded.operation, text.toString()));
+        }
+        return diffs;
+    }
+
+    private String encodeTokens(List<String> tokens, List<String> tokenTable, Map<String, Integer> tokenIndex) {
+        StringBuilder encoded = new StringBuilder();
+        for (String token : tokens) {
+            Integer index = tokenIndex.get(token);
+            if (index == null) {
+                if (tokenTable.size() > Character.MAX_VALUE) {
+                    return null;
+                }
+                index = tokenTable.size();
+                tokenTable.add(token);
+                tokenIndex.put(token, index);
+            }
+            encoded.append((char) index.intValue());
+        }
+        return encoded.toString();
+    }
+
+    private LinkedList<Diff> replaceSection(String previous, String current) {
+        LinkedList<Diff> diffs = new LinkedList<>();
+        if (!previous.isEmpty()) {
+            diffs.add(new Diff(Operation.DELETE, previous));
+        }
+        if (!current.isEmpty()) {
+            diffs.add(new Diff(Operation.INSERT, current));
+        }
+        return diffs;
+    }
+
+    private long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    public static class SectionDiff {
+        private final LinkedList<Diff> diffs;
+        private final DiffMode mode;
+        private long elapsedMillis;
+
+        public SectionDiff(LinkedList<Diff> diffs, DiffMode mode) {
+            this.diffs = diffs;
+            this.mode = mode;
+        }
+
+        public LinkedList<Diff> getDiffs() { return diffs; }
+
+        public DiffMode getMode() { return mode; }
+
+        public boolean isDegraded() { return mode != DiffMode.CHAR; }
+
+        public long getElapsedMillis() { return elapsedMillis; }
+        public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+    }
+}
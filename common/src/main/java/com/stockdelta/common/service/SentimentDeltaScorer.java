@@ -0,0 +1,37 @@
+package com.stockdelta.common.service;
+
+import com.stockdelta.common.config.ScoringConfig;
+import com.stockdelta.common.text.KeywordAutomaton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Negative and uncertain tone of a fragment, from a Loughran-McDonald style word list
+ * The lexicon is compiled into one automaton, so entries may be stems that cover
+ * their inflections (deteriorat matches deteriorated and deterioration).
+ */
+@Component
+public class SentimentDeltaScorer implements DeltaScorer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SentimentDeltaScorer.class);
+
+    private final KeywordAutomaton lexicon;
+
+    @Autowired
+    public SentimentDeltaScorer(ScoringConfig scoringConfig) {
+        this.lexicon = KeywordAutomaton.compile(scoringConfig.getSentimentLexicon());
+        logger.info("Compiled {} sentiment lexicon entries", lexicon.size());
+    }
+
+    @Override
+    public String name() {
+        return "sentiment";
+    }
+
+    @Override
+    public double score(Fragment fragment) {
+        return lexicon.score(fragment.getText());
+    }
+}
@@ -0,0 +1,215 @@
+package com.stockdelta.common.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.stockdelta.common.entity.Filing;
+import com.stockdelta.common.entity.Issuer;
+import com.stockdelta.common.entity.TickerSummary;
+import com.stockdelta.common.event.FilingEvent;
+import com.stockdelta.common.repository.FilingRepository;
+import com.stockdelta.common.repository.IssuerRepository;
+import com.stockdelta.common.repository.TickerSummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the materialized per-ticker summary of each issuer's latest 10-K/10-Q
+ * Rows are rebuilt when deltas or metrics of one of the issuer's filings are
+ * recomputed, and built on first read for issuers that have never been summarized.
+ * Issuers without a 10-K/10-Q get a row with no filing, and symbols of no known issuer
+ * are remembered for a while, so neither is looked up again on every read.
+ */
+@Service
+@Transactional
+public class TickerSummaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TickerSummaryService.class);
+
+    private static final List<String> SUMMARY_FORMS = List.of("10-K", "10-Q");
+
+    // Events that can change which filing is latest or what its summary shows
+    private static final Set<FilingEvent.Type> SUMMARY_EVENTS = EnumSet.of(
+            FilingEvent.Type.FILING_INGESTED,
+            FilingEvent.Type.DELTAS_COMPUTED,
+            FilingEvent.Type.METRICS_CALCULATED);
+
+    // How long a symbol of no known issuer is answered without looking it up again
+    private static final Duration UNKNOWN_TICKER_TTL = Duration.ofMinutes(10);
+    private static final long UNKNOWN_TICKER_MAX = 10_000;
+
+    private final TickerSummaryRepository summaryRepository;
+    private final IssuerRepository issuerRepository;
+    private final FilingRepository filingRepository;
+    private final FilingDiffService diffService;
+    private final XbrlMetricsService metricsService;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, Boolean> unknownTickers = Caffeine.newBuilder()
+            .maximumSize(UNKNOWN_TICKER_MAX)
+            .expireAfterWrite(UNKNOWN_TICKER_TTL)
+            .build();
+
+    @Autowired
+    public TickerSummaryService(TickerSummaryRepository summaryRepository,
+                                IssuerRepository issuerRepository,
+                                FilingRepository filingRepository,
+                                FilingDiffService diffService,
+                                XbrlMetricsService metricsService,
+                                PlatformTransactionManager transactionManager) {
+        this.summaryRepository = summaryRepository;
+        this.issuerRepository = issuerRepository;
+        this.filingRepository = filingRepository;
+        this.diffService = diffService;
+        this.metricsService = metricsService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Stored summary for an issuer, building it if it was never materialized
+     *
+     * @return Summary, or empty when the issuer has no 10-K/10-Q
+     */
+    public Optional<TickerSummary> getOrBuild(Issuer issuer) {
+        Optional<TickerSummary> stored = summaryRepository.findById(issuer.getCik());
+        if (stored.isPresent()) {
+            return stored.filter(TickerSummary::hasFiling);
+        }
+        return refresh(issuer);
+    }
+
+    /**
+     * Summaries for many tickers; steady state is a single query
+     * Tickers of known issuers that have no row yet are materialized on the way; issuers
+     * without a 10-K/10-Q and unknown symbols are left out.
+     */
+    public List<TickerSummary> findByTickers(Collection<String> tickers) {
+        List<TickerSummary> stored = summaryRepository.findByTickerIn(tickers);
+
+        Set<String> found = stored.stream()
+                .map(TickerSummary::getTicker)
+                .collect(Collectors.toSet());
+        List<TickerSummary> summaries = stored.stream()
+                .filter(TickerSummary::hasFiling)
+                .collect(Collectors.toCollection(ArrayList::new));
+        List<String> missing = tickers.stream()
+                .filter(ticker -> !found.contains(ticker) && unknownTickers.getIfPresent(ticker) == null)
+                .distinct()
+                .toList();
+
+        if (!missing.isEmpty()) {
+            Set<String> known = new HashSet<>();
+            for (Issuer issuer : issuerRepository.findByTickerIn(missing)) {
+                known.add(issuer.getTicker());
+                refresh(issuer).ifPresent(summaries::add);
+            }
+            missing.stream()
+                    .filter(ticker -> !known.contains(ticker))
+                    .forEach(ticker -> unknownTickers.put(ticker, Boolean.TRUE));
+        }
+
+        return summaries;
+    }
+
+    /**
+     * Rebuild an issuer's summary from its latest 10-K/10-Q
+     *
+     * @return Summary, or empty when the issuer has no 10-K/10-Q (its row then holds no filing)
+     */
+    public Optional<TickerSummary> refresh(Issuer issuer) {
+        TickerSummary summary = summaryRepository.findById(issuer.getCik())
+                .orElseGet(() -> new TickerSummary(issuer.getCik()));
+        summary.setTicker(issuer.getTicker());
+        summary.setCompanyName(issuer.getName());
+
+        Optional<Filing> latestOpt = filingRepository.findLatestByCikAndForms(issuer.getCik(), SUMMARY_FORMS);
+        if (latestOpt.isEmpty()) {
+            summaryRepository.save(clear(summary));
+            return Optional.empty();
+        }
+
+        Filing filing = latestOpt.get();
+        FilingDiffService.DeltaSummary deltaSummary = diffService.getDeltaSummary(filing.getId());
+        XbrlMetricsService.HeatmapData heatmap = metricsService.getHeatmapData(filing.getId());
+
+        summary.setFilingId(filing.getId());
+        summary.setForm(filing.getForm());
+        summary.setAccessionNo(filing.getAccessionNo());
+        summary.setPeriodEnd(filing.getPeriodEnd());
+        summary.setFiledAt(filing.getFiledAt());
+        summary.setPrimaryDocUrl(filing.getPrimaryDocUrl());
+        summary.setTotalChanges(deltaSummary.getTotalChanges());
+        summary.setInsertCount(deltaSummary.getInsertCount());
+        summary.setDeleteCount(deltaSummary.getDeleteCount());
+        summary.setModifyCount(deltaSummary.getModifyCount());
+
+        if (heatmap.getRows() == null || heatmap.getRows().isEmpty()) {
+            summary.setMaxZScore(null);
+        } else {
+            summary.setMaxZScore(heatmap.getRows().stream()
+                    .mapToDouble(XbrlMetricsService.HeatmapRow::getZScore)
+                    .max()
+                    .orElse(0.0));
+        }
+
+        return Optional.of(summaryRepository.save(summary));
+    }
+
+    private static TickerSummary clear(TickerSummary summary) {
+        summary.setFilingId(null);
+        summary.setForm(null);
+        summary.setAccessionNo(null);
+        summary.setPeriodEnd(null);
+        summary.setFiledAt(null);
+        summary.setPrimaryDocUrl(null);
+        summary.setTotalChanges(0);
+        summary.setInsertCount(0);
+        summary.setDeleteCount(0);
+        summary.setModifyCount(0);
+        summary.setMaxZScore(null);
+        return summary;
+    }
+
+    /**
+     * Rebuild the issuer's row once a new filing, deltas or metrics are committed
+     * Ordered ahead of response cache invalidation so the next read sees the new row.
+     * The refresh runs in its own transaction, so a failure here is logged instead of
+     * failing the remaining after-commit listeners.
+     */
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onFilingEvent(FilingEvent event) {
+        if (event.getCik() == null || !SUMMARY_EVENTS.contains(event.getType())) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    issuerRepository.findByCik(event.getCik()).ifPresent(issuer -> {
+                        if (issuer.getTicker() != null) {
+                            unknownTickers.invalidate(issuer.getTicker());
+                        }
+                        refresh(issuer);
+                    }));
+        } catch (Exception e) {
+            logger.warn("Failed to refresh ticker summary for CIK {}: {}", event.getCik(), e.getMessage());
+        }
+    }
+}
@@ -3,12 +3,14 @@ package com.stockdelta.common.service;
 import com.stockdelta.common.entity.Filing;
 import com.stockdelta.common.entity.XbrlFact;
 import com.stockdelta.common.entity.XbrlMetric;
+import com.stockdelta.common.event.FilingEvent;
 import com.stockdelta.common.repository.FilingRepository;
 import com.stockdelta.common.repository.XbrlFactRepository;
 import com.stockdelta.common.repository.XbrlMetricRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -45,14 +47,23 @@ public class XbrlMetricsService {
     private final FilingRepository filingRepository;
     private final XbrlFactRepository xbrlFactRepository;
     private final XbrlMetricRepository xbrlMetricRepository;
+    private final MetricDistributionService distributionService;
+    private final FilingChainIndex chainIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public XbrlMetricsService(FilingRepository filingRepository,
                                XbrlFactRepository xbrlFactRepository,
-                               XbrlMetricRepository xbrlMetricRepository) {
+                               XbrlMetricRepository xbrlMetricRepository,
+                               MetricDistributionService distributionService,
+                               FilingChainIndex chainIndex,
+                               ApplicationEventPublisher eventPublisher) {
         this.filingRepository = filingRepository;
         this.xbrlFactRepository = xbrlFactRepository;
         this.xbrlMetricRepository = xbrlMetricRepository;
+        this.distributionService = distributionService;
+        this.chainIndex = chainIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -66,6 +77,15 @@ public class XbrlMetricsService {
         }
 
         Filing currentFiling = currentFilingOpt.get();
+        List<XbrlMetric> metrics = calculateMetrics(currentFiling);
+        eventPublisher.publishEvent(
+                new FilingEvent(FilingEvent.Type.METRICS_CALCULATED, filingId, currentFiling.getCik()));
+
+        return metrics;
+    }
+
+    private List<XbrlMetric> calculateMetrics(Filing currentFiling) {
+        Long filingId = currentFiling.getId();
         List<XbrlMetric> metrics = new ArrayList<>();
 
         // Get current filing's XBRL facts
@@ -89,11 +109,11 @@ public class XbrlMetricsService {
         }
 
         // Find previous filing for comparison
-        Optional<Filing> previousFilingOpt = findPreviousFiling(currentFiling);
+        Optional<Filing> previousFilingOpt = chainIndex.previous(currentFiling);
         if (previousFilingOpt.isEmpty()) {
             logger.info("No previous filing found for comparison: {}", currentFiling.getAccessionNo());
             // Save absolute metrics only
-            xbrlMetricRepository.saveAll(metrics);
+            saveMetrics(currentFiling, metrics);
             return metrics;
         }
 
@@ -104,7 +124,7 @@ public class XbrlMetricsService {
         metrics.addAll(calculateChanges(filingId, currentFiling, currentFacts, previousFiling, previousFacts));
 
         // Save all metrics
-        xbrlMetricRepository.saveAll(metrics);
+        saveMetrics(currentFiling, metrics);
         logger.info("Calculated {} metrics for filing {}", metrics.size(), filingId);
 
         return metrics;
@@ -185,22 +205,24 @@ public class XbrlMetricsService {
         return percentage.setScale(2, RoundingMode.HALF_UP);
     }
 
-    private Optional<Filing> findPreviousFiling(Filing current) {
-        String form = current.getForm();
-        String cik = current.getCik();
-        LocalDate periodEnd = current.getPeriodEnd();
-
-        if (periodEnd == null) {
-            return filingRepository.findByCikAndFormOrderByFiledAtDesc(cik, form).stream()
-                    .filter(f -> f.getFiledAt().isBefore(current.getFiledAt()))
-                    .findFirst();
+    /**
+     * Save a filing's metrics and move the changes they replace in the distributions
+     */
+    private void saveMetrics(Filing filing, List<XbrlMetric> metrics) {
+        Map<String, BigDecimal> stored = new HashMap<>();
+        for (XbrlMetric existing : xbrlMetricRepository.findByFilingId(filing.getId())) {
+            stored.put(existing.getId().getMetric() + "|" + existing.getId().getBasis(), existing.getValue());
         }
 
-        List<Filing> previousFilings = filingRepository.findByCikAndFormOrderByFiledAtDesc(cik, form);
+        List<MetricDistributionService.Change> changes = new ArrayList<>();
+        for (XbrlMetric metric : metrics) {
+            String key = metric.getId().getMetric() + "|" + metric.getId().getBasis();
+            changes.add(new MetricDistributionService.Change(
+                    metric.getId().getMetric(), metric.getId().getBasis(), stored.get(key), metric.getValue()));
+        }
 
-        return previousFilings.stream()
-                .filter(f -> f.getPeriodEnd() != null && f.getPeriodEnd().isBefore(periodEnd))
-                .findFirst();
+        xbrlMetricRepository.saveAll(metrics);
+        distributionService.recordChanges(MetricDistributionService.Source.XBRL, filing.getCik(), changes);
     }
 
     /**
@@ -212,6 +234,10 @@ public class XbrlMetricsService {
         HeatmapData heatmap = new HeatmapData();
         heatmap.setFilingId(filingId);
 
+        String cik = filingRepository.findById(filingId).map(Filing::getCik).orElse(null);
+        MetricDistributionService.Scorer scorer =
+                distributionService.scorer(MetricDistributionService.Source.XBRL, cik);
+
         // Group by metric and basis
         Map<String, Map<String, BigDecimal>> data = new HashMap<>();
 
@@ -230,12 +256,13 @@ public class XbrlMetricsService {
             row.setMetric(simplifyMetricName(entry.getKey()));
             row.setValues(entry.getValue());
 
-            // Calculate Z-score for anomaly detection
-            if (entry.getValue().containsKey("QoQ") || entry.getValue().containsKey("YoY")) {
-                BigDecimal change = entry.getValue().getOrDefault("QoQ", entry.getValue().get("YoY"));
-                if (change != null) {
-                    row.setZScore(calculateZScore(change));
-                }
+            // Score the change against the metric's distribution for anomaly detection
+            String basis = entry.getValue().containsKey("QoQ") ? "QoQ" : "YoY";
+            BigDecimal change = entry.getValue().get(basis);
+            if (change != null) {
+                MetricDistributionService.Score score = scorer.score(entry.getKey(), basis, change);
+                row.setZScore(score.getZScore());
+                row.setPercentile(score.getPercentile());
             }
 
             rows.add(row);
@@ -259,18 +286,6 @@ public class XbrlMetricsService {
         return simplifications.getOrDefault(tag, tag);
     }
 
-    private double calculateZScore(BigDecimal value) {
-        // Simplified Z-score calculation
-        // In a real implementation, you would calculate from historical distribution
-        double absValue = Math.abs(value.doubleValue());
-
-        if (absValue > 50) return 3.0;
-        if (absValue > 30) return 2.5;
-        if (absValue > 20) return 2.0;
-        if (absValue > 10) return 1.5;
-        return absValue / 10.0;
-    }
-
     public static class HeatmapData {
         private Long filingId;
         private List<HeatmapRow> rows;
@@ -288,6 +303,7 @@ public class XbrlMetricsService {
 
         @com.fasterxml.jackson.annotation.JsonProperty("zScore")
         private double zScore;
+        private Double percentile;  // Percent of the metric's changes below this one; null without a distribution
 
         public String getMetric() { return metric; }
         public void setMetric(String metric) { this.metric = metric; }
@@ -297,5 +313,8 @@ public class XbrlMetricsService {
 
         public double getZScore() { return zScore; }
         public void setZScore(double zScore) { this.zScore = zScore; }
+
+        public Double getPercentile() { return percentile; }
+        public void setPercentile(Double percentile) { this.percentile = percentile; }
     }
 }
@@ -0,0 +1,148 @@
+package com.stockdelta.common.text;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compact binary form of a text edit script
+ * Each edit is a one-byte op code followed by its length as an unsigned varint.
+ * Positions in the two texts are implied by the running sum of lengths, so the
+ * script holds no text at all and is rendered against the stored section texts.
+ * The encoded stream is deflate-compressed.
+ */
+public final class EditScriptCodec {
+
+    public enum Op { EQUAL, DELETE, INSERT }
+
+    private EditScriptCodec() {
+    }
+
+    public static byte[] encode(List<Edit> edits) {
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(edits.size() * 3);
+        for (Edit edit : edits) {
+            raw.write(edit.getOp().ordinal());
+            writeVarint(raw, edit.getLength());
+        }
+        return deflate(raw.toByteArray());
+    }
+
+    /**
+     * Decode a script, resolving each edit to its offsets in the previous and current texts
+     */
+    public static List<Edit> decode(byte[] script) {
+        byte[] raw = inflate(script);
+        List<Edit> edits = new ArrayList<>();
+        Op[] ops = Op.values();
+
+        int previousOffset = 0;
+        int currentOffset = 0;
+        int pos = 0;
+        while (pos < raw.length) {
+            int code = raw[pos++];
+            if (code < 0 || code >= ops.length) {
+                throw new IllegalArgumentException("Invalid edit op code: " + code);
+            }
+
+            int length = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (pos >= raw.length || shift > 28) {
+                    throw new IllegalArgumentException("Truncated edit script");
+                }
+                b = raw[pos++];
+                length |= (b & 0x7f) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+
+            Op op = ops[code];
+            edits.add(new Edit(op, length, previousOffset, currentOffset));
+            if (op != Op.INSERT) {
+                previousOffset += length;
+            }
+            if (op != Op.DELETE) {
+                currentOffset += length;
+            }
+        }
+
+        return edits;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7f) != 0) {
+            out.write((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 2));
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && !inflater.finished() && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Truncated edit script");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt edit script", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * One edit; offsets are only populated on decoded scripts
+     */
+    public static class Edit {
+        private final Op op;
+        private final int length;
+        private final int previousOffset;
+        private final int currentOffset;
+
+        public Edit(Op op, int length) {
+            this(op, length, 0, 0);
+        }
+
+        public Edit(Op op, int length, int previousOffset, int currentOffset) {
+            this.op = op;
+            this.length = length;
+            this.previousOffset = previousOffset;
+            this.currentOffset = currentOffset;
+        }
+
+        public Op getOp() { return op; }
+
+        public int getLength() { return length; }
+
+        public int getPreviousOffset() { return previousOffset; }
+
+        public int getCurrentOffset() { return currentOffset; }
+    }
+}
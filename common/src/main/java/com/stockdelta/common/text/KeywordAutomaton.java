@@ -0,0 +1,148 @@
+package com.stockdelta.common.text;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick automaton over a weighted keyword dictionary
+ * Matching is case-insensitive and runs in one pass over the text without
+ * building a lowercased copy. Keywords are restricted to ASCII so every state
+ * can keep a dense transition table.
+ */
+public final class KeywordAutomaton {
+
+    private static final int ALPHABET = 128;
+
+    private final int[][] transitions;
+    private final int[][] outputs;
+    private final int[] keywordLengths;
+    private final double[] weights;
+
+    private KeywordAutomaton(int[][] transitions, int[][] outputs, int[] keywordLengths, double[] weights) {
+        this.transitions = transitions;
+        this.outputs = outputs;
+        this.keywordLengths = keywordLengths;
+        this.weights = weights;
+    }
+
+    /**
+     * Compile a keyword to weight dictionary into an automaton
+     */
+    public static KeywordAutomaton compile(Map<String, Double> dictionary) {
+        List<int[]> gotoTable = new ArrayList<>();
+        List<List<Integer>> outputTable = new ArrayList<>();
+        gotoTable.add(newState());
+        outputTable.add(new ArrayList<>());
+
+        int[] keywordLengths = new int[dictionary.size()];
+        double[] weights = new double[dictionary.size()];
+        int keywordIndex = 0;
+
+        // Build the keyword trie
+        for (Map.Entry<String, Double> entry : dictionary.entrySet()) {
+            String keyword = entry.getKey().toLowerCase();
+            if (keyword.isEmpty()) {
+                throw new IllegalArgumentException("Keyword must not be empty");
+            }
+
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = keyword.charAt(i);
+                if (c >= ALPHABET) {
+                    throw new IllegalArgumentException("Keyword must be ASCII: " + entry.getKey());
+                }
+                if (gotoTable.get(state)[c] < 0) {
+                    gotoTable.get(state)[c] = gotoTable.size();
+                    gotoTable.add(newState());
+                    outputTable.add(new ArrayList<>());
+                }
+                state = gotoTable.get(state)[c];
+            }
+
+            outputTable.get(state).add(keywordIndex);
+            keywordLengths[keywordIndex] = keyword.length();
+            weights[keywordIndex] = entry.getValue();
+            keywordIndex++;
+        }
+
+        // Breadth-first pass resolves failure links into direct transitions
+        int[] failure = new int[gotoTable.size()];
+        Queue<Integer> queue = new ArrayDeque<>();
+        int[] root = gotoTable.get(0);
+        for (int c = 0; c < ALPHABET; c++) {
+            if (root[c] < 0) {
+                root[c] = 0;
+            } else {
+                queue.add(root[c]);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int[] row = gotoTable.get(state);
+            for (int c = 0; c < ALPHABET; c++) {
+                int next = row[c];
+                int fallback = gotoTable.get(failure[state])[c];
+                if (next < 0) {
+                    row[c] = fallback;
+                } else {
+                    failure[next] = fallback;
+                    outputTable.get(next).addAll(outputTable.get(fallback));
+                    queue.add(next);
+                }
+            }
+        }
+
+        int[][] transitions = gotoTable.toArray(new int[0][]);
+        int[][] outputs = new int[outputTable.size()][];
+        for (int state = 0; state < outputs.length; state++) {
+            outputs[state] = outputTable.get(state).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        return new KeywordAutomaton(transitions, outputs, keywordLengths, weights);
+    }
+
+    /**
+     * Sum keyword weights over all matches in the text
+     * Repeated matches of one keyword are counted without overlap, the same
+     * way a repeated indexOf scan would count them.
+     */
+    public double score(CharSequence text) {
+        int[] nextAllowedStart = new int[weights.length];
+        double score = 0.0;
+        int state = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (c >= ALPHABET) {
+                state = 0;
+                continue;
+            }
+
+            state = transitions[state][c];
+            for (int keyword : outputs[state]) {
+                int start = i - keywordLengths[keyword] + 1;
+                if (start >= nextAllowedStart[keyword]) {
+                    score += weights[keyword];
+                    nextAllowedStart[keyword] = i + 1;
+                }
+            }
+        }
+
+        return score;
+    }
+
+    public int size() {
+        return weights.length;
+    }
+
+    private static int[] newState() {
+        int[] row = new int[ALPHABET];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
@@ -0,0 +1,154 @@
+package com.stockdelta.common.text;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * MinHash signatures over word shingles, with LSH banding
+ * Two paragraphs whose shingle sets have Jaccard similarity s share at least one
+ * band key with probability 1 - (1 - s^ROWS)^BANDS, which puts the detection
+ * threshold near 0.5 for the default 16 x 4 layout.
+ */
+public final class MinHasher {
+
+    public static final int NUM_HASHES = 64;
+    public static final int BANDS = 16;
+    public static final int ROWS_PER_BAND = NUM_HASHES / BANDS;
+
+    private static final int SHINGLE_WORDS = 5;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final long[] SEEDS = new long[NUM_HASHES];
+
+    static {
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            seed = mix64(seed + i);
+            SEEDS[i] = seed;
+        }
+    }
+
+    private MinHasher() {
+    }
+
+    /**
+     * Compute the MinHash signature of a paragraph
+     */
+    public static int[] signature(String text) {
+        int[] signature = new int[NUM_HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+
+        for (long shingle : shingleHashes(text)) {
+            for (int i = 0; i < NUM_HASHES; i++) {
+                int h = (int) (mix64(shingle ^ SEEDS[i]) >>> 32);
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+
+        return signature;
+    }
+
+    /**
+     * Collapse each band of the signature into a single 64-bit bucket key
+     * The band number is mixed into the key so keys from different bands never collide
+     */
+    public static long[] bandKeys(int[] signature) {
+        long[] keys = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long h = mix64(band + 1L);
+            for (int row = 0; row < ROWS_PER_BAND; row++) {
+                h = mix64(h ^ (signature[band * ROWS_PER_BAND + row] & 0xffffffffL));
+            }
+            keys[band] = h;
+        }
+        return keys;
+    }
+
+    /**
+     * Estimate Jaccard similarity from two signatures
+     */
+    public static double similarity(int[] a, int[] b) {
+        int matches = 0;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            if (a[i] == b[i]) {
+                matches++;
+            }
+        }
+        return (double) matches / NUM_HASHES;
+    }
+
+    /**
+     * Hash of the normalized paragraph text, used for exact-duplicate lookups
+     */
+    public static long contentHash(String text) {
+        long h = FNV_OFFSET;
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace) {
+                    h = (h ^ ' ') * FNV_PRIME;
+                    pendingSpace = false;
+                }
+                h = (h ^ Character.toLowerCase(c)) * FNV_PRIME;
+            } else if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+            }
+        }
+        return mix64(h);
+    }
+
+    public static byte[] toBytes(int[] signature) {
+        ByteBuffer buffer = ByteBuffer.allocate(signature.length * Integer.BYTES);
+        buffer.asIntBuffer().put(signature);
+        return buffer.array();
+    }
+
+    public static int[] fromBytes(byte[] bytes) {
+        int[] signature = new int[bytes.length / Integer.BYTES];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(signature);
+        return signature;
+    }
+
+    private static List<Long> shingleHashes(String text) {
+        List<Long> words = new ArrayList<>();
+        long h = FNV_OFFSET;
+        boolean inWord = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                h = (h ^ Character.toLowerCase(c)) * FNV_PRIME;
+                inWord = true;
+            } else if (inWord) {
+                words.add(h);
+                h = FNV_OFFSET;
+                inWord = false;
+            }
+        }
+        if (inWord) {
+            words.add(h);
+        }
+
+        List<Long> shingles = new ArrayList<>();
+        int width = Math.min(SHINGLE_WORDS, words.size());
+        for (int start = 0; start + width <= words.size() && width > 0; start++) {
+            long shingle = FNV_OFFSET;
+            for (int i = start; i < start + width; i++) {
+                shingle = mix64(shingle ^ words.get(i));
+            }
+            shingles.add(shingle);
+        }
+        return shingles;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
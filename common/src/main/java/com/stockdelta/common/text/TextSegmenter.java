@@ -0,0 +1,77 @@
+package com.stockdelta.common.text;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits cleaned section text into sentence and paragraph tokens
+ * Section text is whitespace-collapsed during extraction, so sentence boundaries
+ * are the finest structure left above characters. Concatenating the returned
+ * tokens always reproduces the input exactly.
+ */
+public final class TextSegmenter {
+
+    private static final int MIN_PARAGRAPH_CHARS = 300;
+    private static final int MAX_PARAGRAPH_CHARS = 2000;
+
+    private TextSegmenter() {
+    }
+
+    /**
+     * Split text into sentences, keeping the terminator and trailing whitespace with each sentence
+     */
+    public static List<String> sentences(String text) {
+        List<String> sentences = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return sentences;
+        }
+
+        int start = 0;
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            i++;
+            if ((c == '.' || c == '!' || c == '?' || c == ';') && i < length && Character.isWhitespace(text.charAt(i))) {
+                while (i < length && Character.isWhitespace(text.charAt(i))) {
+                    i++;
+                }
+                sentences.add(text.substring(start, i));
+                start = i;
+            }
+        }
+
+        if (start < length) {
+            sentences.add(text.substring(start));
+        }
+
+        return sentences;
+    }
+
+    /**
+     * Group sentences into paragraph-sized chunks
+     * Boundaries are content-defined (chosen by a hash of the closing sentence) rather than
+     * by position, so an edit early in a section does not shift every later paragraph and
+     * unchanged paragraphs still line up between filings.
+     */
+    public static List<String> paragraphs(String text) {
+        List<String> paragraphs = new ArrayList<>();
+        StringBuilder paragraph = new StringBuilder();
+
+        for (String sentence : sentences(text)) {
+            paragraph.append(sentence);
+            boolean contentBoundary = (sentence.trim().hashCode() & 3) == 0;
+            if ((paragraph.length() >= MIN_PARAGRAPH_CHARS && contentBoundary)
+                    || paragraph.length() >= MAX_PARAGRAPH_CHARS) {
+                paragraphs.add(paragraph.toString());
+                paragraph.setLength(0);
+            }
+        }
+
+        if (paragraph.length() > 0) {
+            paragraphs.add(paragraph.toString());
+        }
+
+        return paragraphs;
+    }
+}
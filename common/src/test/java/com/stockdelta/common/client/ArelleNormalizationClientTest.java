@@ -0,0 +1,148 @@
+package com.stockdelta.common.client;
+
+import com.stockdelta.common.config.NormalizationConfig;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ArelleNormalizationClient against a local stub of the normalization service's /process endpoint
+ */
+class ArelleNormalizationClientTest {
+
+    private static final String PROCESS_RESPONSE = """
+            {"filing_url": "https://example.test/a.xml", "cik": "320193", "rules_version": "r1",
+             "processing_time_ms": 12,
+             "normalization": {"concept_count": 1, "concepts": [
+               {"concept": "Revenue", "value": "1000.50", "period_type": "duration",
+                "context_ref": "c1", "unit": "USD"}]},
+             "validation": {"error_count": 1, "warning_count": 0, "errors": [
+               {"rule_id": "DQC_0001", "severity": "error", "message": "Negative value"}], "warnings": []}}
+            """;
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        server.createContext("/process", this::process);
+        server.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void processReadsNormalizationAndValidation() {
+        ArelleNormalizationClient.ProcessResponse response = client(4)
+                .process("https://example.test/a.xml", "320193", "0000320193-24-000001")
+                .block(Duration.ofSeconds(10));
+
+        assertNotNull(response);
+        assertEquals("r1", response.getRulesVersion());
+        assertEquals(1, response.getNormalization().getConcepts().size());
+        assertEquals(new BigDecimal("1000.50"), response.getNormalization().getConcepts().get(0).getValue());
+        assertEquals("DQC_0001", response.getValidation().getErrors().get(0).getRuleId());
+    }
+
+    @Test
+    void batchKeepsConfiguredNumberOfFilingsInFlight() {
+        List<ArelleNormalizationClient.NormalizationRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            requests.add(new ArelleNormalizationClient.NormalizationRequest(
+                    "https://example.test/" + i + ".xml", "320193", null));
+        }
+
+        List<ArelleNormalizationClient.BatchItem> items = client(2).processBatch(requests)
+                .collectList()
+                .block(Duration.ofSeconds(30));
+
+        assertNotNull(items);
+        assertEquals(8, items.size());
+        assertTrue(items.stream().allMatch(ArelleNormalizationClient.BatchItem::isSuccess));
+        assertTrue(maxRunning.get() <= 2, "at most 2 calls in flight, saw " + maxRunning.get());
+    }
+
+    @Test
+    void failedFilingIsReportedInItsItem() {
+        List<ArelleNormalizationClient.NormalizationRequest> requests = List.of(
+                new ArelleNormalizationClient.NormalizationRequest("https://example.test/ok.xml", "1", null),
+                new ArelleNormalizationClient.NormalizationRequest("https://example.test/broken.xml", "1", null),
+                new ArelleNormalizationClient.NormalizationRequest("https://example.test/ok2.xml", "1", null));
+
+        List<ArelleNormalizationClient.BatchItem> items = client(2).processBatch(requests)
+                .collectList()
+                .block(Duration.ofSeconds(30));
+
+        assertNotNull(items);
+        assertEquals(3, items.size());
+        for (ArelleNormalizationClient.BatchItem item : items) {
+            boolean broken = item.getRequest().getFilingUrl().contains("broken");
+            assertEquals(!broken, item.isSuccess());
+            if (broken) {
+                assertNotNull(item.getError());
+            }
+        }
+    }
+
+    private ArelleNormalizationClient client(int batchConcurrency) {
+        NormalizationConfig config = new NormalizationConfig();
+        config.setBatchConcurrency(batchConcurrency);
+        return new ArelleNormalizationClient("http://127.0.0.1:" + server.getAddress().getPort(),
+                WebClient.builder(), config);
+    }
+
+    private void process(HttpExchange exchange) throws IOException {
+        int inFlight = running.incrementAndGet();
+        maxRunning.accumulateAndGet(inFlight, Math::max);
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        running.decrementAndGet();
+
+        if (body.contains("broken")) {
+            respond(exchange, 500, "{\"detail\": \"Unreadable instance\"}");
+        } else {
+            respond(exchange, 200, PROCESS_RESPONSE);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
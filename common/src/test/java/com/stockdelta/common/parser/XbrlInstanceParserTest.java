@@ -0,0 +1,135 @@
+package com.stockdelta.common.parser;
+
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * XbrlInstanceParser against an instance document and an inline XBRL document in test resources
+ */
+class XbrlInstanceParserTest {
+
+    private static final String US_GAAP = "http://fasb.org/us-gaap/2024";
+
+    private final XbrlInstanceParser parser = new XbrlInstanceParser();
+
+    @Test
+    void instanceContextsAndUnits() throws Exception {
+        XbrlInstance instance = parser.parse(fixture("instance.xml"));
+
+        assertEquals(3, instance.getContexts().size());
+
+        XbrlInstance.Context quarter = instance.getContext("FY2024Q2");
+        assertEquals("duration", quarter.getPeriodType());
+        assertEquals(LocalDate.of(2024, 4, 1), quarter.getStartDate());
+        assertEquals(LocalDate.of(2024, 6, 30), quarter.getPeriodEnd());
+        assertFalse(quarter.isDimensional());
+
+        XbrlInstance.Context balance = instance.getContext("AsOf2024-06-30");
+        assertEquals("instant", balance.getPeriodType());
+        assertEquals(LocalDate.of(2024, 6, 30), balance.getInstant());
+
+        assertTrue(instance.getContext("FY2024Q2_Americas").isDimensional());
+
+        assertEquals("USD", instance.getUnit("usd"));
+        assertEquals("USD", instance.getUnit("usdPerShare"));
+    }
+
+    @Test
+    void instanceNumericFacts() throws Exception {
+        XbrlInstance instance = parser.parse(fixture("instance.xml"));
+
+        // DocumentType has no unit, Goodwill is nil and Liabilities is not a number
+        assertEquals(5, instance.getFacts().size());
+
+        Map<String, BigDecimal> facts = values(instance);
+        assertEquals(0, new BigDecimal("85777000000").compareTo(facts.get("Revenues@FY2024Q2")));
+        assertEquals(0, new BigDecimal("37678000000").compareTo(facts.get("Revenues@FY2024Q2_Americas")));
+        assertEquals(0, new BigDecimal("-1250000000").compareTo(facts.get("NetIncomeLoss@FY2024Q2")));
+        assertEquals(0, new BigDecimal("1.40").compareTo(facts.get("EarningsPerShareBasic@FY2024Q2")));
+        assertEquals(0, new BigDecimal("331612000000").compareTo(facts.get("Assets@AsOf2024-06-30")));
+        assertNull(facts.get("Goodwill@AsOf2024-06-30"));
+        assertNull(facts.get("Liabilities@AsOf2024-06-30"));
+
+        XbrlInstance.Fact revenue = instance.getFacts().get(0);
+        assertEquals(US_GAAP, revenue.getNamespace());
+        assertEquals("usd", revenue.getUnitRef());
+        assertEquals("-6", revenue.getDecimals());
+    }
+
+    @Test
+    void inlineFactsApplyFormatScaleAndSign() throws Exception {
+        XbrlInstance instance = parser.parse(fixture("inline.htm"));
+
+        assertEquals(2, instance.getContexts().size());
+        assertEquals("USD", instance.getUnit("usd"));
+
+        // Goodwill is nil
+        assertEquals(4, instance.getFacts().size());
+
+        Map<String, BigDecimal> facts = values(instance);
+        assertEquals(0, new BigDecimal("85777000000").compareTo(facts.get("Revenues@c-1")));
+        assertEquals(0, new BigDecimal("-142000000").compareTo(facts.get("NonoperatingIncomeExpense@c-1")));
+        assertEquals(0, BigDecimal.ZERO.compareTo(facts.get("RestructuringCharges@c-1")));
+        assertEquals(0, new BigDecimal("331612000500").compareTo(facts.get("Assets@c-2")));
+
+        for (XbrlInstance.Fact fact : instance.getFacts()) {
+            assertEquals(US_GAAP, fact.getNamespace());
+        }
+    }
+
+    @Test
+    void inlineValueTransforms() {
+        assertEquals(0, new BigDecimal("1234567.89").compareTo(
+                XbrlInstanceParser.inlineValue(" 1,234,567.89 ", "ixt:num-dot-decimal")));
+        assertEquals(0, new BigDecimal("1234567.89").compareTo(
+                XbrlInstanceParser.inlineValue("1.234.567,89", "ixt:num-comma-decimal")));
+        assertEquals(0, new BigDecimal("1234567.89").compareTo(
+                XbrlInstanceParser.inlineValue("1 234 567,89", "ixt4:numcommadecimal")));
+        assertEquals(0, BigDecimal.ZERO.compareTo(XbrlInstanceParser.inlineValue("-", "ixt:zerodash")));
+        assertEquals(0, BigDecimal.ZERO.compareTo(XbrlInstanceParser.inlineValue("None", "ixt:fixed-zero")));
+        assertEquals(0, new BigDecimal("42").compareTo(XbrlInstanceParser.inlineValue("$42", null)));
+        assertNull(XbrlInstanceParser.inlineValue("—", "ixt:num-dot-decimal"));
+    }
+
+    @Test
+    void inlineExtractorReadsTheSameFacts() throws Exception {
+        String document = fixture("inline.htm");
+
+        Map<String, BigDecimal> streamed = values(parser.parse(document));
+        Map<String, BigDecimal> extracted = values(new InlineXbrlExtractor().extract(Jsoup.parse(document)));
+
+        assertEquals(streamed.keySet(), extracted.keySet());
+        for (Map.Entry<String, BigDecimal> entry : streamed.entrySet()) {
+            assertEquals(0, entry.getValue().compareTo(extracted.get(entry.getKey())), entry.getKey());
+        }
+    }
+
+    private static Map<String, BigDecimal> values(XbrlInstance instance) {
+        Map<String, BigDecimal> values = new TreeMap<>();
+        for (XbrlInstance.Fact fact : instance.getFacts()) {
+            values.put(fact.getName() + "@" + fact.getContextRef(), fact.getValue());
+        }
+        return values;
+    }
+
+    private static String fixture(String name) throws IOException {
+        try (InputStream in = XbrlInstanceParserTest.class.getResourceAsStream("/xbrl/" + name)) {
+            assertNotNull(in, "missing fixture " + name);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.stockdelta.common.service;
+
+import com.stockdelta.common.entity.XbrlTagMapping;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * FacTagResolver stored lookups and the order of its name rules
+ */
+class FacTagResolverTest {
+
+    @Test
+    void operatingIncomeLossIsOperatingIncome() {
+        assertEquals("OperatingIncome", FacTagResolver.infer("OperatingIncomeLoss"));
+    }
+
+    @Test
+    void stockholdersEquityIsEquity() {
+        assertEquals("Equity", FacTagResolver.infer("StockholdersEquity"));
+    }
+
+    @Test
+    void specificRulesWinOverBroadOnes() {
+        // Exact names before fragments
+        assertEquals("Assets", FacTagResolver.infer("Assets"));
+        assertEquals("NetIncome", FacTagResolver.infer("ProfitLoss"));
+        // operatingincome is tried before sales and revenue
+        assertEquals("OperatingIncome", FacTagResolver.infer("OperatingIncomeLossFromSalesOfServices"));
+        // stockholdersequity is tried before the equity suffix and the liabilities fragments
+        assertEquals("Equity", FacTagResolver.infer("LiabilitiesAndStockholdersEquity"));
+        assertEquals("Equity", FacTagResolver.infer(
+                "StockholdersEquityIncludingPortionAttributableToNoncontrollingInterest"));
+        // netincome is tried before revenue
+        assertEquals("NetIncome", FacTagResolver.infer("NetIncomeLossFromRevenueSharing"));
+        assertEquals("Cash", FacTagResolver.infer("CashAndCashEquivalentsAtCarryingValue"));
+        assertEquals("Revenue", FacTagResolver.infer("RevenueFromContractWithCustomerExcludingAssessedTax"));
+        assertEquals("Revenue", FacTagResolver.infer("SalesRevenueNet"));
+    }
+
+    @Test
+    void matchingIgnoresCaseAndUnknownTagsHaveNoConcept() {
+        assertEquals("OperatingIncome", FacTagResolver.infer("OPERATINGINCOMELOSS"));
+        assertNull(FacTagResolver.infer("EntityCommonStockSharesOutstanding"));
+    }
+
+    @Test
+    void storedMappingsAreLookedUpByTagAndTaxonomy() {
+        FacTagResolver resolver = FacTagResolver.of(List.of(
+                new XbrlTagMapping("Revenues", "us-gaap", "Revenue", new BigDecimal("0.95"), "manual")));
+
+        FacTagResolver.Mapping mapping = resolver.lookup("Revenues", "us-gaap");
+        assertEquals("Revenue", mapping.getConcept());
+        assertEquals(0, new BigDecimal("0.95").compareTo(mapping.getConfidenceScore()));
+        assertNull(resolver.lookup("Revenues", "ifrs-full"));
+    }
+
+    @Test
+    void addedMappingsDoNotReplaceStoredOnes() {
+        FacTagResolver resolver = FacTagResolver.of(List.of(
+                new XbrlTagMapping("OperatingIncomeLoss", "us-gaap", "OperatingIncome")));
+
+        FacTagResolver extended = resolver.with(List.of(
+                new XbrlTagMapping("OperatingIncomeLoss", "us-gaap", "NetIncome"),
+                new XbrlTagMapping("StockholdersEquity", "us-gaap", "Equity")));
+
+        assertEquals("OperatingIncome", extended.lookup("OperatingIncomeLoss", "us-gaap").getConcept());
+        assertEquals("Equity", extended.lookup("StockholdersEquity", "us-gaap").getConcept());
+        assertEquals(2, extended.size());
+        assertEquals(1, resolver.size());
+    }
+}
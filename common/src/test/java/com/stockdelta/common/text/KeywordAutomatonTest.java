@@ -0,0 +1,123 @@
+package com.stockdelta.common.text;
+
+import com.stockdelta.common.config.ScoringConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * KeywordAutomaton scores against the lowercase-and-indexOf loop it replaced
+ */
+class KeywordAutomatonTest {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    void keywordInsideLongerKeywordCountsForBoth() {
+        Map<String, Double> dictionary = dictionary("uncertain", 0.03, "uncertainty", 0.3);
+        KeywordAutomaton automaton = KeywordAutomaton.compile(dictionary);
+
+        String text = "Uncertainty about demand and uncertain supply; UNCERTAINTIES remain uncertainty-driven.";
+
+        // "uncertain" inside each "uncertainty" and "uncertainties" counts too: 4 x 0.03 + 2 x 0.3
+        assertEquals(0.72, automaton.score(text), EPSILON);
+        assertEquals(indexOfScore(dictionary, text), automaton.score(text), EPSILON);
+    }
+
+    @Test
+    void phraseEndingInShorterKeywordCountsForBoth() {
+        Map<String, Double> dictionary = dictionary("adverse", 0.05, "material adverse", 0.3);
+        KeywordAutomaton automaton = KeywordAutomaton.compile(dictionary);
+
+        String text = "A Material Adverse effect, an adverse ruling and a material adverse change.";
+
+        // "adverse" 3 times, "material adverse" twice
+        assertEquals(0.75, automaton.score(text), EPSILON);
+        assertEquals(indexOfScore(dictionary, text), automaton.score(text), EPSILON);
+    }
+
+    @Test
+    void repeatedKeywordIsCountedWithoutOverlap() {
+        Map<String, Double> dictionary = dictionary("aa", 1.0, "aaa", 10.0);
+        KeywordAutomaton automaton = KeywordAutomaton.compile(dictionary);
+
+        // indexOf resumes after each match: "aa" twice and "aaa" once in "aaaaa"
+        assertEquals(12.0, automaton.score("aaaaa"), EPSILON);
+        assertEquals(indexOfScore(dictionary, "aaaaa"), automaton.score("aaaaa"), EPSILON);
+    }
+
+    @Test
+    void nonAsciiCharactersBreakMatches() {
+        KeywordAutomaton automaton = KeywordAutomaton.compile(dictionary("risk", 0.3, "default", 0.3));
+
+        assertEquals(0.3, automaton.score("Rïsk and RISK"), EPSILON);
+        assertEquals(0.0, automaton.score("défault"), EPSILON);
+    }
+
+    @Test
+    void rejectsNonAsciiAndEmptyKeywords() {
+        assertThrows(IllegalArgumentException.class, () -> KeywordAutomaton.compile(dictionary("café", 0.1)));
+        assertThrows(IllegalArgumentException.class, () -> KeywordAutomaton.compile(dictionary("", 0.1)));
+    }
+
+    @Test
+    void matchesIndexOfLoopOnDefaultDictionaries() {
+        ScoringConfig config = new ScoringConfig();
+        Map<String, Double> dictionary = new LinkedHashMap<>(config.getKeywords());
+        dictionary.putAll(config.getSentimentLexicon());
+        KeywordAutomaton automaton = KeywordAutomaton.compile(dictionary);
+
+        String[] words = dictionary.keySet().toArray(new String[0]);
+        String[] filler = {"the", "Company", "may", "not", "material", "RISKS", "uncertainties", "adverse",
+                "-", ",", "mat", "erial", "de", "fault", "ty", "s", "\n"};
+        Random random = new Random(42);
+
+        for (int run = 0; run < 2000; run++) {
+            StringBuilder text = new StringBuilder();
+            int tokens = random.nextInt(40);
+            for (int t = 0; t < tokens; t++) {
+                String token = random.nextBoolean()
+                        ? words[random.nextInt(words.length)]
+                        : filler[random.nextInt(filler.length)];
+                text.append(random.nextBoolean() ? token.toUpperCase() : token);
+                if (random.nextInt(3) > 0) {
+                    text.append(' ');
+                }
+            }
+
+            String fragment = text.toString();
+            assertEquals(indexOfScore(dictionary, fragment), automaton.score(fragment), EPSILON, fragment);
+        }
+    }
+
+    /**
+     * The scoring loop KeywordAutomaton replaced
+     */
+    private static double indexOfScore(Map<String, Double> dictionary, String text) {
+        String lowerText = text.toLowerCase();
+        double score = 0.0;
+        for (Map.Entry<String, Double> entry : dictionary.entrySet()) {
+            int count = 0;
+            int index = 0;
+            while ((index = lowerText.indexOf(entry.getKey(), index)) != -1) {
+                count++;
+                index += entry.getKey().length();
+            }
+            score += count * entry.getValue();
+        }
+        return score;
+    }
+
+    private static Map<String, Double> dictionary(Object... keywordsAndWeights) {
+        Map<String, Double> dictionary = new LinkedHashMap<>();
+        for (int i = 0; i < keywordsAndWeights.length; i += 2) {
+            dictionary.put((String) keywordsAndWeights[i], (Double) keywordsAndWeights[i + 1]);
+        }
+        return dictionary;
+    }
+}
@@ -0,0 +1,99 @@
+package com.stockdelta.common.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * MinHash signatures and LSH band keys of MinHasher
+ */
+class MinHasherTest {
+
+    private static final String PARAGRAPH = "We depend on a limited number of suppliers for key components, "
+            + "and any disruption in their supply could delay shipments of our products, increase our costs "
+            + "and adversely affect our results of operations and financial condition in future periods.";
+
+    private static final String REVISED = "We depend on a limited number of suppliers for key components, "
+            + "and any disruption in their supply could delay shipments of our products, increase our costs "
+            + "and materially affect our results of operations and financial condition in future periods.";
+
+    private static final String UNRELATED = "The Board of Directors declared a quarterly cash dividend payable "
+            + "to shareholders of record at the close of business, and approved an increase to the existing "
+            + "share repurchase program authorized in the prior fiscal year by the audit committee.";
+
+    @Test
+    void identicalTextHasIdenticalSignatureAndBands() {
+        int[] a = MinHasher.signature(PARAGRAPH);
+        int[] b = MinHasher.signature(new String(PARAGRAPH));
+
+        assertArrayEquals(a, b);
+        assertEquals(1.0, MinHasher.similarity(a, b), 0.0);
+        assertArrayEquals(MinHasher.bandKeys(a), MinHasher.bandKeys(b));
+    }
+
+    @Test
+    void nearDuplicateSharesABand() {
+        int[] a = MinHasher.signature(PARAGRAPH);
+        int[] b = MinHasher.signature(REVISED);
+
+        assertTrue(MinHasher.similarity(a, b) >= 0.5, "similarity " + MinHasher.similarity(a, b));
+        assertTrue(sharedBands(a, b) > 0, "near duplicates should meet in at least one band");
+    }
+
+    @Test
+    void unrelatedTextSharesNoBand() {
+        int[] a = MinHasher.signature(PARAGRAPH);
+        int[] b = MinHasher.signature(UNRELATED);
+
+        assertTrue(MinHasher.similarity(a, b) < 0.2, "similarity " + MinHasher.similarity(a, b));
+        assertEquals(0, sharedBands(a, b));
+    }
+
+    @Test
+    void bandKeysDifferPerBandForTheSameRows() {
+        int[] constant = new int[MinHasher.NUM_HASHES];
+        Arrays.fill(constant, 42);
+
+        Set<Long> keys = new HashSet<>();
+        for (long key : MinHasher.bandKeys(constant)) {
+            keys.add(key);
+        }
+        assertEquals(MinHasher.BANDS, keys.size());
+    }
+
+    @Test
+    void signatureRoundTripsThroughBytes() {
+        int[] signature = MinHasher.signature(PARAGRAPH);
+        byte[] bytes = MinHasher.toBytes(signature);
+
+        assertEquals(MinHasher.NUM_HASHES * Integer.BYTES, bytes.length);
+        assertArrayEquals(signature, MinHasher.fromBytes(bytes));
+    }
+
+    @Test
+    void contentHashIgnoresCasePunctuationAndSpacing() {
+        long hash = MinHasher.contentHash("Net sales increased 12% in fiscal 2024.");
+
+        assertEquals(hash, MinHasher.contentHash("net  sales increased 12 in\nFISCAL 2024"));
+        assertNotEquals(hash, MinHasher.contentHash("Net sales decreased 12% in fiscal 2024."));
+    }
+
+    private static int sharedBands(int[] a, int[] b) {
+        long[] keysA = MinHasher.bandKeys(a);
+        long[] keysB = MinHasher.bandKeys(b);
+        int shared = 0;
+        for (int i = 0; i < MinHasher.BANDS; i++) {
+            if (keysA[i] == keysB[i]) {
+                shared++;
+            }
+        }
+        return shared;
+    }
+}
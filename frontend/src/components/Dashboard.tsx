@@ -22,6 +22,7 @@ import {
   useIngestHealth,
   useRecentFilings
 } from '../hooks/useIngest';
+import { useFilingStream } from '../hooks/useFilingStream';
 import { FORM_TYPES } from '../constants/helpTexts';
 
 interface TabPanelProps {
@@ -49,6 +50,9 @@ export const Dashboard: React.FC = () => {
   const { data: healthStatus, isError: healthError } = useIngestHealth();
   const { data: recentFilings } = useRecentFilings({ limit: 100, days: 365 });
 
+  // Refresh listings when new filings arrive instead of polling
+  useFilingStream();
+
   const handleRefreshStart = (logId: string) => {
     setActiveRequestId(logId);
     setActiveTab(1); // Switch to progress tab
@@ -3,10 +3,40 @@ import type {
   DeltaMapResponse,
   XbrlHeatmapData,
   TickerDeltaSummary,
-  FilingSection
+  FilingSection,
+  SectionDiffPage,
+  AnalysisJob
 } from '../types/api';
 
 const API_BASE_URL = 'http://localhost:8080/api/deltamap';
+const JOB_POLL_INTERVAL_MS = 1000;
+
+/**
+ * Fetch a resource that may need background analysis first.
+ * A 202 response carries an analysis job; poll it until it finishes, then fetch again.
+ */
+async function fetchWithAnalysis(url: string): Promise<Response> {
+  const response = await fetch(url);
+  if (response.status !== 202) {
+    return response;
+  }
+
+  let job: AnalysisJob = await response.json();
+  while (job.status === 'QUEUED' || job.status === 'RUNNING') {
+    await new Promise((resolve) => setTimeout(resolve, JOB_POLL_INTERVAL_MS));
+    const jobResponse = await fetch(`${API_BASE_URL}/jobs/${job.jobId}`);
+    if (!jobResponse.ok) {
+      throw new Error('Analysis job was lost');
+    }
+    job = await jobResponse.json();
+  }
+
+  if (job.status === 'FAILED') {
+    throw new Error(job.error || 'Analysis failed');
+  }
+
+  return fetch(url);
+}
 
 export function useAnalyzeFiling(filingId: number) {
   return useMutation({
@@ -33,7 +63,7 @@ export function useFilingSections(filingId: number, section?: string) {
         params.append('section', section);
       }
 
-      const response = await fetch(
+      const response = await fetchWithAnalysis(
         `${API_BASE_URL}/filings/${filingId}/sections?${params.toString()}`
       );
 
@@ -56,7 +86,7 @@ export function useFilingDeltas(filingId: number, section?: string) {
         params.append('section', section);
       }
 
-      const response = await fetch(
+      const response = await fetchWithAnalysis(
         `${API_BASE_URL}/filings/${filingId}/deltas?${params.toString()}`
       );
 
@@ -70,6 +100,29 @@ export function useFilingDeltas(filingId: number, section?: string) {
   });
 }
 
+export function useSectionDiff(filingId: number, section: string, offset = 0, limit = 200) {
+  return useQuery<SectionDiffPage>({
+    queryKey: ['section-diff', filingId, section, offset, limit],
+    queryFn: async () => {
+      const params = new URLSearchParams({
+        offset: String(offset),
+        limit: String(limit),
+      });
+
+      const response = await fetch(
+        `${API_BASE_URL}/filings/${filingId}/sections/${encodeURIComponent(section)}/diff?${params.toString()}`
+      );
+
+      if (!response.ok) {
+        throw new Error('Failed to fetch section diff');
+      }
+
+      return response.json();
+    },
+    enabled: !!filingId && !!section,
+  });
+}
+
 // Legacy hook (deprecated)
 export function useXbrlHeatmap(filingId: number) {
   return useQuery<XbrlHeatmapData>({
@@ -194,3 +247,20 @@ export function useTickerDeltaSummary(symbol: string) {
     enabled: !!symbol,
   });
 }
+
+export function useTickerDeltaSummaries(symbols: string[]) {
+  return useQuery<TickerDeltaSummary[]>({
+    queryKey: ['ticker-delta-summaries', symbols],
+    queryFn: async () => {
+      const params = new URLSearchParams({ symbols: symbols.join(',') });
+      const response = await fetch(`${API_BASE_URL}/tickers/summaries?${params.toString()}`);
+
+      if (!response.ok) {
+        throw new Error('Failed to fetch ticker delta summaries');
+      }
+
+      return response.json();
+    },
+    enabled: symbols.length > 0,
+  });
+}
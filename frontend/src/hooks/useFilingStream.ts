@@ -0,0 +1,97 @@
+import { useEffect, useRef } from 'react';
+import { useQueryClient, type QueryKey } from '@tanstack/react-query';
+import type { FilingStreamEvent } from '../types/api';
+
+const STREAM_URL = 'http://localhost:8080/api/stream/filings';
+
+// Events arriving within this window refresh each affected query once
+const INVALIDATE_DEBOUNCE_MS = 500;
+
+const EVENT_TYPES: FilingStreamEvent['type'][] = [
+  'FILING_INGESTED',
+  'SECTIONS_EXTRACTED',
+  'DELTAS_COMPUTED',
+  'METRICS_CALCULATED',
+  'NORMALIZED',
+];
+
+/**
+ * Subscribe to live filing events and refresh the affected queries,
+ * so dashboards don't need to poll filing listings. Invalidations are
+ * collected and flushed together, so a burst of events (a batch run or
+ * an ingest) refetches each query once instead of once per event.
+ */
+export function useFilingStream(symbols: string[] = [], onEvent?: (event: FilingStreamEvent) => void) {
+  const queryClient = useQueryClient();
+  const symbolKey = symbols.join(',');
+  const onEventRef = useRef(onEvent);
+  onEventRef.current = onEvent;
+
+  useEffect(() => {
+    const params = new URLSearchParams();
+    if (symbolKey) {
+      params.append('symbols', symbolKey);
+    }
+
+    const source = new EventSource(`${STREAM_URL}?${params.toString()}`);
+
+    const pending = new Map<string, QueryKey>();
+    let timer: ReturnType<typeof setTimeout> | undefined;
+
+    const flush = () => {
+      timer = undefined;
+      const keys = [...pending.values()];
+      pending.clear();
+      keys.forEach((queryKey) => queryClient.invalidateQueries({ queryKey }));
+    };
+
+    const invalidate = (queryKey: QueryKey) => {
+      pending.set(JSON.stringify(queryKey), queryKey);
+      if (timer === undefined) {
+        timer = setTimeout(flush, INVALIDATE_DEBOUNCE_MS);
+      }
+    };
+
+    const handle = (message: MessageEvent) => {
+      const event: FilingStreamEvent = JSON.parse(message.data);
+
+      switch (event.type) {
+        case 'FILING_INGESTED':
+          invalidate(['filings']);
+          break;
+        case 'SECTIONS_EXTRACTED':
+          invalidate(['filing-sections', event.filingId]);
+          break;
+        case 'DELTAS_COMPUTED':
+          invalidate(['filing-deltas', event.filingId]);
+          invalidate(['section-diff', event.filingId]);
+          break;
+        case 'METRICS_CALCULATED':
+          (event.filingIds ?? [event.filingId]).forEach((filingId) => {
+            invalidate(['xbrl-heatmap', filingId]);
+            invalidate(['normalized-heatmap', filingId]);
+          });
+          break;
+        case 'NORMALIZED':
+          invalidate(['normalization-stats', event.filingId]);
+          invalidate(['data-quality', event.filingId]);
+          break;
+      }
+
+      if (event.type !== 'SECTIONS_EXTRACTED') {
+        invalidate(['ticker-delta-summary']);
+        invalidate(['ticker-delta-summaries']);
+      }
+
+      onEventRef.current?.(event);
+    };
+
+    EVENT_TYPES.forEach((type) => source.addEventListener(type, handle as EventListener));
+
+    // EventSource reconnects on its own after network errors
+    return () => {
+      source.close();
+      clearTimeout(timer);
+    };
+  }, [symbolKey, queryClient]);
+}
@@ -240,6 +240,12 @@ export const DeltaMapPage: React.FC = () => {
                 </Typography>
               </Box>
             </Box>
+            {deltaData.degradedSections && deltaData.degradedSections.length > 0 && (
+              <Alert severity="warning" sx={{ mt: 2 }}>
+                Diff for {deltaData.degradedSections.join(', ')} exceeded the time budget and was computed at
+                sentence or section granularity.
+              </Alert>
+            )}
           </Paper>
         )}
       </Box>
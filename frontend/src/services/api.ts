@@ -6,6 +6,7 @@ import type {
   IngestStatus,
   TickerInfo,
   Filing,
+  FilingPage,
   FilingStats,
   ApiError
 } from '../types/api';
@@ -68,6 +69,20 @@ export class ApiService {
     return response.data;
   }
 
+  static async getLatestFilingsPage(symbol: string, params: {
+    form?: string;
+    limit?: number;
+    cursor?: string;
+  } = {}): Promise<FilingPage> {
+    const response: AxiosResponse<Filing[]> = await apiClient.get(`/filings/${symbol}/latest`, {
+      params
+    });
+    return {
+      filings: response.data,
+      nextCursor: response.headers['x-next-cursor'],
+    };
+  }
+
   static async getRecentFilings(params: {
     forms?: string;
     days?: number;
@@ -79,6 +94,21 @@ export class ApiService {
     return response.data;
   }
 
+  static async getRecentFilingsPage(params: {
+    forms?: string;
+    days?: number;
+    limit?: number;
+    cursor?: string;
+  } = {}): Promise<FilingPage> {
+    const response: AxiosResponse<Filing[]> = await apiClient.get('/filings/recent', {
+      params
+    });
+    return {
+      filings: response.data,
+      nextCursor: response.headers['x-next-cursor'],
+    };
+  }
+
   static async getFilingStats(symbol: string): Promise<FilingStats> {
     const response: AxiosResponse<FilingStats> = await apiClient.get(`/filings/stats/${symbol}`);
     return response.data;
@@ -46,6 +46,21 @@ export interface Filing {
   createdAt: string;
 }
 
+export interface FilingStreamEvent {
+  type: 'FILING_INGESTED' | 'SECTIONS_EXTRACTED' | 'DELTAS_COMPUTED' | 'METRICS_CALCULATED' | 'NORMALIZED';
+  filingId: number;
+  /** Every filing of an issuer-level event, the most recently filed last */
+  filingIds?: number[];
+  cik: string;
+  ticker?: string;
+  occurredAt: string;
+}
+
+export interface FilingPage {
+  filings: Filing[];
+  nextCursor?: string;
+}
+
 export interface FilingStats {
   cik: string;
   ticker: string;
@@ -68,9 +83,37 @@ export interface FilingDelta {
   operation: 'INSERT' | 'DELETE' | 'MODIFY';
   snippet: string;
   score: number;
+  diffMode?: 'CHAR' | 'SENTENCE' | 'SECTION';
   createdAt: string;
 }
 
+export interface AnalysisJob {
+  jobId: string;
+  filingId: number;
+  status: 'QUEUED' | 'RUNNING' | 'COMPLETED' | 'FAILED';
+  sectionsExtracted: number;
+  deltasComputed: number;
+  error?: string;
+  submittedAt: string;
+  startedAt?: string;
+  finishedAt?: string;
+}
+
+export interface SectionDiffOp {
+  op: 'EQUAL' | 'DELETE' | 'INSERT';
+  text: string;
+}
+
+export interface SectionDiffPage {
+  filingId: number;
+  section: string;
+  diffMode?: 'CHAR' | 'SENTENCE' | 'SECTION';
+  totalOps: number;
+  offset: number;
+  hasMore: boolean;
+  ops: SectionDiffOp[];
+}
+
 export interface FilingSection {
   id: number;
   filingId: number;
@@ -88,6 +131,7 @@ export interface DeltaMapResponse {
   insertCount: number;
   deleteCount: number;
   modifyCount: number;
+  degradedSections?: string[];
   deltas: FilingDelta[];
 }
 
@@ -109,6 +153,7 @@ export interface HeatmapRow {
   metric: string;
   values: Record<string, number>; // basis -> value (e.g., "QoQ": 5.2, "YoY": 12.1)
   zScore: number;
+  percentile?: number; // percent of the metric's changes below this one, when a distribution exists
 }
 
 export interface ChangeBadge {
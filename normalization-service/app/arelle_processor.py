@@ -111,6 +111,7 @@ class ArelleProcessor:
                     'period_type': self._get_period_type(fact),
                     'start_date': self._get_period_start(fact),
                     'end_date': self._get_period_end(fact),
+                    'dimensional': self._is_dimensional(fact),
                 }
 
                 facts.append(fact_data)
@@ -168,6 +169,16 @@ class ArelleProcessor:
 
         return 'unknown'
 
+    def _is_dimensional(self, fact) -> bool:
+        """Whether the fact's context is qualified by axis members (a segment, not the consolidated entity)"""
+        try:
+            if fact.context is not None:
+                return bool(fact.context.qnameDims) or fact.context.hasSegment
+        except Exception:
+            pass
+
+        return False
+
     def _get_period_start(self, fact) -> Optional[str]:
         """Get period start date"""
         try:
@@ -197,6 +208,15 @@ class ArelleProcessor:
 
         return None
 
+    def release(self, model_xbrl: Optional[ModelXbrl]):
+        """Free a loaded instance once all of its facts have been read"""
+        if model_xbrl is None:
+            return
+        try:
+            model_xbrl.close()
+        except Exception as e:
+            logger.debug(f"Error closing XBRL instance: {str(e)}")
+
     def close(self):
         """Clean up resources"""
         if self.controller:
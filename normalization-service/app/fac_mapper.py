@@ -2,6 +2,8 @@
 FAC (Fundamental Accounting Concepts) Mapper
 Maps US-GAAP XBRL tags to standardized FAC concepts
 """
+import hashlib
+import json
 import logging
 import re
 from typing import Optional, Dict, List
@@ -15,6 +17,9 @@ class FacMapper:
     Uses pattern matching and predefined rules
     """
 
+    # Bump when fact extraction, scoring or validation changes the output for the same instance
+    LOGIC_VERSION = 2
+
     # Core FAC concepts with their pattern rules
     FAC_PATTERNS = {
         'Revenue': [
@@ -112,7 +117,14 @@ class FacMapper:
     def __init__(self):
         self._compiled_patterns = {}
         self._compile_patterns()
-        logger.info(f"FAC Mapper initialized with {len(self.FAC_PATTERNS)} concept groups")
+        self.rules_version = self._compute_rules_version()
+        logger.info(f"FAC Mapper initialized with {len(self.FAC_PATTERNS)} concept groups "
+                    f"(rules version {self.rules_version})")
+
+    def _compute_rules_version(self) -> str:
+        """Identify the mapping rules, so clients can tell when cached results are stale"""
+        rules = json.dumps({"logic": self.LOGIC_VERSION, "patterns": self.FAC_PATTERNS}, sort_keys=True)
+        return f"{self.LOGIC_VERSION}-{hashlib.sha256(rules.encode('utf-8')).hexdigest()[:12]}"
 
     def _compile_patterns(self):
         """Pre-compile regex patterns for performance"""
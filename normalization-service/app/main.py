@@ -16,6 +16,7 @@ from .models import (
     NormalizationResponse,
     ValidationRequest,
     ValidationResponse,
+    ProcessResponse,
     HealthResponse,
     NormalizedConcept,
     ValidationIssue
@@ -93,7 +94,141 @@ async def health_check():
 
     return HealthResponse(
         status="healthy" if arelle_processor is not None else "degraded",
-        arelle_version=arelle_version
+        arelle_version=arelle_version,
+        rules_version=fac_mapper.rules_version if fac_mapper else None
+    )
+
+
+def _load_instance(filing_url: str):
+    """Load an XBRL instance or fail the request with 400"""
+    model_xbrl = arelle_processor.load_instance(filing_url)
+
+    if model_xbrl is None:
+        raise HTTPException(
+            status_code=status.HTTP_400_BAD_REQUEST,
+            detail=f"Failed to load XBRL instance from {filing_url}"
+        )
+
+    return model_xbrl
+
+
+def _normalize_instance(model_xbrl, request: NormalizationRequest) -> NormalizationResponse:
+    """Map the facts of a loaded instance to FAC concepts"""
+    start_time = time.time()
+
+    # Extract facts
+    facts = arelle_processor.extract_facts(model_xbrl)
+
+    # Map to FAC concepts
+    normalized_concepts = []
+    concept_counts = {}
+
+    for fact in facts:
+        xbrl_concept = fact.get('concept')
+        namespace = fact.get('namespace')
+
+        # Map to FAC
+        fac_concept = fac_mapper.map_to_fac(xbrl_concept, namespace)
+
+        if fac_concept:
+            # Calculate quality score
+            confidence = fac_mapper.get_confidence_score(xbrl_concept, fac_concept)
+
+            # Create normalized concept
+            normalized = NormalizedConcept(
+                concept=fac_concept,
+                value=fact.get('value'),
+                period_type=fact.get('period_type', 'unknown'),
+                context_ref=fact.get('context_ref'),
+                unit=fact.get('unit'),
+                start_date=fact.get('start_date'),
+                end_date=fact.get('end_date'),
+                dimensional=fact.get('dimensional', False),
+                quality_score=confidence,
+                source='arelle-fac'
+            )
+
+            normalized_concepts.append(normalized)
+            concept_counts[fac_concept] = concept_counts.get(fac_concept, 0) + 1
+
+    processing_time = int((time.time() - start_time) * 1000)
+
+    logger.info(f"Normalized {len(normalized_concepts)} concepts from {len(facts)} facts in {processing_time}ms")
+
+    return NormalizationResponse(
+        filing_url=request.filing_url,
+        cik=request.cik,
+        concepts=normalized_concepts,
+        metadata={
+            "total_facts": len(facts),
+            "normalized_concepts": len(normalized_concepts),
+            "unique_concepts": len(concept_counts),
+            "concept_breakdown": concept_counts
+        },
+        processing_time_ms=processing_time,
+        concept_count=len(normalized_concepts)
+    )
+
+
+def _validate_instance(model_xbrl, filing_url: str) -> ValidationResponse:
+    """
+    Run the basic DQC checks against a loaded instance
+
+    Note: Full DQC validation requires additional plugins.
+    This is a placeholder implementation that performs basic validation.
+    """
+    start_time = time.time()
+
+    errors = []
+    warnings = []
+    info_issues = []
+
+    # Basic validation from Arelle's built-in checks
+    if hasattr(model_xbrl, 'errors') and model_xbrl.errors:
+        for error in model_xbrl.errors:
+            issue = ValidationIssue(
+                rule_id="ARELLE_ERROR",
+                severity="error",
+                message=str(error),
+                affected_concept=None
+            )
+            errors.append(issue)
+
+    # Check for common issues
+    if len(model_xbrl.facts) == 0:
+        warnings.append(ValidationIssue(
+            rule_id="DQC_CUSTOM_001",
+            severity="warning",
+            message="No facts found in XBRL instance",
+            affected_concept=None
+        ))
+
+    # Check balance sheet equation (Assets = Liabilities + Equity)
+    # This is a simplified version - full DQC rules are more complex
+    assets_facts = [f for f in model_xbrl.facts if 'Assets' in str(f.qname)]
+    liabilities_facts = [f for f in model_xbrl.facts if 'Liabilities' in str(f.qname)]
+
+    if assets_facts and not liabilities_facts:
+        warnings.append(ValidationIssue(
+            rule_id="DQC_CUSTOM_002",
+            severity="warning",
+            message="Assets reported but Liabilities missing",
+            affected_concept="Assets/Liabilities"
+        ))
+
+    processing_time = int((time.time() - start_time) * 1000)
+
+    logger.info(f"Validation complete: {len(errors)} errors, {len(warnings)} warnings in {processing_time}ms")
+
+    return ValidationResponse(
+        filing_url=filing_url,
+        errors=errors,
+        warnings=warnings,
+        info=info_issues,
+        error_count=len(errors),
+        warning_count=len(warnings),
+        info_count=len(info_issues),
+        processing_time_ms=processing_time
     )
 
 
@@ -114,71 +249,12 @@ async def normalize_filing(request: NormalizationRequest):
             detail="Normalization service is not available (Arelle not initialized)"
         )
 
-    start_time = time.time()
-
+    model_xbrl = None
     try:
         logger.info(f"Normalizing filing: {request.filing_url} (CIK: {request.cik})")
 
-        # Load XBRL instance
-        model_xbrl = arelle_processor.load_instance(request.filing_url)
-
-        if model_xbrl is None:
-            raise HTTPException(
-                status_code=status.HTTP_400_BAD_REQUEST,
-                detail=f"Failed to load XBRL instance from {request.filing_url}"
-            )
-
-        # Extract facts
-        facts = arelle_processor.extract_facts(model_xbrl)
-
-        # Map to FAC concepts
-        normalized_concepts = []
-        concept_counts = {}
-
-        for fact in facts:
-            xbrl_concept = fact.get('concept')
-            namespace = fact.get('namespace')
-
-            # Map to FAC
-            fac_concept = fac_mapper.map_to_fac(xbrl_concept, namespace)
-
-            if fac_concept:
-                # Calculate quality score
-                confidence = fac_mapper.get_confidence_score(xbrl_concept, fac_concept)
-
-                # Create normalized concept
-                normalized = NormalizedConcept(
-                    concept=fac_concept,
-                    value=fact.get('value'),
-                    period_type=fact.get('period_type', 'unknown'),
-                    context_ref=fact.get('context_ref'),
-                    unit=fact.get('unit'),
-                    start_date=fact.get('start_date'),
-                    end_date=fact.get('end_date'),
-                    quality_score=confidence,
-                    source='arelle-fac'
-                )
-
-                normalized_concepts.append(normalized)
-                concept_counts[fac_concept] = concept_counts.get(fac_concept, 0) + 1
-
-        processing_time = int((time.time() - start_time) * 1000)
-
-        logger.info(f"Normalized {len(normalized_concepts)} concepts from {len(facts)} facts in {processing_time}ms")
-
-        return NormalizationResponse(
-            filing_url=request.filing_url,
-            cik=request.cik,
-            concepts=normalized_concepts,
-            metadata={
-                "total_facts": len(facts),
-                "normalized_concepts": len(normalized_concepts),
-                "unique_concepts": len(concept_counts),
-                "concept_breakdown": concept_counts
-            },
-            processing_time_ms=processing_time,
-            concept_count=len(normalized_concepts)
-        )
+        model_xbrl = _load_instance(request.filing_url)
+        return _normalize_instance(model_xbrl, request)
 
     except HTTPException:
         raise
@@ -188,6 +264,8 @@ async def normalize_filing(request: NormalizationRequest):
             status_code=status.HTTP_500_INTERNAL_SERVER_ERROR,
             detail=f"Internal error during normalization: {str(e)}"
         )
+    finally:
+        arelle_processor.release(model_xbrl)
 
 
 @app.post("/validate", response_model=ValidationResponse)
@@ -195,9 +273,6 @@ async def validate_filing(request: ValidationRequest):
     """
     Validate an XBRL filing using DQC rules
 
-    Note: Full DQC validation requires additional plugins.
-    This is a placeholder implementation that performs basic validation.
-
     Args:
         request: Validation request with filing URL
 
@@ -210,80 +285,71 @@ async def validate_filing(request: ValidationRequest):
             detail="Validation service is not available (Arelle not initialized)"
         )
 
-    start_time = time.time()
-
+    model_xbrl = None
     try:
         logger.info(f"Validating filing: {request.filing_url}")
 
-        # Load XBRL instance
-        model_xbrl = arelle_processor.load_instance(request.filing_url)
+        model_xbrl = _load_instance(request.filing_url)
+        return _validate_instance(model_xbrl, request.filing_url)
 
-        if model_xbrl is None:
-            raise HTTPException(
-                status_code=status.HTTP_400_BAD_REQUEST,
-                detail=f"Failed to load XBRL instance from {request.filing_url}"
-            )
+    except HTTPException:
+        raise
+    except Exception as e:
+        logger.error(f"Error validating filing: {str(e)}", exc_info=True)
+        raise HTTPException(
+            status_code=status.HTTP_500_INTERNAL_SERVER_ERROR,
+            detail=f"Internal error during validation: {str(e)}"
+        )
+    finally:
+        arelle_processor.release(model_xbrl)
 
-        errors = []
-        warnings = []
-        info_issues = []
-
-        # Basic validation from Arelle's built-in checks
-        if hasattr(model_xbrl, 'errors') and model_xbrl.errors:
-            for error in model_xbrl.errors:
-                issue = ValidationIssue(
-                    rule_id="ARELLE_ERROR",
-                    severity="error",
-                    message=str(error),
-                    affected_concept=None
-                )
-                errors.append(issue)
-
-        # Check for common issues
-        if len(model_xbrl.facts) == 0:
-            warnings.append(ValidationIssue(
-                rule_id="DQC_CUSTOM_001",
-                severity="warning",
-                message="No facts found in XBRL instance",
-                affected_concept=None
-            ))
 
-        # Check balance sheet equation (Assets = Liabilities + Equity)
-        # This is a simplified version - full DQC rules are more complex
-        assets_facts = [f for f in model_xbrl.facts if 'Assets' in str(f.qname)]
-        liabilities_facts = [f for f in model_xbrl.facts if 'Liabilities' in str(f.qname)]
+@app.post("/process", response_model=ProcessResponse)
+async def process_filing(request: NormalizationRequest):
+    """
+    Normalize and validate an XBRL filing from a single load of the instance
+
+    Args:
+        request: Normalization request with filing URL and CIK
+
+    Returns:
+        Normalized concepts and validation results
+    """
+    if not arelle_processor or not fac_mapper:
+        raise HTTPException(
+            status_code=status.HTTP_503_SERVICE_UNAVAILABLE,
+            detail="Normalization service is not available (Arelle not initialized)"
+        )
 
-        if assets_facts and not liabilities_facts:
-            warnings.append(ValidationIssue(
-                rule_id="DQC_CUSTOM_002",
-                severity="warning",
-                message="Assets reported but Liabilities missing",
-                affected_concept="Assets/Liabilities"
-            ))
+    start_time = time.time()
 
-        processing_time = int((time.time() - start_time) * 1000)
+    model_xbrl = None
+    try:
+        logger.info(f"Processing filing: {request.filing_url} (CIK: {request.cik})")
 
-        logger.info(f"Validation complete: {len(errors)} errors, {len(warnings)} warnings in {processing_time}ms")
+        model_xbrl = _load_instance(request.filing_url)
+        normalization = _normalize_instance(model_xbrl, request)
+        validation = _validate_instance(model_xbrl, request.filing_url)
 
-        return ValidationResponse(
+        return ProcessResponse(
             filing_url=request.filing_url,
-            errors=errors,
-            warnings=warnings,
-            info=info_issues,
-            error_count=len(errors),
-            warning_count=len(warnings),
-            info_count=len(info_issues),
-            processing_time_ms=processing_time
+            cik=request.cik,
+            normalization=normalization,
+            validation=validation,
+            rules_version=fac_mapper.rules_version,
+            processing_time_ms=int((time.time() - start_time) * 1000)
         )
 
     except HTTPException:
         raise
     except Exception as e:
-        logger.error(f"Error validating filing: {str(e)}", exc_info=True)
+        logger.error(f"Error processing filing: {str(e)}", exc_info=True)
         raise HTTPException(
             status_code=status.HTTP_500_INTERNAL_SERVER_ERROR,
-            detail=f"Internal error during validation: {str(e)}"
+            detail=f"Internal error during processing: {str(e)}"
         )
+    finally:
+        arelle_processor.release(model_xbrl)
 
 
 @app.get("/concepts", response_model=dict)
@@ -22,6 +22,7 @@ class NormalizedConcept(BaseModel):
     unit: Optional[str] = Field(None, description="Unit of measurement (USD, shares, etc.)")
     start_date: Optional[str] = Field(None, description="Period start date (ISO format)")
     end_date: Optional[str] = Field(None, description="Period end date (ISO format)")
+    dimensional: bool = Field(False, description="Context is qualified by dimensions (segment or axis member)")
     quality_score: float = Field(1.0, ge=0.0, le=1.0, description="Quality score from 0.0 to 1.0")
     source: str = Field("arelle-xule", description="Source of normalization")
 
@@ -62,8 +63,19 @@ class ValidationResponse(BaseModel):
     processing_time_ms: Optional[int] = None
 
 
+class ProcessResponse(BaseModel):
+    """Response model for a combined normalization and DQC validation run"""
+    filing_url: str
+    cik: str
+    normalization: NormalizationResponse
+    validation: ValidationResponse
+    rules_version: Optional[str] = None
+    processing_time_ms: Optional[int] = None
+
+
 class HealthResponse(BaseModel):
     """Health check response"""
     status: str = "healthy"
     arelle_version: Optional[str] = None
+    rules_version: Optional[str] = None
     timestamp: datetime = Field(default_factory=datetime.utcnow)